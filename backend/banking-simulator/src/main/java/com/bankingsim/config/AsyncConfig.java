@@ -1,5 +1,6 @@
 package com.bankingsim.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableAsync;
@@ -21,4 +22,38 @@ public class AsyncConfig {
         ex.initialize();
         return ex;
     }
+
+    /**
+     * Report jobs are heavy (full table scans + PDF rendering), so keep the pool small and the
+     * queue bounded; when it is full new jobs are rejected instead of piling up.
+     */
+    @Bean(name = "reportExecutor")
+    public Executor reportExecutor(
+            @Value("${app.reports.jobs.threads:2}") int threads,
+            @Value("${app.reports.jobs.queue:20}") int queue) {
+        ThreadPoolTaskExecutor ex = new ThreadPoolTaskExecutor();
+        ex.setCorePoolSize(threads);
+        ex.setMaxPoolSize(threads);
+        ex.setQueueCapacity(queue);
+        ex.setThreadNamePrefix("report-job-");
+        ex.initialize();
+        return ex;
+    }
+
+    /**
+     * Writes queued Server-Sent Events to their connections (EventStreamService). A blocked
+     * write only holds one thread; the subscriber's own queue fills up and it gets evicted.
+     */
+    @Bean(name = "sseExecutor")
+    public Executor sseExecutor(
+            @Value("${app.events.threads:4}") int threads,
+            @Value("${app.events.queue:1000}") int queue) {
+        ThreadPoolTaskExecutor ex = new ThreadPoolTaskExecutor();
+        ex.setCorePoolSize(threads);
+        ex.setMaxPoolSize(threads);
+        ex.setQueueCapacity(queue);
+        ex.setThreadNamePrefix("sse-");
+        ex.initialize();
+        return ex;
+    }
 }
@@ -18,7 +18,7 @@ public class CorsConfig {
                         .allowedOrigins("http://localhost:3000")
                         .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
                         .allowedHeaders("*")
-                        .exposedHeaders("Content-Disposition", "X-Error-Message")
+                        .exposedHeaders("Content-Disposition", "X-Error-Message", "X-Next-Cursor")
                         .allowCredentials(true);
             }
         };
@@ -1,407 +1,397 @@
 package com.bankingsim.config;
 
+import com.bankingsim.service.AuditPartitionManager;
 import com.bankingsim.util.BCryptUtil;
 import jakarta.annotation.PostConstruct;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
 
-import java.util.LinkedHashMap;
-import java.util.Map;
-
+import java.util.List;
+
+import static com.bankingsim.config.Migration.column;
+import static com.bankingsim.config.Migration.foreignKey;
+import static com.bankingsim.config.Migration.index;
+import static com.bankingsim.config.Migration.sql;
+import static com.bankingsim.config.Migration.task;
+
+/**
+ * Database schema, as an ordered list of versioned migrations applied by SchemaMigrator.
+ *
+ * Never edit a migration that has shipped (its checksum is recorded in schema_migrations);
+ * append a new version instead. V1 - V6 reproduce what the old per-boot initializer did, so
+ * existing databases are adopted as-is.
+ */
 @Component
 public class DatabaseInitializer {
 
     private final JdbcTemplate jdbcTemplate;
+    private final AuditPartitionManager auditPartitionManager;
+    private final SchemaMigrator migrator;
 
-    public DatabaseInitializer(JdbcTemplate jdbcTemplate) {
+    public DatabaseInitializer(JdbcTemplate jdbcTemplate, AuditPartitionManager auditPartitionManager,
+                               SchemaMigrator migrator) {
         this.jdbcTemplate = jdbcTemplate;
+        this.auditPartitionManager = auditPartitionManager;
+        this.migrator = migrator;
     }
 
     @PostConstruct
     public void init() {
-        System.out.println("\n🔍 Checking and initializing database tables...");
-
-        ensureAccountsTable();
-        ensureUsersTable();
-        ensureTransactionsTable();
-        ensureOtpVerificationTable();
-        ensureAuditLogTable();
-        ensureDefaultAdminUser();
-
-        recalculateAgesFromDob();
-
-        ensureDeletionRequestsTable();
-        ensureLoanRequestsTable();
-
-        System.out.println("✅ Database structure verified and up-to-date.\n");
-    }
-
-    // -------------------------------------------------------------------------
-    // ACCOUNTS TABLE
-    // -------------------------------------------------------------------------
-    private void ensureAccountsTable() {
-        String sql = """
-        CREATE TABLE IF NOT EXISTS `accounts` (
-            account_number     VARCHAR(20) PRIMARY KEY,
-            holder_name        VARCHAR(100) NOT NULL,
-            email              VARCHAR(100),
-            phone_number       VARCHAR(15),
-            gender             VARCHAR(20) DEFAULT 'OTHER',
-            address            VARCHAR(255),
-            balance            DECIMAL(15,2) DEFAULT 0.00,
-            account_type       VARCHAR(50) DEFAULT 'SAVINGS',
-            pin                VARCHAR(100) NOT NULL,
-            transaction_pin    VARCHAR(100),
-            status             VARCHAR(16) DEFAULT 'ACTIVE',
-            created_at         DATETIME DEFAULT CURRENT_TIMESTAMP,
-            last_activity      DATETIME NULL,
-            failed_attempts    INT DEFAULT 0,
-            is_locked          BOOLEAN DEFAULT FALSE,
-            lock_time          DATETIME NULL,
-
-            tx_failed_attempts INT DEFAULT 0,
-            tx_locked          BOOLEAN DEFAULT FALSE,
-
-            dob                DATE NULL,
-            age                INT NULL
-        )
-        """;
-
-        try {
-            jdbcTemplate.execute(sql);
-            System.out.println("✅ Ensured table: accounts");
-        } catch (Exception e) {
-            System.err.println("⚠️ Error creating accounts: " + e.getMessage());
-        }
-
-        // STANDARD COLUMNS
-        addColumnIfMissing("accounts", "deletion_req", "TINYINT(1) DEFAULT 0");
-        addColumnIfMissing("accounts", "is_deleted", "TINYINT(1) DEFAULT 0");
-        addColumnIfMissing("accounts", "taken_loan", "TINYINT(1) DEFAULT 0");
-        addColumnIfMissing("accounts", "loan_amount", "DECIMAL(15,2) DEFAULT 0.00");
-        addColumnIfMissing("accounts", "loan_interest_rate", "DECIMAL(6,3) DEFAULT 0.000");
-        addColumnIfMissing("accounts", "loan_total_due", "DECIMAL(15,2) DEFAULT 0.00");
-        addColumnIfMissing("accounts", "auto_repayment_enabled", "TINYINT(1) DEFAULT 0");
-        // ⭐ Branch + IFSC (required by account creation form)
-        addColumnIfMissing("accounts", "branch_name", "VARCHAR(100)");
-        addColumnIfMissing("accounts", "ifsc_code", "VARCHAR(20)");
-        // ⭐ REQUIRED FOR ACCOUNT CREATION — ADDED NOW
-        addColumnIfMissing("accounts", "govt_id_type", "VARCHAR(50)");
-        addColumnIfMissing("accounts", "govt_id_number", "VARCHAR(50)");
-        addColumnIfMissing("accounts", "govt_id_proof", "LONGBLOB");
-        addColumnIfMissing("accounts", "loan_taken_date", "DATETIME NULL");
-        addColumnIfMissing("accounts", "loan_last_paid", "DATETIME NULL");
-        addColumnIfMissing("accounts", "emi_plan", "VARCHAR(32)");
-        addColumnIfMissing("accounts", "loan_type", "VARCHAR(64)");
-        addColumnIfMissing("accounts", "loan_due_cycle", "VARCHAR(32)");
-
-    }
-
-    // -------------------------------------------------------------------------
-    // USERS TABLE
-    // -------------------------------------------------------------------------
-    private void ensureUsersTable() {
-        String table = "users";
-
-        Map<String, String> cols = new LinkedHashMap<>();
-        cols.put("user_id", "INT AUTO_INCREMENT PRIMARY KEY");
-        cols.put("username", "VARCHAR(50) NOT NULL");
-        cols.put("password", "VARCHAR(100) NOT NULL");
-        cols.put("email", "VARCHAR(100)");
-        cols.put("phone", "VARCHAR(15)");
-        cols.put("role", "VARCHAR(20) NOT NULL DEFAULT 'CUSTOMER'");
-        cols.put("account_number", "VARCHAR(20)");
-        cols.put("login_time", "DATETIME NULL");
-        cols.put("logout_time", "DATETIME NULL");
-        cols.put("status", "VARCHAR(16) DEFAULT 'INACTIVE'");
-        cols.put("created_at", "DATETIME DEFAULT CURRENT_TIMESTAMP");
-        cols.put("failed_attempts", "INT DEFAULT 0");
-        cols.put("is_locked", "BOOLEAN DEFAULT FALSE");
-
-        createOrUpdateTable(table, cols);
-
-        try {
-            jdbcTemplate.execute("""
-                ALTER TABLE users
-                ADD CONSTRAINT fk_users_accounts
-                FOREIGN KEY (account_number)
-                REFERENCES accounts(account_number)
-                ON DELETE SET NULL
-                ON UPDATE CASCADE
-            """);
-        } catch (Exception ignored) {}
-
-        addColumnIfMissing("users", "deletion_req", "TINYINT(1) DEFAULT 0");
-        addColumnIfMissing("users", "is_deleted", "TINYINT(1) DEFAULT 0");
+        long start = System.nanoTime();
+        List<Migration> migrations = migrations();
+        int applied = migrator.migrate(migrations);
+        long ms = (System.nanoTime() - start) / 1_000_000;
+
+        System.out.println("✅ Database schema at V" + migrations.get(migrations.size() - 1).version()
+                + (applied == 0 ? " (up to date)" : " (" + applied + " migration(s) applied)")
+                + " in " + ms + " ms");
     }
 
     // -------------------------------------------------------------------------
-    // TRANSACTIONS
+    // MIGRATIONS
     // -------------------------------------------------------------------------
-    private void ensureTransactionsTable() {
-        try {
-            jdbcTemplate.execute("""
-            CREATE TABLE IF NOT EXISTS `transactions` (
-                tx_id         VARCHAR(36) PRIMARY KEY,
-                tx_type       VARCHAR(20),
-                from_account  VARCHAR(20),
-                to_account    VARCHAR(20),
-                amount        DECIMAL(15,2) NOT NULL,
-                category      VARCHAR(50) DEFAULT 'General',
-                status        VARCHAR(20) DEFAULT 'SUCCESS',
-                rolled_back_by VARCHAR(50),
-                created_at    DATETIME DEFAULT CURRENT_TIMESTAMP,
-
-                CONSTRAINT fk_from_acc FOREIGN KEY (from_account)
-                    REFERENCES accounts(account_number)
-                    ON DELETE SET NULL ON UPDATE CASCADE,
-
-                CONSTRAINT fk_to_acc FOREIGN KEY (to_account)
-                    REFERENCES accounts(account_number)
-                    ON DELETE SET NULL ON UPDATE CASCADE
-            )
-            """);
-            System.out.println("✅ Ensured table: transactions");
-        } catch (Exception e) {
-            System.err.println("⚠️ Error transactions table: " + e.getMessage());
-        }
-    }
-
-    // -------------------------------------------------------------------------
-    // OTP TABLE
-    // -------------------------------------------------------------------------
-    private void ensureOtpVerificationTable() {
-        try {
-            jdbcTemplate.execute("""
-                CREATE TABLE IF NOT EXISTS `otp_verification` (
-                    id BIGINT AUTO_INCREMENT PRIMARY KEY,
-                    user_identifier VARCHAR(100) NOT NULL,
-                    otp_code VARCHAR(10) NOT NULL,
-                    created_at DATETIME DEFAULT CURRENT_TIMESTAMP,
-                    expires_at DATETIME NOT NULL,
-                    verified BOOLEAN DEFAULT FALSE
-                )
-            """);
-            System.out.println("✅ Ensured table: otp_verification");
-        } catch (Exception e) {
-            System.err.println("⚠️ Error otp_verification: " + e.getMessage());
-        }
-    }
-
-    // -------------------------------------------------------------------------
-    // AUDIT LOG
-    // -------------------------------------------------------------------------
-    private void ensureAuditLogTable() {
-        try {
-            jdbcTemplate.execute("""
-                CREATE TABLE IF NOT EXISTS `audit_log` (
-                    id BIGINT AUTO_INCREMENT PRIMARY KEY,
-                    event_type VARCHAR(50),
-                    description TEXT,
-                    actor VARCHAR(50),
-                    timestamp DATETIME DEFAULT CURRENT_TIMESTAMP
-                )
-            """);
-            System.out.println("✅ Ensured table: audit_log");
-        } catch (Exception e) {
-            System.err.println("⚠️ Error audit_log: " + e.getMessage());
-        }
-    }
-
-    // -------------------------------------------------------------------------
-    // DELETION REQUESTS TABLE
-    // -------------------------------------------------------------------------
-    private void ensureDeletionRequestsTable() {
-        try {
-            jdbcTemplate.execute("""
-                CREATE TABLE IF NOT EXISTS deletion_requests (
-                    id BIGINT AUTO_INCREMENT PRIMARY KEY,
-                    account_number VARCHAR(32) NOT NULL,
-                    requester_name VARCHAR(255),
-                    requester_email VARCHAR(255),
-                    requester_phone VARCHAR(32),
-                    ifsc_code VARCHAR(20),
-                    reason TEXT,
-                    requested_at DATETIME DEFAULT CURRENT_TIMESTAMP,
-                    status VARCHAR(32) DEFAULT 'PENDING',
-                    admin_comment TEXT,
-                    processed_at DATETIME NULL,
-                    processed_by VARCHAR(100)
-                )
-            """);
-            System.out.println("✅ Ensured table: deletion_requests");
-        } catch (Exception e) {
-            System.err.println("⚠️ Error creating deletion_requests: " + e.getMessage());
-        }
-
-        try {
-            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_deletion_account ON deletion_requests(account_number)");
-        } catch (Exception ignored) {}
-    }
-
-    // -------------------------------------------------------------------------
-    // LOAN REQUESTS TABLE
-    // -------------------------------------------------------------------------
-    private void ensureLoanRequestsTable() {
-        try {
-            jdbcTemplate.execute("""
-                CREATE TABLE IF NOT EXISTS loan_requests (
-                    id BIGINT AUTO_INCREMENT PRIMARY KEY,
-                    
+    List<Migration> migrations() {
+        return List.of(
+                Migration.of(1, "baseline tables",
+                        sql("""
+                            CREATE TABLE IF NOT EXISTS `accounts` (
+                                account_number     VARCHAR(20) PRIMARY KEY,
+                                holder_name        VARCHAR(100) NOT NULL,
+                                email              VARCHAR(100),
+                                phone_number       VARCHAR(15),
+                                gender             VARCHAR(20) DEFAULT 'OTHER',
+                                address            VARCHAR(255),
+                                balance            DECIMAL(15,2) DEFAULT 0.00,
+                                account_type       VARCHAR(50) DEFAULT 'SAVINGS',
+                                pin                VARCHAR(100) NOT NULL,
+                                transaction_pin    VARCHAR(100),
+                                status             VARCHAR(16) DEFAULT 'ACTIVE',
+                                created_at         DATETIME DEFAULT CURRENT_TIMESTAMP,
+                                last_activity      DATETIME NULL,
+                                failed_attempts    INT DEFAULT 0,
+                                is_locked          BOOLEAN DEFAULT FALSE,
+                                lock_time          DATETIME NULL,
+
+                                tx_failed_attempts INT DEFAULT 0,
+                                tx_locked          BOOLEAN DEFAULT FALSE,
+
+                                dob                DATE NULL,
+                                age                INT NULL
+                            )
+                        """),
+                        column("accounts", "deletion_req", "TINYINT(1) DEFAULT 0"),
+                        column("accounts", "is_deleted", "TINYINT(1) DEFAULT 0"),
+                        column("accounts", "taken_loan", "TINYINT(1) DEFAULT 0"),
+                        column("accounts", "loan_amount", "DECIMAL(15,2) DEFAULT 0.00"),
+                        column("accounts", "loan_interest_rate", "DECIMAL(6,3) DEFAULT 0.000"),
+                        column("accounts", "loan_total_due", "DECIMAL(15,2) DEFAULT 0.00"),
+                        column("accounts", "auto_repayment_enabled", "TINYINT(1) DEFAULT 0"),
+                        column("accounts", "branch_name", "VARCHAR(100)"),
+                        column("accounts", "ifsc_code", "VARCHAR(20)"),
+                        column("accounts", "govt_id_type", "VARCHAR(50)"),
+                        column("accounts", "govt_id_number", "VARCHAR(50)"),
+                        column("accounts", "govt_id_proof", "LONGBLOB"),
+                        column("accounts", "loan_taken_date", "DATETIME NULL"),
+                        column("accounts", "loan_last_paid", "DATETIME NULL"),
+                        column("accounts", "emi_plan", "VARCHAR(32)"),
+                        column("accounts", "loan_type", "VARCHAR(64)"),
+                        column("accounts", "loan_due_cycle", "VARCHAR(32)"),
+
+                        sql("""
+                            CREATE TABLE IF NOT EXISTS `users` (
+                                user_id         INT AUTO_INCREMENT PRIMARY KEY,
+                                username        VARCHAR(50) NOT NULL,
+                                password        VARCHAR(100) NOT NULL,
+                                email           VARCHAR(100),
+                                phone           VARCHAR(15),
+                                role            VARCHAR(20) NOT NULL DEFAULT 'CUSTOMER',
+                                account_number  VARCHAR(20),
+                                login_time      DATETIME NULL,
+                                logout_time     DATETIME NULL,
+                                status          VARCHAR(16) DEFAULT 'INACTIVE',
+                                created_at      DATETIME DEFAULT CURRENT_TIMESTAMP,
+                                failed_attempts INT DEFAULT 0,
+                                is_locked       BOOLEAN DEFAULT FALSE
+                            )
+                        """),
+                        foreignKey("users", "fk_users_accounts", """
+                            FOREIGN KEY (account_number) REFERENCES accounts(account_number)
+                            ON DELETE SET NULL ON UPDATE CASCADE
+                        """),
+                        column("users", "deletion_req", "TINYINT(1) DEFAULT 0"),
+                        column("users", "is_deleted", "TINYINT(1) DEFAULT 0"),
+
+                        sql("""
+                            CREATE TABLE IF NOT EXISTS `transactions` (
+                                tx_id          VARCHAR(36) PRIMARY KEY,
+                                tx_type        VARCHAR(20),
+                                from_account   VARCHAR(20),
+                                to_account     VARCHAR(20),
+                                amount         DECIMAL(15,2) NOT NULL,
+                                category       VARCHAR(50) DEFAULT 'General',
+                                status         VARCHAR(20) DEFAULT 'SUCCESS',
+                                rolled_back_by VARCHAR(50),
+                                created_at     DATETIME DEFAULT CURRENT_TIMESTAMP,
+
+                                CONSTRAINT fk_from_acc FOREIGN KEY (from_account)
+                                    REFERENCES accounts(account_number)
+                                    ON DELETE SET NULL ON UPDATE CASCADE,
+
+                                CONSTRAINT fk_to_acc FOREIGN KEY (to_account)
+                                    REFERENCES accounts(account_number)
+                                    ON DELETE SET NULL ON UPDATE CASCADE
+                            )
+                        """),
+
+                        sql("""
+                            CREATE TABLE IF NOT EXISTS `otp_verification` (
+                                id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                                user_identifier VARCHAR(100) NOT NULL,
+                                otp_code VARCHAR(10) NOT NULL,
+                                created_at DATETIME DEFAULT CURRENT_TIMESTAMP,
+                                expires_at DATETIME NOT NULL,
+                                verified BOOLEAN DEFAULT FALSE
+                            )
+                        """),
+
+                        sql("""
+                            CREATE TABLE IF NOT EXISTS `audit_log` (
+                                id BIGINT AUTO_INCREMENT,
+                                event_type VARCHAR(50),
+                                account_number VARCHAR(20),
+                                amount DECIMAL(15,2),
+                                correlation_id VARCHAR(64),
+                                description TEXT,
+                                actor VARCHAR(50),
+                                timestamp DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                                PRIMARY KEY (id, timestamp)
+                            )
+                        """),
+                        // structured columns (older rows keep them NULL; the description text is unchanged)
+                        column("audit_log", "account_number", "VARCHAR(20) NULL AFTER event_type"),
+                        column("audit_log", "amount", "DECIMAL(15,2) NULL AFTER account_number"),
+                        column("audit_log", "correlation_id", "VARCHAR(64) NULL AFTER amount"),
+
+                        sql("""
+                            CREATE TABLE IF NOT EXISTS deletion_requests (
+                                id BIGINT AUTO_INCREMENT PRIMARY KEY,
                                 account_number VARCHAR(32) NOT NULL,
-                    
-                                loan_type VARCHAR(64) NOT NULL,
-                    
-                                -- Loan Amount
-                                requested_amount DECIMAL(15,2) NOT NULL,
-                    
-                                -- Interest Rate for the loan
+                                requester_name VARCHAR(255),
+                                requester_email VARCHAR(255),
+                                requester_phone VARCHAR(32),
+                                ifsc_code VARCHAR(20),
+                                reason TEXT,
+                                requested_at DATETIME DEFAULT CURRENT_TIMESTAMP,
+                                status VARCHAR(32) DEFAULT 'PENDING',
+                                admin_comment TEXT,
+                                processed_at DATETIME NULL,
+                                processed_by VARCHAR(100)
+                            )
+                        """),
+                        index("deletion_requests", "idx_deletion_account", "account_number"),
+
+                        // nullable columns: LoanDao.saveLoanRequest allows partial requests
+                        sql("""
+                            CREATE TABLE IF NOT EXISTS loan_requests (
+                                id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                                account_number VARCHAR(32),
+                                loan_type VARCHAR(64),
+                                requested_amount DECIMAL(15,2),
                                 interest_rate DECIMAL(6,3),
-                    
-                                -- EMI Plan: MONTHLY, QUARTERLY, YEARLY
                                 emi_plan VARCHAR(32),
-                    
-                                -- Govt ID details
-                                govt_id_number VARCHAR(128) NOT NULL,
-                                govt_id_proof LONGBLOB NOT NULL,
-                    
-                                -- Whether user accepted T&C
-                                terms_accepted BOOLEAN DEFAULT FALSE,
-                    
-                                -- Timestamps
+                                govt_id_number VARCHAR(128),
+                                govt_id_proof LONGBLOB,
+                                terms_accepted TINYINT(1) DEFAULT 0,
                                 requested_at DATETIME DEFAULT CURRENT_TIMESTAMP,
                                 processed_at DATETIME NULL,
-                    
-                                -- Status management
                                 status VARCHAR(32) DEFAULT 'PENDING',
                                 admin_comment TEXT,
                                 processed_by VARCHAR(100)
-                )
-            """);
-            System.out.println("✅ Ensured table: loan_requests");
-        } catch (Exception e) {
-            System.err.println("⚠️ Error creating loan_requests: " + e.getMessage());
-        }
-
-        try {
-            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_loan_account ON loan_requests(account_number)");
-        } catch (Exception ignored) {}
+                            )
+                        """),
+                        index("loan_requests", "idx_loan_account", "account_number")),
+
+                Migration.of(2, "audit_log monthly partitions and search indexes",
+                        task("audit_log partitionIfNeeded", auditPartitionManager::partitionIfNeeded),
+                        // InnoDB appends the PK (id) to each secondary index, so these also serve the
+                        // (timestamp, id) keyset order used by AuditDao.search()
+                        index("audit_log", "idx_audit_actor_ts", "actor, `timestamp`"),
+                        index("audit_log", "idx_audit_event_ts", "event_type, `timestamp`"),
+                        index("audit_log", "idx_audit_acc_ts", "account_number, `timestamp`"),
+                        index("audit_log", "idx_audit_corr", "correlation_id")),
+
+                // branch of each side at the time of the transaction, so branch reports don't need
+                // an OR join against accounts; older rows are filled in by TransactionBranchBackfill
+                Migration.of(3, "transaction branch columns",
+                        column("transactions", "from_branch", "VARCHAR(100) NULL"),
+                        column("transactions", "to_branch", "VARCHAR(100) NULL"),
+                        index("transactions", "idx_tx_from_branch_ts", "from_branch, created_at"),
+                        index("transactions", "idx_tx_to_branch_ts", "to_branch, created_at"),
+                        sql("""
+                            CREATE TABLE IF NOT EXISTS `schema_backfills` (
+                                name         VARCHAR(64) PRIMARY KEY,
+                                completed_at DATETIME NOT NULL
+                            )
+                        """)),
+
+                // per-side account history range scans (see TransactionDao READ)
+                Migration.of(4, "transaction account history indexes",
+                        index("transactions", "idx_tx_from_created", "from_account, created_at"),
+                        index("transactions", "idx_tx_to_created", "to_account, created_at")),
+
+                // filter / paging queries (newest first, optionally by category)
+                Migration.of(5, "transaction filter indexes",
+                        index("transactions", "idx_tx_created", "created_at"),
+                        index("transactions", "idx_tx_category_created", "category, created_at")),
+
+                Migration.of(6, "default admin user",
+                        task("ensureDefaultAdminUser", this::ensureDefaultAdminUser)),
+
+                // JobScheduler: leases, run history, and the ranges its chunked jobs walk
+                Migration.of(7, "maintenance job leases and history",
+                        sql("""
+                            CREATE TABLE IF NOT EXISTS `job_leases` (
+                                job_name    VARCHAR(64) PRIMARY KEY,
+                                owner       VARCHAR(128) NOT NULL,
+                                acquired_at DATETIME(3) NULL,
+                                lease_until DATETIME(3) NOT NULL
+                            )
+                        """),
+                        sql("""
+                            CREATE TABLE IF NOT EXISTS `job_runs` (
+                                id            BIGINT AUTO_INCREMENT PRIMARY KEY,
+                                job_name      VARCHAR(64) NOT NULL,
+                                owner         VARCHAR(128) NOT NULL,
+                                started_at    DATETIME(3) NOT NULL,
+                                finished_at   DATETIME(3) NULL,
+                                status        VARCHAR(16) NOT NULL,
+                                rows_affected BIGINT NULL,
+                                chunks        INT NULL,
+                                duration_ms   BIGINT NULL,
+                                error         VARCHAR(500) NULL,
+                                INDEX idx_job_runs_job_started (job_name, started_at),
+                                INDEX idx_job_runs_started (started_at)
+                            )
+                        """),
+                        index("users", "idx_users_status_login", "status, login_time"),
+                        index("accounts", "idx_acc_status_activity", "status, last_activity"),
+                        index("otp_verification", "idx_otp_expires", "expires_at")),
+
+                // AccountAttributeCache: cross-node invalidation log (id = cache version)
+                Migration.of(8, "account cache invalidation log",
+                        sql("""
+                            CREATE TABLE IF NOT EXISTS `account_cache_invalidations` (
+                                id             BIGINT AUTO_INCREMENT PRIMARY KEY,
+                                account_number VARCHAR(20) NULL,
+                                created_at     DATETIME NOT NULL
+                            )
+                        """),
+                        index("account_cache_invalidations", "idx_cache_inval_created", "created_at")),
+
+                // BranchRegistry: branches move from code to a table; accounts and ledger rows get
+                // the branch ordinal so branch queries compare SMALLINTs instead of names. Ledger
+                // ids of older rows are filled in by TransactionBranchBackfill.
+                Migration.of(9, "branch registry and branch ordinals",
+                        sql("""
+                            CREATE TABLE IF NOT EXISTS `branches` (
+                                id         SMALLINT PRIMARY KEY,
+                                name       VARCHAR(100) NOT NULL,
+                                ifsc_code  VARCHAR(20) NOT NULL,
+                                active     BOOLEAN NOT NULL DEFAULT TRUE,
+                                updated_at DATETIME(3) NOT NULL,
+                                CONSTRAINT uk_branches_name UNIQUE (name),
+                                CONSTRAINT uk_branches_ifsc UNIQUE (ifsc_code)
+                            )
+                        """),
+                        // the four branches that used to be hard-coded in AccountManager
+                        sql("""
+                            INSERT IGNORE INTO branches (id, name, ifsc_code, active, updated_at) VALUES
+                                (1, 'Mumbai',    'ASTN00MUM01', TRUE, NOW(3)),
+                                (2, 'Bangalore', 'ASTN00BLR02', TRUE, NOW(3)),
+                                (3, 'Pune',      'ASTN00PUN03', TRUE, NOW(3)),
+                                (4, 'Hyderabad', 'ASTN00HYD04', TRUE, NOW(3))
+                        """),
+                        column("accounts", "branch_id", "SMALLINT NULL"),
+                        sql("""
+                            UPDATE accounts
+                            SET branch_id = (SELECT b.id FROM branches b WHERE b.name = accounts.branch_name)
+                            WHERE branch_id IS NULL AND branch_name IS NOT NULL
+                        """),
+                        index("accounts", "idx_acc_branch_created", "branch_id, created_at"),
+                        column("transactions", "from_branch_id", "SMALLINT NULL"),
+                        column("transactions", "to_branch_id", "SMALLINT NULL"),
+                        index("transactions", "idx_tx_from_branch_id_ts", "from_branch_id, created_at"),
+                        index("transactions", "idx_tx_to_branch_id_ts", "to_branch_id, created_at")),
+
+                // DailySummaryDao: one row per account and day with activity, kept up to date from
+                // the ledger events; days before the rollup existed are filled by DailySummaryBackfill
+                Migration.of(10, "account daily summary rollup",
+                        sql("""
+                            CREATE TABLE IF NOT EXISTS `account_daily_summary` (
+                                account_number VARCHAR(20) NOT NULL,
+                                summary_date   DATE NOT NULL,
+                                credits        DECIMAL(15,2) NOT NULL DEFAULT 0,
+                                debits         DECIMAL(15,2) NOT NULL DEFAULT 0,
+                                credit_count   INT NOT NULL DEFAULT 0,
+                                debit_count    INT NOT NULL DEFAULT 0,
+                                deposits       DECIMAL(15,2) NOT NULL DEFAULT 0,
+                                spending       DECIMAL(15,2) NOT NULL DEFAULT 0,
+                                open_balance   DECIMAL(15,2) NULL,
+                                end_balance    DECIMAL(15,2) NULL,
+                                min_balance    DECIMAL(15,2) NULL,
+                                max_balance    DECIMAL(15,2) NULL,
+                                PRIMARY KEY (account_number, summary_date)
+                            )
+                        """)),
+
+                // KpiAggregator: periodic snapshot of each node's in-memory counters, read back on start
+                Migration.of(11, "kpi counter snapshots",
+                        sql("""
+                            CREATE TABLE IF NOT EXISTS `kpi_snapshots` (
+                                node       VARCHAR(128) NOT NULL,
+                                name       VARCHAR(64) NOT NULL,
+                                tx_count   BIGINT NOT NULL,
+                                sum_paise  BIGINT NOT NULL,
+                                updated_at DATETIME NOT NULL,
+                                PRIMARY KEY (node, name)
+                            )
+                        """)),
+
+                // EventStreamService: events each node relays to the other nodes' SSE subscribers
+                Migration.of(12, "stream events relay log",
+                        sql("""
+                            CREATE TABLE IF NOT EXISTS `stream_events` (
+                                id             BIGINT AUTO_INCREMENT PRIMARY KEY,
+                                node           VARCHAR(64) NOT NULL,
+                                account_number VARCHAR(20) NULL,
+                                name           VARCHAR(32) NOT NULL,
+                                payload        TEXT NULL,
+                                created_at     DATETIME(3) NOT NULL
+                            )
+                        """),
+                        index("stream_events", "idx_stream_events_created", "created_at"))
+        );
     }
 
     // -------------------------------------------------------------------------
     // DEFAULT ADMIN
     // -------------------------------------------------------------------------
+    // failures propagate so SchemaMigrator leaves V6 unrecorded and retries it on the next start
     private void ensureDefaultAdminUser() {
-        try {
-            Integer count = jdbcTemplate.queryForObject(
-                    "SELECT COUNT(*) FROM users WHERE role='ADMIN'",
-                    Integer.class);
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM users WHERE role='ADMIN'",
+                Integer.class);
 
-            if (count == null || count == 0) {
+        if (count == null || count == 0) {
 
-                String hashed = BCryptUtil.hashPassword("admin123");
-
-                jdbcTemplate.update("""
-                    INSERT INTO users (username, password, email, phone, role, status, created_at)
-                    VALUES (?, ?, ?, ?, 'ADMIN', 'ACTIVE', NOW())
-                """, "admin", hashed, "admin@bank.com", "+911234567890");
-
-                System.out.println("⭐ Default admin created (username: admin / password: admin123)");
-            }
-
-        } catch (Exception e) {
-            System.err.println("❌ Failed to create admin: " + e.getMessage());
-        }
-    }
-
-    // -------------------------------------------------------------------------
-    // AGE RECALCULATION
-    // -------------------------------------------------------------------------
-    private void recalculateAgesFromDob() {
-        try {
-            jdbcTemplate.update("""
-                UPDATE accounts
-                SET age = TIMESTAMPDIFF(YEAR, dob, CURDATE())
-                WHERE dob IS NOT NULL
-            """);
+            String hashed = BCryptUtil.hashPassword("admin123");
 
             jdbcTemplate.update("""
-                UPDATE accounts
-                SET account_type = 'STUDENT'
-                WHERE age < 18 AND age IS NOT NULL AND account_type <> 'STUDENT'
-            """);
-
-        } catch (Exception e) {
-            System.err.println("⚠️ Error recalculating ages: " + e.getMessage());
-        }
-    }
+                INSERT INTO users (username, password, email, phone, role, status, created_at)
+                VALUES (?, ?, ?, ?, 'ADMIN', 'ACTIVE', NOW())
+            """, "admin", hashed, "admin@bank.com", "+911234567890");
 
-    // -------------------------------------------------------------------------
-    // UTIL: ADD MISSING COLUMN
-    // -------------------------------------------------------------------------
-    private void addColumnIfMissing(String table, String column, String type) {
-        try {
-            Integer exists = jdbcTemplate.queryForObject("""
-                SELECT COUNT(*)
-                FROM INFORMATION_SCHEMA.COLUMNS
-                WHERE TABLE_SCHEMA = DATABASE()
-                AND TABLE_NAME = ?
-                AND COLUMN_NAME = ?
-            """, Integer.class, table, column);
-
-            if (exists != null && exists == 0) {
-                jdbcTemplate.execute(
-                        "ALTER TABLE `" + table + "` ADD COLUMN `" + column + "` " + type);
-                System.out.println("🆕 Added '" + column + "' to " + table);
-            }
-
-        } catch (Exception e) {
-            System.err.println("⚠️ Could not add column '" + column + "' to " + table + ": " + e.getMessage());
-        }
-    }
-
-    // -------------------------------------------------------------------------
-    // TABLE CREATOR + SAFE COLUMN ADD
-    // -------------------------------------------------------------------------
-    private void createOrUpdateTable(String table, Map<String, String> expectedColumns) {
-
-        try {
-            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS `" + table + "` (dummy_col INT)");
-        } catch (Exception ignored) {}
-
-        try {
-            var existingCols = jdbcTemplate.queryForList("""
-                SELECT COLUMN_NAME 
-                FROM INFORMATION_SCHEMA.COLUMNS
-                WHERE TABLE_SCHEMA = DATABASE()
-                AND TABLE_NAME = ?
-            """, table);
-
-            for (var entry : expectedColumns.entrySet()) {
-
-                boolean exists = existingCols.stream().anyMatch(
-                        c -> c.get("COLUMN_NAME").toString().equalsIgnoreCase(entry.getKey()));
-
-                if (!exists) {
-                    jdbcTemplate.execute(
-                            "ALTER TABLE `" + table + "` ADD COLUMN `" + entry.getKey() + "` " + entry.getValue());
-                    System.out.println("🆕 Added missing column '" + entry.getKey() + "' to " + table);
-                }
-            }
-
-            Integer dummyExists = jdbcTemplate.queryForObject("""
-                SELECT COUNT(*) FROM INFORMATION_SCHEMA.COLUMNS
-                WHERE TABLE_SCHEMA = DATABASE()
-                AND TABLE_NAME = ?
-                AND COLUMN_NAME = 'dummy_col'
-            """, Integer.class, table);
-
-            if (dummyExists != null && dummyExists > 0) {
-                jdbcTemplate.execute("ALTER TABLE `" + table + "` DROP COLUMN dummy_col");
-            }
-
-        } catch (Exception e) {
-            System.err.println("⚠️ Error updating table " + table + ": " + e.getMessage());
+            System.out.println("⭐ Default admin created (username: admin / password: admin123)");
         }
     }
 }
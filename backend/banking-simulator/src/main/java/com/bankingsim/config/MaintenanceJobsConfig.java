@@ -0,0 +1,82 @@
+package com.bankingsim.config;
+
+import com.bankingsim.dao.AccountAttributeCache;
+import com.bankingsim.dao.AccountDao;
+import com.bankingsim.dao.JobDao;
+import com.bankingsim.dao.OtpDao;
+import com.bankingsim.dao.UserDao;
+import com.bankingsim.service.AuditPartitionManager;
+import com.bankingsim.service.EventStreamService;
+import com.bankingsim.service.MaintenanceJob;
+import com.bankingsim.service.MaintenanceJob.Chunk;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * The maintenance jobs run by JobScheduler. Schedules and chunk sizes can be overridden with
+ * app.jobs.&lt;name&gt;.cron / .chunk; a cron of "-" disables a job.
+ */
+@Configuration
+public class MaintenanceJobsConfig {
+
+    @Bean
+    public MaintenanceJob autoLogoutJob(UserDao userDao,
+                                        @Value("${app.jobs.auto-logout.idle-minutes:60}") int idleMinutes) {
+        return MaintenanceJob.of("auto-logout", "0 */5 * * * *",
+                (cursor, limit) -> Chunk.of(userDao.autoLogoutIdleUsers(idleMinutes, limit), limit));
+    }
+
+    @Bean
+    public MaintenanceJob inactiveAccountsJob(AccountDao accountDao,
+                                              @Value("${app.jobs.inactive-accounts.months:6}") int months) {
+        return MaintenanceJob.of("inactive-accounts", "0 15 1 * * *",
+                (cursor, limit) -> Chunk.of(accountDao.markInactiveAccounts(months, limit), limit));
+    }
+
+    @Bean
+    public MaintenanceJob otpCleanupJob(OtpDao otpDao) {
+        return MaintenanceJob.of("otp-cleanup", "0 */10 * * * *",
+                (cursor, limit) -> Chunk.of(otpDao.deleteExpiredOtps(limit), limit));
+    }
+
+    // walks every account by primary key; ages only change with the date, so once a day
+    @Bean
+    public MaintenanceJob ageRefreshJob(AccountDao accountDao) {
+        return MaintenanceJob.of("age-refresh", "0 5 0 * * *", (cursor, limit) -> {
+            String last = accountDao.refreshAges(cursor, limit);
+            return last == null ? new Chunk(0, null, true) : new Chunk(limit, last, false);
+        });
+    }
+
+    @Bean
+    public MaintenanceJob cacheInvalidationsPruneJob(AccountAttributeCache accountCache,
+                                                     @Value("${app.cache.accounts.log-hours:24}") int hours) {
+        return MaintenanceJob.of("cache-invalidations-prune", "0 20 * * * *",
+                (cursor, limit) -> Chunk.of(accountCache.pruneInvalidations(hours, limit), limit));
+    }
+
+    @Bean
+    public MaintenanceJob streamEventsPruneJob(EventStreamService streams,
+                                               @Value("${app.events.cluster.retain-minutes:10}") int minutes) {
+        return MaintenanceJob.of("stream-events-prune", "0 */5 * * * *",
+                (cursor, limit) -> Chunk.of(streams.pruneClusterEvents(minutes, limit), limit));
+    }
+
+    @Bean
+    public MaintenanceJob jobRunsPruneJob(JobDao jobDao,
+                                          @Value("${app.jobs.history-days:30}") int days) {
+        return MaintenanceJob.of("job-runs-prune", "0 45 3 * * *",
+                (cursor, limit) -> Chunk.of(jobDao.pruneRuns(days, limit), limit));
+    }
+
+    // one partition per chunk: the lease (app.jobs.audit-retention.lease-seconds) must cover
+    // exporting a whole month
+    @Bean
+    public MaintenanceJob auditRetentionJob(AuditPartitionManager auditPartitions) {
+        return MaintenanceJob.of("audit-retention", "0 30 2 * * *", (cursor, limit) ->
+                auditPartitions.archiveNext(cursor == null)
+                        ? new Chunk(1, "next", false)
+                        : new Chunk(0, null, true));
+    }
+}
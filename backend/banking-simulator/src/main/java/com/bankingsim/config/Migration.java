@@ -0,0 +1,94 @@
+package com.bankingsim.config;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * One versioned schema change, applied once by SchemaMigrator and recorded in schema_migrations.
+ *
+ * Steps are declarative so the checksum (SHA-256 over the step definitions) changes whenever
+ * a migration is edited after it shipped. All steps are idempotent: a database created by the
+ * old per-boot initializer already has most of the baseline and is adopted without errors.
+ */
+public record Migration(int version, String description, List<Step> steps) {
+
+    public static Migration of(int version, String description, Step... steps) {
+        return new Migration(version, description, List.of(steps));
+    }
+
+    public String checksum() {
+        try {
+            MessageDigest sha = MessageDigest.getInstance("SHA-256");
+            for (Step s : steps) {
+                sha.update(s.definition().getBytes(StandardCharsets.UTF_8));
+                sha.update((byte) '\n');
+            }
+            return HexFormat.of().formatHex(sha.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // ======================================================
+    // STEPS
+    // ======================================================
+    public sealed interface Step permits Sql, AddColumn, AddIndex, AddForeignKey, Task {
+        /** Canonical text the checksum is computed over. */
+        String definition();
+    }
+
+    /** Plain statement; must be idempotent on its own (CREATE TABLE IF NOT EXISTS, guarded INSERT ...). */
+    public record Sql(String sql) implements Step {
+        public String definition() {
+            return "sql:" + sql.strip().replaceAll("\\s+", " ");
+        }
+    }
+
+    public record AddColumn(String table, String column, String type) implements Step {
+        public String definition() {
+            return "column:" + table + "." + column + " " + type;
+        }
+    }
+
+    public record AddIndex(String table, String index, String columns) implements Step {
+        public String definition() {
+            return "index:" + table + "." + index + " (" + columns + ")";
+        }
+    }
+
+    public record AddForeignKey(String table, String name, String ddl) implements Step {
+        public String definition() {
+            return "fk:" + table + "." + name + " " + ddl;
+        }
+    }
+
+    /** Java step for changes SQL alone can't express idempotently; {@code name} feeds the checksum. */
+    public record Task(String name, Runnable action) implements Step {
+        public String definition() {
+            return "task:" + name;
+        }
+    }
+
+    public static Sql sql(String sql) {
+        return new Sql(sql);
+    }
+
+    public static AddColumn column(String table, String column, String type) {
+        return new AddColumn(table, column, type);
+    }
+
+    public static AddIndex index(String table, String index, String columns) {
+        return new AddIndex(table, index, columns);
+    }
+
+    public static AddForeignKey foreignKey(String table, String name, String ddl) {
+        return new AddForeignKey(table, name, ddl);
+    }
+
+    public static Task task(String name, Runnable action) {
+        return new Task(name, action);
+    }
+}
@@ -0,0 +1,20 @@
+package com.bankingsim.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a DAO read that may be served by the read replica (app.datasource.replica.*).
+ *
+ * Only for reads that tolerate a few seconds of staleness (reports, listings, admin review
+ * screens); anything a money movement decides on must stay unannotated. Without a replica
+ * configured this has no effect.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface ReadOnly {
+}
@@ -0,0 +1,124 @@
+package com.bankingsim.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Read replica for reports and listings. Only active when app.datasource.replica.url is set;
+ * otherwise Spring Boot's single DataSource is used and @ReadOnly does nothing.
+ *
+ * Read-your-writes: a session that made a write request (anything but GET/HEAD/OPTIONS) keeps
+ * all its reads on the primary for app.datasource.replica.sticky-seconds afterwards.
+ */
+@Configuration
+@ConditionalOnProperty("app.datasource.replica.url")
+public class ReadReplicaConfig implements WebMvcConfigurer {
+
+    private static final String LAST_WRITE_ATTR = "db.lastWriteAt";
+
+    @Value("${app.datasource.replica.sticky-seconds:10}")
+    private int stickySeconds;
+
+    @Bean
+    @Primary
+    public ReplicaRoutingDataSource dataSource(
+            DataSourceProperties primaryProps,
+            @Value("${app.datasource.replica.url}") String replicaUrl,
+            @Value("${app.datasource.replica.username:${spring.datasource.username}}") String replicaUser,
+            @Value("${app.datasource.replica.password:${spring.datasource.password}}") String replicaPassword,
+            @Value("${app.datasource.replica.pool-size:5}") int replicaPoolSize,
+            @Value("${app.datasource.replica.max-lag-seconds:5}") int maxLagSeconds,
+            @Value("${app.datasource.replica.check-ms:5000}") long checkMs) {
+
+        HikariDataSource primary = primaryProps.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        primary.setPoolName("primary");
+
+        HikariDataSource replica = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(primaryProps.determineDriverClassName())
+                .url(replicaUrl)
+                .username(replicaUser)
+                .password(replicaPassword)
+                .build();
+        replica.setPoolName("replica");
+        replica.setReadOnly(true);
+        replica.setMaximumPoolSize(replicaPoolSize);
+        // don't block startup (or the first report) on a replica that is down
+        replica.setInitializationFailTimeout(-1);
+        replica.setConnectionTimeout(2000);
+
+        System.out.println("✅ Read replica configured: " + replicaUrl);
+        return new ReplicaRoutingDataSource(primary, replica, maxLagSeconds, checkMs);
+    }
+
+    @Bean
+    public ReadOnlyRoutingAspect readOnlyRoutingAspect() {
+        return new ReadOnlyRoutingAspect();
+    }
+
+    /** Routes the connections taken inside a @ReadOnly method (or class) to the replica. */
+    @Aspect
+    static class ReadOnlyRoutingAspect {
+
+        @Around("@annotation(com.bankingsim.config.ReadOnly) || @within(com.bankingsim.config.ReadOnly)")
+        public Object route(ProceedingJoinPoint pjp) throws Throwable {
+            Boolean previous = ReplicaRoutingDataSource.enterReadOnly();
+            try {
+                return pjp.proceed();
+            } finally {
+                ReplicaRoutingDataSource.exitReadOnly(previous);
+            }
+        }
+    }
+
+    // ======================================================
+    // READ-YOUR-WRITES
+    // ======================================================
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new AsyncHandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest req, HttpServletResponse res, Object handler) {
+                HttpSession session = req.getSession(false);
+                if (session == null) return true;
+
+                long now = System.currentTimeMillis();
+                String method = req.getMethod();
+                if (!"GET".equals(method) && !"HEAD".equals(method) && !"OPTIONS".equals(method)) {
+                    session.setAttribute(LAST_WRITE_ATTR, now);
+                    ReplicaRoutingDataSource.pinToPrimary();
+                } else if (session.getAttribute(LAST_WRITE_ATTR) instanceof Long last
+                        && now - last < stickySeconds * 1000L) {
+                    ReplicaRoutingDataSource.pinToPrimary();
+                }
+                return true;
+            }
+
+            @Override
+            public void afterCompletion(HttpServletRequest req, HttpServletResponse res, Object handler, Exception ex) {
+                ReplicaRoutingDataSource.unpin();
+            }
+
+            // streamed responses: the request thread goes back to the pool here
+            @Override
+            public void afterConcurrentHandlingStarted(HttpServletRequest req, HttpServletResponse res, Object handler) {
+                ReplicaRoutingDataSource.unpin();
+            }
+        });
+    }
+}
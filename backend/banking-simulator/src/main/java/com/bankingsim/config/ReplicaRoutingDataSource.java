@@ -0,0 +1,166 @@
+package com.bankingsim.config;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends @ReadOnly DAO calls to the replica and everything else to the primary.
+ *
+ *  - a connection goes to the replica only inside a @ReadOnly method, outside any transaction,
+ *    when the current request isn't pinned to the primary (read-your-writes, see
+ *    ReadReplicaConfig) and the replica is healthy
+ *  - the replica is healthy while its replication lag is at most max-lag-seconds; the lag is
+ *    polled every check-ms from SHOW REPLICA STATUS (a server that isn't replicating counts
+ *    as lag 0, so two independent local instances work for testing)
+ *  - if the replica can't hand out a connection the read falls back to the primary and the
+ *    replica stays out of rotation until the next successful check
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+    enum Target { PRIMARY, REPLICA }
+
+    private static final ThreadLocal<Boolean> READ_ONLY = new ThreadLocal<>();
+    private static final ThreadLocal<Boolean> PINNED = new ThreadLocal<>();
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final int maxLagSeconds;
+    private final long checkMs;
+
+    private final ScheduledExecutorService checker = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "replica-lag-check");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private volatile boolean replicaUp;
+    private volatile Long lastLagSeconds;
+    private volatile String lastProblem;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, int maxLagSeconds, long checkMs) {
+        this.primary = primary;
+        this.replica = replica;
+        this.maxLagSeconds = maxLagSeconds;
+        this.checkMs = checkMs;
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        super.afterPropertiesSet();
+        checkReplica();
+        checker.scheduleWithFixedDelay(this::checkReplica, checkMs, checkMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void close() throws IOException {
+        checker.shutdownNow();
+        if (replica instanceof Closeable c) c.close();
+        if (primary instanceof Closeable c) c.close();
+    }
+
+    // ======================================================
+    // ROUTING
+    // ======================================================
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return useReplica() ? Target.REPLICA : Target.PRIMARY;
+    }
+
+    private boolean useReplica() {
+        return replicaUp
+                && Boolean.TRUE.equals(READ_ONLY.get())
+                && !Boolean.TRUE.equals(PINNED.get())
+                && !TransactionSynchronizationManager.isActualTransactionActive();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!useReplica()) return primary.getConnection();
+        try {
+            return replica.getConnection();
+        } catch (SQLException e) {
+            markDown("connection failed: " + e.getMessage());
+            return primary.getConnection();
+        }
+    }
+
+    /** Enters a @ReadOnly scope; returns the previous state for {@link #exitReadOnly}. */
+    static Boolean enterReadOnly() {
+        Boolean previous = READ_ONLY.get();
+        READ_ONLY.set(Boolean.TRUE);
+        return previous;
+    }
+
+    static void exitReadOnly(Boolean previous) {
+        if (previous == null) READ_ONLY.remove();
+        else READ_ONLY.set(previous);
+    }
+
+    /** Keeps every read of the current thread on the primary until {@link #unpin}. */
+    static void pinToPrimary() {
+        PINNED.set(Boolean.TRUE);
+    }
+
+    static void unpin() {
+        PINNED.remove();
+    }
+
+    // ======================================================
+    // LAG CHECK
+    // ======================================================
+    void checkReplica() {
+        try {
+            Long lag = replicationLag(new JdbcTemplate(replica));
+            lastLagSeconds = lag;
+            if (lag == null) markDown("replication is not running");
+            else if (lag > maxLagSeconds) markDown("lag " + lag + "s > " + maxLagSeconds + "s");
+            else markUp();
+        } catch (Exception e) {
+            markDown("check failed: " + e.getMessage());
+        }
+    }
+
+    /** Seconds behind the primary, 0 for a server that isn't a replica, null if replication is stopped. */
+    private static Long replicationLag(JdbcTemplate jdbc) {
+        List<Map<String, Object>> rows;
+        String column;
+        try {
+            rows = jdbc.queryForList("SHOW REPLICA STATUS");
+            column = "Seconds_Behind_Source";
+        } catch (Exception e) {
+            // MySQL before 8.0.22
+            rows = jdbc.queryForList("SHOW SLAVE STATUS");
+            column = "Seconds_Behind_Master";
+        }
+        if (rows.isEmpty()) return 0L;
+        Object v = rows.get(0).get(column);
+        return v == null ? null : ((Number) v).longValue();
+    }
+
+    private void markUp() {
+        if (!replicaUp) System.out.println("✅ Read replica in rotation (lag " + lastLagSeconds + "s)");
+        replicaUp = true;
+        lastProblem = null;
+    }
+
+    private void markDown(String reason) {
+        if (replicaUp || lastProblem == null)
+            System.err.println("⚠️ Read replica out of rotation, reads go to the primary: " + reason);
+        replicaUp = false;
+        lastProblem = reason;
+    }
+}
@@ -0,0 +1,167 @@
+package com.bankingsim.config;
+
+import com.bankingsim.util.SqlDialect;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Applies versioned migrations (see Migration) and records them in schema_migrations
+ * (version, description, checksum, applied_at, execution_ms).
+ *
+ * An up-to-date database costs a single ledger query. Pending migrations are applied in
+ * version order on one connection holding GET_LOCK('schema_migrations'), so two instances
+ * starting together don't both run them. A migration that fails is not recorded; later
+ * ones are skipped and everything is retried on the next start.
+ *
+ * A recorded checksum that no longer matches means a shipped migration was edited; that is
+ * reported but never re-applied - add a new version instead.
+ *
+ * The embedded H2 profiles run the same migrations in MySQL mode; there the lock is skipped
+ * (one process owns the database) and indexes are looked up in INFORMATION_SCHEMA.INDEXES.
+ */
+@Component
+public class SchemaMigrator {
+
+    private static final String LOCK = "schema_migrations";
+    private static final int LOCK_TIMEOUT_SECONDS = 60;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SchemaMigrator(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /** Returns the number of migrations applied by this call. */
+    public int migrate(List<Migration> migrations) {
+        Map<Integer, String> applied = ledger(jdbcTemplate);
+        if (applied != null && pending(migrations, applied) == 0) return 0;
+
+        return jdbcTemplate.execute((ConnectionCallback<Integer>) con -> {
+            // every statement below must run on the connection that holds the lock
+            JdbcTemplate jdbc = new JdbcTemplate(new SingleConnectionDataSource(con, true));
+            SqlDialect dialect = SqlDialect.of(con);
+            boolean lock = dialect == SqlDialect.MYSQL;
+
+            if (lock) {
+                Integer locked = jdbc.queryForObject("SELECT GET_LOCK(?, ?)", Integer.class, LOCK, LOCK_TIMEOUT_SECONDS);
+                if (locked == null || locked != 1) {
+                    System.err.println("⚠️ Schema migrations skipped: could not get the migration lock");
+                    return 0;
+                }
+            }
+            try {
+                jdbc.execute("""
+                    CREATE TABLE IF NOT EXISTS `schema_migrations` (
+                        version      INT PRIMARY KEY,
+                        description  VARCHAR(200) NOT NULL,
+                        checksum     CHAR(64) NOT NULL,
+                        applied_at   DATETIME NOT NULL,
+                        execution_ms BIGINT NOT NULL
+                    )
+                """);
+
+                // another instance may have migrated while we waited for the lock
+                Map<Integer, String> current = ledger(jdbc);
+                int count = 0;
+                for (Migration m : migrations) {
+                    if (current.containsKey(m.version())) continue;
+                    if (!apply(jdbc, dialect, m)) break;
+                    count++;
+                }
+                return count;
+            } finally {
+                if (lock) jdbc.queryForObject("SELECT RELEASE_LOCK(?)", Integer.class, LOCK);
+            }
+        });
+    }
+
+    /** Applied version → checksum, or null if the ledger table doesn't exist yet. */
+    private static Map<Integer, String> ledger(JdbcTemplate jdbc) {
+        Map<Integer, String> out = new HashMap<>();
+        try {
+            jdbc.query("SELECT version, checksum FROM schema_migrations",
+                    rs -> { out.put(rs.getInt(1), rs.getString(2)); });
+            return out;
+        } catch (DataAccessException e) {
+            return null;
+        }
+    }
+
+    private static int pending(List<Migration> migrations, Map<Integer, String> applied) {
+        int pending = 0;
+        for (Migration m : migrations) {
+            String checksum = applied.get(m.version());
+            if (checksum == null) pending++;
+            else if (!checksum.equals(m.checksum()))
+                System.err.println("⚠️ Migration V" + m.version() + " (" + m.description()
+                        + ") was changed after it was applied; add a new version instead");
+        }
+        return pending;
+    }
+
+    private static boolean apply(JdbcTemplate jdbc, SqlDialect dialect, Migration m) {
+        long start = System.nanoTime();
+        try {
+            for (Migration.Step step : m.steps()) run(jdbc, dialect, step);
+        } catch (Exception e) {
+            System.err.println("❌ Migration V" + m.version() + " (" + m.description() + ") failed: " + e.getMessage());
+            return false;
+        }
+        long ms = (System.nanoTime() - start) / 1_000_000;
+
+        jdbc.update("""
+            INSERT INTO schema_migrations (version, description, checksum, applied_at, execution_ms)
+            VALUES (?, ?, ?, NOW(), ?)
+        """, m.version(), m.description(), m.checksum(), ms);
+        System.out.println("🆕 Applied migration V" + m.version() + " " + m.description() + " (" + ms + " ms)");
+        return true;
+    }
+
+    // ======================================================
+    // STEPS
+    // ======================================================
+    private static void run(JdbcTemplate jdbc, SqlDialect dialect, Migration.Step step) {
+        if (step instanceof Migration.Sql s) {
+            jdbc.execute(s.sql());
+
+        } else if (step instanceof Migration.AddColumn c) {
+            if (!exists(jdbc, """
+                SELECT COUNT(*) FROM INFORMATION_SCHEMA.COLUMNS
+                WHERE TABLE_SCHEMA = SCHEMA() AND TABLE_NAME = ? AND COLUMN_NAME = ?
+            """, c.table(), c.column())) {
+                jdbc.execute("ALTER TABLE `" + c.table() + "` ADD COLUMN `" + c.column() + "` " + c.type());
+            }
+
+        } else if (step instanceof Migration.AddIndex i) {
+            String indexes = dialect == SqlDialect.H2 ? "INDEXES" : "STATISTICS";
+            if (!exists(jdbc, "SELECT COUNT(*) FROM INFORMATION_SCHEMA." + indexes
+                    + " WHERE TABLE_SCHEMA = SCHEMA() AND TABLE_NAME = ? AND INDEX_NAME = ?", i.table(), i.index())) {
+                jdbc.execute("CREATE INDEX `" + i.index() + "` ON `" + i.table() + "` (" + i.columns() + ")");
+            }
+
+        } else if (step instanceof Migration.AddForeignKey fk) {
+            if (!exists(jdbc, """
+                SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLE_CONSTRAINTS
+                WHERE TABLE_SCHEMA = SCHEMA() AND TABLE_NAME = ? AND CONSTRAINT_NAME = ?
+                AND CONSTRAINT_TYPE = 'FOREIGN KEY'
+            """, fk.table(), fk.name())) {
+                jdbc.execute("ALTER TABLE `" + fk.table() + "` ADD CONSTRAINT `" + fk.name() + "` " + fk.ddl());
+            }
+
+        } else if (step instanceof Migration.Task t) {
+            t.action().run();
+        }
+    }
+
+    private static boolean exists(JdbcTemplate jdbc, String sql, Object... args) {
+        Integer n = jdbc.queryForObject(sql, Integer.class, args);
+        return n != null && n > 0;
+    }
+}
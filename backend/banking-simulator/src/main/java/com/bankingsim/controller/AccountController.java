@@ -4,9 +4,11 @@ import com.bankingsim.dao.UserDao;
 import com.bankingsim.model.Account;
 import com.bankingsim.model.User;
 import com.bankingsim.service.AccountManager;
+import com.bankingsim.service.AccountStatsService;
 import com.bankingsim.util.BCryptUtil;
 import jakarta.servlet.http.HttpSession;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -15,6 +17,7 @@ import java.time.LocalDateTime;
 import java.util.*;
 import java.time.LocalDate;
 import java.time.Period;
+import java.time.YearMonth;
 
 import static com.bankingsim.util.PdfGenerator.accountDao;
 
@@ -25,6 +28,7 @@ public class AccountController {
 
     @Autowired private AccountManager accountManager;
     @Autowired private UserDao userDao;
+    @Autowired private AccountStatsService accountStats;
 
     private final Random random = new Random();
 
@@ -209,10 +213,7 @@ public class AccountController {
 
     @GetMapping("/locked")
     public List<Account> getLockedAccounts() {
-        return accountManager.listAllAccounts()
-                .stream()
-                .filter(Account::isLocked)
-                .toList();
+        return accountManager.listLockedAccounts();
     }
 
     @GetMapping("/{accNo}")
@@ -220,6 +221,23 @@ public class AccountController {
         return accountManager.findAccountByNumber(accNo);
     }
 
+    /**
+     * Monthly statistics (daily deposits / withdrawals, spending by category, peak spend day,
+     * net) for the statistics page; year / month default to the current month.
+     */
+    @GetMapping("/{accNo}/stats")
+    public ResponseEntity<?> getMonthlyStats(@PathVariable String accNo,
+                                             @RequestParam(required = false) Integer year,
+                                             @RequestParam(required = false) Integer month) {
+        YearMonth now = YearMonth.now();
+        int y = year != null ? year : now.getYear();
+        int m = month != null ? month : now.getMonthValue();
+        if (m < 1 || m > 12 || y < 1970 || y > now.getYear() + 1)
+            return ResponseEntity.badRequest().body(Map.of("success", false, "message", "Invalid year or month."));
+
+        return ResponseEntity.ok(accountStats.monthly(accNo, YearMonth.of(y, m)));
+    }
+
     @PatchMapping("/{accNo}/unlock")
     public Map<String, Object> unlockAccount(@PathVariable String accNo) {
         try {
@@ -406,13 +424,6 @@ public class AccountController {
                 return Map.of("success", false, "message", "Invalid PIN.");
             }
 
-            // ----------------------------
-            // OPTIONAL: mini-statement backup
-            // ----------------------------
-            try {
-                accountManager.generateMiniStatementPdf(accNo);
-            } catch (Exception ignored) {}
-
             // ----------------------------
             // SOFT DELETE EXECUTION
             // ----------------------------
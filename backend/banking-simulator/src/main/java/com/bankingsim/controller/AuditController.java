@@ -0,0 +1,163 @@
+package com.bankingsim.controller;
+
+import com.bankingsim.dao.AuditDao;
+import com.bankingsim.dao.AuditSegmentStore;
+import com.bankingsim.model.AuditEvent;
+import com.bankingsim.util.AuditSegmentFormat;
+import com.bankingsim.util.AuditSegmentReader;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Admin audit trail search.
+ *
+ * GET /api/audit?from=&to=&accountNumber=&correlationId=&actor=&eventType=&cursor=&limit=&explain=
+ *  - from / to: ISO date or date-time; defaults to the last 30 days.
+ *    A time range is always applied so the query only touches matching monthly partitions.
+ *  - eventType: one of {@link AuditEvent}
+ *  - cursor: the nextCursor of the previous page (keyset paging, newest first)
+ *  - limit: 1..1000 (default 100)
+ *  - explain=true also returns the partitions MySQL planned to read.
+ *
+ * GET /api/audit/segments?from=&to=&limit=   range scan over the append-only segment files
+ * GET /api/audit/segments/verify             recomputes the segment hash chain
+ */
+@RestController
+@RequestMapping("/api/audit")
+@CrossOrigin(origins = "http://localhost:3000", allowCredentials = "true")
+public class AuditController {
+
+    private static final int MAX_LIMIT = 1000;
+    private static final int DEFAULT_WINDOW_DAYS = 30;
+
+    @Autowired private AuditDao auditDao;
+    @Autowired private AuditSegmentStore segmentStore;
+
+    @GetMapping
+    public Map<String, Object> search(
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(required = false) String accountNumber,
+            @RequestParam(required = false) String correlationId,
+            @RequestParam(required = false) String actor,
+            @RequestParam(required = false) String eventType,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false, defaultValue = "100") Integer limit,
+            @RequestParam(required = false, defaultValue = "false") boolean explain,
+            HttpSession session) {
+
+        try {
+            if (!"ADMIN".equals(session.getAttribute("role")))
+                return Map.of("success", false, "message", "Unauthorized.");
+
+            LocalDateTime toTs = parse(to, true);
+            if (toTs == null) toTs = LocalDateTime.now().plusSeconds(1);
+
+            LocalDateTime fromTs = parse(from, false);
+            if (fromTs == null) fromTs = toTs.minusDays(DEFAULT_WINDOW_DAYS);
+
+            if (!fromTs.isBefore(toTs))
+                return Map.of("success", false, "message", "'from' must be before 'to'.");
+
+            AuditEvent event = AuditEvent.parse(eventType);
+            if (eventType != null && !eventType.isBlank() && event == null)
+                return Map.of("success", false, "message", "Unknown event type: " + eventType);
+
+            int safeLimit = (limit == null || limit <= 0) ? 100 : Math.min(limit, MAX_LIMIT);
+
+            AuditDao.Filter filter = new AuditDao.Filter(fromTs, toTs, accountNumber, correlationId, actor, event);
+            AuditDao.Page page = auditDao.search(filter, cursor, safeLimit);
+
+            Map<String, Object> resp = new HashMap<>();
+            resp.put("success", true);
+            resp.put("from", fromTs);
+            resp.put("to", toTs);
+            resp.put("entries", page.entries());
+            resp.put("nextCursor", page.nextCursor());
+
+            if (explain) {
+                resp.put("partitions", auditDao.explainPartitions(filter));
+            }
+            return resp;
+
+        } catch (Exception e) {
+            return Map.of("success", false, "message", e.getMessage() == null ? "Audit search failed." : e.getMessage());
+        }
+    }
+
+    // ======================================================
+    // SEGMENT FILES
+    // ======================================================
+    @GetMapping("/segments")
+    public Map<String, Object> scanSegments(
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(required = false, defaultValue = "100") Integer limit,
+            HttpSession session) {
+
+        try {
+            if (!"ADMIN".equals(session.getAttribute("role")))
+                return Map.of("success", false, "message", "Unauthorized.");
+
+            LocalDateTime toTs = parse(to, true);
+            if (toTs == null) toTs = LocalDateTime.now().plusSeconds(1);
+
+            LocalDateTime fromTs = parse(from, false);
+            if (fromTs == null) fromTs = toTs.minusDays(DEFAULT_WINDOW_DAYS);
+
+            int safeLimit = (limit == null || limit <= 0) ? 100 : Math.min(limit, MAX_LIMIT);
+
+            return Map.of("success", true,
+                    "entries", AuditSegmentReader.scan(segmentStore.directory(),
+                            AuditSegmentFormat.toMillis(fromTs), AuditSegmentFormat.toMillis(toTs), safeLimit));
+
+        } catch (Exception e) {
+            return Map.of("success", false, "message", e.getMessage() == null ? "Segment scan failed." : e.getMessage());
+        }
+    }
+
+    @GetMapping("/segments/verify")
+    public Map<String, Object> verifySegments(HttpSession session) {
+        try {
+            if (!"ADMIN".equals(session.getAttribute("role")))
+                return Map.of("success", false, "message", "Unauthorized.");
+
+            // make sure buffered records are on disk before reading them back
+            segmentStore.flush();
+            AuditSegmentReader.VerifyResult r = AuditSegmentReader.verify(segmentStore.directory());
+
+            Map<String, Object> resp = new HashMap<>();
+            resp.put("success", true);
+            resp.put("valid", r.valid());
+            resp.put("segments", r.segments());
+            resp.put("records", r.records());
+            resp.put("bytes", r.bytes());
+            resp.put("elapsedMillis", r.elapsedMillis());
+            resp.put("mbPerSecond", Math.round(r.megabytesPerSecond()));
+            resp.put("error", r.error());
+            return resp;
+
+        } catch (Exception e) {
+            return Map.of("success", false, "message", e.getMessage() == null ? "Verification failed." : e.getMessage());
+        }
+    }
+
+    // 'to' dates are exclusive upper bounds: a plain date means "up to the end of that day"
+    private LocalDateTime parse(String s, boolean endOfDay) {
+        if (s == null || s.isBlank()) return null;
+        try {
+            if (s.contains("T")) return LocalDateTime.parse(s);
+            LocalDate d = LocalDate.parse(s);
+            return endOfDay ? d.plusDays(1).atStartOfDay() : d.atStartOfDay();
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid date: " + s);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.bankingsim.controller;
+
+import com.bankingsim.dao.BranchRegistry;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+/**
+ * Branch registry (see BranchRegistry).
+ *
+ * GET  /api/branches             → all branches (id, name, ifscCode, active)
+ * GET  /api/branches/ifsc/{ifsc} → the branch an IFSC code belongs to
+ * POST /api/branches             → add a branch {name, ifscCode} (admin)
+ * PUT  /api/branches/{id}        → open / close a branch for new accounts {active} (admin)
+ */
+@RestController
+@RequestMapping("/api/branches")
+@CrossOrigin(origins = "http://localhost:3000", allowCredentials = "true")
+public class BranchController {
+
+    @Autowired
+    private BranchRegistry branches;
+
+    @GetMapping
+    public ResponseEntity<?> list() {
+        return ResponseEntity.ok(branches.all());
+    }
+
+    @GetMapping("/ifsc/{ifsc}")
+    public ResponseEntity<?> byIfsc(@PathVariable String ifsc) {
+        BranchRegistry.Branch b = branches.byIfsc(ifsc);
+        if (b == null)
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("success", false, "message", "Unknown IFSC code."));
+        return ResponseEntity.ok(b);
+    }
+
+    @PostMapping
+    public ResponseEntity<?> create(@RequestBody Map<String, String> body, HttpSession session) {
+        if (!"ADMIN".equals(session.getAttribute("role")))
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("success", false, "message", "Unauthorized."));
+
+        try {
+            BranchRegistry.Branch b = branches.create(body.get("name"), body.get("ifscCode"));
+            System.out.println("🏦 Branch added: " + b);
+            return ResponseEntity.ok(Map.of("success", true, "branch", b));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("success", false, "message", e.getMessage()));
+        } catch (DuplicateKeyException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("success", false, "message", "Branch name or IFSC code already exists."));
+        }
+    }
+
+    @PutMapping("/{id}")
+    public ResponseEntity<?> setActive(@PathVariable int id, @RequestBody Map<String, Object> body,
+                                       HttpSession session) {
+        if (!"ADMIN".equals(session.getAttribute("role")))
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("success", false, "message", "Unauthorized."));
+
+        if (!(body.get("active") instanceof Boolean active))
+            return ResponseEntity.badRequest().body(Map.of("success", false, "message", "active (true/false) is required."));
+
+        BranchRegistry.Branch b = branches.setActive(id, active);
+        if (b == null)
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("success", false, "message", "Branch not found."));
+
+        System.out.println("🏦 Branch " + b.name() + (active ? " opened" : " closed"));
+        return ResponseEntity.ok(Map.of("success", true, "branch", b));
+    }
+}
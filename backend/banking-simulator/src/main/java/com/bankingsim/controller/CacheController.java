@@ -0,0 +1,47 @@
+package com.bankingsim.controller;
+
+import com.bankingsim.dao.AccountAttributeCache;
+import com.bankingsim.dao.RecipientDirectory;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+/**
+ * Cache statistics of this node (admin only).
+ *
+ * GET /api/cache/accounts   → size, hit rate, evictions and load latency of AccountAttributeCache
+ * GET /api/cache/recipients → size and memory footprint of RecipientDirectory
+ */
+@RestController
+@RequestMapping("/api/cache")
+@CrossOrigin(origins = "http://localhost:3000", allowCredentials = "true")
+public class CacheController {
+
+    @Autowired
+    private AccountAttributeCache accountCache;
+
+    @Autowired
+    private RecipientDirectory recipientDirectory;
+
+    @GetMapping("/accounts")
+    public ResponseEntity<?> accounts(HttpSession session) {
+        if (!"ADMIN".equals(session.getAttribute("role")))
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("success", false, "message", "Unauthorized."));
+
+        return ResponseEntity.ok(accountCache.stats());
+    }
+
+    @GetMapping("/recipients")
+    public ResponseEntity<?> recipients(HttpSession session) {
+        if (!"ADMIN".equals(session.getAttribute("role")))
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("success", false, "message", "Unauthorized."));
+
+        return ResponseEntity.ok(recipientDirectory.stats());
+    }
+}
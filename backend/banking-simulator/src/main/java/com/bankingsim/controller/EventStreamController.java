@@ -0,0 +1,66 @@
+package com.bankingsim.controller;
+
+import com.bankingsim.service.EventStreamService;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Map;
+
+/**
+ * Server-Sent Events streams (see EventStreamService).
+ *
+ * GET /api/events/account/{accNo} → balance, transaction, reversed, status and loan events
+ *                                   of one account (its owner or an admin)
+ * GET /api/events/admin           → events of every account (admin)
+ * GET /api/events/stats           → open streams and slow-consumer evictions (admin)
+ */
+@RestController
+@RequestMapping("/api/events")
+@CrossOrigin(origins = "http://localhost:3000", allowCredentials = "true")
+public class EventStreamController {
+
+    @Autowired
+    private EventStreamService streams;
+
+    // the stream endpoints return the SseEmitter itself (not ResponseEntity<?>) so Spring hands
+    // it to the emitter handler; refusals are thrown before anything is subscribed
+    @GetMapping(value = "/account/{accNo}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter account(@PathVariable String accNo, HttpSession session) {
+        boolean admin = "ADMIN".equals(session.getAttribute("role"));
+        if (!admin && !accNo.equals(String.valueOf(session.getAttribute("accountNumber"))))
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Unauthorized.");
+
+        return open(EventStreamService.accountTopic(accNo));
+    }
+
+    @GetMapping(value = "/admin", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter admin(HttpSession session) {
+        if (!"ADMIN".equals(session.getAttribute("role")))
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Unauthorized.");
+
+        return open(EventStreamService.ADMIN_TOPIC);
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<?> stats(HttpSession session) {
+        if (!"ADMIN".equals(session.getAttribute("role")))
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("success", false, "message", "Unauthorized."));
+
+        return ResponseEntity.ok(streams.stats());
+    }
+
+    private SseEmitter open(String topic) {
+        SseEmitter emitter = streams.subscribe(topic);
+        if (emitter == null)
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Too many open event streams, try again later.");
+        return emitter;
+    }
+}
@@ -0,0 +1,113 @@
+package com.bankingsim.controller;
+
+import com.bankingsim.dao.BranchRegistry;
+import com.bankingsim.dao.ExportDao;
+import com.bankingsim.service.ExportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+
+/**
+ * Bulk exports for analytics (admin only).
+ *
+ * GET /api/export/{dataset}?format=csv|ndjson&from=&to=&branch=&type=
+ *  - dataset: accounts, transactions, loans, audit
+ *  - from / to: ISO date or date-time on the dataset's timestamp column ('to' exclusive)
+ *  - branch: branch name of the account (either side of a transaction); an unknown name
+ *    exports no rows
+ *  - type: account_type, tx_type, loan_type or event_type
+ *
+ * The response is always gzip (application/gzip, *.csv.gz / *.ndjson.gz) and is
+ * streamed while the rows are read.
+ */
+@RestController
+@RequestMapping("/api/export")
+@CrossOrigin(origins = "http://localhost:3000", allowCredentials = "true")
+public class ExportController {
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private BranchRegistry branches;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @GetMapping("/{dataset}")
+    public ResponseEntity<StreamingResponseBody> export(
+            @PathVariable String dataset,
+            @RequestParam(required = false, defaultValue = "csv") String format,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(required = false) String branch,
+            @RequestParam(required = false) String type,
+            HttpSession session) {
+
+        if (!"ADMIN".equals(session.getAttribute("role")))
+            return error(HttpStatus.FORBIDDEN, "Unauthorized.");
+
+        ExportDao.Dataset ds = ExportDao.Dataset.parse(dataset);
+        if (ds == null)
+            return error(HttpStatus.BAD_REQUEST, "Unknown dataset: " + dataset);
+
+        ExportService.Format fmt;
+        try {
+            fmt = ExportService.Format.valueOf(format.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return error(HttpStatus.BAD_REQUEST, "Format must be csv or ndjson.");
+        }
+
+        ExportDao.Filter filter;
+        try {
+            filter = new ExportDao.Filter(parse(from, false), parse(to, true), branches.filterOf(branch), blankToNull(type));
+        } catch (IllegalArgumentException e) {
+            return error(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+
+        String filename = ds.name().toLowerCase() + "-" + LocalDate.now() + "." + fmt.name().toLowerCase() + ".gz";
+        StreamingResponseBody body = out -> {
+            long rows = exportService.export(ds, filter, fmt, out);
+            System.out.println("📦 Exported " + rows + " " + ds.name().toLowerCase() + " rows (" + fmt + ")");
+        };
+
+        return ResponseEntity.ok()
+                .header("Content-Disposition", "attachment; filename=" + filename)
+                .contentType(MediaType.parseMediaType("application/gzip"))
+                .body(body);
+    }
+
+    // errors share the declared body type: Spring only streams a ResponseEntity whose body is
+    // typed StreamingResponseBody, so a Map body here would break the signature the export needs
+    private ResponseEntity<StreamingResponseBody> error(HttpStatus status, String message) {
+        Map<String, Object> body = Map.of("success", false, "message", message);
+        return ResponseEntity.status(status).contentType(MediaType.APPLICATION_JSON)
+                .body(out -> objectMapper.writeValue(out, body));
+    }
+
+    // 'to' dates are exclusive upper bounds: a plain date means "up to the end of that day"
+    private LocalDateTime parse(String s, boolean endOfDay) {
+        if (s == null || s.isBlank()) return null;
+        try {
+            if (s.contains("T")) return LocalDateTime.parse(s);
+            LocalDate d = LocalDate.parse(s);
+            return endOfDay ? d.plusDays(1).atStartOfDay() : d.atStartOfDay();
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid date: " + s);
+        }
+    }
+
+    private static String blankToNull(String s) {
+        return (s == null || s.isBlank()) ? null : s.trim();
+    }
+}
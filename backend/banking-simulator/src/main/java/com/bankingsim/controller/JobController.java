@@ -0,0 +1,48 @@
+package com.bankingsim.controller;
+
+import com.bankingsim.service.JobScheduler;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+/**
+ * Maintenance job status and manual runs (admin only).
+ *
+ * GET  /api/jobs?history=10   → per-job counters / durations of this node, recent runs, leases
+ * POST /api/jobs/{name}/run   → run a job now (still subject to the lease)
+ */
+@RestController
+@RequestMapping("/api/jobs")
+@CrossOrigin(origins = "http://localhost:3000", allowCredentials = "true")
+public class JobController {
+
+    @Autowired
+    private JobScheduler jobScheduler;
+
+    @GetMapping
+    public ResponseEntity<?> status(@RequestParam(defaultValue = "10") int history, HttpSession session) {
+        if (!"ADMIN".equals(session.getAttribute("role")))
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("success", false, "message", "Unauthorized."));
+
+        return ResponseEntity.ok(jobScheduler.status(Math.max(0, Math.min(history, 100))));
+    }
+
+    @PostMapping("/{name}/run")
+    public ResponseEntity<?> run(@PathVariable String name, HttpSession session) {
+        if (!"ADMIN".equals(session.getAttribute("role")))
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("success", false, "message", "Unauthorized."));
+
+        if (!jobScheduler.trigger(name))
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("success", false, "message", "Unknown or disabled job: " + name));
+
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(Map.of("success", true, "message", "Job " + name + " started."));
+    }
+}
@@ -0,0 +1,34 @@
+package com.bankingsim.controller;
+
+import com.bankingsim.service.KpiAggregator;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+/**
+ * Live bank-wide KPIs for the admin dashboard (see KpiAggregator).
+ *
+ * GET /api/kpi → totals, by type, by branch (in / out), rollbacks and the per-minute series of all
+ *                nodes, plus this node's own total and when each other node last reported (admin)
+ */
+@RestController
+@RequestMapping("/api/kpi")
+@CrossOrigin(origins = "http://localhost:3000", allowCredentials = "true")
+public class KpiController {
+
+    @Autowired
+    private KpiAggregator kpis;
+
+    @GetMapping
+    public ResponseEntity<?> current(HttpSession session) {
+        if (!"ADMIN".equals(session.getAttribute("role")))
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("success", false, "message", "Unauthorized."));
+
+        return ResponseEntity.ok(kpis.snapshot());
+    }
+}
@@ -0,0 +1,104 @@
+package com.bankingsim.controller;
+
+import com.bankingsim.dao.ListingDao;
+import com.bankingsim.service.ListingService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Paged, projected lists for the admin dashboards (admin only).
+ *
+ * GET /api/list/{listing}?fields=a,b,c&limit=&cursor=&<filter>=
+ *  - listing: accounts, transactions
+ *  - fields: comma separated JSON field names (default: all allowed fields)
+ *  - limit: page size (app.listing.default-page-size, at most app.listing.max-page-size)
+ *  - cursor: nextCursor of the previous page
+ *  - filters: accounts → branch, status, type, locked, deleted; transactions → type, status, category
+ *
+ * Response: {"items":[...], "nextCursor": "..." | null}, streamed while the rows are read.
+ */
+@RestController
+@RequestMapping("/api/list")
+@CrossOrigin(origins = "http://localhost:3000", allowCredentials = "true")
+public class ListingController {
+
+    private static final List<String> RESERVED = List.of("fields", "limit", "cursor");
+
+    @Autowired
+    private ListingService listingService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @GetMapping("/{listing}")
+    public ResponseEntity<StreamingResponseBody> list(
+            @PathVariable String listing,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam Map<String, String> params,
+            HttpSession session) {
+
+        if (!"ADMIN".equals(session.getAttribute("role")))
+            return error(HttpStatus.FORBIDDEN, "Unauthorized.");
+
+        ListingDao.Listing l = ListingDao.Listing.parse(listing);
+        if (l == null)
+            return error(HttpStatus.BAD_REQUEST, "Unknown listing: " + listing);
+
+        List<String> projection = new ArrayList<>();
+        if (fields == null || fields.isBlank()) {
+            projection.addAll(l.fields.keySet());
+        } else {
+            for (String f : fields.split(",")) {
+                String name = f.trim();
+                if (name.isEmpty() || projection.contains(name)) continue;
+                if (!l.fields.containsKey(name))
+                    return error(HttpStatus.BAD_REQUEST, "Unknown field: " + name);
+                projection.add(name);
+            }
+        }
+
+        Map<String, String> filters = new LinkedHashMap<>();
+        for (Map.Entry<String, String> p : params.entrySet()) {
+            if (RESERVED.contains(p.getKey()) || p.getValue() == null || p.getValue().isBlank()) continue;
+            if (!l.hasCriterion(p.getKey()))
+                return error(HttpStatus.BAD_REQUEST, "Unknown filter: " + p.getKey());
+            filters.put(p.getKey(), p.getValue());
+        }
+
+        ListingDao.Cursor after;
+        try {
+            after = (cursor == null || cursor.isBlank()) ? null : ListingDao.Cursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            return error(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+
+        int pageSize = listingService.pageSize(limit);
+        StreamingResponseBody body = out -> listingService.write(l, projection, filters, after, pageSize, out);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    // errors go through the same body type: Spring only streams a ResponseEntity whose declared
+    // body is StreamingResponseBody (with <?> the lambda itself would be serialized)
+    private ResponseEntity<StreamingResponseBody> error(HttpStatus status, String message) {
+        Map<String, Object> body = Map.of("success", false, "message", message);
+        return ResponseEntity.status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(out -> objectMapper.writeValue(out, body));
+    }
+}
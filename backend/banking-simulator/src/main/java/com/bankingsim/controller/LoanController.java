@@ -8,16 +8,13 @@ import com.bankingsim.model.LoanRequest;
 import com.bankingsim.service.AccountManager;
 import org.antlr.v4.runtime.misc.MurmurHash;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import jakarta.servlet.http.HttpSession;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
-import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.*;
 import com.bankingsim.service.OtpService;
 
@@ -31,7 +28,6 @@ public class LoanController {
     @Autowired private AccountManager accountManager;
     @Autowired private TransactionDao txDao;
     @Autowired private UserDao userDao;
-    @Autowired private JdbcTemplate jdbcTemplate;
     @Autowired private OtpService otpService;
 
 
@@ -273,15 +269,7 @@ public class LoanController {
             // ⭐ ADD LOAN CREDIT TRANSACTION HERE ⭐
             // ⭐⭐⭐⭐⭐⭐⭐⭐⭐⭐⭐⭐⭐⭐⭐⭐⭐⭐⭐⭐⭐⭐⭐⭐⭐⭐⭐⭐⭐⭐⭐⭐
 
-            String txId = "TXN-" +
-                    LocalDate.now().format(DateTimeFormatter.BASIC_ISO_DATE) +
-                    "-" + (int)(Math.random() * 1_0000_0000);
-
-            jdbcTemplate.update("""
-                INSERT INTO transactions
-                (tx_id, tx_type, to_account, amount, category, status, created_at)
-                VALUES (?, 'LOAN_CREDIT', ?, ?, 'Loan Sanctioned', 'SUCCESS', NOW())
-            """, txId, req.getAccountNumber(), req.getRequestedAmount());
+            txDao.saveLoanCredit(req.getAccountNumber(), req.getRequestedAmount());
 
 
             System.out.println("📌 Transaction added: LOAN_CREDIT for acc " + req.getAccountNumber());
@@ -399,15 +387,7 @@ public class LoanController {
 
 
             // 3️⃣ INSERT ONLY ONE repayment transaction
-            String txId = "TXN-" +
-                    LocalDate.now().format(DateTimeFormatter.BASIC_ISO_DATE) +
-                    "-" + (int)(Math.random() * 1_0000_0000);
-
-            jdbcTemplate.update("""
-            INSERT INTO transactions
-            (tx_id, tx_type, from_account, amount, category, status, created_at)
-            VALUES (?, 'LOAN_REPAYMENT', ?, ?, 'Loan Early Closure', 'SUCCESS', NOW())
-            """, txId, accNo, payable);
+            txDao.saveTransactionRepayment(accNo, payable);
 
             return Map.of(
                     "success", true,
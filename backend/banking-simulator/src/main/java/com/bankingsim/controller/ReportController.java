@@ -1,59 +1,111 @@
 package com.bankingsim.controller;
 
 import com.bankingsim.model.Account;
-import com.bankingsim.service.AccountManager;
+import com.bankingsim.service.ReportJobService;
+import com.bankingsim.service.MiniStatementService;
+import com.bankingsim.service.StatementBatchService;
+import com.bankingsim.service.ReportMaterializer;
+import com.bankingsim.model.ReportJob;
+import com.bankingsim.dao.BranchRegistry;
 import com.bankingsim.dao.TransactionDao;
 import com.bankingsim.dao.UserDao;
 import com.bankingsim.model.User;
 import com.bankingsim.util.PdfGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.ByteArrayResource;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import jakarta.servlet.http.HttpSession;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
 
 
 @CrossOrigin(
         origins = "http://localhost:3000",
-        exposedHeaders = {"Content-Disposition", "X-Error-Message"}
+        exposedHeaders = {"Content-Disposition", "X-Error-Message", MiniStatementService.TRUNCATED_HEADER}
 )
 @RestController
 @RequestMapping("/api/reports")
 public class ReportController {
 
-    @Autowired
-    private AccountManager manager;
-
     @Autowired
     private TransactionDao txDao;
 
     @Autowired
     private UserDao userDao;
 
+    @Autowired
+    private ReportMaterializer reportMaterializer;
+
+    @Autowired
+    private BranchRegistry branches;
+
+    @Autowired
+    private ReportJobService reportJobs;
+
+    @Autowired
+    private StatementBatchService statementBatch;
+
+    @Autowired
+    private MiniStatementService miniStatements;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.reports.streaming:true}")
+    private boolean streamingReports;
+
 
     // ------------------------------------------------------
     // ACCOUNTS REPORT
     // ------------------------------------------------------
+    // streamed or not, downloads are typed ResponseEntity<StreamingResponseBody>: Spring only
+    // picks the streaming handler when it can see that body type in the signature
     @GetMapping("/accounts")
-    public ResponseEntity<Resource> downloadAccounts(
+    public ResponseEntity<StreamingResponseBody> downloadAccounts(
             @RequestParam(value = "username", required = false) String username,
             @RequestParam(value = "branch", required = false) String branch) {
 
-        manager.generateAccountsPdf(); // legacy no-op
-
         String key = null;
         if (username != null && !username.isBlank()) {
             User u = userDao.findByUsername(username.trim());
             if (u != null) key = buildKeyFromUser(u);
         }
 
-        // FETCH FILTERED ACCOUNTS
-        var accounts = (branch == null || branch.isBlank())
-                ? manager.listAllAccounts()
-                : manager.listAccountsByBranch(branch.trim());
+        // the materialized render of the current data version, encrypted for this user
+        Integer branchFilter = branches.filterOf(branch);
+        byte[] cached = reportMaterializer.cachedAccountsPdf(branchFilter, key);
+        if (cached != null) return buildPdfResponse(cached, "Accounts_Report.pdf");
+
+        if (streamingReports) {
+            // cache miss: rendered from the cursor and encrypted while writing, straight into the response
+            String pdfKey = key;
+
+            StreamingResponseBody body = out -> {
+                try {
+                    reportMaterializer.writeAccountsPdf(branchFilter, pdfKey, out);
+                } catch (IOException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new IOException("Accounts report failed: " + e.getMessage(), e);
+                }
+            };
+
+            return streamPdfResponse(body, "Accounts_Report.pdf");
+        }
 
-        byte[] pdf = PdfGenerator.generateAccountsPdfBytes(accounts, key);
+        // cache miss: rendered (and cached) synchronously
+        byte[] pdf = reportMaterializer.accountsPdf(branchFilter, key);
 
         return buildPdfResponse(pdf, "Accounts_Report.pdf");
     }
@@ -63,22 +115,41 @@ public class ReportController {
     // TRANSACTIONS REPORT
     // ------------------------------------------------------
     @GetMapping("/transactions")
-    public ResponseEntity<Resource> downloadTransactions(
+    public ResponseEntity<StreamingResponseBody> downloadTransactions(
             @RequestParam(value = "username", required = false) String username,
             @RequestParam(value = "branch", required = false) String branch) {
 
-        manager.generateTransactionsPdf(); // legacy no-op
-
         String key = null;
         if (username != null && !username.isBlank()) {
             User u = userDao.findByUsername(username.trim());
             if (u != null) key = buildKeyFromUser(u);
         }
 
+        if (streamingReports) {
+            // rows go from the JDBC cursor through iText straight into the response;
+            // memory stays flat regardless of how many transactions there are
+            Integer branchFilter = branches.filterOf(branch);
+            String pdfKey = key;
+
+            StreamingResponseBody body = out -> {
+                try {
+                    PdfGenerator.writeTransactionsPdf(out, pdfKey,
+                            sink -> txDao.streamTransactions(branchFilter, sink));
+                } catch (IOException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new IOException("Transactions report failed: " + e.getMessage(), e);
+                }
+            };
+
+            return streamPdfResponse(body, "Transactions_Report.pdf");
+        }
+
         // FETCH FILTERED TRANSACTIONS
-        var tx = (branch == null || branch.isBlank())
+        Integer branchId = branches.filterOf(branch);
+        var tx = branchId == null
                 ? txDao.getAllTransactions()
-                : txDao.getAllTransactionsByBranch(branch.trim());
+                : txDao.getAllTransactionsByBranch(branchId);
 
         byte[] pdf = PdfGenerator.generateTransactionsPdfBytes(tx, key);
 
@@ -87,45 +158,158 @@ public class ReportController {
 
 
 
+    // ------------------------------------------------------
+    // ASYNC REPORT JOBS
+    // ------------------------------------------------------
+    @PostMapping("/jobs")
+    public ResponseEntity<?> submitJob(
+            @RequestParam("type") String type,
+            @RequestParam(value = "branch", required = false) String branch) {
+
+        ReportJob.Type t;
+        try {
+            t = ReportJob.Type.valueOf(type.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("success", false, "message", "Unknown report type: " + type));
+        }
+
+        ReportJob job = reportJobs.submit(t, branch);
+        if (job == null)
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header("Retry-After", "30")
+                    .body(Map.of("success", false, "message", "Report queue is full, try again later"));
+
+        return ResponseEntity.accepted().body(job);
+    }
+
+    @GetMapping("/jobs/{id}")
+    public ResponseEntity<?> jobStatus(@PathVariable String id) {
+        ReportJob job = reportJobs.get(id);
+        if (job == null)
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("success", false, "message", "Report job not found or expired"));
+        return ResponseEntity.ok(job);
+    }
+
+    @GetMapping("/jobs/{id}/download")
+    public ResponseEntity<StreamingResponseBody> downloadJob(
+            @PathVariable String id,
+            @RequestParam(value = "username", required = false) String username) {
+
+        ReportJob job = reportJobs.get(id);
+        if (job == null)
+            return jsonError(HttpStatus.NOT_FOUND, "Report job not found or expired");
+        if (job.getStatus() != ReportJob.Status.DONE)
+            return jsonError(HttpStatus.CONFLICT, "Report job is " + job.getStatus());
+
+        String key = null;
+        if (username != null && !username.isBlank()) {
+            User u = userDao.findByUsername(username.trim());
+            if (u != null) key = buildKeyFromUser(u);
+        }
+        String pdfKey = key;
+
+        String filename = (job.getType() == ReportJob.Type.ACCOUNTS ? "Accounts" : "Transactions") + "_Report.pdf";
+        return streamPdfResponse(out -> reportJobs.writeTo(job, pdfKey, out), filename);
+    }
+
+
+    // ------------------------------------------------------
+    // MONTH-END STATEMENT BATCH (admin)
+    // ------------------------------------------------------
+    @PostMapping("/statements")
+    public Map<String, Object> startStatements(
+            @RequestParam(value = "month", required = false) String month,
+            HttpSession session) {
+
+        if (!"ADMIN".equals(session.getAttribute("role")))
+            return Map.of("success", false, "message", "Unauthorized.");
+
+        YearMonth ym;
+        try {
+            ym = (month == null || month.isBlank()) ? YearMonth.now().minusMonths(1) : YearMonth.parse(month.trim());
+        } catch (DateTimeParseException e) {
+            return Map.of("success", false, "message", "Month must be yyyy-MM.");
+        }
+
+        if (!statementBatch.start(ym))
+            return Map.of("success", false, "message", "A statement batch is already running on this or another node.");
+
+        return Map.of("success", true, "message", "Statement batch started for " + ym);
+    }
+
+    @GetMapping("/statements/status")
+    public Map<String, Object> statementStatus(HttpSession session) {
+        if (!"ADMIN".equals(session.getAttribute("role")))
+            return Map.of("success", false, "message", "Unauthorized.");
+        return statementBatch.status();
+    }
+
+
     // ------------------------------------------------------
     // MINI STATEMENT
     // ------------------------------------------------------
     @GetMapping("/ministatement/{accNo}")
-    public ResponseEntity<Resource> downloadMini(@PathVariable String accNo) {
+    public ResponseEntity<Resource> downloadMini(
+            @PathVariable String accNo,
+            @RequestParam(value = "n", required = false) Integer n,
+            @RequestParam(value = "from", required = false) String from,
+            @RequestParam(value = "to", required = false) String to) {
 
         if (accNo == null || accNo.trim().isEmpty())
             return ResponseEntity.badRequest().build();
 
-        if (!manager.accountExists(accNo))
+        MiniStatementService.MiniStatement st;
+        try {
+            st = miniStatements.pdf(accNo.trim(), n, parseDay(from, false), parseDay(to, true));
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (st == null)
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
 
-        manager.generateMiniStatementPdf(accNo);  // legacy no-op
-
-        User u = userDao.findByAccountNumber(accNo);
-        String key = (u != null ? buildKeyFromUser(u) : null);
-
-        // Use the 3-arg PdfGenerator API (accNo, transactions, key)
-        byte[] pdf = PdfGenerator.generateMiniStatementPdfBytes(
-                accNo,
-                txDao.getTransactionsByAccount(accNo),
-                key
-        );
+        // a date window with more rows than a mini statement prints
+        return ResponseEntity.ok()
+                .header("Content-Disposition", "attachment; filename=MiniStatement_" + accNo + ".pdf")
+                .header(MiniStatementService.TRUNCATED_HEADER, String.valueOf(st.truncated()))
+                .contentType(MediaType.APPLICATION_PDF)
+                .contentLength(st.pdf().length)
+                .body(new ByteArrayResource(st.pdf()));
+    }
 
-        return buildPdfResponse(pdf, "MiniStatement_" + accNo + ".pdf");
+    // plain dates: 'from' = start of day, 'to' = start of the next day (exclusive)
+    static LocalDateTime parseDay(String s, boolean endOfDay) {
+        if (s == null || s.isBlank()) return null;
+        if (s.contains("T")) return LocalDateTime.parse(s);
+        LocalDate d = LocalDate.parse(s);
+        return endOfDay ? d.plusDays(1).atStartOfDay() : d.atStartOfDay();
     }
 
 
     // ------------------------------------------------------
     // COMMON RESPONSE BUILDER
     // ------------------------------------------------------
-    private ResponseEntity<Resource> buildPdfResponse(byte[] pdf, String filename) {
-        ByteArrayResource res = new ByteArrayResource(pdf);
-
+    private ResponseEntity<StreamingResponseBody> buildPdfResponse(byte[] pdf, String filename) {
         return ResponseEntity.ok()
                 .header("Content-Disposition", "attachment; filename=" + filename)
                 .contentType(MediaType.APPLICATION_PDF)
                 .contentLength(pdf.length)
-                .body(res);
+                .body(out -> out.write(pdf));
+    }
+
+    private ResponseEntity<StreamingResponseBody> streamPdfResponse(StreamingResponseBody body, String filename) {
+        return ResponseEntity.ok()
+                .header("Content-Disposition", "attachment; filename=" + filename)
+                .contentType(MediaType.APPLICATION_PDF)
+                .body(body);
+    }
+
+    // the usual {success, message} body, written through the download's StreamingResponseBody type
+    private ResponseEntity<StreamingResponseBody> jsonError(HttpStatus status, String message) {
+        Map<String, Object> body = Map.of("success", false, "message", message);
+        return ResponseEntity.status(status).contentType(MediaType.APPLICATION_JSON)
+                .body(out -> objectMapper.writeValue(out, body));
     }
 
 
@@ -133,16 +317,6 @@ public class ReportController {
     // KEY BUILDER
     // ------------------------------------------------------
     private String buildKeyFromUser(User u) {
-        try {
-            String username = u.getUsername();
-            String phone = u.getPhone();
-
-            String first3 = username.substring(0, Math.min(3, username.length()));
-            String last4 = phone.substring(Math.max(0, phone.length() - 4));
-
-            return first3 + last4;
-        } catch (Exception e) {
-            return null;
-        }
+        return PdfGenerator.userKey(u.getUsername(), u.getPhone());
     }
 }
@@ -4,18 +4,16 @@ import com.bankingsim.dao.TransactionDao;
 import com.bankingsim.dao.UserDao;
 import com.bankingsim.model.TransactionRecord;
 import com.bankingsim.service.AccountManager;
+import com.bankingsim.service.MiniStatementService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.Resource;
 
-import java.io.File;
-import java.io.FileInputStream;
-import com.bankingsim.util.PdfGenerator;
 
 import java.math.BigDecimal;
 import java.time.Instant;
@@ -38,6 +36,7 @@ public class TransactionController {
     @Autowired private AccountManager accountManager;
     @Autowired private TransactionDao transactionDao;
     @Autowired private UserDao userDao; // added for transaction PIN verification
+    @Autowired private MiniStatementService miniStatementService;
 
     /** Simple in-memory dedupe cache: key -> timestamp (epoch ms) */
     private static final ConcurrentHashMap<String, Long> recentRequests = new ConcurrentHashMap<>();
@@ -175,14 +174,18 @@ public class TransactionController {
      * - fromDate (ISO date or ISO date-time) e.g. 2025-11-01 or 2025-11-01T00:00:00
      * - toDate   (ISO date or ISO date-time)
      * - type     (DEPOSIT / WITHDRAW / TRANSFER / ROLLBACK / ACCOUNT_CLOSED)
-     * - category (string)
+     * - category (exact category, case-insensitive)
      * - status   (SUCCESS / REVERSED / ...)
      * - account  (account number to filter from OR to)
      * - limit    (int)
-     * - offset   (int)
+     * - cursor   (X-Next-Cursor of the previous page)
+     * - offset   (int, legacy; ignored when a cursor is given)
+     *
+     * Rows come newest first. When more rows exist the response carries an X-Next-Cursor
+     * header; pass it back as ?cursor= to get the next page.
      */
     @GetMapping("/filter")
-    public List<TransactionRecord> getFilteredTransactions(
+    public ResponseEntity<?> getFilteredTransactions(
             @RequestParam(required = false) String fromDate,
             @RequestParam(required = false) String toDate,
             @RequestParam(required = false) String type,
@@ -190,13 +193,36 @@ public class TransactionController {
             @RequestParam(required = false) String status,
             @RequestParam(required = false) String account,
             @RequestParam(required = false, defaultValue = "100") Integer limit,
+            @RequestParam(required = false) String cursor,
             @RequestParam(required = false, defaultValue = "0") Integer offset
     ) {
 
         LocalDateTime from = parseToStartOfDay(fromDate);
         LocalDateTime to = parseToEndOfDay(toDate);
 
-        return transactionDao.getTransactionsWithFilters(from, to, type, category, status, account, limit, offset);
+        // old offset clients keep working; new ones page with the cursor
+        if ((cursor == null || cursor.isBlank()) && offset != null && offset > 0) {
+            return ResponseEntity.ok(
+                    transactionDao.getTransactionsWithFilters(from, to, type, category, status, account, limit, offset));
+        }
+
+        TransactionDao.Cursor after;
+        try {
+            after = (cursor == null || cursor.isBlank()) ? null : TransactionDao.Cursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("success", false, "message", "Invalid cursor"));
+        }
+
+        try {
+            TransactionDao.Page page =
+                    transactionDao.getTransactionsPage(from, to, type, category, status, account, after, limit);
+            ResponseEntity.BodyBuilder ok = ResponseEntity.ok();
+            if (page.nextCursor() != null) ok.header("X-Next-Cursor", page.nextCursor());
+            return ok.body(page.items());
+        } catch (Exception e) {
+            System.err.println("⚠️ Failed to run filtered transactions query: " + e.getMessage());
+            return ResponseEntity.ok(List.of());
+        }
     }
 
     private LocalDateTime parseToStartOfDay(String s) {
@@ -238,30 +264,33 @@ public class TransactionController {
 
     @CrossOrigin(
             origins = "http://localhost:3000",
-            exposedHeaders = {"Content-Disposition"}   // IMPORTANT
+            exposedHeaders = {"Content-Disposition", MiniStatementService.TRUNCATED_HEADER}   // IMPORTANT
     )
     @GetMapping("/ministatement/{accNo}")
-    public ResponseEntity<Resource> downloadMiniStatement(@PathVariable String accNo) {
+    public ResponseEntity<Resource> downloadMiniStatement(
+            @PathVariable String accNo,
+            @RequestParam(value = "n", required = false) Integer n,
+            @RequestParam(value = "from", required = false) String from,
+            @RequestParam(value = "to", required = false) String to) {
 
         try {
-            // generate PDF
-            List<TransactionRecord> tx = transactionDao.getTransactionsByAccount(accNo);
-            PdfGenerator.generateMiniStatementPdf(accNo, tx);
-
-            File file = new File("reports/MiniStatement_" + accNo + ".pdf");
-            if (!file.exists()) {
+            // rendered in memory from the cached / bounded history (nothing is written under reports/)
+            MiniStatementService.MiniStatement st = miniStatementService.pdf(accNo, n,
+                    ReportController.parseDay(from, false), ReportController.parseDay(to, true));
+            if (st == null) {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
             }
 
-            InputStreamResource resource = new InputStreamResource(new FileInputStream(file));
-
             return ResponseEntity.ok()
                     .header(HttpHeaders.CONTENT_DISPOSITION,
                             "attachment; filename=MiniStatement_" + accNo + ".pdf")
+                    .header(MiniStatementService.TRUNCATED_HEADER, String.valueOf(st.truncated()))
                     .contentType(MediaType.APPLICATION_PDF)
-                    .contentLength(file.length())
-                    .body(resource);
+                    .contentLength(st.pdf().length)
+                    .body(new ByteArrayResource(st.pdf()));
 
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             e.printStackTrace();
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
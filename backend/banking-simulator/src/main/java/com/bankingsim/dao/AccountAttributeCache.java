@@ -0,0 +1,190 @@
+package com.bankingsim.dao;
+
+import com.bankingsim.event.AccountChangedEvent;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read-through cache of the account attributes that almost never change (holder name, email,
+ * phone, IFSC, branch), for the contact / OTP / IFSC checks. Balance, status and lock state
+ * are deliberately not here - those always come from findByAccountNumber.
+ *
+ *  - Caffeine (W-TinyLFU admission), bounded by app.cache.accounts.max-size, entries expire
+ *    app.cache.accounts.ttl-seconds after loading
+ *  - every AccountChangedEvent except BALANCE evicts the account locally (null account = all)
+ *    and appends it to account_cache_invalidations
+ *  - every app.cache.accounts.sync-ms each node reads the log past the last id it has seen
+ *    (the log id is the cache version) and evicts what other nodes changed; if the log can't
+ *    be read the whole cache is dropped, so a node never serves entries it can't vouch for
+ */
+@Component
+public class AccountAttributeCache {
+
+    // re-read a few ids below the last one seen: ids of concurrent inserts can commit out of order
+    private static final int SYNC_OVERLAP = 50;
+    private static final int SYNC_BATCH = 1000;
+
+    /** The cached, non-financial attributes of one account. */
+    public record Attributes(String accountNumber, String holderName, String email, String phone,
+                             String ifscCode, String branchName) {}
+
+    private final JdbcTemplate jdbcTemplate;
+    private final LoadingCache<String, Attributes> byAccount;
+    private final LoadingCache<String, String> accountByPhone;
+
+    private volatile long lastSeenId = -1;
+
+    public AccountAttributeCache(JdbcTemplate jdbcTemplate,
+                                 @Value("${app.cache.accounts.max-size:10000}") long maxSize,
+                                 @Value("${app.cache.accounts.ttl-seconds:300}") long ttlSeconds) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.byAccount = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build(this::load);
+        this.accountByPhone = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build(this::loadAccountByPhone);
+    }
+
+    // ======================================================
+    // READ
+    // ======================================================
+
+    /** Attributes of the account, or null if it doesn't exist. */
+    public Attributes get(String accNo) {
+        if (accNo == null) return null;
+        return byAccount.get(accNo);
+    }
+
+    /**
+     * Account with this phone number, or null if there is none (or more than one). The phone
+     * index is checked against the account's current attributes, so a changed number is never
+     * served from it.
+     */
+    public Attributes getByPhone(String phone) {
+        if (phone == null) return null;
+        String accNo = accountByPhone.get(phone);
+        if (accNo == null) return null;
+
+        Attributes a = get(accNo);
+        if (a != null && phone.equals(a.phone())) return a;
+
+        accountByPhone.invalidate(phone);
+        accNo = accountByPhone.get(phone);
+        return accNo == null ? null : get(accNo);
+    }
+
+    private Attributes load(String accNo) {
+        List<Attributes> rows = jdbcTemplate.query("""
+            SELECT account_number, holder_name, email, phone_number, ifsc_code, branch_name
+            FROM accounts WHERE account_number = ?
+        """, (rs, i) -> new Attributes(
+                rs.getString(1), rs.getString(2), rs.getString(3),
+                rs.getString(4), rs.getString(5), rs.getString(6)), accNo);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    private String loadAccountByPhone(String phone) {
+        List<String> rows = jdbcTemplate.queryForList(
+                "SELECT account_number FROM accounts WHERE phone_number = ? LIMIT 2", String.class, phone);
+        return rows.size() == 1 ? rows.get(0) : null;
+    }
+
+    // ======================================================
+    // INVALIDATION
+    // ======================================================
+    @EventListener
+    public void onAccountChanged(AccountChangedEvent event) {
+        if (event.change() == AccountChangedEvent.Change.BALANCE) return;
+        evict(event.accountNumber());
+        try {
+            jdbcTemplate.update("INSERT INTO account_cache_invalidations (account_number, created_at) VALUES (?, NOW())",
+                    event.accountNumber());
+        } catch (Exception e) {
+            System.err.println("⚠️ Could not log cache invalidation for " + event.accountNumber() + ": " + e.getMessage());
+        }
+    }
+
+    private void evict(String accNo) {
+        if (accNo == null) {
+            byAccount.invalidateAll();
+            accountByPhone.invalidateAll();
+        } else {
+            byAccount.invalidate(accNo);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.cache.accounts.sync-ms:2000}")
+    public void syncInvalidations() {
+        try {
+            if (lastSeenId < 0) {
+                // first sync: nothing is cached yet, just start from the end of the log
+                Long max = jdbcTemplate.queryForObject("SELECT MAX(id) FROM account_cache_invalidations", Long.class);
+                lastSeenId = max == null ? 0 : max;
+                return;
+            }
+            long last = lastSeenId;
+            List<Map<String, Object>> rows = jdbcTemplate.queryForList("""
+                SELECT id, account_number FROM account_cache_invalidations
+                WHERE id > ? ORDER BY id LIMIT ?
+            """, Math.max(0, last - SYNC_OVERLAP), SYNC_BATCH);
+
+            for (Map<String, Object> r : rows) {
+                evict((String) r.get("account_number"));
+                last = Math.max(last, ((Number) r.get("id")).longValue());
+            }
+            lastSeenId = last;
+        } catch (Exception e) {
+            byAccount.invalidateAll();
+            accountByPhone.invalidateAll();
+            System.err.println("⚠️ Account cache sync failed, cache cleared: " + e.getMessage());
+        }
+    }
+
+    /** Deletes at most {@code limit} log rows older than {@code hours}; returns rows deleted. */
+    public int pruneInvalidations(int hours, int limit) {
+        return jdbcTemplate.update("""
+            DELETE FROM account_cache_invalidations WHERE created_at < NOW() - INTERVAL ? HOUR
+            ORDER BY id LIMIT ?
+        """, hours, limit);
+    }
+
+    // ======================================================
+    // STATS
+    // ======================================================
+    public Map<String, Object> stats() {
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("accounts", stats(byAccount));
+        out.put("phoneIndex", stats(accountByPhone));
+        out.put("lastSeenInvalidation", lastSeenId);
+        return out;
+    }
+
+    private static Map<String, Object> stats(LoadingCache<?, ?> cache) {
+        CacheStats s = cache.stats();
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("size", cache.estimatedSize());
+        m.put("requests", s.requestCount());
+        m.put("hitRate", s.hitRate());
+        m.put("evictions", s.evictionCount());
+        m.put("loads", s.loadCount());
+        m.put("loadFailures", s.loadFailureCount());
+        m.put("avgLoadMillis", s.averageLoadPenalty() / 1_000_000.0);
+        return m;
+    }
+}
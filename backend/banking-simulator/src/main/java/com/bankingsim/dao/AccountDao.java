@@ -1,17 +1,27 @@
 package com.bankingsim.dao;
 
+import com.bankingsim.config.ReadOnly;
 import com.bankingsim.model.Account;
+import com.bankingsim.model.AuditEvent;
+import com.bankingsim.event.AccountChangedEvent;
+import com.bankingsim.event.AccountChangedEvent.Change;
 import com.bankingsim.util.BCryptUtil;
-import com.bankingsim.util.PdfGenerator;
+import com.bankingsim.util.SqlDialect;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * DAO layer for managing Account persistence using Spring's JdbcTemplate.
@@ -28,9 +38,21 @@ import java.util.List;
 public class AccountDao {
 
     private final JdbcTemplate jdbcTemplate;
+    private final AuditDao auditDao;
+    private final ApplicationEventPublisher events;
+    private final AccountAttributeCache attributeCache;
 
-    public AccountDao(JdbcTemplate jdbcTemplate) {
+    // streams rows one by one on MySQL (see SqlDialect.streamingTemplate)
+    private final JdbcTemplate streamingJdbc;
+
+    public AccountDao(JdbcTemplate jdbcTemplate, AuditDao auditDao, ApplicationEventPublisher events,
+                      AccountAttributeCache attributeCache) {
         this.jdbcTemplate = jdbcTemplate;
+        this.auditDao = auditDao;
+        this.events = events;
+        this.attributeCache = attributeCache;
+
+        this.streamingJdbc = SqlDialect.streamingTemplate(jdbcTemplate.getDataSource());
     }
 
     // ======================================================
@@ -86,9 +108,10 @@ public class AccountDao {
              account_type, phone_number, gender, address, pin, transaction_pin,
              last_activity, status, failed_attempts, is_locked, lock_time,
              tx_failed_attempts, tx_locked, dob, age,
-             branch_name, ifsc_code, govt_id_type, govt_id_number, govt_id_proof)
+             branch_name, ifsc_code, govt_id_type, govt_id_number, govt_id_proof, branch_id)
             VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 
-                    'ACTIVE', 0, FALSE, NULL, 0, FALSE, ?, ?, ?, ?, ?, ?, ?)
+                    'ACTIVE', 0, FALSE, NULL, 0, FALSE, ?, ?, ?, ?, ?, ?, ?,
+                    (SELECT id FROM branches WHERE name = ?))
         """;
 
         jdbcTemplate.update(sql,
@@ -110,13 +133,14 @@ public class AccountDao {
                 a.getIfscCode(),
                 a.getGovtIdType(),
                 a.getGovtIdNumber(),
-                a.getGovtIdProof()
+                a.getGovtIdProof(),
+                a.getBranchName()
         );
 
-        addAudit("CREATE_ACCOUNT", "Created new account: " + accNum, a.getHolderName());
+        addAudit(AuditEvent.CREATE_ACCOUNT, accNum, "Created new account: " + accNum, a.getHolderName());
         System.out.println("✅ Account created successfully: " + accNum);
 
-        generateAccountsReport();
+        publishChange(accNum, Change.CREATED);
     }
 
     // ======================================================
@@ -128,16 +152,110 @@ public class AccountDao {
         return results.isEmpty() ? null : results.get(0);
     }
 
+    @ReadOnly
     public List<Account> listAllAccounts() {
         String sql = "SELECT * FROM accounts ORDER BY created_at ASC";
         return jdbcTemplate.query(sql, new AccountRowMapper());
     }
 
-    public List<Account> listAccountsByBranch(String branch) {
-        String sql = "SELECT * FROM accounts WHERE branch_name = ? ORDER BY created_at ASC";
-        return jdbcTemplate.query(sql, new AccountRowMapper(), branch);
+    public List<Account> listLockedAccounts() {
+        String sql = "SELECT * FROM accounts WHERE is_locked = TRUE ORDER BY lock_time DESC";
+        return jdbcTemplate.query(sql, new AccountRowMapper());
+    }
+
+    @ReadOnly
+    public List<Account> listAccountsByBranch(int branchId) {
+        String sql = "SELECT * FROM accounts WHERE branch_id = ? ORDER BY created_at ASC";
+        return jdbcTemplate.query(sql, new AccountRowMapper(), branchId);
+    }
+
+    /**
+     * Only the columns the accounts report prints (no PIN hashes or govt-id BLOBs).
+     * branchId == null → all branches (ids come from BranchRegistry).
+     */
+    @ReadOnly
+    public List<Account> listAccountsForReport(Integer branchId) {
+        List<Account> out = new ArrayList<>();
+        streamAccountsForReport(branchId, out::add);
+        return out;
+    }
+
+    /** Streaming variant of listAccountsForReport for constant-memory report rendering. */
+    @ReadOnly
+    public void streamAccountsForReport(Integer branchId, Consumer<Account> sink) {
+        String sql = """
+            SELECT account_number, holder_name, email, balance, account_type, status, ifsc_code, branch_name
+            FROM accounts
+        """ + (branchId == null ? "" : " WHERE branch_id = ?") + " ORDER BY created_at ASC";
+
+        RowMapper<Account> mapper = (rs, i) -> {
+            Account a = new Account();
+            a.setAccountNumber(rs.getString("account_number"));
+            a.setHolderName(rs.getString("holder_name"));
+            a.setEmail(rs.getString("email"));
+            a.setBalance(rs.getBigDecimal("balance"));
+            a.setAccountType(rs.getString("account_type"));
+            a.setStatus(rs.getString("status"));
+            a.setIfscCode(rs.getString("ifsc_code"));
+            a.setBranchName(rs.getString("branch_name"));
+            return a;
+        };
+        RowCallbackHandler handler = rs -> sink.accept(mapper.mapRow(rs, 0));
+
+        if (branchId == null) streamingJdbc.query(sql, handler);
+        else streamingJdbc.query(sql, handler, branchId);
+    }
+
+
+    // ======================================================
+    // MAINTENANCE (bounded chunks, run by JobScheduler)
+    // ======================================================
+
+    /**
+     * Marks at most {@code limit} accounts (and their logins) INACTIVE after {@code months} without
+     * activity, oldest first via idx_acc_status_activity; returns the number of accounts changed.
+     */
+    public int markInactiveAccounts(int months, int limit) {
+        List<String> accNos = jdbcTemplate.queryForList("""
+            SELECT account_number FROM accounts
+            WHERE status = 'ACTIVE' AND last_activity < DATE_SUB(NOW(), INTERVAL ? MONTH)
+            ORDER BY last_activity
+            LIMIT ?
+        """, String.class, months, limit);
+        if (accNos.isEmpty()) return 0;
+
+        String in = String.join(",", Collections.nCopies(accNos.size(), "?"));
+        Object[] args = accNos.toArray();
+        jdbcTemplate.update("UPDATE accounts SET status = 'INACTIVE' WHERE status = 'ACTIVE' AND account_number IN (" + in + ")", args);
+        jdbcTemplate.update("UPDATE users SET status = 'INACTIVE' WHERE account_number IN (" + in + ")", args);
+
+        for (String accNo : accNos) publishChange(accNo, Change.STATUS);
+        return accNos.size();
     }
 
+    /**
+     * Recomputes age (and the STUDENT account type for minors) for the next {@code limit}
+     * accounts after {@code afterAccount} in primary key order.
+     *
+     * @return last account number of the chunk, or null when there are no more accounts
+     */
+    public String refreshAges(String afterAccount, int limit) {
+        String hi = jdbcTemplate.queryForObject("""
+            SELECT MAX(account_number) FROM (
+                SELECT account_number FROM accounts WHERE account_number > ? ORDER BY account_number LIMIT ?
+            ) c
+        """, String.class, afterAccount == null ? "" : afterAccount, limit);
+        if (hi == null) return null;
+
+        // SET is evaluated left to right, so account_type sees the new age
+        jdbcTemplate.update("""
+            UPDATE accounts
+            SET age = TIMESTAMPDIFF(YEAR, dob, CURDATE()),
+                account_type = IF(age < 18, 'STUDENT', account_type)
+            WHERE account_number > ? AND account_number <= ? AND dob IS NOT NULL
+        """, afterAccount == null ? "" : afterAccount, hi);
+        return hi;
+    }
 
     // ======================================================
     // UPDATES
@@ -147,15 +265,40 @@ public class AccountDao {
             String sql = "UPDATE accounts SET balance = ?, last_activity = ? WHERE account_number = ?";
             jdbcTemplate.update(sql, account.getBalance(), LocalDateTime.now(), account.getAccountNumber());
 
-            addAudit("BALANCE_UPDATE",
+            auditDao.record(AuditEvent.BALANCE_UPDATE, account.getAccountNumber(), account.getBalance(), null,
                     "Updated balance for account: " + account.getAccountNumber() + " → ₹" + account.getBalance(),
                     account.getHolderName());
+            publishChange(account.getAccountNumber(), Change.BALANCE);
 
         } catch (Exception e) {
             System.err.println("⚠️ Error updating balance: " + e.getMessage());
         }
     }
 
+    /**
+     * Adds {@code amount} to a live account's balance in one UPDATE (no read-modify-write) and
+     * returns its name, contact details and new balance; null if the account is missing or
+     * deleted, in which case nothing was changed.
+     */
+    public Account creditBalance(String accNum, BigDecimal amount) {
+        int rows = jdbcTemplate.update("""
+            UPDATE accounts SET balance = balance + ?, last_activity = ?
+            WHERE account_number = ? AND COALESCE(is_deleted, 0) = 0
+        """, amount, LocalDateTime.now(), accNum);
+        if (rows == 0) return null;
+
+        List<Account> results = jdbcTemplate.query(
+                "SELECT account_number, holder_name, email, phone_number, balance FROM accounts WHERE account_number = ?",
+                new AccountRowMapper(), accNum);
+        Account a = results.isEmpty() ? null : results.get(0);
+        if (a == null) return null;
+
+        auditDao.record(AuditEvent.BALANCE_UPDATE, accNum, a.getBalance(), null,
+                "Updated balance for account: " + accNum + " → ₹" + a.getBalance(), a.getHolderName());
+        publishChange(accNum, Change.BALANCE);
+        return a;
+    }
+
     public void updateAccountStatus(Account account) {
         try {
             jdbcTemplate.update(
@@ -163,8 +306,8 @@ public class AccountDao {
                     account.getStatus(), account.getAccountNumber()
             );
 
-            addAudit("STATUS_UPDATE", "Account status changed to " + account.getStatus(), account.getHolderName());
-            generateAccountsReport();
+            addAudit(AuditEvent.STATUS_UPDATE, account.getAccountNumber(), "Account status changed to " + account.getStatus(), account.getHolderName());
+            publishChange(account.getAccountNumber(), Change.STATUS);
 
         } catch (Exception e) {
             System.err.println("⚠️ Error updating status: " + e.getMessage());
@@ -188,7 +331,8 @@ public class AccountDao {
                 WHERE account_number = ?
             """, email, phone, accNum);
 
-            addAudit("UPDATE_CONTACT", "Updated contact info for account: " + accNum, "ADMIN");
+            addAudit(AuditEvent.UPDATE_CONTACT, accNum, "Updated contact info for account: " + accNum, "ADMIN");
+            publishChange(accNum, Change.DETAILS);
 
         } catch (Exception e) {
             System.err.println("⚠️ Error updating contact info: " + e.getMessage());
@@ -205,8 +349,8 @@ public class AccountDao {
         int rows = jdbcTemplate.update("DELETE FROM accounts WHERE account_number = ?", accNum);
 
         if (rows > 0) {
-            addAudit("DELETE_ACCOUNT", "Deleted account: " + accNum, "SYSTEM");
-            generateAccountsReport();
+            addAudit(AuditEvent.DELETE_ACCOUNT, accNum, "Deleted account: " + accNum, "SYSTEM");
+            publishChange(accNum, Change.DELETED);
         }
         return rows > 0;
     }
@@ -227,7 +371,7 @@ public class AccountDao {
                 WHERE account_number = ?
             """, accNum);
 
-            addAudit("DELETION_REQUEST", "Deletion requested for account: " + accNum, accNum);
+            addAudit(AuditEvent.DELETION_REQUEST, accNum, "Deletion requested for account: " + accNum, accNum);
             return rows > 0;
         } catch (Exception e) {
             System.err.println("⚠️ Error marking deletion requested: " + e.getMessage());
@@ -255,8 +399,8 @@ public class AccountDao {
                 WHERE account_number = ?
             """, accNum);
 
-            addAudit("DELETION_APPROVED", "Admin " + adminName + " approved deletion for: " + accNum, adminName);
-            generateAccountsReport();
+            addAudit(AuditEvent.DELETION_APPROVED, accNum, "Admin " + adminName + " approved deletion for: " + accNum, adminName);
+            publishChange(accNum, Change.STATUS);
             return rows > 0;
         } catch (Exception e) {
             System.err.println("⚠️ Error approving deletion: " + e.getMessage());
@@ -280,7 +424,7 @@ public class AccountDao {
                 WHERE account_number = ?
             """, accNum);
 
-            addAudit("DELETION_REJECTED", "Admin " + adminName + " rejected deletion for: " + accNum + " — " + adminComment, adminName);
+            addAudit(AuditEvent.DELETION_REJECTED, accNum, "Admin " + adminName + " rejected deletion for: " + accNum + " — " + adminComment, adminName);
             return rows > 0;
         } catch (Exception e) {
             System.err.println("⚠️ Error rejecting deletion: " + e.getMessage());
@@ -329,7 +473,8 @@ public class AccountDao {
                 WHERE account_number = ?
             """, accNum);
 
-            addAudit("LOCK_ACCOUNT", "Locked account after 3 failed logins: " + accNum, "SYSTEM");
+            addAudit(AuditEvent.LOCK_ACCOUNT, accNum, "Locked account after 3 failed logins: " + accNum, "SYSTEM");
+            publishChange(accNum, Change.STATUS);
 
         } catch (Exception e) {
             System.err.println("⚠️ Error locking account: " + e.getMessage());
@@ -354,7 +499,8 @@ public class AccountDao {
             WHERE account_number = ?
         """, accNo);
 
-            addAudit("UNLOCK_ACCOUNT", "Unlocked account: " + accNo, "ADMIN");
+            addAudit(AuditEvent.UNLOCK_ACCOUNT, accNo, "Unlocked account: " + accNo, "ADMIN");
+            publishChange(accNo, Change.STATUS);
 
         } catch (Exception e) {
             System.err.println("⚠️ Error unlocking account " + e.getMessage());
@@ -394,7 +540,7 @@ public class AccountDao {
     public void lockTransactionForAccount(String accNum) {
         try {
             jdbcTemplate.update("UPDATE accounts SET tx_locked=TRUE WHERE account_number = ?", accNum);
-            addAudit("TX_LOCK", "Transaction operations locked for account: " + accNum, "SYSTEM");
+            addAudit(AuditEvent.TX_LOCK, accNum, "Transaction operations locked for account: " + accNum, "SYSTEM");
         } catch (Exception e) {
             System.err.println("⚠️ Error locking transaction functionality: " + e.getMessage());
         }
@@ -403,7 +549,7 @@ public class AccountDao {
     public void unlockTransactionForAccount(String accNum) {
         try {
             jdbcTemplate.update("UPDATE accounts SET tx_locked=FALSE, tx_failed_attempts=0 WHERE account_number = ?", accNum);
-            addAudit("TX_UNLOCK", "Transaction operations unlocked for account: " + accNum, "SYSTEM");
+            addAudit(AuditEvent.TX_UNLOCK, accNum, "Transaction operations unlocked for account: " + accNum, "SYSTEM");
         } catch (Exception e) {
             System.err.println("⚠️ Error unlocking transaction functionality: " + e.getMessage());
         }
@@ -428,7 +574,7 @@ public class AccountDao {
                 WHERE account_number = ?
             """, toStore, LocalDateTime.now(), accNum);
 
-            addAudit("UPDATE_TX_PIN", "Updated transaction PIN for account: " + accNum, "SYSTEM");
+            addAudit(AuditEvent.UPDATE_TX_PIN, accNum, "Updated transaction PIN for account: " + accNum, "SYSTEM");
             return true;
         } catch (Exception e) {
             System.err.println("⚠️ Error setting transaction PIN: " + e.getMessage());
@@ -447,11 +593,11 @@ public class AccountDao {
                 WHERE account_number = ?
             """, amount, LocalDateTime.now(), accNo);
 
-            addAudit("ROLLBACK",
+            auditDao.record(AuditEvent.ROLLBACK, accNo, BigDecimal.valueOf(amount), null,
                     "Rolled back transaction for account " + accNo + " (₹" + amount + ")",
                     adminUser);
 
-            generateAccountsReport();
+            publishChange(accNo, Change.BALANCE);
             return true;
 
         } catch (Exception e) {
@@ -487,8 +633,8 @@ public class AccountDao {
                 WHERE account_number = ?
             """, loanAmount, interestRate, totalDue, LocalDateTime.now(), accNum);
 
-            addAudit("LOAN_METADATA_SET", "Loan metadata applied to account: " + accNum + " amount=" + loanAmount, "SYSTEM");
-            generateAccountsReport();
+            auditDao.record(AuditEvent.LOAN_METADATA_SET, accNum, loanAmount, null, "Loan metadata applied to account: " + accNum + " amount=" + loanAmount, "SYSTEM");
+            publishChange(accNum, Change.LOAN);
             return rows > 0;
         } catch (Exception e) {
             System.err.println("⚠️ Error applying loan metadata: " + e.getMessage());
@@ -512,8 +658,8 @@ public class AccountDao {
                 WHERE account_number = ?
             """, LocalDateTime.now(), accNum);
 
-            addAudit("LOAN_METADATA_CLEARED", "Cleared loan metadata for account: " + accNum, "SYSTEM");
-            generateAccountsReport();
+            addAudit(AuditEvent.LOAN_METADATA_CLEARED, accNum, "Cleared loan metadata for account: " + accNum, "SYSTEM");
+            publishChange(accNum, Change.LOAN);
             return rows > 0;
         } catch (Exception e) {
             System.err.println("⚠️ Error clearing loan metadata: " + e.getMessage());
@@ -534,7 +680,7 @@ public class AccountDao {
                 WHERE account_number = ?
             """, flag, LocalDateTime.now(), accNum);
 
-            addAudit("AUTO_REPAYMENT_" + (enable ? "ENABLED" : "DISABLED"),
+            addAudit(enable ? AuditEvent.AUTO_REPAYMENT_ENABLED : AuditEvent.AUTO_REPAYMENT_DISABLED, accNum,
                     "Auto repayment " + (enable ? "enabled" : "disabled") + " for account: " + accNum, "SYSTEM");
             return rows > 0;
         } catch (Exception e) {
@@ -544,125 +690,154 @@ public class AccountDao {
     }
 
     // ======================================================
-    // PDF
+    // CHANGE EVENTS
     // ======================================================
-    public void generateAccountsReport() {
+    // Reports and caches rebuild from this event in the background
+    // (the write path used to regenerate the accounts report synchronously here)
+    private void publishChange(String accNum, Change change) {
         try {
-            PdfGenerator.generateAccountsPdf(listAllAccounts());
+            events.publishEvent(new AccountChangedEvent(accNum, change));
         } catch (Exception ignored) {}
     }
 
     // ======================================================
     // AUDIT
     // ======================================================
-    private void addAudit(String event, String desc, String actor) {
-        try {
-            jdbcTemplate.update("""
-                INSERT INTO audit_log (event_type, description, actor, timestamp)
-                VALUES (?, ?, ?, NOW())
-            """, event, desc, actor);
-        } catch (Exception ignored) {}
+    private void addAudit(AuditEvent event, String accNum, String desc, String actor) {
+        auditDao.record(event, accNum, desc, actor);
     }
 
     // ======================================================
     // ROW MAPPER — Includes New Fields
     // ======================================================
-    private static class AccountRowMapper implements RowMapper<Account> {
+    /**
+     * Maps full or partial account rows. Column positions are resolved once per result
+     * (see IndexedRowMapper); columns that weren't selected leave the field at its default.
+     * Package-private for AccountRowMapperBenchmark.
+     */
+    static class AccountRowMapper extends IndexedRowMapper<Account> {
+
+        private int accountNumber, holderName, email, balance, accountType, phoneNumber, gender, address, pin;
+        private int transactionPin, status, failedAttempts, isLocked, txFailedAttempts, txLocked;
+        private int createdAt, lastActivity, lockTime, dob, age;
+        private int branchName, ifscCode, govtIdType, govtIdNumber, govtIdProof, deletionReq, isDeleted;
+        private int takenLoan, loanAmount, loanInterestRate, loanTotalDue, autoRepaymentEnabled;
+        private int loanTakenDate, loanLastPaid, loanType, emiPlan, loanDueCycle;
+
+        @Override
+        protected void resolve(Columns c) {
+            accountNumber = c.index("account_number");
+            holderName = c.index("holder_name");
+            email = c.index("email");
+            balance = c.index("balance");
+            accountType = c.index("account_type");
+            phoneNumber = c.index("phone_number");
+            gender = c.index("gender");
+            address = c.index("address");
+            pin = c.index("pin");
+
+            transactionPin = c.index("transaction_pin");
+            status = c.index("status");
+            failedAttempts = c.index("failed_attempts");
+            isLocked = c.index("is_locked");
+            txFailedAttempts = c.index("tx_failed_attempts");
+            txLocked = c.index("tx_locked");
+
+            createdAt = c.index("created_at");
+            lastActivity = c.index("last_activity");
+            lockTime = c.index("lock_time");
+            dob = c.index("dob");
+            age = c.index("age");
+
+            branchName = c.index("branch_name");
+            ifscCode = c.index("ifsc_code");
+            govtIdType = c.index("govt_id_type");
+            govtIdNumber = c.index("govt_id_number");
+            govtIdProof = c.index("govt_id_proof");
+            deletionReq = c.index("deletion_req");
+            isDeleted = c.index("is_deleted");
+
+            takenLoan = c.index("taken_loan");
+            loanAmount = c.index("loan_amount");
+            loanInterestRate = c.index("loan_interest_rate");
+            loanTotalDue = c.index("loan_total_due");
+            autoRepaymentEnabled = c.index("auto_repayment_enabled");
+            loanTakenDate = c.index("loan_taken_date");
+            loanLastPaid = c.index("loan_last_paid");
+            loanType = c.index("loan_type");
+            emiPlan = c.index("emi_plan");
+            loanDueCycle = c.index("loan_due_cycle");
+        }
+
         @Override
-        public Account mapRow(ResultSet rs, int rowNum) throws SQLException {
+        protected Account map(ResultSet rs) throws SQLException {
 
             Account a = new Account(
-                    rs.getString("account_number"),
-                    rs.getString("holder_name"),
-                    rs.getString("email"),
-                    rs.getBigDecimal("balance"),
-                    rs.getString("account_type"),
-                    rs.getString("phone_number"),
-                    rs.getString("gender"),
-                    rs.getString("address"),
-                    rs.getString("pin")
+                    string(rs, accountNumber),
+                    string(rs, holderName),
+                    string(rs, email),
+                    decimal(rs, balance),
+                    string(rs, accountType),
+                    string(rs, phoneNumber),
+                    string(rs, gender),
+                    string(rs, address),
+                    string(rs, pin)
             );
 
             // ---------------------
             // STANDARD FIELDS
             // ---------------------
-            a.setTransactionPin(rs.getString("transaction_pin"));
-            a.setStatus(rs.getString("status"));
-            a.setFailedAttempts(rs.getInt("failed_attempts"));
-            a.setLocked(rs.getBoolean("is_locked"));
-
-            try { a.setTxFailedAttempts(rs.getInt("tx_failed_attempts")); } catch (Exception ignored) {}
-            try { a.setTxLocked(rs.getBoolean("tx_locked")); } catch (Exception ignored) {}
-
-            if (rs.getTimestamp("created_at") != null)
-                a.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
+            a.setTransactionPin(string(rs, transactionPin));
+            a.setStatus(string(rs, status));
+            a.setFailedAttempts(intValue(rs, failedAttempts));
+            a.setLocked(bool(rs, isLocked));
+            a.setTxFailedAttempts(intValue(rs, txFailedAttempts));
+            a.setTxLocked(bool(rs, txLocked));
 
-            if (rs.getTimestamp("last_activity") != null)
-                a.setLastActivity(rs.getTimestamp("last_activity").toLocalDateTime());
-
-            if (rs.getTimestamp("lock_time") != null)
-                a.setLockTime(rs.getTimestamp("lock_time").toLocalDateTime());
+            a.setCreatedAt(dateTime(rs, createdAt));
+            a.setLastActivity(dateTime(rs, lastActivity));
+            a.setLockTime(dateTime(rs, lockTime));
 
             // ---------------------
             // DOB + AGE
             // ---------------------
-            try {
-                if (rs.getDate("dob") != null)
-                    a.setDob(rs.getDate("dob").toLocalDate());
-            } catch (Exception ignored) {}
-
-            try {
-                int age = rs.getInt("age");
-                if (!rs.wasNull()) a.setAge(age);
-            } catch (Exception ignored) {}
+            a.setDob(date(rs, dob));
+            Integer ageValue = integer(rs, age);
+            if (ageValue != null) a.setAge(ageValue);
 
             // ---------------------
             // IFSC + BRANCH
             // ---------------------
-            try { a.setBranchName(rs.getString("branch_name")); } catch (Exception ignored) {}
-            try { a.setIfscCode(rs.getString("ifsc_code")); } catch (Exception ignored) {}
+            a.setBranchName(string(rs, branchName));
+            a.setIfscCode(string(rs, ifscCode));
 
             // ---------------------
             // GOVT ID
             // ---------------------
-            try { a.setGovtIdType(rs.getString("govt_id_type")); } catch (Exception ignored) {}
-            try { a.setGovtIdNumber(rs.getString("govt_id_number")); } catch (Exception ignored) {}
-            try { a.setGovtIdProof(rs.getBytes("govt_id_proof")); } catch (Exception ignored) {}
+            a.setGovtIdType(string(rs, govtIdType));
+            a.setGovtIdNumber(string(rs, govtIdNumber));
+            a.setGovtIdProof(bytes(rs, govtIdProof));
 
             // ---------------------
-            // DELETION FLAGS
+            // DELETION FLAGS (absent → left null)
             // ---------------------
-            try {
-                a.setDeletionReq(rs.getInt("deletion_req"));
-            } catch (Exception ignored) {}
-
-            try {
-                a.setIsDeleted(rs.getInt("is_deleted"));
-            } catch (Exception ignored) {}
+            if (deletionReq != 0) a.setDeletionReq(rs.getInt(deletionReq));
+            if (isDeleted != 0) a.setIsDeleted(rs.getInt(isDeleted));
 
             // ---------------------
-            // LOAN FIELDS (FIXED)
+            // LOAN FIELDS
             // ---------------------
-            try { a.setTakenLoan(rs.getInt("taken_loan")); } catch (Exception ignored) {}
-            try { a.setLoanAmount(rs.getBigDecimal("loan_amount")); } catch (Exception ignored) {}
-            try { a.setLoanInterestRate(rs.getBigDecimal("loan_interest_rate")); } catch (Exception ignored) {}
-            try { a.setLoanTotalDue(rs.getBigDecimal("loan_total_due")); } catch (Exception ignored) {}
-            try { a.setAutoRepaymentEnabled(rs.getInt("auto_repayment_enabled")); } catch (Exception ignored) {}
-
-            try {
-                if (rs.getTimestamp("loan_taken_date") != null)
-                    a.setLoanTakenDate(rs.getTimestamp("loan_taken_date").toLocalDateTime());
-            } catch (Exception ignored) {}
-
-            try {
-                if (rs.getTimestamp("loan_last_paid") != null)
-                    a.setLoanLastPaid(rs.getTimestamp("loan_last_paid").toLocalDateTime());
-            } catch (Exception ignored) {}
-
-            // NEW: loan_type, emi_plan, loan_due_cycle
-            try { a.setLoanType(rs.getString("loan_type")); } catch (Exception ignored) {}
-            try { a.setEmiPlan(rs.getString("emi_plan")); } catch (Exception ignored) {}
-            try { a.setLoanDueCycle(rs.getString("loan_due_cycle")); } catch (Exception ignored) {}
+            if (takenLoan != 0) a.setTakenLoan(rs.getInt(takenLoan));
+            a.setLoanAmount(decimal(rs, loanAmount));
+            a.setLoanInterestRate(decimal(rs, loanInterestRate));
+            a.setLoanTotalDue(decimal(rs, loanTotalDue));
+            if (autoRepaymentEnabled != 0) a.setAutoRepaymentEnabled(rs.getInt(autoRepaymentEnabled));
+            a.setLoanTakenDate(dateTime(rs, loanTakenDate));
+            a.setLoanLastPaid(dateTime(rs, loanLastPaid));
+
+            a.setLoanType(string(rs, loanType));
+            a.setEmiPlan(string(rs, emiPlan));
+            a.setLoanDueCycle(string(rs, loanDueCycle));
 
             return a;
         }
@@ -681,14 +856,14 @@ public class AccountDao {
     // ======================================================
     public boolean emailOrPhoneMatches(String accNo, String contact) {
         try {
-            Account a = findByAccountNumber(accNo);
+            AccountAttributeCache.Attributes a = attributeCache.get(accNo);
             if (a == null || contact == null) return false;
 
             String trimmed = contact.trim();
             if (trimmed.isBlank()) return false;
 
-            String storedEmail = a.getEmail() != null ? a.getEmail().trim() : "";
-            String storedPhone = a.getPhoneNumber() != null ? a.getPhoneNumber().trim() : "";
+            String storedEmail = a.email() != null ? a.email().trim() : "";
+            String storedPhone = a.phone() != null ? a.phone().trim() : "";
 
             return trimmed.equalsIgnoreCase(storedEmail)
                     || trimmed.equalsIgnoreCase(storedPhone);
@@ -705,7 +880,8 @@ public class AccountDao {
         try {
             int rows = jdbcTemplate.update("DELETE FROM accounts WHERE account_number = ?", accNo);
             if (rows > 0) {
-                addAudit("DELETE_ADMIN_ACCOUNT", "Deleted admin-linked account: " + accNo, "SYSTEM");
+                addAudit(AuditEvent.DELETE_ADMIN_ACCOUNT, accNo, "Deleted admin-linked account: " + accNo, "SYSTEM");
+                publishChange(accNo, Change.DELETED);
             }
             return rows > 0;
         } catch (Exception e) {
@@ -736,8 +912,9 @@ public class AccountDao {
                 a.getAccountNumber()
         );
 
-        addAudit("UPDATE_CUSTOMER_DETAILS",
+        addAudit(AuditEvent.UPDATE_CUSTOMER_DETAILS, a.getAccountNumber(),
                 "Updated customer details for: " + a.getAccountNumber(),
                 a.getHolderName());
+        publishChange(a.getAccountNumber(), Change.DETAILS);
     }
 }
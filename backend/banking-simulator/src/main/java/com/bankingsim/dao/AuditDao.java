@@ -0,0 +1,200 @@
+package com.bankingsim.dao;
+
+import com.bankingsim.model.AuditEvent;
+import com.bankingsim.model.AuditLogEntry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Single entry point for audit_log reads and writes.
+ *
+ * Writes carry structured columns (account_number, amount, correlation_id) next to the
+ * free-text description so lookups never need LIKE scans. app.audit.sink selects where they go:
+ * "database" (audit_log, default), "segments" (hash-chained files, see AuditSegmentStore) or "both".
+ *
+ * Every read is bounded by a [from, to) range on `timestamp` (the partition key), so MySQL
+ * only opens the monthly partitions that overlap the range, and pages by keyset on
+ * (timestamp DESC, id DESC) instead of OFFSET.
+ */
+@Repository
+public class AuditDao {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AuditSegmentStore segmentStore;
+
+    @Value("${app.audit.sink:database}")
+    private String sink;
+
+    public AuditDao(JdbcTemplate jdbcTemplate, AuditSegmentStore segmentStore) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.segmentStore = segmentStore;
+    }
+
+    // ======================================================
+    // WRITE
+    // ======================================================
+
+    /**
+     * Inserts one audit row. Never throws — auditing must not break the operation being audited.
+     */
+    public void record(AuditEvent event, String accountNumber, BigDecimal amount,
+                       String correlationId, String description, String actor) {
+        if (!"segments".equalsIgnoreCase(sink)) {
+            try {
+                jdbcTemplate.update("""
+                    INSERT INTO audit_log (event_type, account_number, amount, correlation_id, description, actor, timestamp)
+                    VALUES (?, ?, ?, ?, ?, ?, NOW())
+                """, event.name(), accountNumber, amount, correlationId, description, actor);
+            } catch (Exception e) {
+                System.err.println("⚠️ Failed to add audit log: " + e.getMessage());
+            }
+        }
+
+        if ("segments".equalsIgnoreCase(sink) || "both".equalsIgnoreCase(sink)) {
+            try {
+                segmentStore.append(event.name(), accountNumber, amount, correlationId, description, actor);
+            } catch (Exception e) {
+                System.err.println("⚠️ Failed to append audit segment: " + e.getMessage());
+            }
+        }
+    }
+
+    public void record(AuditEvent event, String accountNumber, String description, String actor) {
+        record(event, accountNumber, null, null, description, actor);
+    }
+
+    // ======================================================
+    // SEARCH (keyset paged)
+    // ======================================================
+    public record Filter(LocalDateTime from, LocalDateTime to, String accountNumber,
+                         String correlationId, String actor, AuditEvent eventType) {}
+
+    public record Page(List<AuditLogEntry> entries, String nextCursor) {}
+
+    /**
+     * Returns up to {@code limit} rows older than {@code cursor} (newest first).
+     * nextCursor is null when there are no more rows in the range.
+     */
+    public Page search(Filter f, String cursor, int limit) {
+        List<Object> params = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("""
+            SELECT id, event_type, account_number, amount, correlation_id, description, actor, `timestamp`
+            FROM audit_log""").append(buildWhere(f, params));
+
+        if (cursor != null && !cursor.isBlank()) {
+            Object[] key = decodeCursor(cursor);
+            sql.append(" AND (`timestamp` < ? OR (`timestamp` = ? AND id < ?))");
+            params.add(key[0]);
+            params.add(key[0]);
+            params.add(key[1]);
+        }
+
+        sql.append(" ORDER BY `timestamp` DESC, id DESC LIMIT ?");
+        params.add(limit + 1);
+
+        List<AuditLogEntry> rows = jdbcTemplate.query(sql.toString(), new AuditRowMapper(), params.toArray());
+
+        String next = null;
+        if (rows.size() > limit) {
+            rows = new ArrayList<>(rows.subList(0, limit));
+            AuditLogEntry last = rows.get(limit - 1);
+            next = encodeCursor(last.getTimestamp(), last.getId());
+        }
+        return new Page(rows, next);
+    }
+
+    /**
+     * Runs EXPLAIN for the same filter search() would use and returns the partitions
+     * MySQL plans to read. Used to verify pruning from the audit endpoint.
+     */
+    public List<String> explainPartitions(Filter f) {
+        List<Object> params = new ArrayList<>();
+        String sql = "EXPLAIN SELECT id FROM audit_log" + buildWhere(f, params);
+
+        List<String> partitions = new ArrayList<>();
+        for (Map<String, Object> row : jdbcTemplate.queryForList(sql, params.toArray())) {
+            Object p = row.get("partitions");
+            if (p != null) partitions.add(p.toString());
+        }
+        return partitions;
+    }
+
+    private String buildWhere(Filter f, List<Object> params) {
+        StringBuilder where = new StringBuilder(" WHERE `timestamp` >= ? AND `timestamp` < ?");
+        params.add(Timestamp.valueOf(f.from()));
+        params.add(Timestamp.valueOf(f.to()));
+
+        if (f.accountNumber() != null && !f.accountNumber().isBlank()) {
+            where.append(" AND account_number = ?");
+            params.add(f.accountNumber().trim());
+        }
+        if (f.correlationId() != null && !f.correlationId().isBlank()) {
+            where.append(" AND correlation_id = ?");
+            params.add(f.correlationId().trim());
+        }
+        if (f.actor() != null && !f.actor().isBlank()) {
+            where.append(" AND actor = ?");
+            params.add(f.actor().trim());
+        }
+        if (f.eventType() != null) {
+            where.append(" AND event_type = ?");
+            params.add(f.eventType().name());
+        }
+        return where.toString();
+    }
+
+    // ======================================================
+    // CURSOR  (base64url of "<timestamp>|<id>")
+    // ======================================================
+    private static String encodeCursor(LocalDateTime ts, long id) {
+        String raw = ts + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Object[] decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int sep = raw.lastIndexOf('|');
+            return new Object[] {
+                    Timestamp.valueOf(LocalDateTime.parse(raw.substring(0, sep))),
+                    Long.parseLong(raw.substring(sep + 1))
+            };
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Invalid cursor.");
+        }
+    }
+
+    // ======================================================
+    // MAPPER
+    // ======================================================
+    private static class AuditRowMapper implements RowMapper<AuditLogEntry> {
+        @Override
+        public AuditLogEntry mapRow(ResultSet rs, int rowNum) throws SQLException {
+            AuditLogEntry e = new AuditLogEntry();
+            e.setId(rs.getLong("id"));
+            e.setEventType(rs.getString("event_type"));
+            e.setAccountNumber(rs.getString("account_number"));
+            e.setAmount(rs.getBigDecimal("amount"));
+            e.setCorrelationId(rs.getString("correlation_id"));
+            e.setDescription(rs.getString("description"));
+            e.setActor(rs.getString("actor"));
+
+            Timestamp ts = rs.getTimestamp("timestamp");
+            if (ts != null) e.setTimestamp(ts.toLocalDateTime());
+            return e;
+        }
+    }
+}
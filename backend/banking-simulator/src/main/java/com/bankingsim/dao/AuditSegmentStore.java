@@ -0,0 +1,190 @@
+package com.bankingsim.dao;
+
+import com.bankingsim.util.AuditSegmentFormat;
+import com.bankingsim.util.AuditSegmentReader;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.List;
+
+import static com.bankingsim.util.AuditSegmentFormat.*;
+
+/**
+ * Append-only audit sink writing hash-chained binary records to rolling segment files
+ * (layout in {@link AuditSegmentFormat}). Used by AuditDao when app.audit.sink is
+ * "segments" or "both"; reads and chain verification go through {@link AuditSegmentReader}.
+ *
+ * Writes are serialized by the instance lock so the sequence and hash chain stay linear.
+ * Data is forced to disk every app.audit.segments.fsync-interval-ms.
+ */
+@Repository
+public class AuditSegmentStore {
+
+    @Value("${app.audit.segments.path:archive/audit-segments/}")
+    private String segmentPath;
+
+    @Value("${app.audit.segments.max-records:1048576}")
+    private long maxRecordsPerSegment;
+
+    private final ByteBuffer recordBuf = ByteBuffer.allocateDirect(RECORD_SIZE);
+    private final MessageDigest sha256 = AuditSegmentFormat.sha256();
+
+    private FileChannel channel;
+    private long nextSeq;
+    private long recordsInSegment;
+    private long lastTimestamp;
+    private byte[] lastHash = new byte[HASH_SIZE];
+    private boolean dirty;
+
+    // record offsets within a segment are ints (see AuditSegmentFormat.MAX_RECORDS)
+    @PostConstruct
+    void checkSegmentSize() {
+        if (maxRecordsPerSegment < 1 || maxRecordsPerSegment > MAX_RECORDS)
+            throw new IllegalStateException("app.audit.segments.max-records must be between 1 and "
+                    + MAX_RECORDS + " (was " + maxRecordsPerSegment + ")");
+    }
+
+    public Path directory() {
+        return Paths.get(segmentPath);
+    }
+
+    // ======================================================
+    // APPEND
+    // ======================================================
+
+    /** Appends one record and returns its sequence number. */
+    public synchronized long append(String event, String accountNumber, BigDecimal amount,
+                                    String correlationId, String description, String actor) throws IOException {
+        if (channel == null) open();
+        if (recordsInSegment >= maxRecordsPerSegment) roll();
+
+        // keep timestamps monotonic so the reader can binary search
+        long ts = Math.max(System.currentTimeMillis(), lastTimestamp);
+
+        recordBuf.clear();
+        byte[] hash = encode(recordBuf, nextSeq, ts, event, accountNumber, amount,
+                correlationId, actor, description, lastHash, sha256);
+        if (truncatedAt(recordBuf, 0))
+            System.err.println("⚠️ Audit record " + nextSeq + " (" + event + ") truncated to fit the segment format");
+        recordBuf.flip();
+        try {
+            while (recordBuf.hasRemaining()) channel.write(recordBuf);
+        } catch (IOException e) {
+            // reopen on next append; open() trims whatever part of this record reached the file
+            try { channel.close(); } catch (IOException ignored) {}
+            channel = null;
+            throw e;
+        }
+
+        lastHash = hash;
+        lastTimestamp = ts;
+        recordsInSegment++;
+        dirty = true;
+        return nextSeq++;
+    }
+
+    @Scheduled(fixedDelayString = "${app.audit.segments.fsync-interval-ms:1000}")
+    public synchronized void flush() {
+        if (channel == null || !dirty) return;
+        try {
+            channel.force(false);
+            dirty = false;
+        } catch (IOException e) {
+            System.err.println("⚠️ Could not sync audit segment: " + e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (channel == null) return;
+        flush();
+        try {
+            channel.close();
+        } catch (IOException ignored) {}
+        channel = null;
+    }
+
+    // ======================================================
+    // OPEN / RECOVER / ROLL
+    // ======================================================
+    private void open() throws IOException {
+        Path dir = directory();
+        Files.createDirectories(dir);
+
+        List<Path> segments = AuditSegmentReader.listSegments(dir);
+        if (segments.isEmpty()) {
+            startSegment(0, new byte[HASH_SIZE]);
+            return;
+        }
+
+        Path last = segments.get(segments.size() - 1);
+        long size = Files.size(last);
+
+        if (size < HEADER_SIZE) {
+            // header never made it to disk: the segment holds no records yet
+            Files.delete(last);
+            open();
+            return;
+        }
+
+        // a crash can leave a partially written record at the tail: drop it
+        long whole = (size - HEADER_SIZE) / RECORD_SIZE;
+        long validSize = HEADER_SIZE + whole * RECORD_SIZE;
+        if (size != validSize) {
+            try (FileChannel ch = FileChannel.open(last, StandardOpenOption.WRITE)) {
+                ch.truncate(validSize);
+            }
+            System.err.println("⚠️ Dropped " + (size - validSize) + " trailing bytes from " + last.getFileName());
+        }
+
+        ByteBuffer buf = AuditSegmentReader.map(last);
+        long firstSeq = buf.getLong(HDR_FIRST_SEQ);
+        if (whole == 0) {
+            lastHash = new byte[HASH_SIZE];
+            buf.get(HDR_PREV_HASH, lastHash);
+        } else {
+            int base = Math.toIntExact(HEADER_SIZE + (whole - 1) * RECORD_SIZE);
+            lastHash = storedHash(buf, base);
+            lastTimestamp = timestampAt(buf, base);
+        }
+
+        nextSeq = firstSeq + whole;
+        recordsInSegment = whole;
+        channel = FileChannel.open(last, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+
+        System.out.println("🗂️ Audit segments resumed at seq " + nextSeq + " (" + last.getFileName() + ")");
+    }
+
+    private void roll() throws IOException {
+        channel.force(false);
+        channel.close();
+        startSegment(nextSeq, lastHash);
+    }
+
+    private void startSegment(long firstSeq, byte[] prevHash) throws IOException {
+        Path file = directory().resolve(fileName(firstSeq));
+        channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+
+        ByteBuffer header = newHeader(firstSeq, System.currentTimeMillis(), prevHash);
+        while (header.hasRemaining()) channel.write(header);
+        channel.force(true);
+
+        nextSeq = firstSeq;
+        recordsInSegment = 0;
+        lastHash = prevHash;
+        dirty = false;
+    }
+}
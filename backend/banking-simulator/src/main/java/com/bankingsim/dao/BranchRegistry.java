@@ -0,0 +1,179 @@
+package com.bankingsim.dao;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Branches and their IFSC codes, from the branches table (V9), so a new branch doesn't need a
+ * redeploy.
+ *
+ * Lookups go to an immutable Index (id → branch array, name → branch, IFSC → branch) that is
+ * rebuilt off to the side and swapped in with one volatile write; readers never lock and never
+ * see a half-built index.
+ *
+ *  - loaded on startup, reloaded right after a change made through this class
+ *  - every app.branches.poll-ms the row count and MAX(updated_at) are compared with the loaded
+ *    index, so changes made on another node (or directly in the table) are picked up too
+ *
+ * The branch id is the ordinal stored in accounts.branch_id and transactions.*_branch_id.
+ */
+@Component
+public class BranchRegistry {
+
+    /** Branch id that matches no rows: what an unknown branch name resolves to. */
+    public static final int NONE = -1;
+
+    public record Branch(int id, String name, String ifscCode, boolean active) {}
+
+    /** Immutable snapshot of the table. */
+    private record Index(Branch[] byId, Map<String, Branch> byName, Map<String, Branch> byIfsc,
+                         List<Branch> all, String signature) {
+
+        static final Index EMPTY = new Index(new Branch[0], Map.of(), Map.of(), List.of(), "");
+
+        static Index of(List<Branch> rows, String signature) {
+            int maxId = rows.stream().mapToInt(Branch::id).max().orElse(0);
+            Branch[] byId = new Branch[maxId + 1];
+            Map<String, Branch> byName = new HashMap<>();
+            Map<String, Branch> byIfsc = new HashMap<>();
+            for (Branch b : rows) {
+                byId[b.id()] = b;
+                byName.put(nameKey(b.name()), b);
+                byIfsc.put(ifscKey(b.ifscCode()), b);
+            }
+            return new Index(byId, Map.copyOf(byName), Map.copyOf(byIfsc), List.copyOf(rows), signature);
+        }
+    }
+
+    private static final String SIGNATURE_SQL = "SELECT CONCAT(COUNT(*), '|', COALESCE(CAST(MAX(updated_at) AS CHAR), '')) FROM branches";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile Index index = Index.EMPTY;
+
+    public BranchRegistry(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // ======================================================
+    // LOOKUP
+    // ======================================================
+    public Branch byId(int id) {
+        Branch[] byId = index.byId;
+        return id > 0 && id < byId.length ? byId[id] : null;
+    }
+
+    /** Case-insensitive, trimmed. */
+    public Branch byName(String name) {
+        return name == null ? null : index.byName.get(nameKey(name));
+    }
+
+    /** Reverse lookup: the branch an IFSC code belongs to (case-insensitive, trimmed). */
+    public Branch byIfsc(String ifsc) {
+        return ifsc == null ? null : index.byIfsc.get(ifscKey(ifsc));
+    }
+
+    /** All branches, ordered by id (inactive ones included). */
+    public List<Branch> all() {
+        return index.all;
+    }
+
+    /** Ordinal of the named branch, or {@link #NONE} if there is no such branch. */
+    public int idOf(String name) {
+        Branch b = byName(name);
+        return b == null ? NONE : b.id();
+    }
+
+    /**
+     * Branch filter for a report / query parameter: null when blank (all branches), otherwise
+     * the branch ordinal ({@link #NONE} for an unknown name, so the result is empty).
+     */
+    public Integer filterOf(String branch) {
+        return (branch == null || branch.isBlank()) ? null : idOf(branch);
+    }
+
+    private static String nameKey(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String ifscKey(String ifsc) {
+        return ifsc.trim().toUpperCase(Locale.ROOT);
+    }
+
+    // ======================================================
+    // CHANGES
+    // ======================================================
+
+    /** Adds a branch with the next free id. */
+    public Branch create(String name, String ifsc) {
+        if (name == null || name.isBlank())
+            throw new IllegalArgumentException("Branch name is required.");
+        if (ifsc == null || !ifsc.trim().matches("[A-Za-z]{4}0[A-Za-z0-9]{6}"))
+            throw new IllegalArgumentException("Invalid IFSC code.");
+        if (byName(name) != null)
+            throw new IllegalArgumentException("Branch already exists: " + name.trim());
+        if (byIfsc(ifsc) != null)
+            throw new IllegalArgumentException("IFSC code already in use: " + ifscKey(ifsc));
+
+        // the unique keys reject a concurrent duplicate (or id) from another node
+        jdbcTemplate.update("""
+            INSERT INTO branches (id, name, ifsc_code, active, updated_at)
+            SELECT COALESCE(MAX(id), 0) + 1, ?, ?, TRUE, NOW(3) FROM branches
+        """, name.trim(), ifscKey(ifsc));
+
+        reload();
+        return byName(name);
+    }
+
+    /** Opens or closes a branch for new accounts; existing accounts are not affected. */
+    public Branch setActive(int id, boolean active) {
+        int rows = jdbcTemplate.update(
+                "UPDATE branches SET active = ?, updated_at = NOW(3) WHERE id = ?", active, id);
+        if (rows == 0) return null;
+
+        reload();
+        return byId(id);
+    }
+
+    // ======================================================
+    // LOADING
+    // ======================================================
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        reload();
+    }
+
+    @Scheduled(fixedDelayString = "${app.branches.poll-ms:30000}",
+               initialDelayString = "${app.branches.poll-ms:30000}")
+    public void poll() {
+        try {
+            String signature = jdbcTemplate.queryForObject(SIGNATURE_SQL, String.class);
+            if (!index.signature.equals(signature)) reload();
+        } catch (Exception e) {
+            System.err.println("⚠️ Branch registry poll failed: " + e.getMessage());
+        }
+    }
+
+    public synchronized void reload() {
+        try {
+            // signature first: a change committed between the two reads just triggers one more reload
+            String signature = jdbcTemplate.queryForObject(SIGNATURE_SQL, String.class);
+            List<Branch> rows = jdbcTemplate.query(
+                    "SELECT id, name, ifsc_code, active FROM branches ORDER BY id",
+                    (rs, i) -> new Branch(rs.getInt(1), rs.getString(2), rs.getString(3), rs.getBoolean(4)));
+
+            index = Index.of(rows, signature);
+            System.out.println("🏦 Branch registry loaded: " + rows.size() + " branches");
+        } catch (Exception e) {
+            System.err.println("⚠️ Branch registry reload failed (keeping the old one): " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package com.bankingsim.dao;
+
+import com.bankingsim.event.TransactionRecordedEvent;
+import com.bankingsim.event.TransactionReversedEvent;
+import com.bankingsim.model.TransactionRecord;
+import com.bankingsim.model.TransactionRecord.TxType;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * account_daily_summary (V10): per account and day, the money in and out, the number of
+ * movements and the balance at the start, end, low and high of the day. Loan review and the
+ * statistics page read this instead of scanning the ledger.
+ *
+ *  - credits / debits (and counts) are every balance movement: ledger rows, and the undo of a
+ *    rollback on the day it happens
+ *  - deposits / spending are what the customer did: deposits and incoming transfers, and
+ *    withdrawals and outgoing transfers (the loan review and statistics definitions)
+ *  - balances are read from accounts right after the ledger row is written (the balance is
+ *    always updated first), so they are snapshots, not a re-derivation of the ledger
+ *
+ * Updated from TransactionRecordedEvent / TransactionReversedEvent. Until DailySummaryBackfill
+ * has rebuilt the days before the table existed, readers keep their ledger queries.
+ */
+@Repository
+public class DailySummaryDao {
+
+    /** One account-day of the rollup. */
+    public record Day(LocalDate date, BigDecimal credits, BigDecimal debits, int creditCount, int debitCount,
+                      BigDecimal deposits, BigDecimal spending,
+                      BigDecimal openBalance, BigDecimal endBalance, BigDecimal minBalance, BigDecimal maxBalance) {}
+
+    private static final RowMapper<Day> DAY_MAPPER = (rs, i) -> new Day(
+            rs.getDate("summary_date").toLocalDate(),
+            rs.getBigDecimal("credits"), rs.getBigDecimal("debits"),
+            rs.getInt("credit_count"), rs.getInt("debit_count"),
+            rs.getBigDecimal("deposits"), rs.getBigDecimal("spending"),
+            rs.getBigDecimal("open_balance"), rs.getBigDecimal("end_balance"),
+            rs.getBigDecimal("min_balance"), rs.getBigDecimal("max_balance"));
+
+    private static final String COLUMNS = """
+        summary_date, credits, debits, credit_count, debit_count, deposits, spending,
+        open_balance, end_balance, min_balance, max_balance
+    """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile boolean ready;
+
+    public DailySummaryDao(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /** True once every day before the rollup existed has been rebuilt from the ledger. */
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void setReady(boolean ready) {
+        this.ready = ready;
+    }
+
+    // ======================================================
+    // INCREMENTAL UPDATES
+    // ======================================================
+    @EventListener
+    public void onTransactionRecorded(TransactionRecordedEvent event) {
+        TransactionRecord tx = event.transaction();
+        if (tx.getAmount() == null) return;
+        LocalDate day = (tx.getCreatedAt() != null ? tx.getCreatedAt() : LocalDateTime.now()).toLocalDate();
+        boolean customer = isCustomerMovement(tx.getTxType());
+        BigDecimal amt = tx.getAmount();
+
+        String from = TransactionDao.sanitizeAccount(tx.getFromAccount());
+        String to = TransactionDao.sanitizeAccount(tx.getToAccount());
+
+        if (from != null)
+            apply(from, day, BigDecimal.ZERO, amt, BigDecimal.ZERO, customer ? amt : BigDecimal.ZERO);
+        if (to != null)
+            apply(to, day, amt, BigDecimal.ZERO, customer ? amt : BigDecimal.ZERO, BigDecimal.ZERO);
+    }
+
+    // the money moves back today; deposits / spending keep the original (as the ledger does)
+    @EventListener
+    public void onTransactionReversed(TransactionReversedEvent event) {
+        TransactionRecord tx = event.transaction();
+        if (tx.getAmount() == null) return;
+        LocalDate today = LocalDate.now();
+
+        String from = TransactionDao.sanitizeAccount(tx.getFromAccount());
+        String to = TransactionDao.sanitizeAccount(tx.getToAccount());
+
+        if (from != null)
+            apply(from, today, tx.getAmount(), BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO);
+        if (to != null)
+            apply(to, today, BigDecimal.ZERO, tx.getAmount(), BigDecimal.ZERO, BigDecimal.ZERO);
+    }
+
+    public static boolean isCustomerMovement(TxType type) {
+        return type == TxType.DEPOSIT || type == TxType.WITHDRAW || type == TxType.TRANSFER;
+    }
+
+    private void apply(String accNo, LocalDate day, BigDecimal credit, BigDecimal debit,
+                       BigDecimal deposit, BigDecimal spend) {
+        try {
+            List<BigDecimal> bal = jdbcTemplate.queryForList(
+                    "SELECT balance FROM accounts WHERE account_number = ?", BigDecimal.class, accNo);
+            if (bal.isEmpty() || bal.get(0) == null) return;
+
+            BigDecimal end = bal.get(0);
+            BigDecimal open = end.subtract(credit).add(debit);
+
+            jdbcTemplate.update("""
+                INSERT INTO account_daily_summary
+                (account_number, summary_date, credits, debits, credit_count, debit_count, deposits, spending,
+                 open_balance, end_balance, min_balance, max_balance)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+                ON DUPLICATE KEY UPDATE
+                    credits      = credits + VALUES(credits),
+                    debits       = debits + VALUES(debits),
+                    credit_count = credit_count + VALUES(credit_count),
+                    debit_count  = debit_count + VALUES(debit_count),
+                    deposits     = deposits + VALUES(deposits),
+                    spending     = spending + VALUES(spending),
+                    end_balance  = VALUES(end_balance),
+                    min_balance  = LEAST(COALESCE(min_balance, VALUES(min_balance)), VALUES(min_balance)),
+                    max_balance  = GREATEST(COALESCE(max_balance, VALUES(max_balance)), VALUES(max_balance))
+            """,
+                    accNo, Date.valueOf(day), credit, debit,
+                    credit.signum() > 0 ? 1 : 0, debit.signum() > 0 ? 1 : 0,
+                    deposit, spend,
+                    open, end, open.min(end), open.max(end));
+        } catch (Exception e) {
+            // the rollup must never fail a ledger write; the backfill can rebuild it
+            System.err.println("⚠️ Daily summary update failed for " + accNo + ": " + e.getMessage());
+        }
+    }
+
+    // ======================================================
+    // REBUILD (DailySummaryBackfill)
+    // ======================================================
+
+    /**
+     * Writes the account's rebuilt rows for days before {@code before}, overwriting what is there.
+     * An upsert, not delete + insert: a rerun (or a second node) rewrites the same rows instead of
+     * failing on the key, and rows are never briefly missing for readers. The ledger only grows,
+     * so a rebuild covers every day an earlier one wrote.
+     */
+    public void replaceBefore(String accNo, LocalDate before, List<Day> days) {
+        List<Day> rows = days.stream().filter(d -> d.date().isBefore(before)).toList();
+        if (rows.isEmpty()) return;
+
+        jdbcTemplate.batchUpdate("""
+            INSERT INTO account_daily_summary (account_number, %s)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            ON DUPLICATE KEY UPDATE
+                credits      = VALUES(credits),
+                debits       = VALUES(debits),
+                credit_count = VALUES(credit_count),
+                debit_count  = VALUES(debit_count),
+                deposits     = VALUES(deposits),
+                spending     = VALUES(spending),
+                open_balance = VALUES(open_balance),
+                end_balance  = VALUES(end_balance),
+                min_balance  = VALUES(min_balance),
+                max_balance  = VALUES(max_balance)
+        """.formatted(COLUMNS), rows, 500, (ps, d) -> {
+            ps.setString(1, accNo);
+            ps.setDate(2, Date.valueOf(d.date()));
+            ps.setBigDecimal(3, d.credits());
+            ps.setBigDecimal(4, d.debits());
+            ps.setInt(5, d.creditCount());
+            ps.setInt(6, d.debitCount());
+            ps.setBigDecimal(7, d.deposits());
+            ps.setBigDecimal(8, d.spending());
+            ps.setBigDecimal(9, d.openBalance());
+            ps.setBigDecimal(10, d.endBalance());
+            ps.setBigDecimal(11, d.minBalance());
+            ps.setBigDecimal(12, d.maxBalance());
+        });
+    }
+
+    // ======================================================
+    // READ
+    // ======================================================
+
+    /** Days with activity in [from, to), oldest first. */
+    public List<Day> range(String accNo, LocalDate from, LocalDate to) {
+        return jdbcTemplate.query("SELECT " + COLUMNS + """
+            FROM account_daily_summary
+            WHERE account_number = ? AND summary_date >= ? AND summary_date < ?
+            ORDER BY summary_date
+        """, DAY_MAPPER, accNo, Date.valueOf(from), Date.valueOf(to));
+    }
+
+    /** Deposits and incoming transfers from {@code from} (inclusive) until now. */
+    public BigDecimal depositsSince(String accNo, LocalDate from) {
+        BigDecimal v = jdbcTemplate.queryForObject("""
+            SELECT COALESCE(SUM(deposits), 0) FROM account_daily_summary
+            WHERE account_number = ? AND summary_date >= ?
+        """, BigDecimal.class, accNo, Date.valueOf(from));
+        return v == null ? BigDecimal.ZERO : v;
+    }
+
+    /**
+     * Time-weighted average of the end-of-day balance over [from, today]: each day counts once,
+     * a day without activity keeps the previous day's balance. Days before the account was
+     * opened are not counted. O(days) over the rollup.
+     */
+    public BigDecimal averageBalance(String accNo, LocalDate from) {
+        LocalDate today = LocalDate.now();
+        List<Map.Entry<LocalDate, BigDecimal>> account = jdbcTemplate.query(
+                "SELECT DATE(created_at), balance FROM accounts WHERE account_number = ?",
+                (rs, i) -> Map.entry(rs.getDate(1) != null ? rs.getDate(1).toLocalDate() : from,
+                        rs.getBigDecimal(2) != null ? rs.getBigDecimal(2) : BigDecimal.ZERO),
+                accNo);
+        if (account.isEmpty()) return BigDecimal.ZERO;
+
+        LocalDate start = account.get(0).getKey().isAfter(from) ? account.get(0).getKey() : from;
+        if (start.isAfter(today)) start = today;
+        List<Day> days = range(accNo, start, today.plusDays(1));
+
+        // balance carried into the first day: the last known end of day, else the balance
+        // before the first movement, else (no activity at all) the current balance
+        List<BigDecimal> before = jdbcTemplate.queryForList("""
+            SELECT end_balance FROM account_daily_summary
+            WHERE account_number = ? AND summary_date < ?
+            ORDER BY summary_date DESC LIMIT 1
+        """, BigDecimal.class, accNo, Date.valueOf(start));
+        BigDecimal carry = !before.isEmpty() && before.get(0) != null ? before.get(0)
+                : !days.isEmpty() && days.get(0).openBalance() != null ? days.get(0).openBalance()
+                : account.get(0).getValue();
+
+        BigDecimal total = BigDecimal.ZERO;
+        LocalDate cursor = start;
+        for (Day d : days) {
+            // days since the last movement at the carried balance, then this day's closing balance
+            total = total.add(carry.multiply(BigDecimal.valueOf(ChronoUnit.DAYS.between(cursor, d.date()))));
+            if (d.endBalance() != null) carry = d.endBalance();
+            total = total.add(carry);
+            cursor = d.date().plusDays(1);
+        }
+        total = total.add(carry.multiply(BigDecimal.valueOf(ChronoUnit.DAYS.between(cursor, today.plusDays(1)))));
+
+        long n = ChronoUnit.DAYS.between(start, today) + 1;
+        return total.divide(BigDecimal.valueOf(n), 2, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,151 @@
+package com.bankingsim.dao;
+
+import com.bankingsim.util.SqlDialect;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Forward-only reads for the bulk exports (see ExportService).
+ *
+ * Each dataset has a fixed column list, so secrets (PINs, govt id numbers / proofs) can never
+ * end up in an export. Rows are streamed (SqlDialect.streamingTemplate), so the MySQL driver
+ * hands them over one at a time instead of buffering the whole result.
+ */
+@Repository
+public class ExportDao {
+
+    private static final String BRANCH_ACCOUNTS = "SELECT account_number FROM accounts WHERE branch_id = ?";
+
+    // transactions of a branch as two range scans on (from/to_branch_id, created_at), as in
+    // TransactionDao.BRANCH_TX_SQL; the second half skips rows the first already returned
+    private static final String[] BRANCH_TX_SPLIT = {
+            "from_branch_id = ?",
+            "to_branch_id = ? AND NOT (from_branch_id <=> ?)"
+    };
+
+    public enum Dataset {
+        ACCOUNTS("""
+                SELECT account_number, holder_name, email, phone_number, gender, branch_name, ifsc_code,
+                       account_type, status, balance, taken_loan, loan_amount, loan_total_due,
+                       is_deleted, created_at, last_activity
+                FROM accounts
+                """, "created_at", "branch_id = ?", "account_type"),
+
+        // the branch predicate is only used until the ledger branch columns are backfilled; then
+        // see BRANCH_TX_SPLIT
+        TRANSACTIONS("""
+                SELECT tx_id, tx_type, from_account, to_account, from_branch, to_branch, amount,
+                       category, status, rolled_back_by, created_at
+                FROM transactions
+                """, "created_at",
+                "(from_account IN (" + BRANCH_ACCOUNTS + ") OR to_account IN (" + BRANCH_ACCOUNTS + "))",
+                "tx_type"),
+
+        LOANS("""
+                SELECT id, account_number, loan_type, requested_amount, interest_rate, emi_plan,
+                       terms_accepted, status, requested_at, processed_at, processed_by, admin_comment
+                FROM loan_requests
+                """, "requested_at", "account_number IN (" + BRANCH_ACCOUNTS + ")", "loan_type"),
+
+        AUDIT("""
+                SELECT id, event_type, account_number, amount, correlation_id, actor, description, `timestamp`
+                FROM audit_log
+                """, "`timestamp`", "account_number IN (" + BRANCH_ACCOUNTS + ")", "event_type");
+
+        final String select;
+        final String dateColumn;
+        final String branchPredicate;
+        final String typeColumn;
+        private final List<String> columns;
+
+        Dataset(String select, String dateColumn, String branchPredicate, String typeColumn) {
+            this.select = select;
+            this.dateColumn = dateColumn;
+            this.branchPredicate = branchPredicate;
+            this.typeColumn = typeColumn;
+            this.columns = columnsOf(select);
+        }
+
+        /** Column labels of the select list, in order (known before any row is read). */
+        public List<String> columns() {
+            return columns;
+        }
+
+        private static List<String> columnsOf(String select) {
+            String list = select.substring(select.indexOf("SELECT") + "SELECT".length(), select.indexOf("FROM"));
+            return Arrays.stream(list.split(",")).map(c -> c.trim().replace("`", "")).toList();
+        }
+
+        public static Dataset parse(String s) {
+            if (s == null) return null;
+            return switch (s.trim().toLowerCase()) {
+                case "accounts" -> ACCOUNTS;
+                case "transactions" -> TRANSACTIONS;
+                case "loans", "loan_requests" -> LOANS;
+                case "audit", "audit_log" -> AUDIT;
+                default -> null;
+            };
+        }
+    }
+
+    /**
+     * Server-side filters; null fields are not applied. {@code to} is exclusive, {@code branchId}
+     * is a BranchRegistry ordinal.
+     */
+    public record Filter(LocalDateTime from, LocalDateTime to, Integer branchId, String type) {}
+
+    private final JdbcTemplate streamingJdbc;
+    private final TransactionDao txDao;
+
+    public ExportDao(JdbcTemplate jdbcTemplate, TransactionDao txDao) {
+        this.streamingJdbc = SqlDialect.streamingTemplate(jdbcTemplate.getDataSource());
+        this.txDao = txDao;
+    }
+
+    public void stream(Dataset ds, Filter f, RowCallbackHandler handler) {
+        StringBuilder sql = new StringBuilder();
+        List<Object> args = new ArrayList<>();
+
+        if (f.branchId() != null && ds == Dataset.TRANSACTIONS && txDao.isBranchColumnsReady()) {
+            appendSelect(sql, args, ds, f, BRANCH_TX_SPLIT[0]);
+            sql.append(" UNION ALL ");
+            appendSelect(sql, args, ds, f, BRANCH_TX_SPLIT[1]);
+        } else {
+            appendSelect(sql, args, ds, f, f.branchId() != null ? ds.branchPredicate : null);
+        }
+        sql.append(" ORDER BY ").append(ds.dateColumn).append(" ASC");
+
+        streamingJdbc.query(sql.toString(), handler, args.toArray());
+    }
+
+    private static void appendSelect(StringBuilder sql, List<Object> args, Dataset ds, Filter f, String branchPredicate) {
+        sql.append(ds.select).append(" WHERE 1=1");
+
+        if (f.from() != null) {
+            sql.append(" AND ").append(ds.dateColumn).append(" >= ?");
+            args.add(Timestamp.valueOf(f.from()));
+        }
+        if (f.to() != null) {
+            sql.append(" AND ").append(ds.dateColumn).append(" < ?");
+            args.add(Timestamp.valueOf(f.to()));
+        }
+        if (branchPredicate != null) {
+            sql.append(" AND ").append(branchPredicate);
+            // one bind per placeholder in the predicate
+            for (int i = branchPredicate.indexOf('?'); i >= 0; i = branchPredicate.indexOf('?', i + 1)) {
+                args.add(f.branchId());
+            }
+        }
+        if (f.type() != null) {
+            sql.append(" AND ").append(ds.typeColumn).append(" = ?");
+            args.add(f.type());
+        }
+    }
+}
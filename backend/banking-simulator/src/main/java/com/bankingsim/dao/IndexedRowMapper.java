@@ -0,0 +1,101 @@
+package com.bankingsim.dao;
+
+import org.springframework.jdbc.core.RowMapper;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Row mapper that looks column positions up once per ResultSet, from its metadata, and then
+ * reads every row by index.
+ *
+ * Subclasses keep the resolved positions in int fields (0 = column not selected) and use the
+ * null-safe readers below, so projections that leave columns out need no try/catch per row.
+ * An instance remembers the ResultSet it resolved for: create one per query (the usual
+ * {@code new XRowMapper()} at the call site), don't share one between threads.
+ */
+abstract class IndexedRowMapper<T> implements RowMapper<T> {
+
+    private ResultSet resolvedFor;
+
+    @Override
+    public final T mapRow(ResultSet rs, int rowNum) throws SQLException {
+        if (rs != resolvedFor) {
+            resolve(new Columns(rs.getMetaData()));
+            resolvedFor = rs;
+        }
+        return map(rs);
+    }
+
+    /** Looks up the column positions this mapper reads. */
+    protected abstract void resolve(Columns columns);
+
+    protected abstract T map(ResultSet rs) throws SQLException;
+
+    /** Column label → 1-based position (case-insensitive); 0 if the column isn't in the result. */
+    static final class Columns {
+        private final Map<String, Integer> byLabel = new HashMap<>();
+
+        Columns(ResultSetMetaData meta) throws SQLException {
+            for (int i = meta.getColumnCount(); i >= 1; i--) {
+                // iterate backwards so the first of duplicate labels wins, like rs.findColumn
+                byLabel.put(meta.getColumnLabel(i).toLowerCase(), i);
+            }
+        }
+
+        int index(String label) {
+            return byLabel.getOrDefault(label.toLowerCase(), 0);
+        }
+    }
+
+    // ======================================================
+    // NULL-SAFE READERS (index 0 → column absent)
+    // ======================================================
+    static String string(ResultSet rs, int i) throws SQLException {
+        return i == 0 ? null : rs.getString(i);
+    }
+
+    static BigDecimal decimal(ResultSet rs, int i) throws SQLException {
+        return i == 0 ? null : rs.getBigDecimal(i);
+    }
+
+    static byte[] bytes(ResultSet rs, int i) throws SQLException {
+        return i == 0 ? null : rs.getBytes(i);
+    }
+
+    /** SQL NULL and absent columns both read as 0, like ResultSet.getInt. */
+    static int intValue(ResultSet rs, int i) throws SQLException {
+        return i == 0 ? 0 : rs.getInt(i);
+    }
+
+    /** null for SQL NULL or an absent column. */
+    static Integer integer(ResultSet rs, int i) throws SQLException {
+        if (i == 0) return null;
+        int v = rs.getInt(i);
+        return rs.wasNull() ? null : v;
+    }
+
+    static boolean bool(ResultSet rs, int i) throws SQLException {
+        return i != 0 && rs.getBoolean(i);
+    }
+
+    static LocalDateTime dateTime(ResultSet rs, int i) throws SQLException {
+        if (i == 0) return null;
+        Timestamp ts = rs.getTimestamp(i);
+        return ts == null ? null : ts.toLocalDateTime();
+    }
+
+    static LocalDate date(ResultSet rs, int i) throws SQLException {
+        if (i == 0) return null;
+        Date d = rs.getDate(i);
+        return d == null ? null : d.toLocalDate();
+    }
+}
@@ -0,0 +1,106 @@
+package com.bankingsim.dao;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Leases and run history for JobScheduler.
+ *
+ * job_leases has one row per job. A node owns a job while owner = its id and lease_until is in
+ * the future; all times come from the database clock, so nodes with skewed clocks still agree.
+ * Taking or extending a lease is a single conditional UPDATE, so exactly one node can win.
+ */
+@Repository
+public class JobDao {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public JobDao(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // ======================================================
+    // LEASES
+    // ======================================================
+
+    /** Takes the lease if it is free, expired or already ours; true if we hold it now. */
+    public boolean tryAcquire(String job, String owner, int leaseSeconds) {
+        jdbcTemplate.update("INSERT IGNORE INTO job_leases (job_name, owner, lease_until) VALUES (?, '', NOW(3))", job);
+        return jdbcTemplate.update("""
+            UPDATE job_leases
+            SET owner = ?, lease_until = NOW(3) + INTERVAL ? SECOND, acquired_at = NOW(3)
+            WHERE job_name = ? AND (owner = ? OR lease_until < NOW(3))
+        """, owner, leaseSeconds, job, owner) == 1;
+    }
+
+    /** Extends a lease we hold; false if another node took it over meanwhile. */
+    public boolean renew(String job, String owner, int leaseSeconds) {
+        return jdbcTemplate.update("""
+            UPDATE job_leases SET lease_until = NOW(3) + INTERVAL ? SECOND
+            WHERE job_name = ? AND owner = ?
+        """, leaseSeconds, job, owner) == 1;
+    }
+
+    public void release(String job, String owner) {
+        jdbcTemplate.update("UPDATE job_leases SET lease_until = NOW(3) WHERE job_name = ? AND owner = ?", job, owner);
+    }
+
+    public List<Map<String, Object>> leases() {
+        return jdbcTemplate.queryForList("""
+            SELECT job_name, owner, acquired_at, lease_until, lease_until > NOW(3) AS held
+            FROM job_leases ORDER BY job_name
+        """);
+    }
+
+    // ======================================================
+    // RUN HISTORY
+    // ======================================================
+    public long startRun(String job, String owner) {
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(
+                    "INSERT INTO job_runs (job_name, owner, started_at, status) VALUES (?, ?, NOW(3), 'RUNNING')",
+                    Statement.RETURN_GENERATED_KEYS);
+            ps.setString(1, job);
+            ps.setString(2, owner);
+            return ps;
+        }, keys);
+        Number id = keys.getKey();
+        return id == null ? -1 : id.longValue();
+    }
+
+    public void finishRun(long id, String status, long rows, int chunks, long durationMs, String error) {
+        jdbcTemplate.update("""
+            UPDATE job_runs
+            SET finished_at = NOW(3), status = ?, rows_affected = ?, chunks = ?, duration_ms = ?, error = ?
+            WHERE id = ?
+        """, status, rows, chunks, durationMs, error == null ? null : truncate(error, 500), id);
+    }
+
+    public List<Map<String, Object>> recentRuns(String job, int limit) {
+        return jdbcTemplate.queryForList("""
+            SELECT id, job_name, owner, started_at, finished_at, status, rows_affected, chunks, duration_ms, error
+            FROM job_runs WHERE job_name = ?
+            ORDER BY started_at DESC LIMIT ?
+        """, job, limit);
+    }
+
+    /** Deletes at most {@code limit} run rows older than {@code days}; returns rows deleted. */
+    public int pruneRuns(int days, int limit) {
+        return jdbcTemplate.update("""
+            DELETE FROM job_runs WHERE started_at < NOW() - INTERVAL ? DAY
+            ORDER BY started_at LIMIT ?
+        """, days, limit);
+    }
+
+    private static String truncate(String s, int max) {
+        return s.length() <= max ? s : s.substring(0, max);
+    }
+}
@@ -0,0 +1,178 @@
+package com.bankingsim.dao;
+
+import com.bankingsim.config.ReadOnly;
+import com.bankingsim.util.SqlDialect;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Keyset-paged, column-projected reads for the admin list views (see ListingService).
+ *
+ * Every listing has a whitelist of JSON field -> column, so PIN hashes and govt id numbers /
+ * proofs can't be selected. Pages are positioned by (sort column, id column) instead of
+ * OFFSET and rows are streamed from the driver one at a time.
+ */
+@Repository
+public class ListingDao {
+
+    public enum Listing {
+        ACCOUNTS("accounts", "account_number", "account_number", false,
+                fields("accountNumber", "account_number",
+                       "holderName", "holder_name",
+                       "email", "email",
+                       "phoneNumber", "phone_number",
+                       "gender", "gender",
+                       "branchName", "branch_name",
+                       "ifscCode", "ifsc_code",
+                       "accountType", "account_type",
+                       "status", "status",
+                       "balance", "balance",
+                       "locked", "is_locked",
+                       "lockTime", "lock_time",
+                       "failedAttempts", "failed_attempts",
+                       "txLocked", "tx_locked",
+                       "createdAt", "created_at",
+                       "lastActivity", "last_activity",
+                       "takenLoan", "taken_loan",
+                       "loanAmount", "loan_amount",
+                       "loanTotalDue", "loan_total_due",
+                       "deletionReq", "deletion_req",
+                       "isDeleted", "is_deleted"),
+                Map.of("branch", new Criterion("branch_name", s -> s),
+                       "status", new Criterion("status", String::toUpperCase),
+                       "type", new Criterion("account_type", s -> s),
+                       "locked", new Criterion("COALESCE(is_locked, FALSE)", Boolean::parseBoolean),
+                       "deleted", new Criterion("COALESCE(is_deleted, 0)", s -> Boolean.parseBoolean(s) ? 1 : 0))),
+
+        TRANSACTIONS("transactions", "created_at", "tx_id", true,
+                fields("txId", "tx_id",
+                       "txType", "tx_type",
+                       "fromAccount", "from_account",
+                       "toAccount", "to_account",
+                       "fromBranch", "from_branch",
+                       "toBranch", "to_branch",
+                       "amount", "amount",
+                       "category", "category",
+                       "status", "status",
+                       "rolledBackBy", "rolled_back_by",
+                       "createdAt", "created_at"),
+                Map.of("type", new Criterion("tx_type", String::toUpperCase),
+                       "status", new Criterion("status", String::toUpperCase),
+                       "category", new Criterion("category", s -> s)));
+
+        final String table;
+        final String sortColumn;
+        final String idColumn;
+        final boolean descending;
+        public final Map<String, String> fields;
+        final Map<String, Criterion> criteria;
+
+        Listing(String table, String sortColumn, String idColumn, boolean descending,
+                Map<String, String> fields, Map<String, Criterion> criteria) {
+            this.table = table;
+            this.sortColumn = sortColumn;
+            this.idColumn = idColumn;
+            this.descending = descending;
+            this.fields = fields;
+            this.criteria = criteria;
+        }
+
+        public boolean hasCriterion(String name) {
+            return criteria.containsKey(name);
+        }
+
+        public static Listing parse(String s) {
+            if (s == null) return null;
+            return switch (s.trim().toLowerCase()) {
+                case "accounts" -> ACCOUNTS;
+                case "transactions" -> TRANSACTIONS;
+                default -> null;
+            };
+        }
+
+        private static Map<String, String> fields(String... pairs) {
+            Map<String, String> m = new LinkedHashMap<>();
+            for (int i = 0; i < pairs.length; i += 2) m.put(pairs[i], pairs[i + 1]);
+            return m;
+        }
+    }
+
+    /** Equality filter on a column; the request value is converted before binding. */
+    record Criterion(String column, Function<String, Object> convert) {}
+
+    /** Last row of the previous page, as an opaque url-safe token. */
+    public record Cursor(String sortValue, String id) {
+
+        public String encode() {
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString((sortValue + "|" + id).getBytes(StandardCharsets.UTF_8));
+        }
+
+        /** @throws IllegalArgumentException if the token wasn't produced by {@link #encode()} */
+        public static Cursor decode(String token) {
+            String raw = new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.UTF_8);
+            int bar = raw.indexOf('|');
+            if (bar <= 0 || bar == raw.length() - 1) throw new IllegalArgumentException("malformed cursor");
+            return new Cursor(raw.substring(0, bar), raw.substring(bar + 1));
+        }
+    }
+
+    private final JdbcTemplate streamingJdbc;
+
+    public ListingDao(JdbcTemplate jdbcTemplate) {
+        this.streamingJdbc = SqlDialect.streamingTemplate(jdbcTemplate.getDataSource());
+    }
+
+    /**
+     * Streams up to {@code limit} rows after {@code after}. Each row holds the requested fields
+     * (labelled with their JSON names, in order) followed by the sort and id columns.
+     */
+    @ReadOnly
+    public void stream(Listing l, List<String> fields, Map<String, String> filters, Cursor after, int limit,
+                       RowCallbackHandler handler) {
+        StringBuilder sql = new StringBuilder("SELECT ");
+        for (String f : fields) sql.append(l.fields.get(f)).append(" AS ").append(f).append(", ");
+        sql.append(l.sortColumn).append(", ").append(l.idColumn)
+           .append(" FROM ").append(l.table).append(" WHERE 1=1");
+
+        List<Object> args = new ArrayList<>();
+        filters.forEach((name, value) -> {
+            Criterion c = l.criteria.get(name);
+            sql.append(" AND ").append(c.column()).append(" = ?");
+            args.add(c.convert().apply(value.trim()));
+        });
+
+        String cmp = l.descending ? "<" : ">";
+        if (after != null) {
+            if (l.sortColumn.equals(l.idColumn)) {
+                sql.append(" AND ").append(l.idColumn).append(' ').append(cmp).append(" ?");
+                args.add(after.id());
+            } else {
+                // (sort, id) past the cursor, spelled out so MySQL can range-scan on the sort column
+                sql.append(" AND ").append(l.sortColumn).append(' ').append(cmp).append("= ?")
+                   .append(" AND (").append(l.sortColumn).append(' ').append(cmp).append(" ?")
+                   .append(" OR ").append(l.idColumn).append(' ').append(cmp).append(" ?)");
+                args.add(after.sortValue());
+                args.add(after.sortValue());
+                args.add(after.id());
+            }
+        }
+
+        String dir = l.descending ? " DESC" : " ASC";
+        sql.append(" ORDER BY ").append(l.sortColumn).append(dir);
+        if (!l.sortColumn.equals(l.idColumn)) sql.append(", ").append(l.idColumn).append(dir);
+        sql.append(" LIMIT ?");
+        args.add(limit);
+
+        streamingJdbc.query(sql.toString(), handler, args.toArray());
+    }
+}
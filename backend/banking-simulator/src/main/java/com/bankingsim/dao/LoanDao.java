@@ -1,11 +1,16 @@
 package com.bankingsim.dao;
 
+import com.bankingsim.config.ReadOnly;
+import com.bankingsim.event.AccountChangedEvent;
+import com.bankingsim.model.AuditEvent;
 import com.bankingsim.model.LoanRequest;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.sql.*;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
@@ -14,38 +19,19 @@ import java.util.Map;
 public class LoanDao {
 
     private final JdbcTemplate jdbcTemplate;
+    private final AuditDao auditDao;
+    private final ApplicationEventPublisher events;
+    private final DailySummaryDao summaries;
 
-    public LoanDao(JdbcTemplate jdbcTemplate) {
-        this.jdbcTemplate = jdbcTemplate;
-        ensureLoanRequestsTable();
-    }
+    // loan review looks at the last six months of the account
+    private static final int REVIEW_MONTHS = 6;
 
-    // ======================================================================
-    // CREATE TABLE (FINAL SCHEMA) - matches columns you listed
-    // ======================================================================
-    private void ensureLoanRequestsTable() {
-        try {
-            jdbcTemplate.execute("""
-                CREATE TABLE IF NOT EXISTS loan_requests (
-                    id BIGINT AUTO_INCREMENT PRIMARY KEY,
-                    account_number VARCHAR(32),
-                    loan_type VARCHAR(64),
-                    requested_amount DECIMAL(15,2),
-                    interest_rate DECIMAL(6,3),
-                    emi_plan VARCHAR(32),
-                    govt_id_number VARCHAR(128),
-                    govt_id_proof LONGBLOB,
-                    terms_accepted TINYINT(1) DEFAULT 0,
-                    requested_at DATETIME DEFAULT CURRENT_TIMESTAMP,
-                    processed_at DATETIME NULL,
-                    status VARCHAR(32) DEFAULT 'PENDING',
-                    admin_comment TEXT,
-                    processed_by VARCHAR(100)
-                )
-            """);
-        } catch (Exception e) {
-            System.err.println("⚠️ ensureLoanRequestsTable failed: " + e.getMessage());
-        }
+    public LoanDao(JdbcTemplate jdbcTemplate, AuditDao auditDao, ApplicationEventPublisher events,
+                   DailySummaryDao summaries) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.auditDao = auditDao;
+        this.events = events;
+        this.summaries = summaries;
     }
 
     // ======================================================================
@@ -75,7 +61,7 @@ public class LoanDao {
             );
 
             Long id = jdbcTemplate.queryForObject("SELECT LAST_INSERT_ID()", Long.class);
-            addAudit("LOAN_REQ_SAVED", "Loan request saved id=" + id + " acc=" + req.getAccountNumber(), req.getAccountNumber());
+            auditDao.record(AuditEvent.LOAN_REQ_SAVED, req.getAccountNumber(), req.getRequestedAmount(), loanRef(id), "Loan request saved id=" + id + " acc=" + req.getAccountNumber(), req.getAccountNumber());
             return id == null ? -1L : id;
 
         } catch (Exception e) {
@@ -87,6 +73,7 @@ public class LoanDao {
     // ======================================================================
     // GET ALL PENDING REQUESTS
     // ======================================================================
+    @ReadOnly
     public List<Map<String, Object>> getAllPendingRequests() {
         try {
             return jdbcTemplate.queryForList("""
@@ -165,7 +152,7 @@ public class LoanDao {
                 WHERE id = ?
             """, comment, adminUser, reqId);
 
-            addAudit("LOAN_REQUEST_APPROVE", "Approved loan request id=" + reqId + " by " + adminUser, adminUser);
+            auditDao.record(AuditEvent.LOAN_REQUEST_APPROVE, null, null, loanRef(reqId), "Approved loan request id=" + reqId + " by " + adminUser, adminUser);
             return true;
         } catch (Exception e) {
             System.err.println("⚠ approveLoanRequest failed: " + e.getMessage());
@@ -196,7 +183,8 @@ public class LoanDao {
                 WHERE account_number = ?
             """, principal, rate, totalDue, principal, req.getAccountNumber());
 
-            addAudit("LOAN_APPLY_ACCOUNT", "Applied loan to account " + req.getAccountNumber(), "SYSTEM");
+            auditDao.record(AuditEvent.LOAN_APPLY_ACCOUNT, req.getAccountNumber(), principal, loanRef(req.getId()), "Applied loan to account " + req.getAccountNumber(), "SYSTEM");
+            events.publishEvent(new AccountChangedEvent(req.getAccountNumber(), AccountChangedEvent.Change.LOAN));
             return true;
         } catch (Exception e) {
             System.err.println("⚠ applyLoanToAccount failed: " + e.getMessage());
@@ -233,7 +221,8 @@ public class LoanDao {
                 """, req.getAccountNumber());
             }
 
-            addAudit("LOAN_REQUEST_REJECT", "Rejected loan request id=" + reqId + " by " + adminUser, adminUser);
+            auditDao.record(AuditEvent.LOAN_REQUEST_REJECT, req != null ? req.getAccountNumber() : null, null, loanRef(reqId), "Rejected loan request id=" + reqId + " by " + adminUser, adminUser);
+            if (req != null) publishLoanChange(req.getAccountNumber());
             return true;
         } catch (Exception e) {
             System.err.println("⚠ rejectLoan failed: " + e.getMessage());
@@ -244,8 +233,15 @@ public class LoanDao {
     // ======================================================================
     // Analytics helpers
     // ======================================================================
+    /**
+     * Time-weighted average end-of-day balance over the review window (account_daily_summary);
+     * the current balance until the rollup has been backfilled.
+     */
     public BigDecimal getAverageBalance(String accNo) {
         try {
+            if (summaries.isReady())
+                return summaries.averageBalance(accNo, LocalDate.now().minusMonths(REVIEW_MONTHS));
+
             BigDecimal v = jdbcTemplate.queryForObject("""
                 SELECT COALESCE(AVG(balance),0) FROM accounts WHERE account_number = ?
             """, BigDecimal.class, accNo);
@@ -258,6 +254,9 @@ public class LoanDao {
 
     public BigDecimal getTotalDepositsLast6Months(String accNo) {
         try {
+            if (summaries.isReady())
+                return summaries.depositsSince(accNo, LocalDate.now().minusMonths(REVIEW_MONTHS));
+
             BigDecimal v = jdbcTemplate.queryForObject("""
                 SELECT COALESCE(SUM(amount),0) FROM transactions
                 WHERE (tx_type = 'DEPOSIT' OR tx_type = 'TRANSFER')
@@ -312,7 +311,8 @@ public class LoanDao {
             WHERE account_number = ? AND status = 'APPROVED'
         """, accNo);
 
-            addAudit("LOAN_CLOSED", "Loan closed for " + accNo, "SYSTEM");
+            addAudit(AuditEvent.LOAN_CLOSED, accNo, "Loan closed for " + accNo, "SYSTEM");
+            publishLoanChange(accNo);
             return true;
 
         } catch (Exception e) {
@@ -332,8 +332,9 @@ public class LoanDao {
                     accNo
             );
 
-            addAudit(enabled ? "AUTO_REPAY_ON" : "AUTO_REPAY_OFF",
+            addAudit(enabled ? AuditEvent.AUTO_REPAY_ON : AuditEvent.AUTO_REPAY_OFF, accNo,
                     "Auto repayment " + (enabled ? "enabled" : "disabled") + " for " + accNo, accNo);
+            publishLoanChange(accNo);
 
             return true;
         } catch (Exception e) {
@@ -345,15 +346,23 @@ public class LoanDao {
     // ======================================================================
     // Audit helper
     // ======================================================================
-    private void addAudit(String event, String desc, String actor) {
+    private void addAudit(AuditEvent event, String accNo, String desc, String actor) {
+        auditDao.record(event, accNo, desc, actor);
+    }
+
+    // loan fields on the accounts row changed (caches, dashboards' event streams)
+    private void publishLoanChange(String accNo) {
+        if (accNo == null) return;
         try {
-            jdbcTemplate.update("""
-                INSERT INTO audit_log(event_type, description, actor, timestamp)
-                VALUES (?, ?, ?, NOW())
-            """, event, desc, actor);
+            events.publishEvent(new AccountChangedEvent(accNo, AccountChangedEvent.Change.LOAN));
         } catch (Exception ignored) {}
     }
 
+    // correlation id shared by every audit row of one loan request
+    private static String loanRef(Long reqId) {
+        return reqId == null ? null : "LOAN-" + reqId;
+    }
+
     // ======================================================================
     // Backward-compatible wrapper methods required by other services:
     // markLoanTaken, sendLoanApprovedNotification, makeLoanRepayment, etc.
@@ -374,7 +383,7 @@ public class LoanDao {
 
     public void sendLoanApprovedNotification(LoanRequest req) {
         try {
-            addAudit("LOAN_APPROVED_NOTIFY", "Notify user about approved loan id=" + req.getId() + " acc=" + req.getAccountNumber(), "SYSTEM");
+            auditDao.record(AuditEvent.LOAN_APPROVED_NOTIFY, req.getAccountNumber(), null, loanRef(req.getId()), "Notify user about approved loan id=" + req.getId() + " acc=" + req.getAccountNumber(), "SYSTEM");
             // hook for real mail/sms integration
         } catch (Exception ignored) {}
     }
@@ -387,7 +396,8 @@ public class LoanDao {
                     loan_last_paid = NOW()
                 WHERE account_number = ?
             """, amount, accNo);
-            addAudit("LOAN_REPAY", "Repayment " + amount + " for " + accNo, accNo);
+            auditDao.record(AuditEvent.LOAN_REPAY, accNo, amount, null, "Repayment " + amount + " for " + accNo, accNo);
+            publishLoanChange(accNo);
             return true;
         } catch (Exception e) {
             System.err.println("⚠ makeLoanRepayment error: " + e.getMessage());
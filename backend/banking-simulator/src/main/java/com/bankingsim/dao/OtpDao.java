@@ -56,8 +56,9 @@ public class OtpDao {
         jdbcTemplate.update(sql, userIdentifier, otp);
     }
 
-    public void deleteExpiredOtps() {
-        String sql = "DELETE FROM otp_verification WHERE expires_at < NOW()";
-        jdbcTemplate.execute(sql);
+    /** Deletes at most {@code limit} expired OTPs (idx_otp_expires range); returns rows deleted. */
+    public int deleteExpiredOtps(int limit) {
+        String sql = "DELETE FROM otp_verification WHERE expires_at < NOW() ORDER BY expires_at LIMIT ?";
+        return jdbcTemplate.update(sql, limit);
     }
 }
@@ -0,0 +1,294 @@
+package com.bankingsim.dao;
+
+import com.bankingsim.event.AccountChangedEvent;
+import com.bankingsim.util.LongIntOpenHashMap;
+import com.bankingsim.util.SqlDialect;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * In-memory directory of every account number → IFSC and deleted flag, so recipient checks
+ * (transfer, account + IFSC validation, registration) don't need a database round trip.
+ *
+ * Account numbers are 11 digits and are stored as long keys of a LongIntOpenHashMap; the int
+ * value packs the IFSC ordinal (low 16 bits, into {@code ifscCodes}) and status bits. Reads
+ * are optimistic (StampedLock), writes are rare.
+ *
+ *  - loaded on startup and fully reloaded every app.directory.reload-ms
+ *  - AccountChangedEvent (except BALANCE) re-reads that one account
+ *  - a number that isn't in the directory is looked up in the database, so accounts created
+ *    on another node are found; misses are remembered for app.directory.negative-ttl-ms so
+ *    repeated bad numbers don't each cost a query (an account created on another node can be
+ *    reported missing for that long; one created here clears the entry)
+ *  - for anything that moves money the caller still checks the row it writes (a deletion on
+ *    another node shows up here only after the next reload)
+ */
+@Component
+public class RecipientDirectory {
+
+    /** Outcome of a recipient check, in the order the transfer reports them. */
+    public enum Check { OK, NOT_FOUND, DELETED, IFSC_MISMATCH }
+
+    private static final int IFSC_MASK = 0xFFFF;
+    private static final int PRESENT = 1 << 16;
+    private static final int DELETED = 1 << 17;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final StampedLock lock = new StampedLock();
+
+    // account numbers the database didn't have, for a few seconds
+    private final Cache<String, Boolean> misses;
+
+    private volatile LongIntOpenHashMap map = new LongIntOpenHashMap(0);
+
+    // ordinal → IFSC (0 = none); append-only (copy on write), so ordinals in the map never go stale
+    private volatile String[] ifscCodes = {""};
+    private final Map<String, Integer> ifscOrdinals = new HashMap<>();
+
+    // accounts changed while a full reload was reading; re-read after the swap
+    private Set<String> touchedDuringReload;
+    private final AtomicBoolean reloading = new AtomicBoolean();
+
+    @Value("${app.directory.expected-accounts:100000}")
+    private int expectedAccounts;
+
+    public RecipientDirectory(JdbcTemplate jdbcTemplate,
+                              @Value("${app.directory.negative-ttl-ms:5000}") long negativeTtlMs,
+                              @Value("${app.directory.negative-max-size:10000}") long negativeMaxSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.misses = Caffeine.newBuilder()
+                .maximumSize(negativeMaxSize)
+                .expireAfterWrite(Duration.ofMillis(negativeTtlMs))
+                .build();
+    }
+
+    // ======================================================
+    // LOOKUP
+    // ======================================================
+    public boolean exists(String accNo) {
+        return lookup(accNo) != 0;
+    }
+
+    /** Existence, deletion and IFSC (case-insensitive, trimmed) of a transfer recipient. */
+    public Check check(String accNo, String ifsc) {
+        int v = lookup(accNo);
+        if (v == 0) return Check.NOT_FOUND;
+        if ((v & DELETED) != 0) return Check.DELETED;
+        return ifscMatches(v, ifsc) ? Check.OK : Check.IFSC_MISMATCH;
+    }
+
+    /** True when the account exists (deleted or not) and its IFSC matches. */
+    public boolean ifscMatches(String accNo, String ifsc) {
+        int v = lookup(accNo);
+        return v != 0 && ifscMatches(v, ifsc);
+    }
+
+    private boolean ifscMatches(int v, String ifsc) {
+        int ordinal = v & IFSC_MASK;
+        if (ordinal == 0 || ifsc == null) return false;
+        return ifscCodes[ordinal].equalsIgnoreCase(ifsc.trim());
+    }
+
+    /** Packed value, or 0 if the account doesn't exist. */
+    private int lookup(String accNo) {
+        long key = parse(accNo);
+        if (key <= 0) return accNo == null ? 0 : loadMissing(accNo.trim(), false);
+
+        int v = LongIntOpenHashMap.MISSING;
+        long stamp = lock.tryOptimisticRead();
+        try {
+            v = map.get(key);
+        } catch (RuntimeException ignored) {
+            // raced a resize; the read below retries under the lock
+        }
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                v = map.get(key);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return v != LongIntOpenHashMap.MISSING ? v : loadMissing(accNo.trim(), true);
+    }
+
+    /** loadRow for a number the map doesn't have, answering recent misses from the negative cache. */
+    private int loadMissing(String accNo, boolean store) {
+        if (misses.getIfPresent(accNo) != null) return 0;
+        int v = loadRow(accNo, store);
+        if (v == 0) misses.put(accNo, Boolean.TRUE);
+        return v;
+    }
+
+    /** Digits-only account number as a long, or -1 (blank, non-numeric or too long). */
+    static long parse(String accNo) {
+        if (accNo == null) return -1;
+        int start = 0, end = accNo.length();
+        while (start < end && accNo.charAt(start) == ' ') start++;
+        while (end > start && accNo.charAt(end - 1) == ' ') end--;
+        if (end == start || end - start > 18) return -1;
+
+        long n = 0;
+        for (int i = start; i < end; i++) {
+            char c = accNo.charAt(i);
+            if (c < '0' || c > '9') return -1;
+            n = n * 10 + (c - '0');
+        }
+        // a leading zero would make two numbers share a key
+        return accNo.charAt(start) == '0' ? -1 : n;
+    }
+
+    // ======================================================
+    // LOADING
+    // ======================================================
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        reload();
+    }
+
+    @Scheduled(fixedDelayString = "${app.directory.reload-ms:600000}",
+               initialDelayString = "${app.directory.reload-ms:600000}")
+    public void reload() {
+        if (!reloading.compareAndSet(false, true)) return;
+        long start = System.nanoTime();
+        synchronized (this) {
+            touchedDuringReload = new HashSet<>();
+        }
+        try {
+            LongIntOpenHashMap fresh = new LongIntOpenHashMap(expectedAccounts);
+            SqlDialect.streamingTemplate(jdbcTemplate.getDataSource()).query(
+                    "SELECT account_number, ifsc_code, is_deleted FROM accounts",
+                    rs -> {
+                        long key = parse(rs.getString(1));
+                        if (key > 0) fresh.put(key, pack(rs.getString(2), rs.getInt(3) == 1));
+                    });
+
+            Set<String> touched;
+            long stamp = lock.writeLock();
+            try {
+                map = fresh;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+            synchronized (this) {
+                touched = touchedDuringReload;
+                touchedDuringReload = null;
+            }
+            for (String accNo : touched) refresh(accNo);
+
+            misses.invalidateAll();
+            System.out.println("📒 Recipient directory loaded: " + fresh.size() + " accounts, "
+                    + fresh.footprintBytes() / 1024 + " KiB in "
+                    + (System.nanoTime() - start) / 1_000_000 + " ms");
+        } catch (Exception e) {
+            synchronized (this) {
+                touchedDuringReload = null;
+            }
+            System.err.println("⚠️ Recipient directory reload failed (keeping the old one): " + e.getMessage());
+        } finally {
+            reloading.set(false);
+        }
+    }
+
+    @EventListener
+    public void onAccountChanged(AccountChangedEvent event) {
+        if (event.change() == AccountChangedEvent.Change.BALANCE || event.accountNumber() == null) return;
+        refresh(event.accountNumber());
+    }
+
+    private void refresh(String accNo) {
+        synchronized (this) {
+            if (touchedDuringReload != null) touchedDuringReload.add(accNo);
+        }
+        misses.invalidate(accNo.trim());
+        try {
+            if (loadRow(accNo, true) == 0) {
+                long key = parse(accNo);
+                if (key <= 0) return;
+                long stamp = lock.writeLock();
+                try {
+                    map.remove(key);
+                } finally {
+                    lock.unlockWrite(stamp);
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("⚠️ Recipient directory refresh failed for " + accNo + ": " + e.getMessage());
+        }
+    }
+
+    /** Reads one account from the database (and stores it if asked); 0 if it doesn't exist. */
+    private int loadRow(String accNo, boolean store) {
+        List<Integer> rows = jdbcTemplate.query(
+                "SELECT ifsc_code, is_deleted FROM accounts WHERE account_number = ?",
+                (rs, i) -> pack(rs.getString(1), rs.getInt(2) == 1), accNo);
+        if (rows.isEmpty()) return 0;
+
+        int v = rows.get(0);
+        long key = parse(accNo);
+        if (store && key > 0) {
+            long stamp = lock.writeLock();
+            try {
+                map.put(key, v);
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+        return v;
+    }
+
+    private int pack(String ifsc, boolean deleted) {
+        return PRESENT | (deleted ? DELETED : 0) | ifscOrdinal(ifsc);
+    }
+
+    private int ifscOrdinal(String ifsc) {
+        if (ifsc == null || ifsc.isBlank()) return 0;
+        String code = ifsc.trim();
+        synchronized (ifscOrdinals) {
+            Integer ordinal = ifscOrdinals.get(code);
+            if (ordinal != null) return ordinal;
+
+            String[] codes = ifscCodes;
+            if (codes.length > IFSC_MASK) return 0;
+            String[] grown = Arrays.copyOf(codes, codes.length + 1);
+            grown[codes.length] = code;
+            ifscCodes = grown;
+            ifscOrdinals.put(code, codes.length);
+            return codes.length;
+        }
+    }
+
+    // ======================================================
+    // STATS
+    // ======================================================
+    public Map<String, Object> stats() {
+        LongIntOpenHashMap m = map;
+        int size = m.size();
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("accounts", size);
+        out.put("capacity", m.capacity());
+        out.put("footprintBytes", m.footprintBytes());
+        out.put("bytesPerAccount", size == 0 ? 0 : (double) m.footprintBytes() / size);
+        out.put("mbPerMillionAccounts", size == 0 ? 0 : m.footprintBytes() * (1_000_000.0 / size) / (1024 * 1024));
+        out.put("ifscCodes", ifscCodes.length - 1);
+        out.put("cachedMisses", misses.estimatedSize());
+        return out;
+    }
+}
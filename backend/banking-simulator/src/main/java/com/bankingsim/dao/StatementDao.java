@@ -0,0 +1,90 @@
+package com.bankingsim.dao;
+
+import com.bankingsim.model.Account;
+import com.bankingsim.util.PdfGenerator;
+import com.bankingsim.util.SqlDialect;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Account + statement password reads for the month-end statement batch
+ * (StatementBatchService) and mini statements (MiniStatementService).
+ */
+@Repository
+public class StatementDao {
+
+    /** Inclusive account-number range processed as one unit of work. */
+    public record Partition(String firstAccount, String lastAccount) {}
+
+    /** Account plus the PDF password of its customer login (null if it has none). */
+    public record StatementAccount(Account account, String pdfKey) {}
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate streamingJdbc;
+
+    public StatementDao(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.streamingJdbc = SqlDialect.streamingTemplate(jdbcTemplate.getDataSource());
+    }
+
+    /**
+     * Splits all live accounts into ranges of about {@code size} accounts. Account numbers
+     * are streamed in primary key order and only the range boundaries are kept.
+     */
+    public List<Partition> partitions(int size) {
+        List<Partition> out = new ArrayList<>();
+        String[] first = {null}, last = {null};
+        int[] n = {0};
+
+        streamingJdbc.query(
+                "SELECT account_number FROM accounts WHERE COALESCE(is_deleted, 0) = 0 ORDER BY account_number",
+                (RowCallbackHandler) rs -> {
+                    String acc = rs.getString(1);
+                    if (first[0] == null) first[0] = acc;
+                    last[0] = acc;
+                    if (++n[0] == size) {
+                        out.add(new Partition(first[0], last[0]));
+                        first[0] = null;
+                        n[0] = 0;
+                    }
+                });
+
+        if (first[0] != null) out.add(new Partition(first[0], last[0]));
+        return out;
+    }
+
+    /** Accounts of one partition in account-number order, with their statement passwords. */
+    public Map<String, StatementAccount> accounts(Partition p) {
+        Map<String, StatementAccount> out = new LinkedHashMap<>();
+        jdbcTemplate.query("""
+            SELECT a.account_number, a.holder_name, a.branch_name, a.ifsc_code, u.username, u.phone
+            FROM accounts a
+            LEFT JOIN users u ON u.account_number = a.account_number AND u.role = 'CUSTOMER'
+            WHERE a.account_number BETWEEN ? AND ? AND COALESCE(a.is_deleted, 0) = 0
+            ORDER BY a.account_number
+        """, (RowCallbackHandler) rs -> {
+            String accNo = rs.getString("account_number");
+            if (out.containsKey(accNo)) return;
+
+            Account a = new Account();
+            a.setAccountNumber(accNo);
+            a.setHolderName(rs.getString("holder_name"));
+            a.setBranchName(rs.getString("branch_name"));
+            a.setIfscCode(rs.getString("ifsc_code"));
+
+            out.put(accNo, new StatementAccount(a, PdfGenerator.userKey(rs.getString("username"), rs.getString("phone"))));
+        }, p.firstAccount(), p.lastAccount());
+        return out;
+    }
+
+    /** Single account (null if missing or deleted). */
+    public StatementAccount account(String accNo) {
+        return accounts(new Partition(accNo, accNo)).get(accNo);
+    }
+}
@@ -1,19 +1,32 @@
 package com.bankingsim.dao;
 
+import com.bankingsim.config.ReadOnly;
+import com.bankingsim.event.AccountChangedEvent;
+import com.bankingsim.event.TransactionRecordedEvent;
+import com.bankingsim.event.TransactionReversedEvent;
+import com.bankingsim.model.AuditEvent;
 import com.bankingsim.model.TransactionRecord;
+import com.bankingsim.util.SqlDialect;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
 /**
  * DAO for managing transactions with rollback & audit integration.
@@ -33,9 +46,18 @@ import java.util.List;
 public class TransactionDao {
 
     private final JdbcTemplate jdbcTemplate;
+    private final AuditDao auditDao;
+    private final ApplicationEventPublisher events;
 
-    public TransactionDao(JdbcTemplate jdbcTemplate) {
+    // streams rows one by one on MySQL (see SqlDialect.streamingTemplate)
+    private final JdbcTemplate streamingJdbc;
+
+    public TransactionDao(JdbcTemplate jdbcTemplate, AuditDao auditDao, ApplicationEventPublisher events) {
         this.jdbcTemplate = jdbcTemplate;
+        this.auditDao = auditDao;
+        this.events = events;
+
+        this.streamingJdbc = SqlDialect.streamingTemplate(jdbcTemplate.getDataSource());
     }
 
     // ---------------------- CREATE ----------------------
@@ -64,33 +86,45 @@ public class TransactionDao {
 
                 if (Boolean.TRUE.equals(txLocked)) {
                     System.out.println("🚫 Aborting transaction because transaction functionality is locked for account: " + tx.getFromAccount());
-                    addAudit("TX_ABORTED_LOCKED", "Attempted transaction while tx_locked: " + tx, tx.getFromAccount());
+                    addAudit(AuditEvent.TX_ABORTED_LOCKED, tx, "Attempted transaction while tx_locked: " + tx, tx.getFromAccount());
                     return;
                 }
             }
 
             String sql = """
                 INSERT INTO transactions 
-                (tx_id, tx_type, from_account, to_account, amount, category, status, created_at)
-                VALUES (?, ?, ?, ?, ?, ?, 'SUCCESS', ?)
+                (tx_id, tx_type, from_account, to_account, amount, category, status, created_at,
+                 from_branch, to_branch, from_branch_id, to_branch_id)
+                VALUES (?, ?, ?, ?, ?, ?, 'SUCCESS', ?,
+                        (SELECT branch_name FROM accounts WHERE account_number = ?),
+                        (SELECT branch_name FROM accounts WHERE account_number = ?),
+                        (SELECT branch_id FROM accounts WHERE account_number = ?),
+                        (SELECT branch_id FROM accounts WHERE account_number = ?))
             """;
 
             Timestamp createdTs = Timestamp.valueOf(tx.getCreatedAt() != null ? tx.getCreatedAt() : LocalDateTime.now());
+            String from = sanitizeAccount(tx.getFromAccount());
+            String to = sanitizeAccount(tx.getToAccount());
 
             jdbcTemplate.update(sql,
                     tx.getTxId(),
                     tx.getTxType() != null ? tx.getTxType().name() : "UNKNOWN",
-                    sanitizeAccount(tx.getFromAccount()),
-                    sanitizeAccount(tx.getToAccount()),
+                    from,
+                    to,
                     tx.getAmount(),
                     tx.getCategory() != null ? tx.getCategory() : "General",
-                    createdTs
+                    createdTs,
+                    from,
+                    to,
+                    from,
+                    to
             );
 
-            addAudit("TRANSACTION_" + tx.getTxType(), "Executed transaction: " + tx,
+            addAudit(AuditEvent.forTransaction(tx.getTxType()), tx, "Executed transaction: " + tx,
                     tx.getFromAccount() != null ? tx.getFromAccount() : "SYSTEM");
 
             System.out.println("✅ Transaction saved successfully: " + tx.getTxId());
+            events.publishEvent(new TransactionRecordedEvent(tx));
 
             // NOTE: no CSV append and no automatic PDF refresh here — on-demand only.
 
@@ -173,10 +207,14 @@ public class TransactionDao {
                 WHERE tx_id=?
             """, adminUser, txId);
 
-            addAudit("ROLLBACK", "Transaction rolled back: " + txId, adminUser);
+            addAudit(AuditEvent.ROLLBACK, tx, "Transaction rolled back: " + txId, adminUser);
             System.out.println("✅ Rollback successful for transaction: " + txId);
 
-            // NOTE: no automatic PDF refresh here.
+            // NOTE: no automatic PDF refresh here; listeners rebuild derived data in the background.
+            for (String acc : new String[]{ sanitizeAccount(tx.getFromAccount()), sanitizeAccount(tx.getToAccount()) }) {
+                if (acc != null) events.publishEvent(new AccountChangedEvent(acc, AccountChangedEvent.Change.BALANCE));
+            }
+            events.publishEvent(new TransactionReversedEvent(tx, adminUser));
 
             return true;
 
@@ -187,44 +225,219 @@ public class TransactionDao {
     }
 
     // ---------------------- READ ----------------------
+    //
+    // Account history never uses "from_account = ? OR to_account = ?": each ledger side is read
+    // by its own range scan on idx_tx_from_created / idx_tx_to_created and the halves are
+    // concatenated with UNION ALL (the second half skips rows already returned by the first).
+    // TransactionHistoryExplainTest checks these plans.
+
+    static final String ACCOUNT_HISTORY_SQL = """
+        SELECT * FROM transactions WHERE from_account = ?
+        UNION ALL
+        SELECT * FROM transactions WHERE to_account = ? AND NOT (from_account <=> ?)
+        ORDER BY created_at DESC, tx_id DESC
+    """;
+
+    // the limit is pushed into both halves so each scan stops after `limit` index entries
+    static final String ACCOUNT_WINDOW_SQL = """
+        SELECT * FROM (
+            (SELECT * FROM transactions
+             WHERE from_account = ? AND created_at >= ? AND created_at < ?
+             ORDER BY created_at DESC, tx_id DESC LIMIT ?)
+            UNION ALL
+            (SELECT * FROM transactions
+             WHERE to_account = ? AND created_at >= ? AND created_at < ? AND NOT (from_account <=> ?)
+             ORDER BY created_at DESC, tx_id DESC LIMIT ?)
+        ) h
+        ORDER BY created_at DESC, tx_id DESC
+        LIMIT ?
+    """;
+
+    static final String ACCOUNT_PENDING_COUNT_SQL = """
+        SELECT (SELECT COUNT(*) FROM transactions
+                WHERE from_account = ? AND status <> 'REVERSED')
+             + (SELECT COUNT(*) FROM transactions
+                WHERE to_account = ? AND NOT (from_account <=> ?) AND status <> 'REVERSED')
+    """;
+
+    private static final LocalDateTime MIN_TS = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime MAX_TS = LocalDateTime.of(9999, 1, 1, 0, 0);
+
     public List<TransactionRecord> fetchLastNForAccount(String accNum, int limit) {
-        String sql = """
-            SELECT * FROM transactions 
-            WHERE from_account = ? OR to_account = ? 
-            ORDER BY created_at DESC 
-            LIMIT ?
-        """;
-        return jdbcTemplate.query(sql, new TransactionRowMapper(), accNum, accNum, limit);
+        return fetchForAccount(accNum, null, null, limit);
+    }
+
+    /**
+     * Newest-first history of one account inside [from, to), at most {@code limit} rows
+     * (null bounds = open).
+     */
+    public List<TransactionRecord> fetchForAccount(String accNum, LocalDateTime from, LocalDateTime to, int limit) {
+        Timestamp f = Timestamp.valueOf(from != null ? from : MIN_TS);
+        Timestamp t = Timestamp.valueOf(to != null ? to : MAX_TS);
+        return jdbcTemplate.query(ACCOUNT_WINDOW_SQL, new TransactionRowMapper(),
+                accNum, f, t, limit,
+                accNum, f, t, accNum, limit,
+                limit);
     }
 
     public List<TransactionRecord> getTransactionsByAccount(String accNum) {
-        String sql = """
-            SELECT * FROM transactions 
-            WHERE from_account = ? OR to_account = ? 
-            ORDER BY created_at DESC
-        """;
-        return jdbcTemplate.query(sql, new TransactionRowMapper(), accNum, accNum);
+        return jdbcTemplate.query(ACCOUNT_HISTORY_SQL, new TransactionRowMapper(), accNum, accNum, accNum);
+    }
+
+    private static final String ALL_TX_SQL = "SELECT * FROM transactions ORDER BY created_at ASC";
+
+    // each ledger row carries the branch ordinal of both sides (from_branch_id / to_branch_id),
+    // so a branch report is two range scans on (branch_id, created_at); the second half skips
+    // rows the first already returned (both sides in the same branch)
+    private static final String BRANCH_TX_SQL = """
+        SELECT * FROM transactions WHERE from_branch_id = ?
+        UNION ALL
+        SELECT * FROM transactions WHERE to_branch_id = ? AND NOT (from_branch_id <=> ?)
+        ORDER BY created_at ASC
+    """;
+
+    // used until TransactionBranchBackfill has filled in rows written before the branch columns existed
+    private static final String LEGACY_BRANCH_TX_SQL = """
+        SELECT * FROM transactions
+        WHERE from_account IN (SELECT account_number FROM accounts WHERE branch_id = ?)
+           OR to_account IN (SELECT account_number FROM accounts WHERE branch_id = ?)
+        ORDER BY created_at ASC
+    """;
+
+    private volatile boolean branchColumnsReady;
+
+    public void setBranchColumnsReady(boolean ready) {
+        this.branchColumnsReady = ready;
+    }
+
+    /** True once every ledger row has its from_branch_id / to_branch_id filled in. */
+    public boolean isBranchColumnsReady() {
+        return branchColumnsReady;
     }
 
+    @ReadOnly
     public List<TransactionRecord> getAllTransactions() {
-        String sql = "SELECT * FROM transactions ORDER BY created_at ASC";
-        return jdbcTemplate.query(sql, new TransactionRowMapper());
+        return jdbcTemplate.query(ALL_TX_SQL, new TransactionRowMapper());
     }
 
-    public List<TransactionRecord> getAllTransactionsByBranch(String branch) {
+    @ReadOnly
+    public List<TransactionRecord> getAllTransactionsByBranch(int branchId) {
+        List<TransactionRecord> out = new ArrayList<>();
+        streamTransactions(branchId, out::add);
+        return out;
+    }
+
+    /**
+     * Same rows as getAllTransactions / getAllTransactionsByBranch (branchId == null → all),
+     * streamed one at a time so the caller never holds the full list.
+     */
+    @ReadOnly
+    public void streamTransactions(Integer branchId, Consumer<TransactionRecord> sink) {
+        TransactionRowMapper mapper = new TransactionRowMapper();
+        RowCallbackHandler handler = rs -> sink.accept(mapper.mapRow(rs, 0));
+
+        if (branchId == null) streamingJdbc.query(ALL_TX_SQL, handler);
+        else if (branchColumnsReady) streamingJdbc.query(BRANCH_TX_SQL, handler, branchId, branchId, branchId);
+        else streamingJdbc.query(LEGACY_BRANCH_TX_SQL, handler, branchId, branchId);
+    }
+
+    /**
+     * Transactions in [from, to) for the account-number range firstAcc..lastAcc, in one streamed
+     * query (used by the statement batch). Rows arrive grouped by account, oldest first within an
+     * account, so the caller can finish one account before the next starts. A transfer between
+     * two accounts of the range is delivered twice, once for each side.
+     */
+    public void forEachInAccountRange(String firstAcc, String lastAcc, LocalDateTime from, LocalDateTime to,
+                                      BiConsumer<String, TransactionRecord> sink) {
         String sql = """
-        SELECT t.*
-        FROM transactions t
-        JOIN accounts a 
-            ON t.from_account = a.account_number 
-            OR t.to_account = a.account_number
-        WHERE a.branch_name = ?
-        ORDER BY t.created_at ASC
+            SELECT t.*, t.from_account AS stmt_account FROM transactions t
+            WHERE t.from_account BETWEEN ? AND ? AND t.created_at >= ? AND t.created_at < ?
+            UNION ALL
+            SELECT t.*, t.to_account AS stmt_account FROM transactions t
+            WHERE t.to_account BETWEEN ? AND ? AND t.created_at >= ? AND t.created_at < ?
+            ORDER BY stmt_account, created_at, tx_id
+        """;
+        Timestamp f = Timestamp.valueOf(from), t = Timestamp.valueOf(to);
+        TransactionRowMapper mapper = new TransactionRowMapper();
+
+        streamingJdbc.query(sql,
+                (RowCallbackHandler) rs -> sink.accept(rs.getString("stmt_account"), mapper.mapRow(rs, 0)),
+                firstAcc, lastAcc, f, t, firstAcc, lastAcc, f, t);
+    }
+
+    // ---------------------- MONTHLY STATISTICS ----------------------
+    //
+    // Aggregated in the database (AccountStatsService): each side is one range scan on
+    // idx_tx_from_created / idx_tx_to_created, grouped to at most one row per day (and category).
+
+    /** Money leaving the account (withdrawals, transfers out) per day of month and category. */
+    static final String ACCOUNT_DAILY_OUTFLOW_SQL = """
+        SELECT EXTRACT(DAY FROM created_at) AS d, COALESCE(category, 'General') AS category, SUM(amount) AS total
+        FROM transactions
+        WHERE from_account = ? AND created_at >= ? AND created_at < ?
+          AND tx_type IN ('WITHDRAW', 'TRANSFER')
+        GROUP BY EXTRACT(DAY FROM created_at), COALESCE(category, 'General')
+    """;
+
+    /** Money entering the account (deposits, transfers in) per day of month. */
+    static final String ACCOUNT_DAILY_INFLOW_SQL = """
+        SELECT EXTRACT(DAY FROM created_at) AS d, SUM(amount) AS total
+        FROM transactions
+        WHERE to_account = ? AND created_at >= ? AND created_at < ?
+          AND tx_type IN ('DEPOSIT', 'TRANSFER')
+        GROUP BY EXTRACT(DAY FROM created_at)
     """;
 
-        return jdbcTemplate.query(sql, new TransactionRowMapper(), branch);
+    /** One aggregated row: day of month (1-based), category (null for inflows), sum. */
+    public record DailyAmount(int day, String category, BigDecimal amount) {}
+
+    public List<DailyAmount> dailyOutflow(String accNo, LocalDateTime from, LocalDateTime to) {
+        return jdbcTemplate.query(ACCOUNT_DAILY_OUTFLOW_SQL,
+                (rs, i) -> new DailyAmount(rs.getInt("d"), rs.getString("category"), rs.getBigDecimal("total")),
+                accNo, Timestamp.valueOf(from), Timestamp.valueOf(to));
+    }
+
+    public List<DailyAmount> dailyInflow(String accNo, LocalDateTime from, LocalDateTime to) {
+        return jdbcTemplate.query(ACCOUNT_DAILY_INFLOW_SQL,
+                (rs, i) -> new DailyAmount(rs.getInt("d"), null, rs.getBigDecimal("total")),
+                accNo, Timestamp.valueOf(from), Timestamp.valueOf(to));
+    }
+
+    /** SQL text plus bind values. */
+    record Query(String sql, List<Object> params) {}
+
+    /**
+     * Position in the (created_at DESC, tx_id DESC) order of the filter query: the last row of
+     * the previous page. Handed to clients as an opaque url-safe token.
+     */
+    public record Cursor(LocalDateTime createdAt, String txId) {
+
+        public String encode() {
+            String raw = createdAt + "|" + txId;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        /** @throws IllegalArgumentException if the token wasn't produced by {@link #encode()} */
+        public static Cursor decode(String token) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.UTF_8);
+                int bar = raw.indexOf('|');
+                if (bar <= 0 || bar == raw.length() - 1) throw new IllegalArgumentException("malformed cursor");
+                return new Cursor(LocalDateTime.parse(raw.substring(0, bar)), raw.substring(bar + 1));
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("malformed cursor", e);
+            }
+        }
+
+        static Cursor of(TransactionRecord tx) {
+            return new Cursor(tx.getCreatedAt(), tx.getTxId());
+        }
     }
 
+    /** One page of the filter query; {@code nextCursor} is null on the last page. */
+    public record Page(List<TransactionRecord> items, String nextCursor) {}
+
+    @ReadOnly
     public List<TransactionRecord> getTransactionsWithFilters(
             java.time.LocalDateTime from,
             java.time.LocalDateTime to,
@@ -236,49 +449,99 @@ public class TransactionDao {
             Integer offset
     ) {
         try {
-            StringBuilder sql = new StringBuilder("SELECT * FROM transactions WHERE 1=1 ");
-            List<Object> params = new ArrayList<>();
-
-            if (from != null) {
-                sql.append(" AND created_at >= ? ");
-                params.add(Timestamp.valueOf(from));
-            }
-            if (to != null) {
-                sql.append(" AND created_at <= ? ");
-                params.add(Timestamp.valueOf(to));
-            }
-            if (type != null && !type.isBlank()) {
-                sql.append(" AND tx_type = ? ");
-                params.add(type.trim().toUpperCase());
-            }
-            if (category != null && !category.isBlank()) {
-                sql.append(" AND category ILIKE ? ");
-                params.add("%" + category.trim() + "%");
-            }
-            if (status != null && !status.isBlank()) {
-                sql.append(" AND status = ? ");
-                params.add(status.trim().toUpperCase());
-            }
-            if (account != null && !account.isBlank()) {
-                sql.append(" AND (from_account = ? OR to_account = ?) ");
-                params.add(account.trim());
-                params.add(account.trim());
-            }
+            Query q = filterQuery(from, to, type, category, status, account, null, limit, offset);
+            return jdbcTemplate.query(q.sql(), new TransactionRowMapper(), q.params().toArray());
+        } catch (Exception e) {
+            System.err.println("⚠️ Failed to run filtered transactions query: " + e.getMessage());
+            return List.of();
+        }
+    }
 
-            sql.append(" ORDER BY created_at DESC ");
+    /**
+     * Keyset-paged variant of {@link #getTransactionsWithFilters}: rows strictly after
+     * {@code after} (null = first page). Every page is an index range scan of at most
+     * limit + 1 rows, however deep into the history it is.
+     */
+    @ReadOnly
+    public Page getTransactionsPage(LocalDateTime from, LocalDateTime to, String type, String category,
+                                    String status, String account, Cursor after, Integer limit) {
+        int pageSize = (limit == null || limit <= 0) ? 100 : limit;
+        // one extra row tells whether there is a next page
+        Query q = filterQuery(from, to, type, category, status, account, after, pageSize + 1, 0);
+        List<TransactionRecord> rows = jdbcTemplate.query(q.sql(), new TransactionRowMapper(), q.params().toArray());
+
+        if (rows.size() <= pageSize) return new Page(rows, null);
+        List<TransactionRecord> page = rows.subList(0, pageSize);
+        return new Page(page, Cursor.of(page.get(pageSize - 1)).encode());
+    }
 
-            int safeLimit = (limit == null || limit <= 0) ? 100 : limit;
-            int safeOffset = (offset == null || offset < 0) ? 0 : offset;
+    static Query filterQuery(LocalDateTime from, LocalDateTime to, String type, String category,
+                             String status, String account, Cursor after, Integer limit, Integer offset) {
+        StringBuilder where = new StringBuilder();
+        List<Object> filterParams = new ArrayList<>();
 
-            sql.append(" LIMIT ? OFFSET ? ");
-            params.add(safeLimit);
-            params.add(safeOffset);
+        if (from != null) {
+            where.append(" AND created_at >= ? ");
+            filterParams.add(Timestamp.valueOf(from));
+        }
+        if (to != null) {
+            where.append(" AND created_at <= ? ");
+            filterParams.add(Timestamp.valueOf(to));
+        }
+        if (after != null) {
+            // (created_at, tx_id) < (?, ?), spelled out so MySQL can range-scan on created_at
+            where.append(" AND created_at <= ? AND (created_at < ? OR tx_id < ?) ");
+            filterParams.add(Timestamp.valueOf(after.createdAt()));
+            filterParams.add(Timestamp.valueOf(after.createdAt()));
+            filterParams.add(after.txId());
+        }
+        if (type != null && !type.isBlank()) {
+            where.append(" AND tx_type = ? ");
+            filterParams.add(type.trim().toUpperCase());
+        }
+        if (category != null && !category.isBlank()) {
+            // the column's default _ci collation makes this case-insensitive; a plain comparison
+            // (no function around the column, no leading wildcard) can use idx_tx_category_created
+            where.append(" AND category = ? ");
+            filterParams.add(category.trim());
+        }
+        if (status != null && !status.isBlank()) {
+            where.append(" AND status = ? ");
+            filterParams.add(status.trim().toUpperCase());
+        }
 
-            return jdbcTemplate.query(sql.toString(), params.toArray(), new TransactionRowMapper());
-        } catch (Exception e) {
-            System.err.println("⚠️ Failed to run filtered transactions query: " + e.getMessage());
-            return List.of();
+        int safeLimit = (limit == null || limit <= 0) ? 100 : limit;
+        int safeOffset = (offset == null || offset < 0) ? 0 : offset;
+
+        List<Object> params = new ArrayList<>();
+        String sql;
+
+        if (account != null && !account.isBlank()) {
+            // one range scan per ledger side, each stopping after offset + limit rows
+            String acc = account.trim();
+            int window = safeOffset + safeLimit;
+            sql = "SELECT * FROM ("
+                    + " (SELECT * FROM transactions WHERE from_account = ? " + where
+                    + "  ORDER BY created_at DESC, tx_id DESC LIMIT ?)"
+                    + " UNION ALL"
+                    + " (SELECT * FROM transactions WHERE to_account = ? AND NOT (from_account <=> ?) " + where
+                    + "  ORDER BY created_at DESC, tx_id DESC LIMIT ?)"
+                    + ") h ORDER BY created_at DESC, tx_id DESC LIMIT ? OFFSET ? ";
+            params.add(acc);
+            params.addAll(filterParams);
+            params.add(window);
+            params.add(acc);
+            params.add(acc);
+            params.addAll(filterParams);
+            params.add(window);
+        } else {
+            sql = "SELECT * FROM transactions WHERE 1=1 " + where
+                    + " ORDER BY created_at DESC, tx_id DESC LIMIT ? OFFSET ? ";
+            params.addAll(filterParams);
         }
+        params.add(safeLimit);
+        params.add(safeOffset);
+        return new Query(sql, params);
     }
 
     // ---------------------- NEW HELPERS FOR DELETION / LOAN CHECKS ----------------------
@@ -311,11 +574,7 @@ public class TransactionDao {
      */
     public int countPendingTransactionsForAccount(String accNo) {
         try {
-            Integer count = jdbcTemplate.queryForObject("""
-                    SELECT COUNT(*) FROM transactions
-                    WHERE (from_account = ? OR to_account = ?)
-                      AND status <> 'REVERSED'
-                """, Integer.class, accNo, accNo);
+            Integer count = jdbcTemplate.queryForObject(ACCOUNT_PENDING_COUNT_SQL, Integer.class, accNo, accNo, accNo);
             return count == null ? 0 : count;
         } catch (Exception e) {
             System.err.println("⚠️ Error counting pending transactions: " + e.getMessage());
@@ -342,33 +601,59 @@ public class TransactionDao {
     }
 
     // ---------------------- UTIL ----------------------
-    private String sanitizeAccount(String acc) {
+    /** The account number of one side of a transaction, or null when the side is missing ("-" or blank). */
+    public static String sanitizeAccount(String acc) {
         if (acc == null) return null;
         String trimmed = acc.trim();
         return (trimmed.isEmpty() || "-".equals(trimmed)) ? null : trimmed;
     }
 
-    private void addAudit(String event, String desc, String actor) {
-        try {
-            jdbcTemplate.update("""
-                INSERT INTO audit_log (event_type, description, actor, timestamp)
-                VALUES (?, ?, ?, NOW())
-            """, event, desc, actor);
-        } catch (Exception e) {
-            System.err.println("⚠️ Failed to add audit log: " + e.getMessage());
-        }
+    // audit row keyed by the debited account (credited for deposits), with amount and tx_id
+    private void addAudit(AuditEvent event, TransactionRecord tx, String desc, String actor) {
+        String acc = sanitizeAccount(tx.getFromAccount());
+        if (acc == null) acc = sanitizeAccount(tx.getToAccount());
+        auditDao.record(event, acc, tx.getAmount(), tx.getTxId(), desc, actor);
     }
 
     public void saveTransactionRepayment(String accNo, BigDecimal amount) {
-        String txId = "TXN-" +
-                LocalDate.now().format(DateTimeFormatter.BASIC_ISO_DATE) +
-                "-" + (int)(Math.random() * 1_0000_0000);
+        String txId = newLoanTxId();
+
+        jdbcTemplate.update("""
+        INSERT INTO transactions
+        (tx_id, tx_type, from_account, amount, category, status, created_at, from_branch, from_branch_id)
+        VALUES (?, 'LOAN_REPAYMENT', ?, ?, 'Loan Early Closure', 'SUCCESS', NOW(),
+                (SELECT branch_name FROM accounts WHERE account_number = ?),
+                (SELECT branch_id FROM accounts WHERE account_number = ?))
+    """, txId, accNo, amount, accNo, accNo);
+
+        TransactionRecord tx = new TransactionRecord(
+                TransactionRecord.TxType.LOAN_REPAYMENT, accNo, null, amount, "Loan Early Closure");
+        tx.setTxId(txId);
+        events.publishEvent(new TransactionRecordedEvent(tx));
+    }
+
+    /** Ledger row for a sanctioned loan credited to {@code accNo}. */
+    public void saveLoanCredit(String accNo, BigDecimal amount) {
+        String txId = newLoanTxId();
 
         jdbcTemplate.update("""
         INSERT INTO transactions
-        (tx_id, tx_type, from_account, amount, category, status, created_at)
-        VALUES (?, 'LOAN_REPAYMENT', ?, ?, 'Loan Early Closure', 'SUCCESS', NOW())
-    """, txId, accNo, amount);
+        (tx_id, tx_type, to_account, amount, category, status, created_at, to_branch, to_branch_id)
+        VALUES (?, 'LOAN_CREDIT', ?, ?, 'Loan Sanctioned', 'SUCCESS', NOW(),
+                (SELECT branch_name FROM accounts WHERE account_number = ?),
+                (SELECT branch_id FROM accounts WHERE account_number = ?))
+    """, txId, accNo, amount, accNo, accNo);
+
+        TransactionRecord tx = new TransactionRecord(
+                TransactionRecord.TxType.LOAN_CREDIT, null, accNo, amount, "Loan Sanctioned");
+        tx.setTxId(txId);
+        events.publishEvent(new TransactionRecordedEvent(tx));
+    }
+
+    private static String newLoanTxId() {
+        return "TXN-" +
+                LocalDate.now().format(DateTimeFormatter.BASIC_ISO_DATE) +
+                "-" + (int)(Math.random() * 1_0000_0000);
     }
 
 
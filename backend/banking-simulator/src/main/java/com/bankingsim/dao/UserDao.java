@@ -1,5 +1,6 @@
 package com.bankingsim.dao;
 
+import com.bankingsim.model.AuditEvent;
 import com.bankingsim.model.User;
 import com.bankingsim.util.BCryptUtil;
 import org.springframework.jdbc.core.JdbcTemplate;
@@ -15,10 +16,14 @@ import java.util.List;
 public class UserDao {
 
     private final JdbcTemplate jdbcTemplate;
+    private final AuditDao auditDao;
+    private final RecipientDirectory recipients;
     private static final int MAX_ATTEMPTS = 3;
 
-    public UserDao(JdbcTemplate jdbcTemplate) {
+    public UserDao(JdbcTemplate jdbcTemplate, AuditDao auditDao, RecipientDirectory recipients) {
         this.jdbcTemplate = jdbcTemplate;
+        this.auditDao = auditDao;
+        this.recipients = recipients;
     }
 
     // -------------------------------------------------------------
@@ -40,7 +45,7 @@ public class UserDao {
                     username
             );
 
-            addAudit("ADMIN_UPDATE", "Updated admin contact details: " + username, "SYSTEM");
+            addAudit(AuditEvent.ADMIN_UPDATE, null, "Updated admin contact details: " + username, "SYSTEM");
             return rows > 0;
 
         } catch (Exception e) {
@@ -77,7 +82,7 @@ public class UserDao {
                     user.getCreatedAt() == null ? LocalDateTime.now() : user.getCreatedAt()
             );
 
-            addAudit("CREATE_USER", "Created new user " + user.getUsername(), "SYSTEM");
+            addAudit(AuditEvent.CREATE_USER, user.getAccountNumber(), "Created new user " + user.getUsername(), "SYSTEM");
 
         } catch (Exception e) {
             System.err.println("⚠️ Error creating user: " + e.getMessage());
@@ -104,10 +109,10 @@ public class UserDao {
                 }
                 resetFailedAttemptsByUsername(username);
                 reactivateIfInactive(username);
-                addAudit("LOGIN_SUCCESS", "Admin login successful: " + username, username);
+                addAudit(AuditEvent.LOGIN_SUCCESS, null, "Admin login successful: " + username, username);
                 return true;
             } else {
-                addAudit("LOGIN_FAIL", "Admin login failed (wrong password): " + username, username);
+                addAudit(AuditEvent.LOGIN_FAIL, null, "Admin login failed (wrong password): " + username, username);
                 return false;
             }
         } catch (Exception e) {
@@ -145,12 +150,12 @@ public class UserDao {
 
                 resetFailedAttempts(accNo);
                 reactivateIfInactiveByAccount(accNo);
-                addAudit("LOGIN_SUCCESS", "Customer login successful: " + accNo, accNo);
+                addAudit(AuditEvent.LOGIN_SUCCESS, accNo, "Customer login successful: " + accNo, accNo);
                 return true;
 
             } else {
                 incrementFailedAttempts(accNo);
-                addAudit("LOGIN_FAIL", "Customer login failed (invalid PIN): " + accNo, accNo);
+                addAudit(AuditEvent.LOGIN_FAIL, accNo, "Customer login failed (invalid PIN): " + accNo, accNo);
                 return false;
             }
 
@@ -182,7 +187,7 @@ public class UserDao {
                         "UPDATE accounts SET tx_failed_attempts = 0, tx_locked = FALSE WHERE account_number=?",
                         accNo);
 
-                addAudit("TX_PIN_SUCCESS", "Transaction PIN verified: " + accNo, accNo);
+                addAudit(AuditEvent.TX_PIN_SUCCESS, accNo, "Transaction PIN verified: " + accNo, accNo);
                 return true;
 
             } else {
@@ -199,7 +204,7 @@ public class UserDao {
                             "UPDATE accounts SET tx_failed_attempts=?, tx_locked=TRUE WHERE account_number=?",
                             attempts, accNo);
 
-                    addAudit("TX_PIN_LOCK",
+                    addAudit(AuditEvent.TX_PIN_LOCK, accNo,
                             "Transaction functionality locked after " + attempts + " failed attempts: " + accNo,
                             accNo);
 
@@ -209,7 +214,7 @@ public class UserDao {
                             attempts, accNo);
                 }
 
-                addAudit("TX_PIN_FAIL", "Transaction PIN failed: " + accNo, accNo);
+                addAudit(AuditEvent.TX_PIN_FAIL, accNo, "Transaction PIN failed: " + accNo, accNo);
                 return false;
             }
 
@@ -235,7 +240,7 @@ public class UserDao {
 
             if (attempts >= MAX_ATTEMPTS) {
                 lockAccount(accNo);
-                addAudit("LOCK_ACCOUNT",
+                addAudit(AuditEvent.LOCK_ACCOUNT, accNo,
                         "Account locked after " + MAX_ATTEMPTS + " failed attempts: " + accNo,
                         accNo);
                 System.out.println("🚨 Account locked: " + accNo);
@@ -298,7 +303,7 @@ public class UserDao {
                     WHERE account_number = ?
                     """, accNo);
 
-            addAudit("UNLOCK_ACCOUNT", "Account unlocked: " + accNo, "ADMIN");
+            addAudit(AuditEvent.UNLOCK_ACCOUNT, accNo, "Account unlocked: " + accNo, "ADMIN");
 
         } catch (Exception e) {
             System.err.println("⚠️ Error unlocking account: " + e.getMessage());
@@ -313,7 +318,7 @@ public class UserDao {
                     "UPDATE accounts SET tx_failed_attempts=0, tx_locked=FALSE WHERE account_number=?",
                     accNo);
 
-            addAudit("TX_PIN_UNLOCK", "Tx PIN lock reset: " + accNo, accNo);
+            addAudit(AuditEvent.TX_PIN_UNLOCK, accNo, "Tx PIN lock reset: " + accNo, accNo);
             return true;
 
         } catch (Exception e) {
@@ -332,7 +337,7 @@ public class UserDao {
                     "UPDATE accounts SET transaction_pin=?, tx_failed_attempts=0, tx_locked=FALSE WHERE account_number=?",
                     hashed, accNo);
 
-            addAudit("TX_PIN_RESET", "Transaction PIN updated: " + accNo, accNo);
+            addAudit(AuditEvent.TX_PIN_RESET, accNo, "Transaction PIN updated: " + accNo, accNo);
             return true;
 
         } catch (Exception e) {
@@ -350,7 +355,7 @@ public class UserDao {
             jdbcTemplate.update(
                     "UPDATE users SET password=? WHERE username=?", hashed, username);
 
-            addAudit("PASSWORD_RESET", "Password reset for " + username, username);
+            addAudit(AuditEvent.PASSWORD_RESET, null, "Password reset for " + username, username);
             return true;
 
         } catch (Exception e) {
@@ -369,7 +374,7 @@ public class UserDao {
             jdbcTemplate.update(
                     "UPDATE accounts SET pin=? WHERE account_number=?", hashed, accNo);
 
-            addAudit("PIN_RESET", "PIN reset for account: " + accNo, accNo);
+            addAudit(AuditEvent.PIN_RESET, accNo, "PIN reset for account: " + accNo, accNo);
             return true;
 
         } catch (Exception e) {
@@ -380,23 +385,22 @@ public class UserDao {
 
     // ---------------------- AUTO LOGOUT ----------------------
 
-    public void autoLogoutIdleUsers() {
-        try {
-            String sql = """
-                UPDATE users u
-                LEFT JOIN accounts a ON u.account_number = a.account_number
-                SET u.logout_time = NOW(), u.status='INACTIVE', a.status='INACTIVE'
-                WHERE u.login_time IS NOT NULL
-                  AND u.logout_time IS NULL
-                  AND u.login_time <= DATE_SUB(NOW(), INTERVAL 1 HOUR)
-            """;
-            jdbcTemplate.update(sql);
-
-            addAudit("AUTO_LOGOUT", "Auto logout idle users", "SYSTEM");
+    /**
+     * Logs out at most {@code limit} sessions idle for longer than {@code idleMinutes}
+     * (idx_users_status_login range); returns rows updated.
+     */
+    public int autoLogoutIdleUsers(int idleMinutes, int limit) {
+        int rows = jdbcTemplate.update("""
+            UPDATE users
+            SET status = 'INACTIVE', logout_time = NOW()
+            WHERE status = 'ACTIVE'
+              AND login_time < DATE_SUB(NOW(), INTERVAL ? MINUTE)
+            ORDER BY login_time
+            LIMIT ?
+        """, idleMinutes, limit);
 
-        } catch (Exception e) {
-            System.err.println("⚠️ Error auto-logging out users: " + e.getMessage());
-        }
+        if (rows > 0) addAudit(AuditEvent.AUTO_LOGOUT, null, "Auto logout of " + rows + " idle user(s)", "SYSTEM");
+        return rows;
     }
 
     // ---------------------- INACTIVE USERS ----------------------
@@ -426,7 +430,7 @@ public class UserDao {
                 WHERE username=?
                 """, LocalDateTime.now(), username);
 
-        addAudit("LOGIN", "User logged in: " + username, username);
+        addAudit(AuditEvent.LOGIN, null, "User logged in: " + username, username);
     }
 
     public void updateLoginTimeByAccount(String accNo) {
@@ -436,7 +440,7 @@ public class UserDao {
                 WHERE account_number=?
                 """, LocalDateTime.now(), accNo);
 
-        addAudit("LOGIN", "Customer logged in: " + accNo, accNo);
+        addAudit(AuditEvent.LOGIN, accNo, "Customer logged in: " + accNo, accNo);
     }
 
     public void updateLogoutTime(String username) {
@@ -446,7 +450,7 @@ public class UserDao {
                 WHERE username=?
                 """, LocalDateTime.now(), username);
 
-        addAudit("LOGOUT", "User logged out: " + username, username);
+        addAudit(AuditEvent.LOGOUT, null, "User logged out: " + username, username);
     }
 
     public void updateLogoutTimeByAccount(String accNo) {
@@ -456,7 +460,7 @@ public class UserDao {
                 WHERE account_number=?
                 """, LocalDateTime.now(), accNo);
 
-        addAudit("LOGOUT", "Customer logged out: " + accNo, accNo);
+        addAudit(AuditEvent.LOGOUT, accNo, "Customer logged out: " + accNo, accNo);
     }
 
     // ---------------------- FINDERS ----------------------
@@ -487,7 +491,7 @@ public class UserDao {
                 SET deletion_req = 1
                 WHERE account_number = ?
             """, accNo);
-            addAudit("USER_DELETION_REQ_SET", "User deletion_req set for account: " + accNo, "SYSTEM");
+            addAudit(AuditEvent.USER_DELETION_REQ_SET, accNo, "User deletion_req set for account: " + accNo, "SYSTEM");
             return rows > 0;
         } catch (Exception e) {
             System.err.println("⚠️ Error setting user deletion_req: " + e.getMessage());
@@ -505,7 +509,7 @@ public class UserDao {
                 SET deletion_req = 0
                 WHERE account_number = ?
             """, accNo);
-            addAudit("USER_DELETION_REQ_CLEARED", "User deletion_req cleared for account: " + accNo, "SYSTEM");
+            addAudit(AuditEvent.USER_DELETION_REQ_CLEARED, accNo, "User deletion_req cleared for account: " + accNo, "SYSTEM");
             return rows > 0;
         } catch (Exception e) {
             System.err.println("⚠️ Error clearing user deletion_req: " + e.getMessage());
@@ -525,7 +529,7 @@ public class UserDao {
                     status = 'INACTIVE'
                 WHERE account_number = ?
             """, accNo);
-            addAudit("USER_MARK_DELETED", "User marked deleted for account: " + accNo, "SYSTEM");
+            addAudit(AuditEvent.USER_MARK_DELETED, accNo, "User marked deleted for account: " + accNo, "SYSTEM");
             return rows > 0;
         } catch (Exception e) {
             System.err.println("⚠️ Error marking user deleted: " + e.getMessage());
@@ -559,74 +563,62 @@ public class UserDao {
 
     // ---------------------- AUDIT ----------------------
 
-    public void addAudit(String event, String description, String actor) {
-        try {
-            jdbcTemplate.update("""
-                INSERT INTO audit_log (event_type, description, actor, timestamp)
-                VALUES (?, ?, ?, NOW())
-            """, event, description, actor);
-        } catch (Exception ignored) {}
+    public void addAudit(AuditEvent event, String accNo, String description, String actor) {
+        auditDao.record(event, accNo, description, actor);
     }
 
     // ---------------------- MAPPER ----------------------
 
-    private static class UserRowMapper implements RowMapper<User> {
-
-        @Override
-        public User mapRow(ResultSet rs, int i) throws SQLException {
-            User u = new User();
-
-            u.setUserId(rs.getInt("user_id"));
-            u.setUsername(rs.getString("username"));
-            u.setPassword(rs.getString("password"));
-            u.setEmail(rs.getString("email"));
-            u.setPhone(rs.getString("phone"));
-            u.setRole(rs.getString("role"));
-            u.setAccountNumber(rs.getString("account_number"));
-            u.setStatus(rs.getString("status"));
-
-            try {
-                if (rs.getTimestamp("login_time") != null)
-                    u.setLoginTime(rs.getTimestamp("login_time").toLocalDateTime());
-            } catch (Exception ignored) {}
-
-            try {
-                if (rs.getTimestamp("logout_time") != null)
-                    u.setLogoutTime(rs.getTimestamp("logout_time").toLocalDateTime());
-            } catch (Exception ignored) {}
-
-            try {
-                if (rs.getTimestamp("created_at") != null)
-                    u.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
-            } catch (Exception ignored) {}
-
-            try {
-                u.setFailedAttempts(rs.getInt("failed_attempts"));
-            } catch (Exception ignored) {}
+    /** Column positions resolved once per result (see IndexedRowMapper). */
+    private static class UserRowMapper extends IndexedRowMapper<User> {
 
-            try {
-                u.setLocked(rs.getBoolean("is_locked"));
-            } catch (Exception ignored) {}
+        private int userId, username, password, email, phone, role, accountNumber, status;
+        private int loginTime, logoutTime, createdAt, failedAttempts, isLocked, lockTime, deletionReq, isDeleted;
 
-            try {
-                if (rs.getTimestamp("lock_time") != null)
-                    u.setLockTime(rs.getTimestamp("lock_time").toLocalDateTime());
-            } catch (Exception ignored) {}
+        @Override
+        protected void resolve(Columns c) {
+            userId = c.index("user_id");
+            username = c.index("username");
+            password = c.index("password");
+            email = c.index("email");
+            phone = c.index("phone");
+            role = c.index("role");
+            accountNumber = c.index("account_number");
+            status = c.index("status");
+            loginTime = c.index("login_time");
+            logoutTime = c.index("logout_time");
+            createdAt = c.index("created_at");
+            failedAttempts = c.index("failed_attempts");
+            isLocked = c.index("is_locked");
+            lockTime = c.index("lock_time");
+            deletionReq = c.index("deletion_req");
+            isDeleted = c.index("is_deleted");
+        }
 
-            // Optional new fields (deletion_req, is_deleted) read safely if present
-            try {
-                int deletionReq = rs.getInt("deletion_req");
-                if (!rs.wasNull()) {
-                    try { java.lang.reflect.Method m = u.getClass().getMethod("setDeletionReq", int.class); m.invoke(u, deletionReq); } catch (Exception ignored) {}
-                }
-            } catch (Exception ignored) {}
+        @Override
+        protected User map(ResultSet rs) throws SQLException {
+            User u = new User();
 
-            try {
-                int isDeleted = rs.getInt("is_deleted");
-                if (!rs.wasNull()) {
-                    try { java.lang.reflect.Method m = u.getClass().getMethod("setIsDeleted", int.class); m.invoke(u, isDeleted); } catch (Exception ignored) {}
-                }
-            } catch (Exception ignored) {}
+            u.setUserId(intValue(rs, userId));
+            u.setUsername(string(rs, username));
+            u.setPassword(string(rs, password));
+            u.setEmail(string(rs, email));
+            u.setPhone(string(rs, phone));
+            u.setRole(string(rs, role));
+            u.setAccountNumber(string(rs, accountNumber));
+            u.setStatus(string(rs, status));
+
+            u.setLoginTime(dateTime(rs, loginTime));
+            u.setLogoutTime(dateTime(rs, logoutTime));
+            u.setCreatedAt(dateTime(rs, createdAt));
+            if (failedAttempts != 0) u.setFailedAttempts(rs.getInt(failedAttempts));
+            if (isLocked != 0) u.setLocked(rs.getBoolean(isLocked));
+            u.setLockTime(dateTime(rs, lockTime));
+
+            Integer del = integer(rs, deletionReq);
+            if (del != null) u.setDeletionReq(del);
+            Integer deleted = integer(rs, isDeleted);
+            if (deleted != null) u.setIsDeleted(deleted);
 
             return u;
         }
@@ -636,11 +628,7 @@ public class UserDao {
 
     public boolean accountExists(String accNo) {
         try {
-            Integer count = jdbcTemplate.queryForObject(
-                    "SELECT COUNT(*) FROM accounts WHERE TRIM(account_number)=TRIM(?)",
-                    Integer.class, accNo);
-
-            return count != null && count > 0;
+            return recipients.exists(accNo);
 
         } catch (Exception e) {
             return false;
@@ -718,7 +706,7 @@ public class UserDao {
                         "DELETE FROM accounts WHERE account_number=?", accNo);
             }
 
-            addAudit("DELETE_ADMIN", "Deleted admin: " + username, "SYSTEM");
+            addAudit(AuditEvent.DELETE_ADMIN, null, "Deleted admin: " + username, "SYSTEM");
             return rows > 0;
 
         } catch (Exception e) {
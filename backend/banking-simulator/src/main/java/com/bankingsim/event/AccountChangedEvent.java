@@ -0,0 +1,19 @@
+package com.bankingsim.event;
+
+/**
+ * Published after a write to the accounts table commits.
+ * Listeners use it to invalidate derived data (reports, caches); it carries no account state.
+ *
+ * @param accountNumber the affected account, or null when many accounts changed at once
+ */
+public record AccountChangedEvent(String accountNumber, Change change) {
+
+    public enum Change {
+        CREATED,
+        BALANCE,
+        STATUS,
+        DETAILS,
+        LOAN,
+        DELETED
+    }
+}
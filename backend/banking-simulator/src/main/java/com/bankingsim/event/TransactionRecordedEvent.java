@@ -0,0 +1,8 @@
+package com.bankingsim.event;
+
+import com.bankingsim.model.TransactionRecord;
+
+/**
+ * Published after a row is inserted into transactions.
+ */
+public record TransactionRecordedEvent(TransactionRecord transaction) {}
@@ -0,0 +1,8 @@
+package com.bankingsim.event;
+
+import com.bankingsim.model.TransactionRecord;
+
+/**
+ * Published after a transaction is marked REVERSED and its balance changes are undone.
+ */
+public record TransactionReversedEvent(TransactionRecord transaction, String reversedBy) {}
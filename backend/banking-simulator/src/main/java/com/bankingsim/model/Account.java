@@ -41,6 +41,7 @@ public class Account {
     private String address;
 
     // LOGIN PIN (hashed)
+    @JsonIgnore
     private String pin;
 
     // TRANSACTION PIN (hashed)
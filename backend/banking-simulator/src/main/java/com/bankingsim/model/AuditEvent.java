@@ -0,0 +1,89 @@
+package com.bankingsim.model;
+
+/**
+ * Every event type written to audit_log.event_type.
+ * Constant names match the strings stored before the enum existed, so old rows stay searchable.
+ */
+public enum AuditEvent {
+
+    // ---------------- accounts ----------------
+    CREATE_ACCOUNT,
+    BALANCE_UPDATE,
+    STATUS_UPDATE,
+    UPDATE_CONTACT,
+    UPDATE_CUSTOMER_DETAILS,
+    DELETE_ACCOUNT,
+    DELETE_ADMIN_ACCOUNT,
+    DELETION_REQUEST,
+    DELETION_APPROVED,
+    DELETION_REJECTED,
+    ACCOUNT_SOFT_DELETED,
+    ACCOUNT_RESTORED,
+    LOCK_ACCOUNT,
+    UNLOCK_ACCOUNT,
+    TX_LOCK,
+    TX_UNLOCK,
+    UPDATE_TX_PIN,
+
+    // ---------------- transactions ----------------
+    TRANSACTION_DEPOSIT,
+    TRANSACTION_WITHDRAW,
+    TRANSACTION_TRANSFER,
+    TRANSACTION_ACCOUNT_CLOSED,
+    TRANSACTION_ROLLBACK,
+    TRANSACTION_LOAN_CREDIT,
+    TRANSACTION_LOAN_REPAYMENT,
+    TRANSACTION_UNKNOWN,
+    TX_ABORTED_LOCKED,
+    ROLLBACK,
+
+    // ---------------- loans ----------------
+    LOAN_REQ_SAVED,
+    LOAN_REQUEST_APPROVE,
+    LOAN_REQUEST_REJECT,
+    LOAN_APPLY_ACCOUNT,
+    LOAN_APPROVED_NOTIFY,
+    LOAN_METADATA_SET,
+    LOAN_METADATA_CLEARED,
+    LOAN_REPAY,
+    LOAN_CLOSED,
+    AUTO_REPAYMENT_ENABLED,
+    AUTO_REPAYMENT_DISABLED,
+    AUTO_REPAY_ON,
+    AUTO_REPAY_OFF,
+
+    // ---------------- users / sessions ----------------
+    CREATE_USER,
+    ADMIN_UPDATE,
+    DELETE_ADMIN,
+    LOGIN,
+    LOGOUT,
+    LOGIN_SUCCESS,
+    LOGIN_FAIL,
+    AUTO_LOGOUT,
+    TX_PIN_SUCCESS,
+    TX_PIN_FAIL,
+    TX_PIN_LOCK,
+    TX_PIN_UNLOCK,
+    TX_PIN_RESET,
+    PASSWORD_RESET,
+    PIN_RESET,
+    USER_DELETION_REQ_SET,
+    USER_DELETION_REQ_CLEARED,
+    USER_MARK_DELETED;
+
+    public static AuditEvent forTransaction(TransactionRecord.TxType type) {
+        if (type == null) return TRANSACTION_UNKNOWN;
+        return valueOf("TRANSACTION_" + type.name());
+    }
+
+    /** Parses a request parameter; returns null for blank or unknown values. */
+    public static AuditEvent parse(String s) {
+        if (s == null || s.isBlank()) return null;
+        try {
+            return valueOf(s.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.bankingsim.model;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+/**
+ * One asynchronous report render (see ReportJobService).
+ */
+public class ReportJob {
+
+    public enum Type { ACCOUNTS, TRANSACTIONS }
+
+    public enum Status { QUEUED, RUNNING, DONE, FAILED }
+
+    private final String id;
+    private final Type type;
+    private final String branch;        // null = all branches
+    private final Integer branchId;     // BranchRegistry ordinal of branch
+    private final long dataVersion;
+
+    private volatile Status status = Status.QUEUED;
+    private volatile long sizeBytes;
+    private volatile String error;
+    private volatile LocalDateTime finishedAt;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private final LocalDateTime createdAt = LocalDateTime.now();
+
+    @JsonIgnore
+    private volatile Path file;
+
+    public ReportJob(String id, Type type, String branch, Integer branchId, long dataVersion) {
+        this.id = id;
+        this.type = type;
+        this.branch = branch;
+        this.branchId = branchId;
+        this.dataVersion = dataVersion;
+    }
+
+    public String getId() { return id; }
+    public Type getType() { return type; }
+    public String getBranch() { return branch; }
+    public Integer getBranchId() { return branchId; }
+    public long getDataVersion() { return dataVersion; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+
+    public Status getStatus() { return status; }
+    public void setStatus(Status status) { this.status = status; }
+
+    public long getSizeBytes() { return sizeBytes; }
+    public void setSizeBytes(long sizeBytes) { this.sizeBytes = sizeBytes; }
+
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+    public void setFinishedAt(LocalDateTime finishedAt) { this.finishedAt = finishedAt; }
+
+    @JsonIgnore
+    public Path getFile() { return file; }
+    public void setFile(Path file) { this.file = file; }
+
+    @JsonIgnore
+    public boolean isFinished() {
+        return status == Status.DONE || status == Status.FAILED;
+    }
+}
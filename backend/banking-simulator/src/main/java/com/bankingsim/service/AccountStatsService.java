@@ -0,0 +1,124 @@
+package com.bankingsim.service;
+
+import com.bankingsim.dao.DailySummaryDao;
+import com.bankingsim.dao.TransactionDao;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Monthly statistics of one account (the customer statistics page): daily deposit / withdrawal
+ * series, spending by category, peak spend day and net.
+ *
+ * The daily series come from account_daily_summary (at most one row per day) and the category
+ * split from a GROUP BY range scan (TransactionDao.dailyOutflow); until the rollup is backfilled
+ * the series are summed from the ledger too. Either way the result is exact however many
+ * transactions the month has. These sums ignore the REVERSED status a rollback sets, so a month
+ * that has ended can't change: those results are kept in a bounded cache; the current month is
+ * always computed fresh.
+ */
+@Service
+public class AccountStatsService {
+
+    public record MonthlyStats(String accountNumber, int year, int month,
+                               List<BigDecimal> deposits, List<BigDecimal> withdrawals,
+                               Map<String, BigDecimal> categories,
+                               BigDecimal totalDeposits, BigDecimal totalWithdrawals,
+                               BigDecimal peakSpend, Integer peakSpendDay, BigDecimal net,
+                               boolean closed) {}
+
+    private final TransactionDao txDao;
+    private final DailySummaryDao summaries;
+    private final Cache<String, MonthlyStats> closedMonths;
+
+    public AccountStatsService(TransactionDao txDao, DailySummaryDao summaries,
+                               @Value("${app.stats.closed-months.max-size:20000}") long maxSize,
+                               @Value("${app.stats.closed-months.idle-minutes:60}") long idleMinutes) {
+        this.txDao = txDao;
+        this.summaries = summaries;
+        this.closedMonths = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterAccess(Duration.ofMinutes(idleMinutes))
+                .build();
+    }
+
+    public MonthlyStats monthly(String accNo, YearMonth month) {
+        boolean closed = month.isBefore(YearMonth.now());
+        if (!closed) return compute(accNo, month, false);
+        return closedMonths.get(accNo + "|" + month, k -> compute(accNo, month, true));
+    }
+
+    private MonthlyStats compute(String accNo, YearMonth month, boolean closed) {
+        LocalDateTime from = month.atDay(1).atStartOfDay();
+        LocalDateTime to = month.plusMonths(1).atDay(1).atStartOfDay();
+        int days = month.lengthOfMonth();
+
+        BigDecimal[] deposits = zeros(days);
+        BigDecimal[] withdrawals = zeros(days);
+        Map<String, BigDecimal> categories = new HashMap<>();
+
+        boolean rollup = summaries.isReady();
+        if (rollup) {
+            for (DailySummaryDao.Day d : summaries.range(accNo, month.atDay(1), month.plusMonths(1).atDay(1))) {
+                deposits[d.date().getDayOfMonth() - 1] = d.deposits();
+                withdrawals[d.date().getDayOfMonth() - 1] = d.spending();
+            }
+        } else {
+            for (TransactionDao.DailyAmount r : txDao.dailyInflow(accNo, from, to)) {
+                deposits[r.day() - 1] = deposits[r.day() - 1].add(r.amount());
+            }
+        }
+        for (TransactionDao.DailyAmount r : txDao.dailyOutflow(accNo, from, to)) {
+            if (!rollup) withdrawals[r.day() - 1] = withdrawals[r.day() - 1].add(r.amount());
+            categories.merge(r.category(), r.amount(), BigDecimal::add);
+        }
+
+        BigDecimal totalDeposits = sum(deposits);
+        BigDecimal totalWithdrawals = sum(withdrawals);
+
+        Integer peakDay = null;
+        BigDecimal peak = BigDecimal.ZERO;
+        for (int i = 0; i < days; i++) {
+            if (withdrawals[i].compareTo(peak) > 0) {
+                peak = withdrawals[i];
+                peakDay = i + 1;
+            }
+        }
+
+        // largest category first
+        List<Map.Entry<String, BigDecimal>> sorted = new ArrayList<>(categories.entrySet());
+        sorted.sort(Map.Entry.<String, BigDecimal>comparingByValue().reversed());
+        Map<String, BigDecimal> byCategory = new LinkedHashMap<>();
+        for (Map.Entry<String, BigDecimal> e : sorted) byCategory.put(e.getKey(), e.getValue());
+
+        return new MonthlyStats(accNo, month.getYear(), month.getMonthValue(),
+                List.of(deposits), List.of(withdrawals), Collections.unmodifiableMap(byCategory),
+                totalDeposits, totalWithdrawals, peak, peakDay,
+                totalDeposits.subtract(totalWithdrawals), closed);
+    }
+
+    private static BigDecimal[] zeros(int n) {
+        BigDecimal[] a = new BigDecimal[n];
+        Arrays.fill(a, BigDecimal.ZERO);
+        return a;
+    }
+
+    private static BigDecimal sum(BigDecimal[] a) {
+        BigDecimal s = BigDecimal.ZERO;
+        for (BigDecimal v : a) s = s.add(v);
+        return s;
+    }
+}
@@ -0,0 +1,267 @@
+package com.bankingsim.service;
+
+import com.bankingsim.util.SqlDialect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Maintains the monthly RANGE partitions of audit_log.
+ *
+ *  - partitionIfNeeded(): converts an unpartitioned audit_log (called by DatabaseInitializer)
+ *  - ensureFuturePartitions(): splits pmax so upcoming months always have their own partition
+ *  - archiveNext(): detaches one partition older than the retention window, exports it
+ *    to a gzip CSV file under app.audit.archive.path and drops it
+ *
+ * The last two run as the audit-retention MaintenanceJob (MaintenanceJobsConfig), so only the
+ * node holding its lease reorganizes, exchanges or drops partitions.
+ *
+ * Partitions are named pYYYYMM and hold rows with timestamp < first day of the next month.
+ */
+@Service
+public class AuditPartitionManager {
+
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'p'yyyyMM");
+    private static final String DETACHED_PREFIX = "audit_log_detached_";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${app.audit.retention-months:12}")
+    private int retentionMonths;
+
+    @Value("${app.audit.future-partitions:3}")
+    private int futurePartitions;
+
+    @Value("${app.audit.archive.path:archive/audit/}")
+    private String archivePath;
+
+    public AuditPartitionManager(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // partitions are MySQL-only; the embedded (H2) profiles keep audit_log as one table
+    private boolean partitioningSupported() {
+        return SqlDialect.of(jdbcTemplate.getDataSource()) == SqlDialect.MYSQL;
+    }
+
+    // ======================================================
+    // INITIAL PARTITIONING
+    // ======================================================
+    // failures propagate, so SchemaMigrator leaves V2 unrecorded and retries it on the next start
+    public void partitionIfNeeded() {
+        if (!partitioningSupported()) return;
+        if (!listMonthPartitions().isEmpty() || hasPartition("pmax")) return;
+
+        // Partition key must be part of every unique key → PK becomes (id, timestamp)
+        Integer tsInPk = jdbcTemplate.queryForObject("""
+            SELECT COUNT(*) FROM INFORMATION_SCHEMA.STATISTICS
+            WHERE TABLE_SCHEMA = DATABASE()
+            AND TABLE_NAME = 'audit_log'
+            AND INDEX_NAME = 'PRIMARY'
+            AND COLUMN_NAME = 'timestamp'
+        """, Integer.class);
+
+        if (tsInPk == null || tsInPk == 0) {
+            jdbcTemplate.execute("""
+                ALTER TABLE audit_log
+                MODIFY `timestamp` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                DROP PRIMARY KEY,
+                ADD PRIMARY KEY (id, `timestamp`)
+            """);
+        }
+
+        Timestamp oldest = jdbcTemplate.queryForObject("SELECT MIN(`timestamp`) FROM audit_log", Timestamp.class);
+        YearMonth first = oldest != null
+                ? YearMonth.from(oldest.toLocalDateTime())
+                : YearMonth.now();
+        YearMonth last = YearMonth.now().plusMonths(futurePartitions);
+
+        jdbcTemplate.execute("ALTER TABLE audit_log PARTITION BY RANGE COLUMNS(`timestamp`) ("
+                + partitionDefinitions(first, last) + ", PARTITION pmax VALUES LESS THAN (MAXVALUE))");
+
+        System.out.println("🗂️ audit_log partitioned monthly from " + first + " to " + last);
+    }
+
+    // ======================================================
+    // RETENTION (audit-retention job)
+    // ======================================================
+
+    /**
+     * One chunk of the audit-retention job: the first chunk of a run also adds the upcoming
+     * month partitions; every chunk then archives one staging table left over by an interrupted
+     * run or, failing that, the oldest partition past the retention cutoff.
+     *
+     * @return true if something was archived (the job asks again), false once nothing is left
+     */
+    public boolean archiveNext(boolean firstChunk) {
+        if (!partitioningSupported()) return false;
+        if (firstChunk) ensureFuturePartitions();
+        try {
+            return archiveLeftoverStagingTable() || archiveOldestExpiredPartition();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void ensureFuturePartitions() {
+        try {
+            List<String> months = listMonthPartitions();
+            if (months.isEmpty() || !hasPartition("pmax")) return;
+
+            YearMonth lastExisting = YearMonth.parse(months.get(months.size() - 1), PARTITION_NAME);
+            YearMonth target = YearMonth.now().plusMonths(futurePartitions);
+            if (!lastExisting.isBefore(target)) return;
+
+            jdbcTemplate.execute("ALTER TABLE audit_log REORGANIZE PARTITION pmax INTO ("
+                    + partitionDefinitions(lastExisting.plusMonths(1), target)
+                    + ", PARTITION pmax VALUES LESS THAN (MAXVALUE))");
+
+            System.out.println("🗂️ audit_log partitions added up to " + target);
+
+        } catch (Exception e) {
+            System.err.println("⚠️ Error adding audit_log partitions: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Detaches the oldest monthly partition if it ends before the retention cutoff: it is swapped
+     * into a staging table (EXCHANGE PARTITION), dropped from audit_log, exported to a .csv.gz
+     * archive and finally the staging table is dropped.
+     */
+    private boolean archiveOldestExpiredPartition() throws IOException {
+        YearMonth cutoff = YearMonth.now().minusMonths(retentionMonths);
+        List<String> months = listMonthPartitions();
+
+        // always keep at least one month partition so the layout stays valid
+        if (months.size() < 2) return false;
+        String partition = months.get(0);
+        if (!YearMonth.parse(partition, PARTITION_NAME).isBefore(cutoff)) return false;
+
+        String staging = DETACHED_PREFIX + partition;
+        jdbcTemplate.execute("CREATE TABLE `" + staging + "` LIKE audit_log");
+        jdbcTemplate.execute("ALTER TABLE `" + staging + "` REMOVE PARTITIONING");
+        jdbcTemplate.execute("ALTER TABLE audit_log EXCHANGE PARTITION " + partition + " WITH TABLE `" + staging + "`");
+        jdbcTemplate.execute("ALTER TABLE audit_log DROP PARTITION " + partition);
+
+        exportAndDrop(staging);
+        System.out.println("📦 Archived audit_log partition " + partition + " to " + archivePath);
+        return true;
+    }
+
+    // ======================================================
+    // ARCHIVE EXPORT
+    // ======================================================
+    private boolean archiveLeftoverStagingTable() throws IOException {
+        List<String> leftovers = jdbcTemplate.queryForList("""
+            SELECT TABLE_NAME FROM INFORMATION_SCHEMA.TABLES
+            WHERE TABLE_SCHEMA = DATABASE()
+            AND TABLE_NAME LIKE 'audit\\_log\\_detached\\_%'
+        """, String.class);
+        if (leftovers.isEmpty()) return false;
+
+        exportAndDrop(leftovers.get(0));
+        System.out.println("📦 Archived leftover " + leftovers.get(0) + " to " + archivePath);
+        return true;
+    }
+
+    private void exportAndDrop(String staging) throws IOException {
+        Path dir = Paths.get(archivePath);
+        Files.createDirectories(dir);
+
+        String partition = staging.substring(DETACHED_PREFIX.length());
+        Path target = dir.resolve("audit_log_" + partition + ".csv.gz");
+        Path part = dir.resolve("audit_log_" + partition + ".csv.gz.part");
+
+        // stream rows instead of buffering the whole month in memory
+        JdbcTemplate streaming = SqlDialect.streamingTemplate(jdbcTemplate.getDataSource());
+
+        try (Writer w = new BufferedWriter(new OutputStreamWriter(
+                new GZIPOutputStream(Files.newOutputStream(part)), StandardCharsets.UTF_8))) {
+
+            w.write("id,event_type,account_number,amount,correlation_id,actor,timestamp,description\n");
+
+            streaming.query("SELECT id, event_type, account_number, amount, correlation_id, actor, `timestamp`, description FROM `" + staging + "` ORDER BY `timestamp`", rs -> {
+                try {
+                    Timestamp ts = rs.getTimestamp("timestamp");
+                    w.write(rs.getLong("id") + ","
+                            + csv(rs.getString("event_type")) + ","
+                            + csv(rs.getString("account_number")) + ","
+                            + (rs.getBigDecimal("amount") != null ? rs.getBigDecimal("amount").toPlainString() : "") + ","
+                            + csv(rs.getString("correlation_id")) + ","
+                            + csv(rs.getString("actor")) + ","
+                            + (ts != null ? ts.toLocalDateTime().toString() : "") + ","
+                            + csv(rs.getString("description")) + "\n");
+                } catch (IOException io) {
+                    throw new UncheckedIOException(io);
+                }
+            });
+        }
+
+        Files.move(part, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        jdbcTemplate.execute("DROP TABLE `" + staging + "`");
+    }
+
+    private static String csv(String s) {
+        if (s == null) return "";
+        if (s.indexOf(',') < 0 && s.indexOf('"') < 0 && s.indexOf('\n') < 0 && s.indexOf('\r') < 0) return s;
+        return "\"" + s.replace("\"", "\"\"") + "\"";
+    }
+
+    // ======================================================
+    // HELPERS
+    // ======================================================
+    private List<String> listMonthPartitions() {
+        List<String> names = jdbcTemplate.queryForList("""
+            SELECT PARTITION_NAME FROM INFORMATION_SCHEMA.PARTITIONS
+            WHERE TABLE_SCHEMA = DATABASE()
+            AND TABLE_NAME = 'audit_log'
+            AND PARTITION_NAME IS NOT NULL
+            ORDER BY PARTITION_ORDINAL_POSITION
+        """, String.class);
+
+        List<String> months = new ArrayList<>();
+        for (String n : names) {
+            if (n != null && n.matches("p\\d{6}")) months.add(n);
+        }
+        return months;
+    }
+
+    private boolean hasPartition(String name) {
+        Integer count = jdbcTemplate.queryForObject("""
+            SELECT COUNT(*) FROM INFORMATION_SCHEMA.PARTITIONS
+            WHERE TABLE_SCHEMA = DATABASE()
+            AND TABLE_NAME = 'audit_log'
+            AND PARTITION_NAME = ?
+        """, Integer.class, name);
+        return count != null && count > 0;
+    }
+
+    private static String partitionDefinitions(YearMonth from, YearMonth to) {
+        StringBuilder sb = new StringBuilder();
+        for (YearMonth m = from; !m.isAfter(to); m = m.plusMonths(1)) {
+            if (sb.length() > 0) sb.append(", ");
+            LocalDate upper = m.plusMonths(1).atDay(1);
+            sb.append("PARTITION ").append(m.format(PARTITION_NAME))
+              .append(" VALUES LESS THAN ('").append(upper).append(" 00:00:00')");
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,244 @@
+package com.bankingsim.service;
+
+import com.bankingsim.dao.DailySummaryDao;
+import com.bankingsim.dao.JobDao;
+import com.bankingsim.model.TransactionRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Rebuilds account_daily_summary from the ledger for the days before the rollup was kept up to
+ * date by DailySummaryDao's listeners (everything before today at the time of the run).
+ *
+ * Walks accounts by account number in chunks of app.summary.backfill.chunk. For each account the
+ * ledger is read newest first (the two indexed history scans) starting from the current
+ * balance, so each day's closing, opening, lowest and highest balance falls out of one pass.
+ * Reversed rows still count as deposits / spending (as the ledger queries did) but not as
+ * balance movements, since the reversal itself has no timestamp.
+ *
+ * Runs on its own thread after startup; completion is recorded in schema_backfills, and until
+ * then readers keep their ledger queries (DailySummaryDao.isReady). One node does the work: it
+ * holds the "account_daily_summary" lease in job_leases (JobDao), renewed after every chunk.
+ * The others poll schema_backfills every app.summary.backfill.poll-ms to flip their readers, and
+ * take over (from the start; the rows are upserted) if the lease expires before completion.
+ */
+@Service
+public class DailySummaryBackfill {
+
+    private static final String NAME = "account_daily_summary";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DailySummaryDao summaries;
+    private final JobDao jobDao;
+    private final String nodeId;
+
+    @Value("${app.summary.backfill.chunk:200}")
+    private int chunkSize;
+
+    @Value("${app.summary.backfill.pause-ms:50}")
+    private long pauseMs;
+
+    // must comfortably exceed the time of one chunk
+    @Value("${app.summary.backfill.lease-seconds:120}")
+    private int leaseSeconds;
+
+    @Value("${app.summary.backfill.poll-ms:30000}")
+    private long pollMs;
+
+    public DailySummaryBackfill(JdbcTemplate jdbcTemplate, DailySummaryDao summaries, JobDao jobDao) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.summaries = summaries;
+        this.jobDao = jobDao;
+        this.nodeId = ManagementFactory.getRuntimeMXBean().getName() + "/" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        if (isComplete()) {
+            summaries.setReady(true);
+            return;
+        }
+        Thread t = new Thread(this::awaitOrRun, "daily-summary-backfill");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    /** Until schema_backfills has the entry: run the backfill if the lease is free, else wait. */
+    private void awaitOrRun() {
+        try {
+            while (!isComplete()) {
+                if (tryAcquire()) {
+                    if (run()) return;
+                    release();
+                }
+                Thread.sleep(pollMs);
+            }
+            summaries.setReady(true);
+            System.out.println("✅ Daily summary backfill completed by another node");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean isComplete() {
+        try {
+            Integer n = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM schema_backfills WHERE name = ?", Integer.class, NAME);
+            return n != null && n > 0;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    /** True once the backfill is done and recorded; false if it stopped (lease lost or an error). */
+    private boolean run() throws InterruptedException {
+        long start = System.currentTimeMillis();
+        LocalDate cutover = LocalDate.now();
+        long accounts = 0;
+        String lastAcc = "";
+
+        try {
+            while (true) {
+                List<String> chunk = jdbcTemplate.queryForList(
+                        "SELECT account_number FROM accounts WHERE account_number > ? ORDER BY account_number LIMIT ?",
+                        String.class, lastAcc, chunkSize);
+                if (chunk.isEmpty()) break;
+
+                for (String acc : chunk) {
+                    summaries.replaceBefore(acc, cutover, rebuild(acc, cutover));
+                    accounts++;
+                }
+
+                lastAcc = chunk.get(chunk.size() - 1);
+                if (!jobDao.renew(NAME, nodeId, leaseSeconds)) {
+                    System.err.println("⚠️ Daily summary backfill lost its lease at " + lastAcc);
+                    return false;
+                }
+                if (pauseMs > 0) Thread.sleep(pauseMs);
+            }
+
+            jdbcTemplate.update("INSERT IGNORE INTO schema_backfills (name, completed_at) VALUES (?, NOW())", NAME);
+            summaries.setReady(true);
+
+            System.out.println("✅ Daily summary backfill done: " + accounts + " accounts in "
+                    + (System.currentTimeMillis() - start) / 1000 + "s");
+            return true;
+
+        } catch (InterruptedException e) {
+            throw e;
+        } catch (Exception e) {
+            System.err.println("⚠️ Daily summary backfill stopped at " + lastAcc + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    private boolean tryAcquire() {
+        try {
+            return jobDao.tryAcquire(NAME, nodeId, leaseSeconds);
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private void release() {
+        try {
+            jobDao.release(NAME, nodeId);
+        } catch (Exception ignored) {}
+    }
+
+    /** Mutable totals of one day while walking the ledger backwards. */
+    private static final class DayTotals {
+        final LocalDate date;
+        BigDecimal credits = BigDecimal.ZERO, debits = BigDecimal.ZERO;
+        BigDecimal deposits = BigDecimal.ZERO, spending = BigDecimal.ZERO;
+        int creditCount, debitCount;
+        final BigDecimal end;
+        BigDecimal open, min, max;
+
+        DayTotals(LocalDate date, BigDecimal balance) {
+            this.date = date;
+            this.end = this.open = this.min = this.max = balance;
+        }
+
+        DailySummaryDao.Day toDay() {
+            return new DailySummaryDao.Day(date, credits, debits, creditCount, debitCount,
+                    deposits, spending, open, end, min, max);
+        }
+    }
+
+    /** Days before {@code cutover} with activity on the account, oldest first. */
+    private List<DailySummaryDao.Day> rebuild(String acc, LocalDate cutover) {
+        List<BigDecimal> current = jdbcTemplate.queryForList(
+                "SELECT balance FROM accounts WHERE account_number = ?", BigDecimal.class, acc);
+        if (current.isEmpty()) return List.of();
+
+        BigDecimal[] balance = { current.get(0) != null ? current.get(0) : BigDecimal.ZERO };
+        List<DailySummaryDao.Day> days = new ArrayList<>();
+        DayTotals[] day = { null };
+
+        jdbcTemplate.query("""
+            SELECT created_at, tx_type, from_account, amount, status FROM transactions WHERE from_account = ?
+            UNION ALL
+            SELECT created_at, tx_type, from_account, amount, status FROM transactions
+            WHERE to_account = ? AND NOT (from_account <=> ?)
+            ORDER BY created_at DESC
+        """, (RowCallbackHandler) rs -> {
+            if (rs.getTimestamp("created_at") == null || rs.getBigDecimal("amount") == null) return;
+            LocalDate date = rs.getTimestamp("created_at").toLocalDateTime().toLocalDate();
+            BigDecimal amount = rs.getBigDecimal("amount");
+            boolean out = acc.equals(rs.getString("from_account"));
+            boolean reversed = "REVERSED".equalsIgnoreCase(rs.getString("status"));
+            boolean customer = isCustomer(rs.getString("tx_type"));
+
+            if (day[0] == null || !day[0].date.equals(date)) {
+                if (day[0] != null && day[0].date.isBefore(cutover)) days.add(day[0].toDay());
+                day[0] = new DayTotals(date, balance[0]);
+            }
+            DayTotals d = day[0];
+
+            if (customer) {
+                if (out) d.spending = d.spending.add(amount);
+                else d.deposits = d.deposits.add(amount);
+            }
+            if (reversed) return;
+
+            // step back to the balance before this movement
+            if (out) {
+                d.debits = d.debits.add(amount);
+                d.debitCount++;
+                balance[0] = balance[0].add(amount);
+            } else {
+                d.credits = d.credits.add(amount);
+                d.creditCount++;
+                balance[0] = balance[0].subtract(amount);
+            }
+            d.open = balance[0];
+            d.min = d.min.min(balance[0]);
+            d.max = d.max.max(balance[0]);
+        }, acc, acc, acc);
+
+        if (day[0] != null && day[0].date.isBefore(cutover)) days.add(day[0].toDay());
+        Collections.reverse(days);
+        return days;
+    }
+
+    private static boolean isCustomer(String txType) {
+        try {
+            return DailySummaryDao.isCustomerMovement(TransactionRecord.TxType.valueOf(txType));
+        } catch (Exception e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,474 @@
+package com.bankingsim.service;
+
+import com.bankingsim.event.AccountChangedEvent;
+import com.bankingsim.event.TransactionRecordedEvent;
+import com.bankingsim.event.TransactionReversedEvent;
+import com.bankingsim.model.TransactionRecord;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Server-Sent Events push channel, so dashboards are told about changes instead of polling.
+ *
+ * Topics:
+ *  - "account:{accNo}" → balance, transaction, reversed, status (lock / unlock, active / inactive)
+ *    and loan events of that account
+ *  - "admin"           → the same events for every account, plus account (created / details / deleted)
+ *
+ * Publishing never blocks the write path: an event is offered to each subscriber's bounded
+ * queue (app.events.buffer) and written to the connection by a small pool (sseExecutor); the
+ * account row behind balance / status / loan events is read on that pool too. A subscriber is
+ * evicted (its stream closed) when
+ *  - its queue is full: it is too slow to keep up
+ *  - one write has been blocked for app.events.write-timeout-ms: the writer thread is
+ *    interrupted and the stream completed, so a stuck client can't hold a pool thread (the
+ *    connector's write timeout, server.tomcat.connection-timeout, is the backstop)
+ * EventSource then reconnects and the page reloads its state on the "ready" event. A comment
+ * line every app.events.heartbeat-ms keeps proxies from closing idle streams and finds dead
+ * connections.
+ *
+ * Events happen on the node that handled the request, so each node also appends its events to
+ * stream_events (batched every app.events.cluster.sync-ms) and delivers the other nodes' rows
+ * to its own subscribers; a dashboard sees changes made anywhere about a second later. Account
+ * changes travel as (account, change) and each node reads the current row itself.
+ */
+@Service
+public class EventStreamService {
+
+    public static final String ADMIN_TOPIC = "admin";
+
+    private static final int SYNC_OVERLAP = 50;
+    private static final int SYNC_BATCH = 1000;
+
+    public static String accountTopic(String accNo) {
+        return "account:" + accNo;
+    }
+
+    /** One open stream: its emitter, its bounded outbox and whether a writer is draining it. */
+    private final class Subscriber {
+        final String topic;
+        final SseEmitter emitter;
+        final BlockingQueue<SseEmitter.SseEventBuilder> queue;
+        final AtomicBoolean draining = new AtomicBoolean();
+        volatile boolean closed;
+
+        // the thread inside emitter.send and since when (nanoTime); guarded by this
+        Thread writer;
+        long writingSince;
+
+        Subscriber(String topic, SseEmitter emitter) {
+            this.topic = topic;
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(bufferSize);
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Executor executor;
+    private final ObjectMapper objectMapper;
+
+    private final Map<String, Set<Subscriber>> topics = new ConcurrentHashMap<>();
+    private final AtomicInteger subscribers = new AtomicInteger();
+    private final LongAdder evicted = new LongAdder();
+
+    private final int bufferSize;
+    private final int maxSubscribers;
+    private final long timeoutMs;
+    private final long writeTimeoutNanos;
+
+    // cluster fan-out: this process's id in stream_events, events waiting to be written, and
+    // the ids of the other nodes' rows already delivered (only touched by syncCluster)
+    private final String nodeId = UUID.randomUUID().toString();
+    private final boolean clusterEnabled;
+    private final BlockingQueue<Object[]> outbox;
+    private final AtomicBoolean outboxFull = new AtomicBoolean();
+    private final Map<Long, Boolean> delivered = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Boolean> eldest) {
+            return size() > 4 * SYNC_BATCH;
+        }
+    };
+    private volatile long lastSeenId = -1;
+
+    public EventStreamService(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper,
+                              @Qualifier("sseExecutor") Executor executor,
+                              @Value("${app.events.buffer:64}") int bufferSize,
+                              @Value("${app.events.max-subscribers:2000}") int maxSubscribers,
+                              @Value("${app.events.timeout-ms:1800000}") long timeoutMs,
+                              @Value("${app.events.write-timeout-ms:10000}") long writeTimeoutMs,
+                              @Value("${app.events.cluster.enabled:true}") boolean clusterEnabled,
+                              @Value("${app.events.cluster.outbox:10000}") int outboxSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.clusterEnabled = clusterEnabled;
+        this.outbox = new ArrayBlockingQueue<>(Math.max(1, outboxSize));
+        this.executor = executor;
+        this.bufferSize = Math.max(1, bufferSize);
+        this.maxSubscribers = maxSubscribers;
+        this.timeoutMs = timeoutMs;
+        this.writeTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(writeTimeoutMs);
+    }
+
+    // ======================================================
+    // SUBSCRIBE
+    // ======================================================
+
+    /** Opens a stream on {@code topic}, or returns null when the subscriber limit is reached. */
+    public SseEmitter subscribe(String topic) {
+        if (subscribers.incrementAndGet() > maxSubscribers) {
+            subscribers.decrementAndGet();
+            return null;
+        }
+
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber s = new Subscriber(topic, emitter);
+        emitter.onCompletion(() -> remove(s));
+        emitter.onTimeout(() -> remove(s));
+        emitter.onError(e -> remove(s));
+
+        topics.computeIfAbsent(topic, k -> ConcurrentHashMap.newKeySet()).add(s);
+        enqueue(s, SseEmitter.event().name("ready").data(Map.of("topic", topic)));
+        return emitter;
+    }
+
+    public boolean hasSubscribers(String topic) {
+        Set<Subscriber> set = topics.get(topic);
+        return set != null && !set.isEmpty();
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("subscribers", subscribers.get());
+        m.put("topics", topics.size());
+        m.put("evicted", evicted.sum());
+        m.put("clusterOutbox", outbox.size());
+        m.put("lastSeenClusterEvent", lastSeenId);
+        return m;
+    }
+
+    // ======================================================
+    // PUBLISH / DELIVERY
+    // ======================================================
+    public void publish(String topic, String name, Object data) {
+        Set<Subscriber> set = topics.get(topic);
+        if (set == null || set.isEmpty()) return;
+        for (Subscriber s : set) enqueue(s, SseEmitter.event().name(name).data(data));
+    }
+
+    private void enqueue(Subscriber s, SseEmitter.SseEventBuilder event) {
+        if (s.closed) return;
+        if (!s.queue.offer(event)) {
+            evict(s, "slow consumer");
+            return;
+        }
+        schedule(s);
+    }
+
+    private void evict(Subscriber s, String reason) {
+        evicted.increment();
+        System.err.println("⚠️ SSE subscriber on " + s.topic + " evicted (" + reason + ")");
+        close(s);
+    }
+
+    private void schedule(Subscriber s) {
+        if (!s.draining.compareAndSet(false, true)) return;
+        try {
+            executor.execute(() -> drain(s));
+        } catch (RejectedExecutionException e) {
+            // pool saturated: the events stay queued for the next publish or heartbeat
+            s.draining.set(false);
+            // no writer is running, so completing here can't block on the emitter
+            if (s.closed) complete(s);
+        }
+    }
+
+    private void drain(Subscriber s) {
+        try {
+            SseEmitter.SseEventBuilder event;
+            while (!s.closed && (event = s.queue.poll()) != null) {
+                synchronized (s) {
+                    s.writer = Thread.currentThread();
+                    s.writingSince = System.nanoTime();
+                }
+                try {
+                    s.emitter.send(event);
+                } finally {
+                    synchronized (s) {
+                        s.writer = null;
+                        // an interrupt from reapStuckWriters meant for this send must not leak into the pool
+                        Thread.interrupted();
+                    }
+                }
+            }
+        } catch (Exception e) {
+            // client went away
+            remove(s);
+        } finally {
+            s.draining.set(false);
+            if (s.closed) complete(s);
+            else if (!s.queue.isEmpty()) schedule(s);
+        }
+    }
+
+    /**
+     * Drops the subscriber and completes its stream on the writer pool: complete() waits for a
+     * send in progress, so it must never run on a publishing or scheduler thread.
+     */
+    private void close(Subscriber s) {
+        remove(s);
+        schedule(s);
+    }
+
+    private static void complete(Subscriber s) {
+        try {
+            s.emitter.complete();
+        } catch (Exception ignored) {}
+    }
+
+    private void remove(Subscriber s) {
+        if (s.closed) return;
+        synchronized (s) {
+            if (s.closed) return;
+            s.closed = true;
+        }
+        s.queue.clear();
+        subscribers.decrementAndGet();
+        topics.computeIfPresent(s.topic, (k, set) -> {
+            set.remove(s);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    // a write blocked longer than write-timeout-ms: interrupt it and drop the stream
+    @Scheduled(fixedDelayString = "${app.events.reap-ms:1000}")
+    public void reapStuckWriters() {
+        long now = System.nanoTime();
+        for (Set<Subscriber> set : topics.values()) {
+            for (Subscriber s : set) {
+                boolean stuck;
+                synchronized (s) {
+                    stuck = s.writer != null && now - s.writingSince > writeTimeoutNanos;
+                    if (stuck) s.writer.interrupt();
+                }
+                if (stuck) evict(s, "write blocked");
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.events.heartbeat-ms:25000}")
+    public void heartbeat() {
+        for (Set<Subscriber> set : topics.values()) {
+            for (Subscriber s : set) enqueue(s, SseEmitter.event().comment("ping"));
+        }
+    }
+
+    // ======================================================
+    // DOMAIN EVENTS
+    // ======================================================
+    @EventListener
+    public void onTransactionRecorded(TransactionRecordedEvent event) {
+        Map<String, Object> data = transaction(event.transaction());
+        dispatchTransaction("transaction", data);
+        relay(null, "transaction", data);
+    }
+
+    @EventListener
+    public void onTransactionReversed(TransactionReversedEvent event) {
+        Map<String, Object> data = transaction(event.transaction());
+        data.put("reversedBy", event.reversedBy());
+        dispatchTransaction("reversed", data);
+        relay(null, "reversed", data);
+    }
+
+    @EventListener
+    public void onAccountChanged(AccountChangedEvent event) {
+        dispatchChange(event.accountNumber(), event.change());
+        relay(event.accountNumber(), "change", event.change().name());
+    }
+
+    private void dispatchTransaction(String name, Map<String, Object> data) {
+        Object from = data.get("fromAccount"), to = data.get("toAccount");
+        if (from != null) publish(accountTopic(from.toString()), name, data);
+        if (to != null && !to.equals(from)) publish(accountTopic(to.toString()), name, data);
+        publish(ADMIN_TOPIC, name, data);
+    }
+
+    private void dispatchChange(String acc, AccountChangedEvent.Change change) {
+        if (acc == null) {
+            publish(ADMIN_TOPIC, "account", Map.of("change", change.name()));
+            return;
+        }
+
+        boolean listeners = hasSubscribers(accountTopic(acc)) || hasSubscribers(ADMIN_TOPIC);
+        if (!listeners) return;
+
+        // the account row is read on the writer pool, never on the request thread
+        try {
+            executor.execute(() -> publishChange(acc, change));
+        } catch (RejectedExecutionException e) {
+            System.err.println("⚠️ SSE " + change + " event for " + acc + " dropped (pool saturated)");
+        }
+    }
+
+    private void publishChange(String acc, AccountChangedEvent.Change change) {
+        String topic = accountTopic(acc);
+        switch (change) {
+            case BALANCE, LOAN -> {
+                Map<String, Object> state = state(acc);
+                if (state == null) return;
+                publish(topic, "balance", state);
+                if (change == AccountChangedEvent.Change.LOAN) publish(topic, "loan", state);
+                publish(ADMIN_TOPIC, change == AccountChangedEvent.Change.LOAN ? "loan" : "balance", state);
+            }
+            case STATUS -> {
+                Map<String, Object> state = state(acc);
+                if (state == null) return;
+                publish(topic, "status", state);
+                publish(ADMIN_TOPIC, "status", state);
+            }
+            default -> publish(ADMIN_TOPIC, "account",
+                    Map.of("accountNumber", acc, "change", change.name()));
+        }
+    }
+
+    // ======================================================
+    // CLUSTER FAN-OUT (stream_events)
+    // ======================================================
+
+    /** Queues a local event for the other nodes; never touches the database on the caller's thread. */
+    private void relay(String acc, String name, Object payload) {
+        if (!clusterEnabled) return;
+        try {
+            String json = objectMapper.writeValueAsString(payload);
+            if (!outbox.offer(new Object[]{ nodeId, acc, name, json }) && outboxFull.compareAndSet(false, true))
+                System.err.println("⚠️ SSE cluster outbox full, events for other nodes are being dropped");
+        } catch (Exception e) {
+            System.err.println("⚠️ SSE event not relayed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Writes this node's queued events to stream_events and delivers the other nodes' new rows
+     * to the local subscribers. Like the account cache sync it re-reads a few ids below the
+     * last one seen (ids of concurrent inserts can commit out of order); rows already delivered
+     * are skipped.
+     */
+    @Scheduled(fixedDelayString = "${app.events.cluster.sync-ms:1000}")
+    public void syncCluster() {
+        if (!clusterEnabled) return;
+        try {
+            List<Object[]> batch = new ArrayList<>();
+            outbox.drainTo(batch, SYNC_BATCH);
+            if (!batch.isEmpty()) {
+                jdbcTemplate.batchUpdate("""
+                    INSERT INTO stream_events (node, account_number, name, payload, created_at)
+                    VALUES (?, ?, ?, ?, NOW(3))
+                """, batch);
+                outboxFull.set(false);
+            }
+
+            if (lastSeenId < 0) {
+                Long max = jdbcTemplate.queryForObject("SELECT MAX(id) FROM stream_events", Long.class);
+                lastSeenId = max == null ? 0 : max;
+                return;
+            }
+
+            long last = lastSeenId;
+            List<Map<String, Object>> rows = jdbcTemplate.queryForList("""
+                SELECT id, account_number, name, payload FROM stream_events
+                WHERE id > ? AND node <> ? ORDER BY id LIMIT ?
+            """, Math.max(0, last - SYNC_OVERLAP), nodeId, SYNC_BATCH);
+
+            for (Map<String, Object> r : rows) {
+                long id = ((Number) r.get("id")).longValue();
+                last = Math.max(last, id);
+                if (delivered.put(id, Boolean.TRUE) != null) continue;
+                deliverRemote((String) r.get("account_number"), (String) r.get("name"), (String) r.get("payload"));
+            }
+            lastSeenId = last;
+        } catch (Exception e) {
+            System.err.println("⚠️ SSE cluster sync failed: " + e.getMessage());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void deliverRemote(String acc, String name, String payload) {
+        try {
+            switch (name) {
+                case "transaction", "reversed" -> dispatchTransaction(name, objectMapper.readValue(payload, Map.class));
+                case "change" -> dispatchChange(acc,
+                        AccountChangedEvent.Change.valueOf(objectMapper.readValue(payload, String.class)));
+                default -> { }
+            }
+        } catch (Exception e) {
+            // an event kind this version doesn't know
+        }
+    }
+
+    /** Deletes at most {@code limit} relayed events older than {@code minutes}; returns rows deleted. */
+    public int pruneClusterEvents(int minutes, int limit) {
+        return jdbcTemplate.update("""
+            DELETE FROM stream_events WHERE created_at < NOW() - INTERVAL ? MINUTE
+            ORDER BY id LIMIT ?
+        """, minutes, limit);
+    }
+
+    private static Map<String, Object> transaction(TransactionRecord tx) {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("txId", tx.getTxId());
+        m.put("txType", tx.getTxType() != null ? tx.getTxType().name() : null);
+        m.put("fromAccount", tx.getFromAccount());
+        m.put("toAccount", tx.getToAccount());
+        m.put("amount", tx.getAmount());
+        m.put("category", tx.getCategory());
+        m.put("status", tx.getStatus());
+        m.put("createdAt", tx.getCreatedAt());
+        return m;
+    }
+
+    // balance, status and loan fields as they are now (read only when someone is listening)
+    private Map<String, Object> state(String acc) {
+        try {
+            List<Map<String, Object>> rows = jdbcTemplate.query("""
+                SELECT account_number, balance, status, is_locked, taken_loan, loan_total_due, auto_repayment_enabled
+                FROM accounts WHERE account_number = ?
+            """, (rs, i) -> {
+                Map<String, Object> m = new LinkedHashMap<>();
+                m.put("accountNumber", rs.getString("account_number"));
+                m.put("balance", rs.getBigDecimal("balance"));
+                m.put("status", rs.getString("status"));
+                m.put("locked", rs.getBoolean("is_locked"));
+                m.put("takenLoan", rs.getBoolean("taken_loan"));
+                m.put("loanTotalDue", rs.getBigDecimal("loan_total_due"));
+                m.put("autoRepaymentEnabled", rs.getBoolean("auto_repayment_enabled"));
+                return m;
+            }, acc);
+            return rows.isEmpty() ? null : rows.get(0);
+        } catch (Exception e) {
+            System.err.println("⚠️ SSE state lookup failed for " + acc + ": " + e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package com.bankingsim.service;
+
+import com.bankingsim.dao.JobDao;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.scheduling.support.CronTrigger;
+import org.springframework.stereotype.Service;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs the MaintenanceJobs on their cron schedules (app.jobs.&lt;name&gt;.cron).
+ *
+ *  - one leader per job across all nodes: a run first takes the job's lease in job_leases,
+ *    and nodes that don't get it skip the run
+ *  - a run is a loop of chunks of app.jobs.&lt;name&gt;.chunk (default app.jobs.chunk) rows with
+ *    app.jobs.pause-ms between them; the lease (app.jobs.&lt;name&gt;.lease-seconds, default
+ *    app.jobs.lease-seconds) is extended after every chunk and the run stops if it was lost
+ *  - every run is recorded in job_runs (status, rows, chunks, duration); per-job counters
+ *    and durations of this node are kept in memory for GET /api/jobs
+ */
+@Service
+public class JobScheduler {
+
+    private final List<MaintenanceJob> jobs;
+    private final JobDao jobDao;
+    private final Environment env;
+    private final String nodeId;
+    private final Map<String, Stats> stats = new LinkedHashMap<>();
+
+    private final ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+
+    @Value("${app.jobs.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.jobs.chunk:1000}")
+    private int defaultChunk;
+
+    @Value("${app.jobs.pause-ms:100}")
+    private long pauseMs;
+
+    // must comfortably exceed the duration of one chunk
+    @Value("${app.jobs.lease-seconds:60}")
+    private int leaseSeconds;
+
+    public JobScheduler(List<MaintenanceJob> jobs, JobDao jobDao, Environment env) {
+        this.jobs = jobs;
+        this.jobDao = jobDao;
+        this.env = env;
+        this.nodeId = ManagementFactory.getRuntimeMXBean().getName() + "/" + UUID.randomUUID().toString().substring(0, 8);
+        for (MaintenanceJob j : jobs) stats.put(j.name(), new Stats());
+    }
+
+    /** Per-job counters of this node. */
+    private static final class Stats {
+        final AtomicBoolean running = new AtomicBoolean();
+        final AtomicLong runs = new AtomicLong();
+        final AtomicLong failures = new AtomicLong();
+        final AtomicLong notLeader = new AtomicLong();
+        final AtomicLong totalRows = new AtomicLong();
+        final AtomicLong totalMillis = new AtomicLong();
+        final AtomicLong maxMillis = new AtomicLong();
+        volatile long lastMillis;
+        volatile long lastRows;
+        volatile String lastStatus;
+        volatile LocalDateTime lastStartedAt;
+    }
+
+    // ======================================================
+    // SCHEDULING
+    // ======================================================
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            System.out.println("⚠️ Maintenance jobs disabled (app.jobs.enabled=false)");
+            return;
+        }
+        scheduler.setPoolSize(2);
+        scheduler.setThreadNamePrefix("maint-job-");
+        scheduler.setDaemon(true);
+        scheduler.initialize();
+
+        for (MaintenanceJob job : jobs) {
+            String cron = env.getProperty("app.jobs." + job.name() + ".cron", job.defaultCron());
+            if ("-".equals(cron)) continue;
+            scheduler.schedule(() -> run(job), new CronTrigger(cron));
+        }
+        System.out.println("✅ Scheduled " + jobs.size() + " maintenance jobs as node " + nodeId);
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdown();
+    }
+
+    /** Runs a job now on the scheduler pool; false if it's unknown or the scheduler isn't running. */
+    public boolean trigger(String name) {
+        MaintenanceJob job = find(name);
+        if (job == null || !enabled) return false;
+        scheduler.execute(() -> run(job));
+        return true;
+    }
+
+    // ======================================================
+    // RUN
+    // ======================================================
+    void run(MaintenanceJob job) {
+        Stats st = stats.get(job.name());
+        if (!st.running.compareAndSet(false, true)) return;
+        try {
+            int lease = env.getProperty("app.jobs." + job.name() + ".lease-seconds", Integer.class, leaseSeconds);
+            if (!jobDao.tryAcquire(job.name(), nodeId, lease)) {
+                st.notLeader.incrementAndGet();
+                return;
+            }
+            execute(job, st, lease);
+        } catch (Exception e) {
+            // lease / history bookkeeping failed (DB down); try again at the next tick
+            System.err.println("⚠️ Job " + job.name() + " could not start: " + e.getMessage());
+        } finally {
+            st.running.set(false);
+        }
+    }
+
+    private void execute(MaintenanceJob job, Stats st, int lease) {
+        int chunk = env.getProperty("app.jobs." + job.name() + ".chunk", Integer.class, defaultChunk);
+        long start = System.nanoTime();
+        st.lastStartedAt = LocalDateTime.now();
+        long runId = jobDao.startRun(job.name(), nodeId);
+
+        long rows = 0;
+        int chunks = 0;
+        String status = "SUCCESS";
+        String error = null;
+        String cursor = null;
+
+        try {
+            while (true) {
+                MaintenanceJob.Chunk c = job.runChunk(cursor, chunk);
+                rows += c.rows();
+                chunks++;
+                cursor = c.cursor();
+                if (c.done()) break;
+
+                if (!jobDao.renew(job.name(), nodeId, lease)) {
+                    status = "LOST_LEASE";
+                    break;
+                }
+                if (pauseMs > 0) Thread.sleep(pauseMs);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            status = "INTERRUPTED";
+        } catch (Exception e) {
+            status = "FAILED";
+            error = e.getMessage();
+            st.failures.incrementAndGet();
+            System.err.println("⚠️ Job " + job.name() + " failed after " + chunks + " chunk(s): " + e.getMessage());
+        }
+
+        long ms = (System.nanoTime() - start) / 1_000_000;
+        st.runs.incrementAndGet();
+        st.totalRows.addAndGet(rows);
+        st.totalMillis.addAndGet(ms);
+        st.maxMillis.accumulateAndGet(ms, Math::max);
+        st.lastMillis = ms;
+        st.lastRows = rows;
+        st.lastStatus = status;
+
+        try {
+            jobDao.finishRun(runId, status, rows, chunks, ms, error);
+        } finally {
+            if (!"LOST_LEASE".equals(status)) jobDao.release(job.name(), nodeId);
+        }
+        if (rows > 0) System.out.println("🧹 Job " + job.name() + " " + status + ": " + rows + " rows, "
+                + chunks + " chunk(s), " + ms + " ms");
+    }
+
+    // ======================================================
+    // STATUS
+    // ======================================================
+    public Map<String, Object> status(int historySize) {
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("node", nodeId);
+        out.put("enabled", enabled);
+
+        List<Map<String, Object>> list = new ArrayList<>();
+        for (MaintenanceJob job : jobs) {
+            Stats st = stats.get(job.name());
+            long runs = st.runs.get();
+
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("name", job.name());
+            m.put("cron", env.getProperty("app.jobs." + job.name() + ".cron", job.defaultCron()));
+            m.put("running", st.running.get());
+            m.put("runs", runs);
+            m.put("failures", st.failures.get());
+            m.put("skippedNotLeader", st.notLeader.get());
+            m.put("rows", st.totalRows.get());
+            m.put("lastStartedAt", st.lastStartedAt == null ? null : st.lastStartedAt.toString());
+            m.put("lastStatus", st.lastStatus);
+            m.put("lastRows", st.lastRows);
+            m.put("lastMillis", st.lastMillis);
+            m.put("avgMillis", runs == 0 ? 0 : st.totalMillis.get() / runs);
+            m.put("maxMillis", st.maxMillis.get());
+            m.put("history", jobDao.recentRuns(job.name(), historySize));
+            list.add(m);
+        }
+        out.put("jobs", list);
+        out.put("leases", jobDao.leases());
+        return out;
+    }
+
+    private MaintenanceJob find(String name) {
+        for (MaintenanceJob j : jobs) if (j.name().equals(name)) return j;
+        return null;
+    }
+}
@@ -0,0 +1,335 @@
+package com.bankingsim.service;
+
+import com.bankingsim.dao.AccountAttributeCache;
+import com.bankingsim.dao.BranchRegistry;
+import com.bankingsim.dao.TransactionDao;
+import com.bankingsim.event.TransactionRecordedEvent;
+import com.bankingsim.event.TransactionReversedEvent;
+import com.bankingsim.model.TransactionRecord;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.net.InetAddress;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Live bank-wide KPIs for the admin dashboard, fed by every committed ledger row
+ * (TransactionRecordedEvent) and rollback, never by scanning transactions.
+ *
+ *  - counters are LongAdders (count + amount in paise): per transaction type, per branch and
+ *    direction (money in / out of the branch), rollbacks, and a ring of per-minute buckets
+ *    covering the last app.kpi.minutes minutes; recording is lock-free apart from the first
+ *    write of a new minute
+ *  - every app.kpi.snapshot-ms the counters are written to kpi_snapshots under this node's name
+ *    (app.kpi.node, default the host name) and read back on startup, so a restart loses at most
+ *    one snapshot interval
+ *  - the same tick reads the other nodes' latest rows; snapshot() adds them to this node's live
+ *    counters, so the figures are bank-wide (other nodes' share is at most one interval old)
+ *    and served without touching the database
+ */
+@Service
+public class KpiAggregator {
+
+    /** Count and amount (in paise) of one KPI. */
+    private static class Counter {
+        final LongAdder count = new LongAdder();
+        final LongAdder paise = new LongAdder();
+
+        void add(long n, long p) {
+            count.add(n);
+            paise.add(p);
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("count", count.sum());
+            m.put("amount", rupees(paise.sum()));
+            return m;
+        }
+    }
+
+    /** One minute of the ring; reset when the ring wraps around to a newer minute. */
+    private static final class Bucket extends Counter {
+        volatile long minute = -1;
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AccountAttributeCache accounts;
+    private final BranchRegistry branches;
+
+    private final Counter total = new Counter();
+    private final Counter reversed = new Counter();
+    private final Map<TransactionRecord.TxType, Counter> byType = new EnumMap<>(TransactionRecord.TxType.class);
+    private final Map<Integer, Counter> branchIn = new ConcurrentHashMap<>();
+    private final Map<Integer, Counter> branchOut = new ConcurrentHashMap<>();
+    private final Bucket[] minutes;
+
+    private final String node;
+
+    /** The other nodes' latest snapshot: counter name → {count, paise}, and when each node last wrote. */
+    private record Remote(Map<String, long[]> totals, List<Map<String, Object>> nodes) {}
+
+    private volatile Remote remote = new Remote(Map.of(), List.of());
+
+    public KpiAggregator(JdbcTemplate jdbcTemplate, AccountAttributeCache accounts, BranchRegistry branches,
+                         @Value("${app.kpi.minutes:60}") int minuteBuckets,
+                         @Value("${app.kpi.node:}") String node) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.accounts = accounts;
+        this.branches = branches;
+        // every type up front: the map is never written after construction
+        for (TransactionRecord.TxType t : TransactionRecord.TxType.values()) byType.put(t, new Counter());
+        this.minutes = new Bucket[Math.max(1, minuteBuckets)];
+        for (int i = 0; i < minutes.length; i++) minutes[i] = new Bucket();
+        this.node = node.isBlank() ? hostName() : node;
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            return "local";
+        }
+    }
+
+    // ======================================================
+    // RECORD
+    // ======================================================
+    @EventListener
+    public void onTransactionRecorded(TransactionRecordedEvent event) {
+        TransactionRecord tx = event.transaction();
+        if (tx.getAmount() == null) return;
+        long p = paise(tx.getAmount());
+
+        total.add(1, p);
+        if (tx.getTxType() != null) byType.get(tx.getTxType()).add(1, p);
+        // TransactionRecord stores a missing side as "-": no branch (and no lookup) for it
+        String from = TransactionDao.sanitizeAccount(tx.getFromAccount());
+        String to = TransactionDao.sanitizeAccount(tx.getToAccount());
+        if (from != null) branchCounter(branchOut, from).add(1, p);
+        if (to != null) branchCounter(branchIn, to).add(1, p);
+        minuteBucket(System.currentTimeMillis() / 60_000).add(1, p);
+    }
+
+    @EventListener
+    public void onTransactionReversed(TransactionReversedEvent event) {
+        TransactionRecord tx = event.transaction();
+        if (tx.getAmount() != null) reversed.add(1, paise(tx.getAmount()));
+    }
+
+    private Counter branchCounter(Map<Integer, Counter> map, String accNo) {
+        AccountAttributeCache.Attributes a = accounts.get(accNo);
+        int id = a == null ? BranchRegistry.NONE : branches.idOf(a.branchName());
+        return map.computeIfAbsent(id, k -> new Counter());
+    }
+
+    private Bucket minuteBucket(long minute) {
+        Bucket b = minutes[(int) (minute % minutes.length)];
+        if (b.minute != minute) {
+            synchronized (b) {
+                // only move forward: a late writer from the previous lap must not wipe the new minute
+                if (b.minute < minute) {
+                    b.count.reset();
+                    b.paise.reset();
+                    b.minute = minute;
+                }
+            }
+        }
+        return b;
+    }
+
+    private static long paise(BigDecimal amount) {
+        return amount.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValue();
+    }
+
+    private static BigDecimal rupees(long paise) {
+        return BigDecimal.valueOf(paise, 2);
+    }
+
+    // ======================================================
+    // READ
+    // ======================================================
+
+    /** Bank-wide KPIs: this node's live counters plus the other nodes' latest snapshot. */
+    public Map<String, Object> snapshot() {
+        Remote r = remote;
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("node", node);
+        out.put("nodes", r.nodes());
+        out.put("local", total.toMap());
+        out.put("total", merged(r, "total", total));
+        out.put("reversed", merged(r, "reversed", reversed));
+
+        Map<String, Object> types = new LinkedHashMap<>();
+        byType.forEach((t, c) -> types.put(t.name(), merged(r, "type:" + t.name(), c)));
+        out.put("byType", types);
+
+        List<Map<String, Object>> byBranch = new ArrayList<>();
+        for (BranchRegistry.Branch b : branches.all()) byBranch.add(branchRow(r, b.id(), b.name()));
+        if (branchIn.containsKey(BranchRegistry.NONE) || branchOut.containsKey(BranchRegistry.NONE)
+                || r.totals().containsKey("branch.in:" + BranchRegistry.NONE)
+                || r.totals().containsKey("branch.out:" + BranchRegistry.NONE))
+            byBranch.add(branchRow(r, BranchRegistry.NONE, "Unknown"));
+        out.put("byBranch", byBranch);
+
+        long now = System.currentTimeMillis() / 60_000;
+        List<Map<String, Object>> perMinute = new ArrayList<>();
+        for (long m = now - minutes.length + 1; m <= now; m++) {
+            Bucket b = minutes[(int) (m % minutes.length)];
+            Map<String, Object> row = merged(r, "minute:" + m, b.minute == m ? b : null);
+            row.put("minute", LocalDateTime.ofInstant(Instant.ofEpochMilli(m * 60_000), ZoneId.systemDefault()));
+            perMinute.add(row);
+        }
+        out.put("perMinute", perMinute);
+        return out;
+    }
+
+    private Map<String, Object> branchRow(Remote r, int id, String name) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("id", id);
+        row.put("name", name);
+        row.put("in", merged(r, "branch.in:" + id, branchIn.get(id)));
+        row.put("out", merged(r, "branch.out:" + id, branchOut.get(id)));
+        return row;
+    }
+
+    private static Map<String, Object> merged(Remote r, String name, Counter local) {
+        long[] other = r.totals().get(name);
+        long n = (local == null ? 0 : local.count.sum()) + (other == null ? 0 : other[0]);
+        long p = (local == null ? 0 : local.paise.sum()) + (other == null ? 0 : other[1]);
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("count", n);
+        m.put("amount", rupees(p));
+        return m;
+    }
+
+    // ======================================================
+    // SNAPSHOT / RECOVERY
+    // ======================================================
+    @Scheduled(fixedDelayString = "${app.kpi.snapshot-ms:15000}",
+               initialDelayString = "${app.kpi.snapshot-ms:15000}")
+    public void persist() {
+        try {
+            List<Object[]> rows = new ArrayList<>();
+            rows.add(row("total", total));
+            rows.add(row("reversed", reversed));
+            byType.forEach((t, c) -> rows.add(row("type:" + t.name(), c)));
+            branchIn.forEach((id, c) -> rows.add(row("branch.in:" + id, c)));
+            branchOut.forEach((id, c) -> rows.add(row("branch.out:" + id, c)));
+            for (Bucket b : minutes) {
+                if (b.minute >= 0) rows.add(row("minute:" + b.minute, b));
+            }
+
+            jdbcTemplate.batchUpdate("""
+                INSERT INTO kpi_snapshots (node, name, tx_count, sum_paise, updated_at)
+                VALUES (?, ?, ?, ?, NOW())
+                ON DUPLICATE KEY UPDATE tx_count = VALUES(tx_count), sum_paise = VALUES(sum_paise),
+                                        updated_at = VALUES(updated_at)
+            """, rows);
+
+            // minutes that have left the ring
+            jdbcTemplate.update("DELETE FROM kpi_snapshots WHERE node = ? AND name LIKE 'minute:%' AND updated_at < ?",
+                    node, Timestamp.valueOf(LocalDateTime.now().minusMinutes(minutes.length + 1L)));
+        } catch (Exception e) {
+            System.err.println("⚠️ KPI snapshot failed: " + e.getMessage());
+        }
+        loadRemote();
+    }
+
+    private void loadRemote() {
+        try {
+            long now = System.currentTimeMillis() / 60_000;
+            Map<String, long[]> totals = new HashMap<>();
+            Map<String, LocalDateTime> lastWrite = new TreeMap<>();
+            jdbcTemplate.query("SELECT node, name, tx_count, sum_paise, updated_at FROM kpi_snapshots WHERE node <> ?",
+                    (RowCallbackHandler) rs -> {
+                String name = rs.getString("name");
+                lastWrite.merge(rs.getString("node"), rs.getTimestamp("updated_at").toLocalDateTime(),
+                        (a, b) -> a.isAfter(b) ? a : b);
+                if (name.startsWith("minute:")) {
+                    long m = Long.parseLong(name.substring(7));
+                    if (m <= now - minutes.length || m > now) return;
+                }
+                long[] t = totals.computeIfAbsent(name, k -> new long[2]);
+                t[0] += rs.getLong("tx_count");
+                t[1] += rs.getLong("sum_paise");
+            }, node);
+
+            List<Map<String, Object>> nodes = new ArrayList<>();
+            lastWrite.forEach((n, at) -> nodes.add(Map.of("node", n, "updatedAt", at)));
+            remote = new Remote(totals, nodes);
+        } catch (Exception e) {
+            // keep the last view; the next tick retries
+            System.err.println("⚠️ KPI read of other nodes failed: " + e.getMessage());
+        }
+    }
+
+    private Object[] row(String name, Counter c) {
+        return new Object[]{ node, name, c.count.sum(), c.paise.sum() };
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void restore() {
+        try {
+            long now = System.currentTimeMillis() / 60_000;
+            int[] restored = {0};
+            jdbcTemplate.query("SELECT name, tx_count, sum_paise FROM kpi_snapshots WHERE node = ?", rs -> {
+                String name = rs.getString(1);
+                long n = rs.getLong(2), p = rs.getLong(3);
+                Counter c = counterFor(name, now);
+                if (c != null) {
+                    c.add(n, p);
+                    restored[0]++;
+                }
+            }, node);
+            System.out.println("📈 KPI counters restored for node " + node + " (" + restored[0] + " entries)");
+        } catch (Exception e) {
+            System.err.println("⚠️ KPI restore failed (starting from zero): " + e.getMessage());
+        }
+        loadRemote();
+    }
+
+    private Counter counterFor(String name, long nowMinute) {
+        try {
+            if (name.equals("total")) return total;
+            if (name.equals("reversed")) return reversed;
+            if (name.startsWith("type:")) return byType.get(TransactionRecord.TxType.valueOf(name.substring(5)));
+            if (name.startsWith("branch.in:"))
+                return branchIn.computeIfAbsent(Integer.parseInt(name.substring(10)), k -> new Counter());
+            if (name.startsWith("branch.out:"))
+                return branchOut.computeIfAbsent(Integer.parseInt(name.substring(11)), k -> new Counter());
+            if (name.startsWith("minute:")) {
+                long m = Long.parseLong(name.substring(7));
+                return m > nowMinute - minutes.length && m <= nowMinute ? minuteBucket(m) : null;
+            }
+        } catch (IllegalArgumentException ignored) {
+            // a type or name this version doesn't know
+        }
+        return null;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        persist();
+    }
+}
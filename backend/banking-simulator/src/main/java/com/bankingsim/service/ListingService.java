@@ -0,0 +1,106 @@
+package com.bankingsim.service;
+
+import com.bankingsim.dao.ListingDao;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Paged JSON lists for the admin views:
+ *
+ *   {"items":[{...}, ...], "nextCursor":"..." | null}
+ *
+ * Rows are written with Jackson's streaming generator as the JDBC cursor yields them, so
+ * neither the page nor any entity objects are held in memory. One extra row is read past the
+ * page to decide whether there is a next page.
+ */
+@Service
+public class ListingService {
+
+    private static final int FLUSH_ROWS = 500;
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private final ListingDao listingDao;
+
+    @Value("${app.listing.default-page-size:100}")
+    private int defaultPageSize;
+
+    @Value("${app.listing.max-page-size:1000}")
+    private int maxPageSize;
+
+    public ListingService(ListingDao listingDao) {
+        this.listingDao = listingDao;
+    }
+
+    public int pageSize(Integer requested) {
+        return (requested == null || requested <= 0) ? defaultPageSize : Math.min(requested, maxPageSize);
+    }
+
+    /** Writes one page to {@code out}; returns the number of items written. */
+    public int write(ListingDao.Listing listing, List<String> fields, Map<String, String> filters,
+                     ListingDao.Cursor after, int pageSize, OutputStream out) throws IOException {
+        JsonGenerator g = JSON.createGenerator(out, JsonEncoding.UTF8);
+        g.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+        int n = fields.size();
+        int[] rows = {0};
+        ListingDao.Cursor[] last = {null};
+        boolean[] more = {false};
+
+        g.writeStartObject();
+        g.writeArrayFieldStart("items");
+        try {
+            listingDao.stream(listing, fields, filters, after, pageSize + 1, rs -> {
+                if (rows[0] == pageSize) {
+                    more[0] = true;
+                    return;
+                }
+                try {
+                    g.writeStartObject();
+                    for (int i = 0; i < n; i++) {
+                        g.writeFieldName(fields.get(i));
+                        writeValue(g, rs.getObject(i + 1));
+                    }
+                    g.writeEndObject();
+                    last[0] = new ListingDao.Cursor(rs.getString(n + 1), rs.getString(n + 2));
+                    if (++rows[0] % FLUSH_ROWS == 0) g.flush();
+                } catch (IOException e) {
+                    // client went away: stop writing and let the query unwind
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        g.writeEndArray();
+
+        g.writeFieldName("nextCursor");
+        if (more[0]) g.writeString(last[0].encode());
+        else g.writeNull();
+        g.writeEndObject();
+        g.close();
+        return rows[0];
+    }
+
+    // same encoding as Account / TransactionRecord: ISO date-times, plain numbers
+    private static void writeValue(JsonGenerator g, Object v) throws IOException {
+        if (v == null) g.writeNull();
+        else if (v instanceof BigDecimal d) g.writeNumber(d);
+        else if (v instanceof Long || v instanceof Integer || v instanceof Short || v instanceof Byte)
+            g.writeNumber(((Number) v).longValue());
+        else if (v instanceof Boolean b) g.writeBoolean(b);
+        else if (v instanceof Timestamp t) g.writeString(t.toLocalDateTime().toString());
+        else g.writeString(v.toString());
+    }
+}
@@ -0,0 +1,45 @@
+package com.bankingsim.service;
+
+/**
+ * A background maintenance task run by JobScheduler as a series of bounded chunks.
+ *
+ * Each chunk should touch at most {@code limit} rows through an index range and commit on its
+ * own, so a run never holds long locks and can stop between any two chunks (lease lost,
+ * shutdown) without leaving work half done.
+ */
+public interface MaintenanceJob {
+
+    /** Unique name; also the lease key and the app.jobs.&lt;name&gt;.* property prefix. */
+    String name();
+
+    /** Default cron when app.jobs.&lt;name&gt;.cron isn't set. */
+    String defaultCron();
+
+    /**
+     * Runs one chunk. {@code cursor} is null for the first chunk of a run and otherwise the
+     * {@link Chunk#cursor()} returned by the previous one.
+     */
+    Chunk runChunk(String cursor, int limit);
+
+    /** Rows touched by one chunk, the position to resume from, and whether the run is complete. */
+    record Chunk(int rows, String cursor, boolean done) {
+
+        /** For jobs that consume their own input (DELETE / UPDATE ... LIMIT): done once a chunk comes back short. */
+        public static Chunk of(int rows, int limit) {
+            return new Chunk(rows, null, rows < limit);
+        }
+    }
+
+    static MaintenanceJob of(String name, String defaultCron, ChunkRunner runner) {
+        return new MaintenanceJob() {
+            @Override public String name() { return name; }
+            @Override public String defaultCron() { return defaultCron; }
+            @Override public Chunk runChunk(String cursor, int limit) { return runner.run(cursor, limit); }
+        };
+    }
+
+    @FunctionalInterface
+    interface ChunkRunner {
+        Chunk run(String cursor, int limit);
+    }
+}
@@ -0,0 +1,216 @@
+package com.bankingsim.service;
+
+import com.bankingsim.dao.StatementDao;
+import com.bankingsim.dao.TransactionDao;
+import com.bankingsim.event.AccountChangedEvent;
+import com.bankingsim.event.TransactionRecordedEvent;
+import com.bankingsim.event.TransactionReversedEvent;
+import com.bankingsim.model.TransactionRecord;
+import com.bankingsim.util.PdfGenerator;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Mini statements: the last N ledger entries of an account (default app.ministatement.default-size,
+ * at most app.ministatement.max-size), or the entries inside a date window (at most
+ * app.ministatement.window-max-rows, newest first; a longer period is flagged as truncated in
+ * the result and in the PDF title).
+ *
+ * A small cache (Caffeine, app.ministatement.cache-accounts entries) keeps, per account, the
+ * statement header, the PDF password and the newest app.ministatement.cache-depth entries. New
+ * transactions are pushed into cached lists as they are recorded, so repeat last-N downloads
+ * never touch the database. Reversals and account detail changes drop the entry; date-window
+ * requests always go to the (indexed) query.
+ *
+ * Only this node's transactions reach the cached lists, so an entry lives for at most
+ * app.ministatement.cache-ttl-seconds after it was loaded from the database (pushing a new
+ * transaction into it doesn't extend that): on a multi-node deploy a last-N download misses a
+ * transaction handled by another node for at most that long.
+ */
+@Service
+public class MiniStatementService {
+
+    private static final int STRIPES = 1024;
+
+    /** Response header set to "true" when a date-window statement was cut to window-max-rows. */
+    public static final String TRUNCATED_HEADER = "X-Statement-Truncated";
+
+    private final StatementDao statementDao;
+    private final TransactionDao txDao;
+
+    @Value("${app.ministatement.default-size:10}")
+    private int defaultSize;
+
+    @Value("${app.ministatement.max-size:100}")
+    private int maxSize;
+
+    @Value("${app.ministatement.cache-depth:20}")
+    private int cacheDepth;
+
+    @Value("${app.ministatement.window-max-rows:1000}")
+    private int windowMaxRows;
+
+    private final Cache<String, Entry> cache;
+
+    // bumped on every write to an account (striped by hash); a load only populates the cache
+    // if its stripe didn't move while it was reading, so a racing write can't be lost
+    private final AtomicLongArray writeStamps = new AtomicLongArray(STRIPES);
+
+    /** A rendered mini statement; {@code truncated} if the date window had more than {@code entries} rows. */
+    public record MiniStatement(byte[] pdf, int entries, boolean truncated) {}
+
+    /** Header, password and the newest-first recent entries of one account. */
+    private record Entry(StatementDao.StatementAccount account, List<TransactionRecord> recent) {}
+
+    public MiniStatementService(StatementDao statementDao,
+                                TransactionDao txDao,
+                                @Value("${app.ministatement.cache-accounts:5000}") int cacheAccounts,
+                                @Value("${app.ministatement.cache-ttl-seconds:30}") long ttlSeconds) {
+        this.statementDao = statementDao;
+        this.txDao = txDao;
+        long ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(cacheAccounts)
+                // the clock starts when the entry is loaded; write-through updates keep the remaining time
+                .expireAfter(new Expiry<String, Entry>() {
+                    @Override
+                    public long expireAfterCreate(String key, Entry value, long currentTime) {
+                        return ttlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Entry value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Entry value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    // ======================================================
+    // READ
+    // ======================================================
+
+    /**
+     * Mini statement (PDF encrypted with the customer's password), or null if the account
+     * doesn't exist. {@code lastN} is clamped to [1, max-size]; a date window, if given, wins.
+     */
+    public MiniStatement pdf(String accNo, Integer lastN, LocalDateTime from, LocalDateTime to) {
+        int n = (lastN == null || lastN <= 0) ? defaultSize : Math.min(lastN, maxSize);
+
+        if (from != null || to != null) {
+            StatementDao.StatementAccount sa = statementDao.account(accNo);
+            if (sa == null) return null;
+            // one extra row tells whether the window had more than we print
+            List<TransactionRecord> tx = txDao.fetchForAccount(accNo, from, to, windowMaxRows + 1);
+            boolean truncated = tx.size() > windowMaxRows;
+            if (truncated) tx = tx.subList(0, windowMaxRows);
+            String title = truncated
+                    ? "Mini Statement\n(newest " + windowMaxRows + " entries of the period only)"
+                    : "Mini Statement";
+            return new MiniStatement(PdfGenerator.generateMiniStatementPdfBytes(sa.account(), title, tx, sa.pdfKey()),
+                    tx.size(), truncated);
+        }
+
+        Entry e = n <= cacheDepth ? cachedOrLoad(accNo) : null;
+        if (e != null) {
+            List<TransactionRecord> tx = e.recent().subList(0, Math.min(n, e.recent().size()));
+            return new MiniStatement(
+                    PdfGenerator.generateMiniStatementPdfBytes(e.account().account(), tx, e.account().pdfKey()),
+                    tx.size(), false);
+        }
+
+        StatementDao.StatementAccount sa = statementDao.account(accNo);
+        if (sa == null) return null;
+        List<TransactionRecord> tx = txDao.fetchForAccount(accNo, null, null, n);
+        return new MiniStatement(PdfGenerator.generateMiniStatementPdfBytes(sa.account(), tx, sa.pdfKey()),
+                tx.size(), false);
+    }
+
+    private Entry cachedOrLoad(String accNo) {
+        Entry e = cache.getIfPresent(accNo);
+        if (e != null) return e;
+
+        int stripe = stripe(accNo);
+        long stamp = writeStamps.get(stripe);
+
+        StatementDao.StatementAccount sa = statementDao.account(accNo);
+        if (sa == null) return null;
+        List<TransactionRecord> recent = txDao.fetchForAccount(accNo, null, null, cacheDepth);
+        Entry loaded = new Entry(sa, List.copyOf(recent));
+
+        if (writeStamps.get(stripe) == stamp) cache.asMap().putIfAbsent(accNo, loaded);
+        return loaded;
+    }
+
+    // ======================================================
+    // WRITE-THROUGH
+    // ======================================================
+    @EventListener
+    public void onTransactionRecorded(TransactionRecordedEvent event) {
+        TransactionRecord tx = event.transaction();
+        for (String acc : sides(tx)) {
+            writeStamps.incrementAndGet(stripe(acc));
+            cache.asMap().computeIfPresent(acc, (k, e) -> {
+                // no timestamp to show: reload on next read
+                if (tx.getCreatedAt() == null) return null;
+                // a load that raced with this write may already contain it
+                if (e.recent().stream().anyMatch(r -> tx.getTxId().equals(r.getTxId()))) return e;
+                List<TransactionRecord> recent = new ArrayList<>(Math.min(e.recent().size() + 1, cacheDepth));
+                recent.add(tx);
+                for (TransactionRecord r : e.recent()) {
+                    if (recent.size() == cacheDepth) break;
+                    recent.add(r);
+                }
+                return new Entry(e.account(), List.copyOf(recent));
+            });
+        }
+    }
+
+    @EventListener
+    public void onTransactionReversed(TransactionReversedEvent event) {
+        for (String acc : sides(event.transaction())) invalidate(acc);
+    }
+
+    @EventListener
+    public void onAccountChanged(AccountChangedEvent event) {
+        // balance isn't printed on the mini statement; anything else may change the header or password
+        if (event.change() != AccountChangedEvent.Change.BALANCE) invalidate(event.accountNumber());
+    }
+
+    private void invalidate(String accNo) {
+        if (accNo == null) return;
+        writeStamps.incrementAndGet(stripe(accNo));
+        cache.invalidate(accNo);
+    }
+
+    private static List<String> sides(TransactionRecord tx) {
+        List<String> out = new ArrayList<>(2);
+        if (isAccount(tx.getFromAccount())) out.add(tx.getFromAccount());
+        if (isAccount(tx.getToAccount()) && !tx.getToAccount().equals(tx.getFromAccount())) out.add(tx.getToAccount());
+        return out;
+    }
+
+    // TransactionRecord uses "-" for a missing side
+    private static boolean isAccount(String acc) {
+        return acc != null && !acc.isBlank() && !"-".equals(acc);
+    }
+
+    private static int stripe(String accNo) {
+        return (accNo.hashCode() & 0x7fffffff) % STRIPES;
+    }
+}
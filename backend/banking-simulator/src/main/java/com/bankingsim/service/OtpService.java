@@ -8,7 +8,7 @@ import com.twilio.Twilio;
 import com.twilio.rest.api.v2010.account.MessageCreator;
 import com.twilio.type.PhoneNumber;
 
-import org.springframework.beans.factory.annotation.Autowired;
+import com.bankingsim.dao.AccountAttributeCache;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
@@ -24,9 +24,11 @@ import java.math.BigDecimal;
 public class OtpService {
 
     private final JdbcTemplate jdbcTemplate;
+    private final AccountAttributeCache accountCache;
 
-    public OtpService(JdbcTemplate jdbcTemplate) {
+    public OtpService(JdbcTemplate jdbcTemplate, AccountAttributeCache accountCache) {
         this.jdbcTemplate = jdbcTemplate;
+        this.accountCache = accountCache;
     }
 
     // Twilio
@@ -391,41 +393,27 @@ public class OtpService {
     // ----------------------------------------------
     // HELPERS TO FETCH CONTACT INFO
     // ----------------------------------------------
-        @Autowired
-        private JdbcTemplate jdbc;
-
         public String getEmailByIdentifier(String accNo) {
             try {
-                return jdbc.queryForObject(
-                        "SELECT email FROM accounts WHERE account_number = ?",
-                        String.class,
-                        accNo
-                );
+                AccountAttributeCache.Attributes a = accountCache.get(accNo);
+                return a == null ? null : a.email();
             } catch (Exception e) { return null; }
         }
 
         public String getPhoneByIdentifier(String accNo) {
             try {
-                return jdbc.queryForObject(
-                        "SELECT phone_number FROM accounts WHERE account_number = ?",
-                        String.class,
-                        accNo
-                );
+                AccountAttributeCache.Attributes a = accountCache.get(accNo);
+                return a == null ? null : a.phone();
             } catch (Exception e) { return null; }
         }
 
         public Map<String, String> getEmailAndAccByPhone(String phone) {
             try {
-                return jdbcTemplate.queryForObject("""
-                    SELECT account_number, email 
-                    FROM accounts 
-                    WHERE phone_number = ?
-                """,
-                        (rs, rowNum) -> Map.of(
-                                "accountNumber", rs.getString("account_number"),
-                                "email", rs.getString("email")
-                        ),
-                        phone
+                AccountAttributeCache.Attributes a = accountCache.getByPhone(phone);
+                if (a == null) return null;
+                return Map.of(
+                        "accountNumber", a.accountNumber(),
+                        "email", a.email()
                 );
             } catch (Exception e) {
                 return null;
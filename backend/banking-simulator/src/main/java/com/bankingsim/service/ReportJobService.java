@@ -0,0 +1,219 @@
+package com.bankingsim.service;
+
+import com.bankingsim.dao.AccountDao;
+import com.bankingsim.dao.BranchRegistry;
+import com.bankingsim.dao.TransactionDao;
+import com.bankingsim.event.AccountChangedEvent;
+import com.bankingsim.event.TransactionRecordedEvent;
+import com.bankingsim.event.TransactionReversedEvent;
+import com.bankingsim.model.ReportJob;
+import com.bankingsim.util.PdfGenerator;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Runs accounts / transactions reports as background jobs on the bounded "reportExecutor".
+ *
+ *  - submit() returns immediately with a job id; clients poll get() and download the
+ *    finished PDF from app.reports.jobs.path
+ *  - jobs are keyed by (type, branch ordinal, data version): asking again for a report whose
+ *    data hasn't changed returns the existing job instead of rendering twice
+ *  - artifacts are stored unencrypted and deleted after app.reports.jobs.ttl-minutes;
+ *    the per-user password is applied while streaming the download
+ */
+@Service
+public class ReportJobService {
+
+    private final AccountDao accountDao;
+    private final TransactionDao txDao;
+    private final BranchRegistry branches;
+    private final Executor executor;
+
+    @Value("${app.reports.jobs.path:reports/jobs/}")
+    private String jobsPath;
+
+    @Value("${app.reports.jobs.ttl-minutes:30}")
+    private long ttlMinutes;
+
+    // bumped by the write path; part of the dedupe key
+    private final AtomicLong accountsVersion = new AtomicLong();
+    private final AtomicLong transactionsVersion = new AtomicLong();
+
+    private final Map<String, ReportJob> jobs = new ConcurrentHashMap<>();
+    private final Map<String, ReportJob> jobsByKey = new ConcurrentHashMap<>();
+
+    public ReportJobService(AccountDao accountDao,
+                            TransactionDao txDao,
+                            BranchRegistry branches,
+                            @Qualifier("reportExecutor") Executor executor) {
+        this.accountDao = accountDao;
+        this.txDao = txDao;
+        this.branches = branches;
+        this.executor = executor;
+    }
+
+    // ======================================================
+    // DATA VERSIONS
+    // ======================================================
+    @EventListener
+    public void onAccountChanged(AccountChangedEvent event) {
+        accountsVersion.incrementAndGet();
+    }
+
+    @EventListener
+    public void onTransactionRecorded(TransactionRecordedEvent event) {
+        transactionsVersion.incrementAndGet();
+    }
+
+    @EventListener
+    public void onTransactionReversed(TransactionReversedEvent event) {
+        transactionsVersion.incrementAndGet();
+    }
+
+    // ======================================================
+    // SUBMIT / STATUS
+    // ======================================================
+
+    /**
+     * Queues a report (or returns the identical job already queued / finished).
+     * Returns null when the report queue is full.
+     */
+    public ReportJob submit(ReportJob.Type type, String branch) {
+        Integer branchId = branches.filterOf(branch);
+        BranchRegistry.Branch known = branchId == null ? null : branches.byId(branchId);
+        // unknown names all share the (empty) NONE job
+        String b = branchId == null ? null : known != null ? known.name() : branch.trim();
+        long version = (type == ReportJob.Type.ACCOUNTS ? accountsVersion : transactionsVersion).get();
+        String key = type + "|" + (branchId == null ? "" : branchId) + "|" + version;
+
+        ReportJob[] created = {null};
+        ReportJob job = jobsByKey.compute(key, (k, existing) -> {
+            if (existing != null && existing.getStatus() != ReportJob.Status.FAILED) return existing;
+            created[0] = new ReportJob(UUID.randomUUID().toString(), type, b, branchId, version);
+            return created[0];
+        });
+
+        if (created[0] == null) return job;
+
+        jobs.put(job.getId(), job);
+        try {
+            executor.execute(() -> run(job));
+        } catch (TaskRejectedException e) {
+            jobs.remove(job.getId());
+            jobsByKey.remove(key, job);
+            System.err.println("⚠️ Report queue full, rejected " + type + " report");
+            return null;
+        }
+        System.out.println("🆕 Report job " + job.getId() + " queued (" + key + ")");
+        return job;
+    }
+
+    public ReportJob get(String id) {
+        return id == null ? null : jobs.get(id);
+    }
+
+    /** Streams a finished artifact, encrypted with {@code key} if given. */
+    public void writeTo(ReportJob job, String key, OutputStream out) throws IOException {
+        try {
+            PdfGenerator.copyEncrypted(job.getFile(), key, out);
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("Report download failed: " + e.getMessage(), e);
+        }
+    }
+
+    // ======================================================
+    // RENDER
+    // ======================================================
+    private void run(ReportJob job) {
+        job.setStatus(ReportJob.Status.RUNNING);
+        Path dir = Paths.get(jobsPath);
+        Path part = dir.resolve(job.getId() + ".pdf.part");
+        Path done = dir.resolve(job.getId() + ".pdf");
+
+        try {
+            Files.createDirectories(dir);
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(part))) {
+                if (job.getType() == ReportJob.Type.ACCOUNTS) {
+                    PdfGenerator.writeAccountsPdf(out, null,
+                            sink -> accountDao.streamAccountsForReport(job.getBranchId(), sink));
+                } else {
+                    PdfGenerator.writeTransactionsPdf(out, null,
+                            sink -> txDao.streamTransactions(job.getBranchId(), sink));
+                }
+            }
+            // readers only ever see complete files
+            Files.move(part, done, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+            job.setFile(done);
+            job.setSizeBytes(Files.size(done));
+            job.setStatus(ReportJob.Status.DONE);
+            System.out.println("✅ Report job " + job.getId() + " done (" + job.getSizeBytes() + " bytes)");
+
+        } catch (Exception e) {
+            try { Files.deleteIfExists(part); } catch (IOException ignored) {}
+            job.setError(e.getMessage());
+            job.setStatus(ReportJob.Status.FAILED);
+            System.err.println("❌ Report job " + job.getId() + " failed: " + e.getMessage());
+        } finally {
+            job.setFinishedAt(LocalDateTime.now());
+        }
+    }
+
+    // ======================================================
+    // TTL CLEANUP
+    // ======================================================
+    @Scheduled(fixedDelayString = "${app.reports.jobs.cleanup-interval-ms:60000}")
+    public void expireJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(ttlMinutes);
+
+        for (ReportJob job : jobs.values()) {
+            if (!job.isFinished() || job.getFinishedAt() == null || job.getFinishedAt().isAfter(cutoff))
+                continue;
+
+            jobs.remove(job.getId());
+            jobsByKey.values().remove(job);
+            if (job.getFile() != null) {
+                try {
+                    Files.deleteIfExists(job.getFile());
+                } catch (IOException e) {
+                    System.err.println("⚠️ Could not delete report artifact " + job.getFile() + ": " + e.getMessage());
+                }
+            }
+        }
+
+        // files left behind by a previous run (jobs live in memory only)
+        Path dir = Paths.get(jobsPath);
+        if (!Files.isDirectory(dir)) return;
+        try (Stream<Path> files = Files.list(dir)) {
+            files.filter(p -> !jobs.containsKey(p.getFileName().toString().replaceFirst("\\.pdf(\\.part)?$", "")))
+                    .forEach(p -> {
+                        try {
+                            Files.deleteIfExists(p);
+                        } catch (IOException ignored) {}
+                    });
+        } catch (IOException e) {
+            System.err.println("⚠️ Could not clean " + dir + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.bankingsim.service;
+
+import com.bankingsim.dao.AccountDao;
+import com.bankingsim.event.AccountChangedEvent;
+import com.bankingsim.util.PdfGenerator;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Serves the accounts report.
+ *
+ * The report is kept materialized off the write path:
+ *  - every AccountChangedEvent bumps the data version and (re)arms a debounce timer
+ *  - when writes pause for app.reports.debounce-ms (or app.reports.max-delay-ms passes
+ *    under constant writes) the cached reports are re-rendered on a background thread
+ *  - requests get the unencrypted PDF bytes cached for the current version; the per-user
+ *    password is applied per request with PdfGenerator.encrypt. That trades memory (the
+ *    cached copy plus two per request) for latency, so renders larger than
+ *    app.reports.cache-max-kb are not cached
+ *
+ * A request that finds no current render (cachedAccountsPdf returns null) registers its
+ * branch for the next refresh and is served without the cache: streamed from the JDBC cursor
+ * (writeAccountsPdf, app.reports.streaming=true, the default) or rendered synchronously
+ * (accountsPdf). Either way a download never returns data older than the last committed write.
+ */
+@Service
+public class ReportMaterializer {
+
+    // cache key of the all-branches report; branch reports are keyed by BranchRegistry ordinal
+    private static final int ALL_BRANCHES = 0;
+
+    private final AccountDao accountDao;
+
+    @Value("${app.reports.debounce-ms:2000}")
+    private long debounceMs;
+
+    @Value("${app.reports.max-delay-ms:30000}")
+    private long maxDelayMs;
+
+    @Value("${app.reports.cache-max-kb:16384}")
+    private long cacheMaxKb;
+
+    private final AtomicLong version = new AtomicLong();
+    private final Map<Integer, Snapshot> cache = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "report-materializer");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private ScheduledFuture<?> pending;
+    private long firstDirtyAt;
+
+    /** Render of one version; pdf is null when that render wasn't cacheable (empty branch, too large). */
+    private record Snapshot(long version, byte[] pdf) {}
+
+    // a branch somebody asked for that the next refresh should render
+    private static final Snapshot WANTED = new Snapshot(-1, null);
+
+    public ReportMaterializer(AccountDao accountDao) {
+        this.accountDao = accountDao;
+    }
+
+    // ======================================================
+    // DIRTY TRACKING
+    // ======================================================
+    @EventListener
+    public void onAccountChanged(AccountChangedEvent event) {
+        version.incrementAndGet();
+        scheduleRefresh();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        scheduleRefresh();
+    }
+
+    private synchronized void scheduleRefresh() {
+        long now = System.currentTimeMillis();
+        if (pending == null || pending.isDone()) {
+            firstDirtyAt = now;
+        } else if (now - firstDirtyAt < maxDelayMs) {
+            pending.cancel(false);
+        } else {
+            return; // already overdue; let the armed refresh run
+        }
+        pending = scheduler.schedule(this::refresh, debounceMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void refresh() {
+        try {
+            // always keep the all-branches report; re-render any branch report somebody asked for.
+            // renders that weren't cacheable wait until somebody asks again
+            cache.putIfAbsent(ALL_BRANCHES, WANTED);
+            for (Map.Entry<Integer, Snapshot> e : cache.entrySet()) {
+                if (e.getValue().version() < 0 || e.getValue().pdf() != null) render(e.getKey());
+            }
+        } catch (Exception e) {
+            System.err.println("⚠️ Accounts report refresh failed: " + e.getMessage());
+        }
+    }
+
+    // ======================================================
+    // SERVE
+    // ======================================================
+
+    /**
+     * Accounts report for a branch ordinal (null = all), rendered from the cursor into
+     * {@code out} and encrypted with {@code key} (if given) while writing.
+     */
+    public void writeAccountsPdf(Integer branchId, String key, OutputStream out) throws Exception {
+        PdfGenerator.writeAccountsPdf(out, key, sink -> accountDao.streamAccountsForReport(branchId, sink));
+    }
+
+    /**
+     * Accounts report for a branch ordinal (null = all) if the cache holds a render of the
+     * current version, encrypted with {@code key} if given. Otherwise null, and the branch is
+     * rendered by the next background refresh.
+     */
+    public byte[] cachedAccountsPdf(Integer branchId, String key) {
+        int k = branchId == null ? ALL_BRANCHES : branchId;
+
+        Snapshot s = cache.get(k);
+        if (s != null && s.version() == version.get())
+            return s.pdf() == null ? null : PdfGenerator.encrypt(s.pdf(), key);
+
+        // a stale cached render is already due for refresh (the write that bumped the version
+        // armed it); anything else has to ask for one
+        if (s == null || (s.pdf() == null && s.version() >= 0)) {
+            cache.put(k, WANTED);
+            scheduleRefresh();
+        }
+        return null;
+    }
+
+    /**
+     * Accounts report for a branch ordinal (null = all) from the cache, rendered synchronously
+     * on a miss, encrypted with {@code key} if given (app.reports.streaming=false).
+     */
+    public byte[] accountsPdf(Integer branchId, String key) {
+        int k = branchId == null ? ALL_BRANCHES : branchId;
+
+        Snapshot s = cache.get(k);
+        byte[] raw = (s != null && s.version() == version.get() && s.pdf() != null) ? s.pdf() : render(k);
+
+        return PdfGenerator.encrypt(raw, key);
+    }
+
+    public long currentVersion() {
+        return version.get();
+    }
+
+    private byte[] render(int branch) {
+        long v = version.get();
+        long[] rows = {0};
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            // rows go straight from the result set into the PDF; only the rendered bytes are kept
+            PdfGenerator.writeAccountsPdf(out, null, sink ->
+                    accountDao.streamAccountsForReport(branch == ALL_BRANCHES ? null : branch, a -> {
+                        rows[0]++;
+                        sink.accept(a);
+                    }));
+        } catch (Exception e) {
+            throw new IllegalStateException("Accounts report render failed: " + e.getMessage(), e);
+        }
+        byte[] pdf = out.toByteArray();
+
+        // empty (or unknown) branches and oversized renders are not cached, only marked as such
+        boolean cacheable = (branch == ALL_BRANCHES || rows[0] > 0) && pdf.length <= cacheMaxKb * 1024;
+
+        // keep whichever snapshot is newer; a concurrent write may already have bumped the version
+        cache.merge(branch, new Snapshot(v, cacheable ? pdf : null),
+                (old, neu) -> old.version() > neu.version() ? old : neu);
+        return pdf;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+}
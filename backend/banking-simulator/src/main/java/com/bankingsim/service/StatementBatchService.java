@@ -0,0 +1,345 @@
+package com.bankingsim.service;
+
+import com.bankingsim.dao.JobDao;
+import com.bankingsim.dao.StatementDao;
+import com.bankingsim.dao.TransactionDao;
+import com.bankingsim.model.TransactionRecord;
+import com.bankingsim.util.PdfGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Month-end statements: one encrypted PDF per customer account.
+ *
+ *  - accounts are split into account-number ranges of app.statements.partition-size
+ *  - partitions run as fork-join tasks on a pool of app.statements.parallelism workers;
+ *    each partition loads its accounts, then streams their transactions for the month in one
+ *    range query ordered by account and renders each statement as soon as its account's rows
+ *    are complete, so at most one account's month is held in memory per worker
+ *  - output goes to app.statements.path/yyyy-MM/<account>.pdf (written as .part, then moved)
+ *  - finished partitions are appended to _checkpoint in that directory; a rerun for the
+ *    same month skips them, and skips any statement whose PDF already exists
+ *  - one batch across all nodes: a run takes the "statement-batch" lease in job_leases
+ *    (JobDao), renews it after every partition and stops if it was lost. A run that finished
+ *    cleanly keeps the lease until it expires, so nodes whose cron fires a little later
+ *    don't start the same month again
+ *
+ * Accounts without a customer login have no statement password and are skipped.
+ */
+@Service
+public class StatementBatchService {
+
+    private static final String CHECKPOINT = "_checkpoint";
+    private static final String LEASE = "statement-batch";
+    private static final DateTimeFormatter PERIOD = DateTimeFormatter.ofPattern("MMMM yyyy");
+
+    private final StatementDao statementDao;
+    private final TransactionDao txDao;
+    private final JobDao jobDao;
+    private final String nodeId;
+
+    @Value("${app.statements.path:reports/statements/}")
+    private String statementsPath;
+
+    @Value("${app.statements.partition-size:200}")
+    private int partitionSize;
+
+    // each worker holds a DB connection while streaming its partition; keep below the pool size
+    @Value("${app.statements.parallelism:4}")
+    private int parallelism;
+
+    // must comfortably exceed the time to render one partition
+    @Value("${app.statements.lease-seconds:300}")
+    private int leaseSeconds;
+
+    private volatile Run current;
+
+    public StatementBatchService(StatementDao statementDao, TransactionDao txDao, JobDao jobDao) {
+        this.statementDao = statementDao;
+        this.txDao = txDao;
+        this.jobDao = jobDao;
+        this.nodeId = ManagementFactory.getRuntimeMXBean().getName() + "/" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    /** Progress counters of one batch run. */
+    private static final class Run {
+        final YearMonth month;
+        final LocalDateTime startedAt = LocalDateTime.now();
+        final AtomicLong statements = new AtomicLong();
+        final AtomicLong resumed = new AtomicLong();
+        final AtomicLong skipped = new AtomicLong();
+        final AtomicLong failed = new AtomicLong();
+        final AtomicLong partitionsDone = new AtomicLong();
+        volatile int partitions;
+        volatile String status = "RUNNING";
+        volatile String error;
+        volatile boolean leaseLost;
+        final long startNanos = System.nanoTime();
+        volatile long elapsedMillis;
+
+        Run(YearMonth month) {
+            this.month = month;
+        }
+    }
+
+    // ======================================================
+    // START / STATUS
+    // ======================================================
+    @Scheduled(cron = "${app.statements.cron:0 0 3 1 * *}")
+    public void monthEnd() {
+        start(YearMonth.now().minusMonths(1));
+    }
+
+    /** Starts a batch in the background; returns false if one is already running here or on another node. */
+    public synchronized boolean start(YearMonth month) {
+        if (current != null && "RUNNING".equals(current.status)) return false;
+        try {
+            if (!jobDao.tryAcquire(LEASE, nodeId, leaseSeconds)) {
+                System.out.println("ℹ️ Statement batch " + month + " not started: lease held by another node");
+                return false;
+            }
+        } catch (Exception e) {
+            System.err.println("⚠️ Statement batch " + month + " could not take its lease: " + e.getMessage());
+            return false;
+        }
+
+        Run run = new Run(month);
+        current = run;
+
+        Thread t = new Thread(() -> execute(run), "statement-batch");
+        t.setDaemon(true);
+        t.start();
+        return true;
+    }
+
+    public Map<String, Object> status() {
+        Run r = current;
+        Map<String, Object> m = new LinkedHashMap<>();
+        if (r == null) {
+            m.put("status", "IDLE");
+            return m;
+        }
+        long elapsed = r.elapsedMillis > 0 ? r.elapsedMillis : (System.nanoTime() - r.startNanos) / 1_000_000;
+
+        m.put("status", r.status);
+        m.put("month", r.month.toString());
+        m.put("startedAt", r.startedAt.toString());
+        m.put("partitions", r.partitions);
+        m.put("partitionsDone", r.partitionsDone.get());
+        m.put("statements", r.statements.get());
+        m.put("resumed", r.resumed.get());
+        m.put("skippedNoLogin", r.skipped.get());
+        m.put("failed", r.failed.get());
+        m.put("elapsedMillis", elapsed);
+        m.put("statementsPerSecond", elapsed == 0 ? 0 : Math.round(r.statements.get() * 1000.0 / elapsed));
+        if (r.error != null) m.put("error", r.error);
+        return m;
+    }
+
+    // ======================================================
+    // BATCH
+    // ======================================================
+    private void execute(Run run) {
+        ForkJoinPool pool = null;
+        try {
+            Path dir = Paths.get(statementsPath, run.month.toString());
+            Files.createDirectories(dir);
+
+            Path checkpoint = dir.resolve(CHECKPOINT);
+            Set<String> done = Files.exists(checkpoint)
+                    ? new HashSet<>(Files.readAllLines(checkpoint, StandardCharsets.UTF_8))
+                    : new HashSet<>();
+
+            List<StatementDao.Partition> pending = new ArrayList<>();
+            for (StatementDao.Partition p : statementDao.partitions(partitionSize)) {
+                if (!done.contains(key(p))) pending.add(p);
+            }
+            run.partitions = pending.size() + done.size();
+            run.partitionsDone.set(done.size());
+
+            System.out.println("🗂️ Statement batch " + run.month + ": " + pending.size() + " partitions to go"
+                    + (done.isEmpty() ? "" : " (" + done.size() + " already done)"));
+
+            pool = new ForkJoinPool(Math.max(1, parallelism));
+            pool.invoke(new PartitionTask(run, dir, checkpoint, pending, 0, pending.size()));
+
+            run.status = run.failed.get() == 0 ? "DONE" : "DONE_WITH_ERRORS";
+
+        } catch (Exception e) {
+            run.error = e.getMessage();
+            run.status = "FAILED";
+            System.err.println("❌ Statement batch " + run.month + " failed: " + e.getMessage());
+        } finally {
+            if (pool != null) pool.shutdown();
+            if (run.leaseLost) run.status = "LEASE_LOST";
+            // a clean run keeps the lease until it expires (see class comment); otherwise free it for a retry
+            if (!"DONE".equals(run.status)) releaseLease();
+            run.elapsedMillis = (System.nanoTime() - run.startNanos) / 1_000_000;
+            System.out.println("📦 Statement batch " + run.month + " " + run.status + ": " + status());
+        }
+    }
+
+    private final class PartitionTask extends RecursiveAction {
+        private final Run run;
+        private final Path dir;
+        private final Path checkpoint;
+        private final List<StatementDao.Partition> partitions;
+        private final int lo, hi;
+
+        PartitionTask(Run run, Path dir, Path checkpoint, List<StatementDao.Partition> partitions, int lo, int hi) {
+            this.run = run;
+            this.dir = dir;
+            this.checkpoint = checkpoint;
+            this.partitions = partitions;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo == 0) return;
+            if (hi - lo == 1) {
+                if (run.leaseLost) return;
+                processPartition(run, dir, checkpoint, partitions.get(lo));
+                renewLease(run);
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            invokeAll(new PartitionTask(run, dir, checkpoint, partitions, lo, mid),
+                      new PartitionTask(run, dir, checkpoint, partitions, mid, hi));
+        }
+    }
+
+    private void processPartition(Run run, Path dir, Path checkpoint, StatementDao.Partition p) {
+        try {
+            Map<String, StatementDao.StatementAccount> accounts = statementDao.accounts(p);
+
+            LocalDateTime from = run.month.atDay(1).atStartOfDay();
+            LocalDateTime to = run.month.plusMonths(1).atDay(1).atStartOfDay();
+            String period = run.month.format(PERIOD);
+
+            // rows arrive grouped by account: render each account when the next one starts
+            AccountRows rows = new AccountRows();
+            int[] failures = {0};
+            txDao.forEachInAccountRange(p.firstAccount(), p.lastAccount(), from, to, (acc, tx) -> {
+                if (!acc.equals(rows.account)) {
+                    if (rows.account != null && !render(run, dir, period, accounts.remove(rows.account), rows.tx))
+                        failures[0]++;
+                    rows.account = acc;
+                    rows.tx = new ArrayList<>();
+                }
+                rows.tx.add(tx);
+            });
+            if (rows.account != null && !render(run, dir, period, accounts.remove(rows.account), rows.tx))
+                failures[0]++;
+
+            // accounts without transactions this month
+            for (StatementDao.StatementAccount sa : accounts.values()) {
+                if (!render(run, dir, period, sa, List.of())) failures[0]++;
+            }
+
+            // a partition with failures is not checkpointed, so a rerun retries the missing PDFs
+            if (failures[0] == 0) markDone(checkpoint, p);
+            run.partitionsDone.incrementAndGet();
+
+        } catch (Exception e) {
+            // partition stays out of the checkpoint and is retried by the next run
+            run.failed.incrementAndGet();
+            System.err.println("⚠️ Statement partition " + key(p) + " failed: " + e.getMessage());
+        }
+    }
+
+    private void renewLease(Run run) {
+        try {
+            if (!jobDao.renew(LEASE, nodeId, leaseSeconds)) {
+                run.leaseLost = true;
+                System.err.println("⚠️ Statement batch " + run.month + " lost its lease; stopping");
+            }
+        } catch (Exception e) {
+            // DB hiccup: keep going, the lease is still ours until it expires
+            System.err.println("⚠️ Statement batch lease renewal failed: " + e.getMessage());
+        }
+    }
+
+    private void releaseLease() {
+        try {
+            jobDao.release(LEASE, nodeId);
+        } catch (Exception e) {
+            System.err.println("⚠️ Statement batch lease release failed: " + e.getMessage());
+        }
+    }
+
+    /** The account whose rows are being collected and its rows so far. */
+    private static final class AccountRows {
+        String account;
+        List<TransactionRecord> tx;
+    }
+
+    /**
+     * Writes one statement; false if it failed. A null account (rows for an account that is
+     * deleted or outside the statement set) is ignored.
+     */
+    private boolean render(Run run, Path dir, String period, StatementDao.StatementAccount sa,
+                           List<TransactionRecord> tx) {
+        if (sa == null) return true;
+        String accNo = sa.account().getAccountNumber();
+        if (sa.pdfKey() == null) {
+            run.skipped.incrementAndGet();
+            return true;
+        }
+
+        Path target = dir.resolve(accNo + ".pdf");
+        if (Files.exists(target)) {
+            run.resumed.incrementAndGet();
+            return true;
+        }
+
+        try {
+            Path part = dir.resolve(accNo + ".pdf.part");
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(part))) {
+                PdfGenerator.writeStatementPdf(out, sa.pdfKey(), sa.account(), period, tx);
+            }
+            Files.move(part, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            run.statements.incrementAndGet();
+            return true;
+        } catch (Exception e) {
+            run.failed.incrementAndGet();
+            System.err.println("⚠️ Statement " + accNo + " failed: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private synchronized void markDone(Path checkpoint, StatementDao.Partition p) throws IOException {
+        Files.writeString(checkpoint, key(p) + "\n", StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    private static String key(StatementDao.Partition p) {
+        return p.firstAccount() + "-" + p.lastAccount();
+    }
+}
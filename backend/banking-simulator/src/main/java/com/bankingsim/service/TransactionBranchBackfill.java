@@ -0,0 +1,107 @@
+package com.bankingsim.service;
+
+import com.bankingsim.dao.TransactionDao;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * Fills transactions.from_branch / to_branch and their ordinals (from_branch_id / to_branch_id,
+ * V9) for rows written before those columns existed.
+ *
+ * Walks the table by primary key in chunks of app.transactions.branch-backfill.chunk rows,
+ * one short auto-committed UPDATE per chunk, so it never holds long locks or a huge undo log
+ * and can be interrupted and resumed at any point. Runs on its own thread after startup;
+ * until it finishes TransactionDao keeps using the account-based branch query.
+ *
+ * Completion is recorded in schema_backfills so later starts skip the walk.
+ */
+@Service
+public class TransactionBranchBackfill {
+
+    // renamed when the ordinal columns were added, so databases that finished the name-only
+    // walk run it once more
+    private static final String NAME = "transactions_branch_id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionDao txDao;
+
+    @Value("${app.transactions.branch-backfill.chunk:5000}")
+    private int chunkSize;
+
+    @Value("${app.transactions.branch-backfill.pause-ms:50}")
+    private long pauseMs;
+
+    public TransactionBranchBackfill(JdbcTemplate jdbcTemplate, TransactionDao txDao) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.txDao = txDao;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        if (isComplete()) {
+            txDao.setBranchColumnsReady(true);
+            return;
+        }
+        Thread t = new Thread(this::run, "tx-branch-backfill");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    private boolean isComplete() {
+        try {
+            Integer n = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM schema_backfills WHERE name = ?", Integer.class, NAME);
+            return n != null && n > 0;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private void run() {
+        long start = System.currentTimeMillis();
+        long updated = 0;
+        String lastId = "";
+
+        try {
+            while (true) {
+                // upper key of the next chunk (primary key range scan)
+                String hi = jdbcTemplate.queryForObject("""
+                    SELECT MAX(tx_id) FROM (
+                        SELECT tx_id FROM transactions WHERE tx_id > ? ORDER BY tx_id LIMIT ?
+                    ) c
+                """, String.class, lastId, chunkSize);
+                if (hi == null) break;
+
+                // rows inserted since the ordinal columns exist already have at least one side set
+                updated += jdbcTemplate.update("""
+                    UPDATE transactions t
+                    LEFT JOIN accounts fa ON fa.account_number = t.from_account
+                    LEFT JOIN accounts ta ON ta.account_number = t.to_account
+                    SET t.from_branch    = COALESCE(t.from_branch, fa.branch_name),
+                        t.to_branch      = COALESCE(t.to_branch, ta.branch_name),
+                        t.from_branch_id = fa.branch_id,
+                        t.to_branch_id   = ta.branch_id
+                    WHERE t.tx_id > ? AND t.tx_id <= ?
+                      AND t.from_branch_id IS NULL AND t.to_branch_id IS NULL
+                """, lastId, hi);
+
+                lastId = hi;
+                if (pauseMs > 0) Thread.sleep(pauseMs);
+            }
+
+            jdbcTemplate.update("INSERT IGNORE INTO schema_backfills (name, completed_at) VALUES (?, NOW())", NAME);
+            txDao.setBranchColumnsReady(true);
+
+            System.out.println("✅ Transaction branch backfill done: " + updated + " rows in "
+                    + (System.currentTimeMillis() - start) / 1000 + "s");
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            System.err.println("⚠️ Transaction branch backfill stopped at " + lastId + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.bankingsim.util;
+
+import com.bankingsim.model.AuditLogEntry;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Binary layout of the append-only audit segment files.
+ *
+ * Segment file = 64-byte header followed by fixed 512-byte records, so record i always
+ * starts at HEADER_SIZE + i * RECORD_SIZE. Segments are read through one int-indexed
+ * MappedByteBuffer, so a segment holds at most MAX_RECORDS records.
+ *
+ * Header:
+ *   0  int    magic "BSAS"
+ *   4  int    format version
+ *   8  long   sequence number of the first record in this segment
+ *  16  long   creation time (epoch millis)
+ *  24  byte[32] hash of the last record of the previous segment (zeros for the first segment)
+ *  56  8 bytes reserved
+ *
+ * Record (all strings UTF-8, zero padded, truncated on a character boundary):
+ *   0  long   sequence number
+ *   8  long   timestamp (epoch millis, never decreasing)
+ *  16  long   amount in paise (Long.MIN_VALUE = no amount)
+ *  24  byte[40]  event type
+ *  64  byte[20]  account number
+ *  84  byte[50]  actor
+ * 134  byte[64]  correlation id
+ * 198  short     description length in bytes; bit 15 (DESC_TRUNCATED, version 2) is set when
+ *                  any string field had to be cut to fit
+ * 200  byte[280] description
+ * 480  byte[32]  SHA-256(previous record hash || bytes 0..479 of this record)
+ */
+public final class AuditSegmentFormat {
+
+    public static final int MAGIC = 0x42534153; // "BSAS"
+    public static final int VERSION = 2;
+
+    public static final int HEADER_SIZE = 64;
+    public static final int RECORD_SIZE = 512;
+    public static final int HASH_OFFSET = 480;
+    public static final int HASH_SIZE = 32;
+
+    /** Largest record count whose offsets still fit in an int (and a segment in one mapping). */
+    public static final long MAX_RECORDS = (Integer.MAX_VALUE - HEADER_SIZE) / RECORD_SIZE;
+
+    public static final int HDR_FIRST_SEQ = 8;
+    public static final int HDR_CREATED = 16;
+    public static final int HDR_PREV_HASH = 24;
+
+    static final int OFF_SEQ = 0;
+    static final int OFF_TS = 8;
+    static final int OFF_AMOUNT = 16;
+    static final int OFF_EVENT = 24, LEN_EVENT = 40;
+    static final int OFF_ACCOUNT = 64, LEN_ACCOUNT = 20;
+    static final int OFF_ACTOR = 84, LEN_ACTOR = 50;
+    static final int OFF_CORR = 134, LEN_CORR = 64;
+    static final int OFF_DESC_LEN = 198;
+    static final int OFF_DESC = 200, LEN_DESC = 280;
+    static final int DESC_TRUNCATED = 0x8000, DESC_LEN_MASK = 0x7FFF;
+
+    /** Appended to the decoded description of a record that was truncated when written. */
+    public static final String TRUNCATED_MARK = " …[truncated]";
+
+    public static final String FILE_PREFIX = "audit-";
+    public static final String FILE_SUFFIX = ".seg";
+
+    private static final long NO_AMOUNT = Long.MIN_VALUE;
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    private AuditSegmentFormat() {}
+
+    /** Segment file name; zero padded so lexical order equals sequence order. */
+    public static String fileName(long firstSeq) {
+        return String.format("%s%020d%s", FILE_PREFIX, firstSeq, FILE_SUFFIX);
+    }
+
+    public static ByteBuffer newHeader(long firstSeq, long createdMillis, byte[] prevHash) {
+        ByteBuffer h = ByteBuffer.allocate(HEADER_SIZE);
+        h.putInt(MAGIC).putInt(VERSION).putLong(firstSeq).putLong(createdMillis).put(prevHash);
+        h.position(0);
+        return h;
+    }
+
+    /**
+     * Encodes one record into {@code out} (RECORD_SIZE bytes starting at its position)
+     * and returns the chained hash written into the record.
+     */
+    public static byte[] encode(ByteBuffer out, long seq, long tsMillis, String event, String account,
+                                BigDecimal amount, String correlationId, String actor, String description,
+                                byte[] prevHash, MessageDigest sha256) {
+        int base = out.position();
+        byte[] zero = new byte[RECORD_SIZE];
+        out.put(zero);
+
+        out.putLong(base + OFF_SEQ, seq);
+        out.putLong(base + OFF_TS, tsMillis);
+        out.putLong(base + OFF_AMOUNT, amount == null ? NO_AMOUNT : amount.movePointRight(2).longValue());
+        boolean[] cut = {false};
+        putString(out, base + OFF_EVENT, LEN_EVENT, event, cut);
+        putString(out, base + OFF_ACCOUNT, LEN_ACCOUNT, account, cut);
+        putString(out, base + OFF_ACTOR, LEN_ACTOR, actor, cut);
+        putString(out, base + OFF_CORR, LEN_CORR, correlationId, cut);
+        int descLen = putString(out, base + OFF_DESC, LEN_DESC, description, cut);
+        out.putShort(base + OFF_DESC_LEN, (short) (cut[0] ? descLen | DESC_TRUNCATED : descLen));
+
+        byte[] hash = chainHash(sha256, prevHash, out, base);
+        out.put(base + HASH_OFFSET, hash);
+        return hash;
+    }
+
+    /** SHA-256(prevHash || record body) for the record starting at {@code base}. */
+    public static byte[] chainHash(MessageDigest sha256, byte[] prevHash, ByteBuffer buf, int base) {
+        sha256.reset();
+        sha256.update(prevHash);
+        ByteBuffer body = buf.duplicate();
+        body.limit(base + HASH_OFFSET).position(base);
+        sha256.update(body);
+        return sha256.digest();
+    }
+
+    public static byte[] storedHash(ByteBuffer buf, int base) {
+        byte[] h = new byte[HASH_SIZE];
+        buf.get(base + HASH_OFFSET, h);
+        return h;
+    }
+
+    public static long seqAt(ByteBuffer buf, int base) { return buf.getLong(base + OFF_SEQ); }
+    public static boolean truncatedAt(ByteBuffer buf, int base) { return (buf.getShort(base + OFF_DESC_LEN) & DESC_TRUNCATED) != 0; }
+    public static long timestampAt(ByteBuffer buf, int base) { return buf.getLong(base + OFF_TS); }
+
+    public static AuditLogEntry decode(ByteBuffer buf, int base) {
+        AuditLogEntry e = new AuditLogEntry();
+        e.setId(buf.getLong(base + OFF_SEQ));
+        e.setTimestamp(LocalDateTime.ofInstant(Instant.ofEpochMilli(buf.getLong(base + OFF_TS)), ZONE));
+
+        long paise = buf.getLong(base + OFF_AMOUNT);
+        if (paise != NO_AMOUNT) e.setAmount(BigDecimal.valueOf(paise, 2));
+
+        e.setEventType(getString(buf, base + OFF_EVENT, LEN_EVENT));
+        e.setAccountNumber(getString(buf, base + OFF_ACCOUNT, LEN_ACCOUNT));
+        e.setActor(getString(buf, base + OFF_ACTOR, LEN_ACTOR));
+        e.setCorrelationId(getString(buf, base + OFF_CORR, LEN_CORR));
+
+        int descLen = Math.min(buf.getShort(base + OFF_DESC_LEN) & DESC_LEN_MASK, LEN_DESC);
+        byte[] d = new byte[descLen];
+        buf.get(base + OFF_DESC, d);
+        String description = new String(d, StandardCharsets.UTF_8);
+        e.setDescription(truncatedAt(buf, base) ? description + TRUNCATED_MARK : description);
+        return e;
+    }
+
+    public static long toMillis(LocalDateTime t) {
+        return t.atZone(ZONE).toInstant().toEpochMilli();
+    }
+
+    public static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // string fields
+    // ---------------------------------------------------------------
+    // returns the bytes written; cut[0] is set if the string didn't fit
+    private static int putString(ByteBuffer buf, int offset, int max, String s, boolean[] cut) {
+        if (s == null || s.isEmpty()) return 0;
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        int len = Math.min(bytes.length, max);
+        // don't cut a multi-byte character in half
+        while (len < bytes.length && len > 0 && (bytes[len] & 0xC0) == 0x80) len--;
+        buf.put(offset, bytes, 0, len);
+        if (len < bytes.length) cut[0] = true;
+        return len;
+    }
+
+    private static String getString(ByteBuffer buf, int offset, int max) {
+        int len = 0;
+        while (len < max && buf.get(offset + len) != 0) len++;
+        if (len == 0) return null;
+        byte[] b = new byte[len];
+        buf.get(offset, b);
+        return new String(b, StandardCharsets.UTF_8);
+    }
+}
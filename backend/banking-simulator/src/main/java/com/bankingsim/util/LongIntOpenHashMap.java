@@ -0,0 +1,124 @@
+package com.bankingsim.util;
+
+/**
+ * long → int hash map with open addressing (linear probing) over two primitive arrays:
+ * 12 bytes per slot, no boxing, no per-entry objects. Key 0 marks an empty slot and can't be
+ * stored. Removal shifts the following run back instead of leaving tombstones.
+ *
+ * Not thread-safe; callers guard writes (see RecipientDirectory).
+ */
+public class LongIntOpenHashMap {
+
+    public static final int MISSING = Integer.MIN_VALUE;
+
+    private static final float MAX_LOAD = 0.7f;
+
+    private long[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+    private int resizeAt;
+
+    public LongIntOpenHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, (int) (expectedSize / MAX_LOAD) + 1) - 1) << 1;
+        allocate(capacity);
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        resizeAt = (int) (capacity * MAX_LOAD);
+    }
+
+    // murmur3 fmix64: account numbers are dense decimal ranges, so spread the low bits
+    // (package-private so the tests can build colliding keys)
+    static int slot(long key, int mask) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return (int) key & mask;
+    }
+
+    /** Value for the key, or {@link #MISSING}. */
+    public int get(long key) {
+        long[] k = keys;
+        int[] v = values;
+        int m = k.length - 1;
+        // bounded, so an optimistic reader racing a writer (see RecipientDirectory) always terminates
+        for (int i = slot(key, m), n = 0; n <= m; i = (i + 1) & m, n++) {
+            long cur = k[i];
+            if (cur == key) return v[i];
+            if (cur == 0) return MISSING;
+        }
+        return MISSING;
+    }
+
+    public void put(long key, int value) {
+        if (key == 0) throw new IllegalArgumentException("key 0 is reserved");
+        int i = slot(key, mask);
+        while (keys[i] != 0) {
+            if (keys[i] == key) {
+                values[i] = value;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = value;
+        if (++size >= resizeAt) rehash(keys.length << 1);
+    }
+
+    public boolean remove(long key) {
+        int i = slot(key, mask);
+        while (keys[i] != key) {
+            if (keys[i] == 0) return false;
+            i = (i + 1) & mask;
+        }
+        // backward shift: move later entries of the run into the gap if their home slot allows it
+        int gap = i;
+        for (int j = (gap + 1) & mask; keys[j] != 0; j = (j + 1) & mask) {
+            int home = slot(keys[j], mask);
+            if (((j - home) & mask) >= ((j - gap) & mask)) {
+                keys[gap] = keys[j];
+                values[gap] = values[j];
+                gap = j;
+            }
+        }
+        keys[gap] = 0;
+        values[gap] = 0;
+        size--;
+        return true;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        long[] newKeys = new long[capacity];
+        int[] newValues = new int[capacity];
+        int m = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            long key = oldKeys[i];
+            if (key == 0) continue;
+            int j = slot(key, m);
+            while (newKeys[j] != 0) j = (j + 1) & m;
+            newKeys[j] = key;
+            newValues[j] = oldValues[i];
+        }
+        values = newValues;
+        keys = newKeys;
+        mask = m;
+        resizeAt = (int) (capacity * MAX_LOAD);
+    }
+
+    public int size() { return size; }
+
+    public int capacity() { return keys.length; }
+
+    /** Heap used by the two slot arrays. */
+    public long footprintBytes() {
+        return (long) keys.length * (Long.BYTES + Integer.BYTES);
+    }
+}
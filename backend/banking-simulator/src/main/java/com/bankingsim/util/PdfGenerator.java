@@ -4,10 +4,15 @@ import com.bankingsim.dao.AccountDao;
 import com.bankingsim.model.Account;
 import com.bankingsim.model.TransactionRecord;
 import com.itextpdf.text.*;
+import com.itextpdf.text.io.RandomAccessSourceFactory;
 import com.itextpdf.text.pdf.*;
 
 import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
+import java.util.function.Consumer;
 
 public class PdfGenerator {
 
@@ -25,13 +30,38 @@ public class PdfGenerator {
     // ---------------------------------------------------
 
     public static byte[] generateAccountsPdfBytes(List<Account> accounts, String key) {
-        byte[] raw = buildAccountsPdf(accounts);
-        return encryptIfNeeded(raw, key);
+        // encrypted while writing; no second pass through PdfStamper
+        return buildAccountsPdf(accounts, key);
+    }
+
+    /** Applies the per-user password to an already rendered PDF (cached reports). */
+    public static byte[] encrypt(byte[] pdfBytes, String key) {
+        return encryptIfNeeded(pdfBytes, key);
+    }
+
+    /**
+     * Copies a rendered PDF file to {@code out}, encrypting with {@code key} if given.
+     * The file is read through a random-access source, so it is never loaded into memory whole.
+     */
+    public static void copyEncrypted(Path pdf, String key, OutputStream out) throws Exception {
+        if (key == null || key.trim().isEmpty()) {
+            Files.copy(pdf, out);
+            return;
+        }
+        PdfReader reader = new PdfReader(new RandomAccessFileOrArray(
+                new RandomAccessSourceFactory().createBestSource(pdf.toString())), null);
+        try {
+            PdfStamper stamper = new PdfStamper(reader, out);
+            stamper.setEncryption(key.getBytes(), key.getBytes(),
+                    PdfWriter.ALLOW_PRINTING, PdfWriter.ENCRYPTION_AES_128);
+            stamper.close();
+        } finally {
+            reader.close();
+        }
     }
 
     public static byte[] generateTransactionsPdfBytes(List<TransactionRecord> transactions, String key) {
-        byte[] raw = buildTransactionsPdf(transactions);
-        return encryptIfNeeded(raw, key);
+        return buildTransactionsPdf(transactions, key);
     }
 
     /**
@@ -43,6 +73,30 @@ public class PdfGenerator {
         return encryptIfNeeded(raw, key);
     }
 
+    /**
+     * Mini statement for an account the caller already has (no DAO lookup),
+     * encrypted with {@code key} while writing.
+     */
+    public static byte[] generateMiniStatementPdfBytes(Account acc, List<TransactionRecord> transactions, String key) {
+        return generateMiniStatementPdfBytes(acc, "Mini Statement", transactions, key);
+    }
+
+    /** Same, under a caller-supplied title (e.g. to say the period was cut short). */
+    public static byte[] generateMiniStatementPdfBytes(Account acc, String title, List<TransactionRecord> transactions,
+                                                       String key) {
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            Document document = new Document(PageSize.A4);
+            openDocument(document, out, key);
+            addStatementContent(document, title, acc.getAccountNumber(), acc, transactions);
+            document.close();
+            return out.toByteArray();
+        } catch (Exception e) {
+            e.printStackTrace();
+            return new byte[0];
+        }
+    }
+
     // ---------------------------------------------------
     // LEGACY NO-OPs (KEEP FOR COMPATIBILITY)
     // ---------------------------------------------------
@@ -54,10 +108,21 @@ public class PdfGenerator {
     // ---------------------------------------------------
     // LOAD LOGO (from resources/static/logo.png)
     // ---------------------------------------------------
+    private static volatile byte[] logoBytes;
+
     private static Image loadLogo() {
         try {
-            // load from classpath: src/main/resources/static/logo.png
-            return Image.getInstance(PdfGenerator.class.getResource("/static/logo.png"));
+            // load from classpath once: src/main/resources/static/logo.png
+            // (a fresh Image per document, since iText mutates it while laying out)
+            byte[] bytes = logoBytes;
+            if (bytes == null) {
+                try (var in = PdfGenerator.class.getResourceAsStream("/static/logo.png")) {
+                    if (in == null) throw new java.io.FileNotFoundException("/static/logo.png");
+                    bytes = in.readAllBytes();
+                }
+                logoBytes = bytes;
+            }
+            return Image.getInstance(bytes);
         } catch (Exception e) {
             // don't fail PDF generation if logo missing — log and continue
             System.err.println("⚠ Logo not found or failed to load: " + e.getMessage());
@@ -96,48 +161,136 @@ public class PdfGenerator {
 
 
     // ---------------------------------------------------
-    // BUILD ACCOUNTS PDF (with IFSC column)
+    // STREAMING RENDER
+    // Rows are pulled from a RowSource and flushed to the writer every FLUSH_ROWS,
+    // encryption is set on the PdfWriter before open, so neither the row list nor a
+    // second (encrypted) copy of the document is ever held in memory.
     // ---------------------------------------------------
-    private static byte[] buildAccountsPdf(List<Account> accounts) {
-        try {
-            ByteArrayOutputStream out = new ByteArrayOutputStream();
-            Document document = new Document(PageSize.A4.rotate());
-            PdfWriter.getInstance(document, out);
-            document.open();
 
-            addLogoAndTitle(document);
+    @FunctionalInterface
+    public interface RowSource<T> {
+        void forEach(Consumer<T> row) throws Exception;
+    }
+
+    private static final int FLUSH_ROWS = 500;
+
+    public static void writeAccountsPdf(OutputStream out, String key, RowSource<Account> rows) throws Exception {
+        Document document = new Document(PageSize.A4.rotate());
+        openDocument(document, out, key);
+
+        addLogoAndTitle(document);
+
+        Paragraph titlePara = new Paragraph("All Accounts Report\n\n",
+                new Font(Font.FontFamily.HELVETICA, 16, Font.BOLD));
+        titlePara.setAlignment(Element.ALIGN_CENTER);
+        document.add(titlePara);
 
-            Paragraph titlePara = new Paragraph("All Accounts Report\n\n",
-                    new Font(Font.FontFamily.HELVETICA, 16, Font.BOLD));
-            titlePara.setAlignment(Element.ALIGN_CENTER);
-            document.add(titlePara);
+        // 7 columns: Acc No, Holder, Email, Balance, Type, Status, IFSC Code
+        PdfPTable table = newStreamingTable(
+                new String[]{"Acc No", "Holder", "Email", "Balance", "Type", "Status", "IFSC Code"});
 
-            // 7 columns: Acc No, Holder, Email, Balance, Type, Status, IFSC Code
-            PdfPTable table = new PdfPTable(7);
-            table.setWidthPercentage(100);
+        Font bodyFont = new Font(Font.FontFamily.HELVETICA, 10);
 
-            addHeader(table,
-                    new String[]{"Acc No", "Holder", "Email", "Balance", "Type", "Status", "IFSC Code"},
-                    new Font(Font.FontFamily.HELVETICA, 12, Font.BOLD)
+        streamRows(document, table, rows, a -> {
+            table.addCell(new Phrase(safe(a.getAccountNumber()), bodyFont));
+            table.addCell(new Phrase(safe(a.getHolderName()), bodyFont));
+            table.addCell(new Phrase(safe(a.getEmail()), bodyFont));
+            table.addCell(new Phrase("₹" + (a.getBalance() != null ? a.getBalance() : "0.00"), bodyFont));
+            table.addCell(new Phrase(safe(a.getAccountType()), bodyFont));
+            table.addCell(new Phrase(safe(a.getStatus()), bodyFont));
+            table.addCell(new Phrase(safe(a.getIfscCode()), bodyFont)); // IFSC
+        });
+
+        document.add(new Paragraph("\nGenerated by AstroNova Bank © " + java.time.LocalDate.now()));
+        document.close();
+    }
+
+    public static void writeTransactionsPdf(OutputStream out, String key, RowSource<TransactionRecord> rows) throws Exception {
+        Document document = new Document(PageSize.A4.rotate());
+        openDocument(document, out, key);
+
+        addLogoAndTitle(document);
+
+        Paragraph titlePara = new Paragraph("All Transactions Report\n\n",
+                new Font(Font.FontFamily.HELVETICA, 16, Font.BOLD));
+        titlePara.setAlignment(Element.ALIGN_CENTER);
+        document.add(titlePara);
+
+        PdfPTable table = newStreamingTable(
+                new String[]{"Tx ID", "Date", "Type", "Amount", "From Acc", "To Acc", "Category", "Status"});
+
+        Font bodyFont = new Font(Font.FontFamily.HELVETICA, 10);
+
+        streamRows(document, table, rows, tx -> {
+            table.addCell(new Phrase(safe(tx.getTxId()), bodyFont));
+            table.addCell(new Phrase(tx.getFormattedDate(), bodyFont));
+            table.addCell(new Phrase(prettyType(tx.getTxType()), bodyFont));
+            table.addCell(new Phrase("₹" + (tx.getAmount() != null ? tx.getAmount() : "0.00"), bodyFont));
+            table.addCell(new Phrase(safe(tx.getFromAccount()), bodyFont));
+            table.addCell(new Phrase(safe(tx.getToAccount()), bodyFont));
+            table.addCell(new Phrase(safe(tx.getCategory()), bodyFont));
+            table.addCell(new Phrase(safe(tx.getStatus()), bodyFont));
+        });
+
+        document.add(new Paragraph("\nGenerated by AstroNova Bank © " + java.time.LocalDate.now()));
+        document.close();
+    }
+
+    private static void openDocument(Document document, OutputStream out, String key) throws DocumentException {
+        PdfWriter writer = PdfWriter.getInstance(document, out);
+        writer.setCloseStream(false); // the caller owns the stream (e.g. the HTTP response)
+
+        if (key != null && !key.trim().isEmpty()) {
+            writer.setEncryption(
+                    key.getBytes(),
+                    key.getBytes(),
+                    PdfWriter.ALLOW_PRINTING,
+                    PdfWriter.ENCRYPTION_AES_128
             );
+        }
+        document.open();
+    }
+
+    private static PdfPTable newStreamingTable(String[] headers) {
+        PdfPTable table = new PdfPTable(headers.length);
+        table.setWidthPercentage(100);
+        table.setComplete(false);   // large table: rows already added are written out and dropped
+        addHeader(table, headers, new Font(Font.FontFamily.HELVETICA, 12, Font.BOLD));
+        table.setHeaderRows(1);     // repeat header on every page
+        return table;
+    }
 
-            Font bodyFont = new Font(Font.FontFamily.HELVETICA, 10);
-
-            if (accounts != null) {
-                for (Account a : accounts) {
-                    table.addCell(new Phrase(safe(a.getAccountNumber()), bodyFont));
-                    table.addCell(new Phrase(safe(a.getHolderName()), bodyFont));
-                    table.addCell(new Phrase(safe(a.getEmail()), bodyFont));
-                    table.addCell(new Phrase("₹" + (a.getBalance() != null ? a.getBalance() : "0.00"), bodyFont));
-                    table.addCell(new Phrase(safe(a.getAccountType()), bodyFont));
-                    table.addCell(new Phrase(safe(a.getStatus()), bodyFont));
-                    table.addCell(new Phrase(safe(a.getIfscCode()), bodyFont)); // IFSC
+    private static <T> void streamRows(Document document, PdfPTable table, RowSource<T> rows,
+                                       Consumer<T> addRow) throws Exception {
+        int[] count = {0};
+        try {
+            rows.forEach(row -> {
+                addRow.accept(row);
+                if (++count[0] % FLUSH_ROWS == 0) {
+                    try {
+                        document.add(table);
+                    } catch (DocumentException e) {
+                        throw new IllegalStateException(e);
+                    }
                 }
-            }
+            });
+        } catch (IllegalStateException e) {
+            if (e.getCause() instanceof DocumentException de) throw de;
+            throw e;
+        }
+        table.setComplete(true);
+        document.add(table);
+    }
 
-            document.add(table);
-            document.add(new Paragraph("\nGenerated by AstroNova Bank © " + java.time.LocalDate.now()));
-            document.close();
+    // ---------------------------------------------------
+    // BUILD ACCOUNTS / TRANSACTIONS PDF (in-memory wrappers over the streaming writers)
+    // ---------------------------------------------------
+    private static byte[] buildAccountsPdf(List<Account> accounts, String key) {
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            writeAccountsPdf(out, key, sink -> {
+                if (accounts != null) accounts.forEach(sink);
+            });
             return out.toByteArray();
 
         } catch (Exception e) {
@@ -147,49 +300,12 @@ public class PdfGenerator {
         }
     }
 
-    // ---------------------------------------------------
-    // BUILD TRANSACTIONS PDF (logo/title added)
-    // ---------------------------------------------------
-    private static byte[] buildTransactionsPdf(List<TransactionRecord> transactions) {
+    private static byte[] buildTransactionsPdf(List<TransactionRecord> transactions, String key) {
         try {
             ByteArrayOutputStream out = new ByteArrayOutputStream();
-            Document document = new Document(PageSize.A4.rotate());
-            PdfWriter.getInstance(document, out);
-            document.open();
-
-            addLogoAndTitle(document);
-
-            Paragraph titlePara = new Paragraph("All Transactions Report\n\n",
-                    new Font(Font.FontFamily.HELVETICA, 16, Font.BOLD));
-            titlePara.setAlignment(Element.ALIGN_CENTER);
-            document.add(titlePara);
-
-            PdfPTable table = new PdfPTable(8);
-            table.setWidthPercentage(100);
-
-            addHeader(table,
-                    new String[]{"Tx ID", "Date", "Type", "Amount", "From Acc", "To Acc", "Category", "Status"},
-                    new Font(Font.FontFamily.HELVETICA, 12, Font.BOLD)
-            );
-
-            Font bodyFont = new Font(Font.FontFamily.HELVETICA, 10);
-
-            if (transactions != null) {
-                for (TransactionRecord tx : transactions) {
-                    table.addCell(new Phrase(safe(tx.getTxId()), bodyFont));
-                    table.addCell(new Phrase(tx.getFormattedDate(), bodyFont));
-                    table.addCell(new Phrase(prettyType(tx.getTxType()), bodyFont));
-                    table.addCell(new Phrase("₹" + (tx.getAmount() != null ? tx.getAmount() : "0.00"), bodyFont));
-                    table.addCell(new Phrase(safe(tx.getFromAccount()), bodyFont));
-                    table.addCell(new Phrase(safe(tx.getToAccount()), bodyFont));
-                    table.addCell(new Phrase(safe(tx.getCategory()), bodyFont));
-                    table.addCell(new Phrase(safe(tx.getStatus()), bodyFont));
-                }
-            }
-
-            document.add(table);
-            document.add(new Paragraph("\nGenerated by AstroNova Bank © " + java.time.LocalDate.now()));
-            document.close();
+            writeTransactionsPdf(out, key, sink -> {
+                if (transactions != null) transactions.forEach(sink);
+            });
             return out.toByteArray();
 
         } catch (Exception e) {
@@ -209,13 +325,6 @@ public class PdfGenerator {
             PdfWriter.getInstance(document, out);
             document.open();
 
-            addLogoAndTitle(document);
-
-            Paragraph titlePara = new Paragraph("Mini Statement\n\n",
-                    new Font(Font.FontFamily.HELVETICA, 18, Font.BOLD));
-            titlePara.setAlignment(Element.ALIGN_CENTER);
-            document.add(titlePara);
-
             // Try to fetch account details via injected AccountDao (if available)
             Account acc = null;
             try {
@@ -226,47 +335,7 @@ public class PdfGenerator {
                 // ignore lookup errors - fall back to minimal info
             }
 
-            Font infoFont = new Font(Font.FontFamily.HELVETICA, 12);
-            PdfPTable infoTable = new PdfPTable(2);
-            infoTable.setWidthPercentage(80);
-            infoTable.setSpacingAfter(8f);
-            infoTable.setHorizontalAlignment(Element.ALIGN_LEFT);
-
-            // Left label / Right value
-            addInfoCell(infoTable, "Account Number", safe(accNo), infoFont);
-            addInfoCell(infoTable, "Holder Name", safe(acc != null ? acc.getHolderName() : null), infoFont);
-            addInfoCell(infoTable, "Branch", safe(acc != null ? acc.getBranchName() : null), infoFont);
-            addInfoCell(infoTable, "IFSC Code", safe(acc != null ? acc.getIfscCode() : null), infoFont);
-            addInfoCell(infoTable, "Bank Name", "AstroNova Bank", infoFont);
-
-            document.add(infoTable);
-
-            // Transactions table as before
-            PdfPTable table = new PdfPTable(8);
-            table.setWidthPercentage(100);
-
-            addHeader(table,
-                    new String[]{"Tx ID", "Date", "Type", "Amount", "From Acc", "To Acc", "Category", "Status"},
-                    new Font(Font.FontFamily.HELVETICA, 12, Font.BOLD)
-            );
-
-            Font bodyFont = new Font(Font.FontFamily.HELVETICA, 10);
-
-            if (transactions != null) {
-                for (TransactionRecord tx : transactions) {
-                    table.addCell(new Phrase(safe(tx.getTxId()), bodyFont));
-                    table.addCell(new Phrase(tx.getFormattedDate(), bodyFont));
-                    table.addCell(new Phrase(prettyType(tx.getTxType()), bodyFont));
-                    table.addCell(new Phrase("₹" + (tx.getAmount() != null ? tx.getAmount() : "0.00"), bodyFont));
-                    table.addCell(new Phrase(safe(tx.getFromAccount()), bodyFont));
-                    table.addCell(new Phrase(safe(tx.getToAccount()), bodyFont));
-                    table.addCell(new Phrase(safe(tx.getCategory()), bodyFont));
-                    table.addCell(new Phrase(safe(tx.getStatus()), bodyFont));
-                }
-            }
-
-            document.add(table);
-            document.add(new Paragraph("\nGenerated by AstroNova Bank © " + java.time.LocalDate.now()));
+            addStatementContent(document, "Mini Statement", accNo, acc, transactions);
             document.close();
             return out.toByteArray();
 
@@ -276,6 +345,71 @@ public class PdfGenerator {
         }
     }
 
+    /**
+     * Monthly statement for one account, encrypted with {@code key} while writing.
+     * The caller supplies the account (no DAO lookup), so this is safe to call from many
+     * threads at once.
+     */
+    public static void writeStatementPdf(OutputStream out, String key, Account acc, String period,
+                                         List<TransactionRecord> transactions) throws Exception {
+        Document document = new Document(PageSize.A4);
+        openDocument(document, out, key);
+        addStatementContent(document, "Account Statement\n" + period, acc.getAccountNumber(), acc, transactions);
+        document.close();
+    }
+
+    private static void addStatementContent(Document document, String title, String accNo, Account acc,
+                                            List<TransactionRecord> transactions) throws Exception {
+        addLogoAndTitle(document);
+
+        Paragraph titlePara = new Paragraph(title + "\n\n",
+                new Font(Font.FontFamily.HELVETICA, 18, Font.BOLD));
+        titlePara.setAlignment(Element.ALIGN_CENTER);
+        document.add(titlePara);
+
+        Font infoFont = new Font(Font.FontFamily.HELVETICA, 12);
+        PdfPTable infoTable = new PdfPTable(2);
+        infoTable.setWidthPercentage(80);
+        infoTable.setSpacingAfter(8f);
+        infoTable.setHorizontalAlignment(Element.ALIGN_LEFT);
+
+        // Left label / Right value
+        addInfoCell(infoTable, "Account Number", safe(accNo), infoFont);
+        addInfoCell(infoTable, "Holder Name", safe(acc != null ? acc.getHolderName() : null), infoFont);
+        addInfoCell(infoTable, "Branch", safe(acc != null ? acc.getBranchName() : null), infoFont);
+        addInfoCell(infoTable, "IFSC Code", safe(acc != null ? acc.getIfscCode() : null), infoFont);
+        addInfoCell(infoTable, "Bank Name", "AstroNova Bank", infoFont);
+
+        document.add(infoTable);
+
+        // Transactions table as before
+        PdfPTable table = new PdfPTable(8);
+        table.setWidthPercentage(100);
+
+        addHeader(table,
+                new String[]{"Tx ID", "Date", "Type", "Amount", "From Acc", "To Acc", "Category", "Status"},
+                new Font(Font.FontFamily.HELVETICA, 12, Font.BOLD)
+        );
+
+        Font bodyFont = new Font(Font.FontFamily.HELVETICA, 10);
+
+        if (transactions != null) {
+            for (TransactionRecord tx : transactions) {
+                table.addCell(new Phrase(safe(tx.getTxId()), bodyFont));
+                table.addCell(new Phrase(tx.getFormattedDate(), bodyFont));
+                table.addCell(new Phrase(prettyType(tx.getTxType()), bodyFont));
+                table.addCell(new Phrase("₹" + (tx.getAmount() != null ? tx.getAmount() : "0.00"), bodyFont));
+                table.addCell(new Phrase(safe(tx.getFromAccount()), bodyFont));
+                table.addCell(new Phrase(safe(tx.getToAccount()), bodyFont));
+                table.addCell(new Phrase(safe(tx.getCategory()), bodyFont));
+                table.addCell(new Phrase(safe(tx.getStatus()), bodyFont));
+            }
+        }
+
+        document.add(table);
+        document.add(new Paragraph("\nGenerated by AstroNova Bank © " + java.time.LocalDate.now()));
+    }
+
     // ---------------------------------------------------
     // small helper to add a label/value pair to a 2-column table
     // ---------------------------------------------------
@@ -292,6 +426,15 @@ public class PdfGenerator {
     // ---------------------------------------------------
     // ENCRYPTION
     // ---------------------------------------------------
+
+    /** Per-user PDF password: first 3 chars of the username + last 4 digits of the phone. */
+    public static String userKey(String username, String phone) {
+        if (username == null || phone == null) return null;
+        String first3 = username.substring(0, Math.min(3, username.length()));
+        String last4 = phone.substring(Math.max(0, phone.length() - 4));
+        return first3 + last4;
+    }
+
     private static byte[] encryptIfNeeded(byte[] pdfBytes, String key) {
         if (key == null || key.trim().isEmpty())
             return pdfBytes;
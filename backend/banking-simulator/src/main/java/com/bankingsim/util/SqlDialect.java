@@ -0,0 +1,60 @@
+package com.bankingsim.util;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The database behind a DataSource: MySQL in production, H2 (MySQL mode) for the embedded
+ * profiles. Only the few places that use MySQL-only features ask.
+ */
+public enum SqlDialect {
+    MYSQL, H2, OTHER;
+
+    private static final Map<DataSource, SqlDialect> CACHE = new ConcurrentHashMap<>();
+
+    public static SqlDialect of(Connection con) throws SQLException {
+        return fromProductName(con.getMetaData().getDatabaseProductName());
+    }
+
+    /**
+     * Looked up once per DataSource. MYSQL if the database can't be reached, but that guess
+     * isn't cached: the next call asks again, so a database that was down at startup is
+     * identified once it is up.
+     */
+    public static SqlDialect of(DataSource ds) {
+        SqlDialect cached = CACHE.get(ds);
+        if (cached != null) return cached;
+        try {
+            SqlDialect d = fromProductName(
+                    JdbcUtils.extractDatabaseMetaData(ds, DatabaseMetaData::getDatabaseProductName));
+            CACHE.putIfAbsent(ds, d);
+            return d;
+        } catch (Exception e) {
+            return MYSQL;
+        }
+    }
+
+    private static SqlDialect fromProductName(String name) {
+        if (name == null) return OTHER;
+        if (name.toLowerCase().contains("mysql")) return MYSQL;
+        if (name.toLowerCase().contains("h2")) return H2;
+        return OTHER;
+    }
+
+    /**
+     * JdbcTemplate for large result sets. MySQL Connector/J only streams rows one by one with
+     * fetchSize = Integer.MIN_VALUE; other drivers reject negative fetch sizes and get a batch size.
+     */
+    public static JdbcTemplate streamingTemplate(DataSource ds) {
+        JdbcTemplate t = new JdbcTemplate(ds);
+        t.setFetchSize(of(ds) == MYSQL ? Integer.MIN_VALUE : 500);
+        return t;
+    }
+}
@@ -0,0 +1,47 @@
+package com.bankingsim.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/** Event streams on the in-memory H2 profile: a stream opens and delivers its "ready" event. */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("h2mem")
+class EventStreamControllerTest {
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Test
+	void adminStreamSendsReady() throws Exception {
+		MvcResult result = mvc.perform(get("/api/events/admin").sessionAttr("role", "ADMIN"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+
+		MockHttpServletResponse response = result.getResponse();
+		String body = "";
+		for (int i = 0; i < 50 && !body.contains("event:ready"); i++) {
+			Thread.sleep(100);
+			body = response.getContentAsString();
+		}
+		assertTrue(body.contains("event:ready"), "no ready event, got: " + body);
+		assertTrue(response.getContentType().startsWith("text/event-stream"), response.getContentType());
+	}
+
+	@Test
+	void accountStreamOfSomeoneElseIsForbidden() throws Exception {
+		mvc.perform(get("/api/events/account/1000000001").sessionAttr("accountNumber", "1000000002"))
+				.andExpect(status().isForbidden());
+	}
+}
@@ -0,0 +1,109 @@
+package com.bankingsim.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.hamcrest.Matchers.endsWith;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/** Gzip exports on the in-memory H2 profile, filtered to a few seeded accounts. */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("h2mem")
+class ExportControllerTest {
+
+	private static final String TYPE = "EXPORT_TEST";
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private final ObjectMapper json = new ObjectMapper();
+
+	@BeforeEach
+	void seed() {
+		for (int i = 1; i <= 2; i++) {
+			jdbcTemplate.update("INSERT INTO accounts (account_number, holder_name, pin, account_type) VALUES (?, ?, 'x', ?)",
+					"870000000" + i, "Export, " + i, TYPE);
+		}
+	}
+
+	@AfterEach
+	void cleanUp() {
+		jdbcTemplate.update("DELETE FROM accounts WHERE account_type = ?", TYPE);
+	}
+
+	@Test
+	void exportsAccountsAsCsv() throws Exception {
+		List<String> lines = export("csv").lines().toList();
+		assertEquals(3, lines.size(), "header plus two rows");
+		assertTrue(lines.get(0).startsWith("account_number,holder_name,email,"), lines.get(0));
+		assertTrue(lines.get(1).startsWith("8700000001,\"Export, 1\","), lines.get(1));
+		assertTrue(lines.get(2).startsWith("8700000002,\"Export, 2\","), lines.get(2));
+	}
+
+	@Test
+	void exportsAccountsAsNdjson() throws Exception {
+		List<String> lines = export("ndjson").lines().toList();
+		assertEquals(2, lines.size());
+		JsonNode first = json.readTree(lines.get(0));
+		assertEquals("8700000001", first.get("account_number").asText());
+		assertEquals(TYPE, first.get("account_type").asText());
+	}
+
+	@Test
+	void rejectsUnknownFormat() throws Exception {
+		MvcResult started = mvc.perform(get("/api/export/accounts").param("format", "xml").sessionAttr("role", "ADMIN"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		MvcResult result = mvc.perform(asyncDispatch(started))
+				.andExpect(status().isBadRequest())
+				.andReturn();
+		assertEquals("Format must be csv or ndjson.",
+				json.readTree(result.getResponse().getContentAsString()).get("message").asText());
+	}
+
+	private String export(String format) throws Exception {
+		MvcResult started = mvc.perform(get("/api/export/accounts")
+						.param("format", format).param("type", TYPE).sessionAttr("role", "ADMIN"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		MvcResult result = mvc.perform(asyncDispatch(started))
+				.andExpect(status().isOk())
+				.andExpect(content().contentType("application/gzip"))
+				.andExpect(header().string("Content-Disposition", endsWith("." + format + ".gz")))
+				.andReturn();
+		return gunzip(result.getResponse().getContentAsByteArray());
+	}
+
+	private static String gunzip(byte[] gz) throws IOException {
+		try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gz))) {
+			return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+		}
+	}
+}
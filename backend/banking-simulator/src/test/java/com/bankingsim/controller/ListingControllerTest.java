@@ -0,0 +1,98 @@
+package com.bankingsim.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/** Admin listings on the in-memory H2 profile: real JSON pages with items and nextCursor. */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("h2mem")
+class ListingControllerTest {
+
+	private static final String BRANCH = "Listing Test Branch";
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private final ObjectMapper json = new ObjectMapper();
+
+	@BeforeEach
+	void seed() {
+		for (int i = 1; i <= 3; i++) {
+			jdbcTemplate.update("INSERT INTO accounts (account_number, holder_name, pin, branch_name) VALUES (?, ?, 'x', ?)",
+					"880000000" + i, "Listing " + i, BRANCH);
+		}
+	}
+
+	@AfterEach
+	void cleanUp() {
+		jdbcTemplate.update("DELETE FROM accounts WHERE branch_name = ?", BRANCH);
+	}
+
+	@Test
+	void pagesThroughAccounts() throws Exception {
+		JsonNode first = page(get("/api/list/accounts")
+				.param("fields", "accountNumber,holderName").param("limit", "2").param("branch", BRANCH));
+		assertEquals(2, first.get("items").size());
+		assertEquals("8800000001", first.get("items").get(0).get("accountNumber").asText());
+		assertEquals("Listing 1", first.get("items").get(0).get("holderName").asText());
+		assertFalse(first.get("items").get(0).has("email"), "unrequested field returned");
+		assertTrue(first.hasNonNull("nextCursor"), "first page has no nextCursor");
+
+		JsonNode second = page(get("/api/list/accounts")
+				.param("fields", "accountNumber").param("limit", "2").param("branch", BRANCH)
+				.param("cursor", first.get("nextCursor").asText()));
+		assertEquals(1, second.get("items").size());
+		assertEquals("8800000003", second.get("items").get(0).get("accountNumber").asText());
+		assertTrue(second.get("nextCursor").isNull(), "last page has a nextCursor");
+	}
+
+	@Test
+	void listsTransactions() throws Exception {
+		JsonNode page = page(get("/api/list/transactions").param("limit", "5"));
+		assertTrue(page.get("items").isArray());
+		assertTrue(page.has("nextCursor"));
+	}
+
+	@Test
+	void rejectsNonAdmins() throws Exception {
+		MvcResult started = mvc.perform(get("/api/list/accounts")).andReturn();
+		MvcResult result = started.getRequest().isAsyncStarted() ? mvc.perform(asyncDispatch(started)).andReturn() : started;
+		assertEquals(403, result.getResponse().getStatus());
+		assertEquals("Unauthorized.", json.readTree(result.getResponse().getContentAsString()).get("message").asText());
+	}
+
+	private JsonNode page(MockHttpServletRequestBuilder req) throws Exception {
+		MvcResult started = mvc.perform(req.sessionAttr("role", "ADMIN"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		MvcResult result = mvc.perform(asyncDispatch(started))
+				.andExpect(status().isOk())
+				.andExpect(content().contentTypeCompatibleWith("application/json"))
+				.andReturn();
+		return json.readTree(result.getResponse().getContentAsString());
+	}
+}
@@ -0,0 +1,118 @@
+package com.bankingsim.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Report downloads end to end on the in-memory H2 profile: the PDF must actually reach the
+ * client (streamed bodies go through an async dispatch).
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("h2mem")
+class ReportControllerTest {
+
+	@Autowired
+	private MockMvc mvc;
+
+	private final ObjectMapper json = new ObjectMapper();
+
+	@Test
+	void downloadsAccountsReport() throws Exception {
+		assertPdf(download("/api/reports/accounts"));
+	}
+
+	// streamed downloads have no Content-Length; the cached render is sent with one
+	@Test
+	void servesAccountsReportFromCacheOnceMaterialized() throws Exception {
+		MvcResult result = download("/api/reports/accounts");
+		for (int i = 0; i < 100 && result.getResponse().getHeader("Content-Length") == null; i++) {
+			Thread.sleep(100);
+			result = download("/api/reports/accounts");
+		}
+		assertNotNull(result.getResponse().getHeader("Content-Length"), "accounts report never served from the cache");
+		assertPdf(result);
+	}
+
+	@Test
+	void downloadsBranchAccountsReport() throws Exception {
+		assertPdf(download("/api/reports/accounts?branch=Head%20Office"));
+	}
+
+	@Test
+	void downloadsTransactionsReport() throws Exception {
+		assertPdf(download("/api/reports/transactions"));
+	}
+
+	@Test
+	void downloadsFinishedJob() throws Exception {
+		MvcResult submitted = mvc.perform(post("/api/reports/jobs").param("type", "accounts"))
+				.andExpect(status().isAccepted())
+				.andReturn();
+		String id = json.readTree(submitted.getResponse().getContentAsString()).get("id").asText();
+
+		String state = null;
+		for (int i = 0; i < 100 && !"DONE".equals(state); i++) {
+			JsonNode job = json.readTree(mvc.perform(get("/api/reports/jobs/" + id))
+					.andExpect(status().isOk())
+					.andReturn().getResponse().getContentAsString());
+			state = job.get("status").asText();
+			if ("FAILED".equals(state)) break;
+			Thread.sleep(100);
+		}
+		assertEquals("DONE", state);
+
+		assertPdf(download("/api/reports/jobs/" + id + "/download"));
+	}
+
+	@Test
+	void unknownJobIsNotFound() throws Exception {
+		MvcResult started = mvc.perform(get("/api/reports/jobs/nope/download"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		MvcResult result = mvc.perform(asyncDispatch(started))
+				.andExpect(status().isNotFound())
+				.andExpect(content().contentType("application/json"))
+				.andReturn();
+		assertEquals("Report job not found or expired",
+				json.readTree(result.getResponse().getContentAsString()).get("message").asText());
+	}
+
+	private MvcResult download(String url) throws Exception {
+		MvcResult started = mvc.perform(get(url))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		return mvc.perform(asyncDispatch(started))
+				.andExpect(status().isOk())
+				.andExpect(content().contentType("application/pdf"))
+				.andExpect(header().string("Content-Disposition", startsWith("attachment")))
+				.andReturn();
+	}
+
+	static void assertPdf(MvcResult result) {
+		byte[] body = result.getResponse().getContentAsByteArray();
+		assertTrue(body.length > 4 && new String(body, 0, 4, StandardCharsets.ISO_8859_1).equals("%PDF"),
+				"response is not a PDF (" + body.length + " bytes)");
+	}
+}
@@ -0,0 +1,231 @@
+package com.bankingsim.dao;
+
+import com.bankingsim.model.Account;
+import org.h2.tools.SimpleResultSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Old (by-name, try/catch per optional column) vs new (IndexedRowMapper) account row mapping
+ * over an in-memory result of 100k rows, so only the mapper is measured, not a driver or a
+ * database.
+ *
+ * "full" selects every accounts column; "listing" leaves out the optional ones (branch, govt
+ * id, dob/age, loan), which the old mapper paid an SQLException per column per row for.
+ *
+ * Not a unit test: run {@link #main} from the IDE, or with the test classpath on the command line.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AccountRowMapperBenchmark {
+
+	private static final int ROWS = 100_000;
+
+	/** Columns every accounts projection selects (the old mapper had no try/catch around them). */
+	private static final Object[][] BASE_COLUMNS = {
+			{"account_number", Types.VARCHAR}, {"holder_name", Types.VARCHAR}, {"email", Types.VARCHAR},
+			{"balance", Types.DECIMAL}, {"account_type", Types.VARCHAR}, {"phone_number", Types.VARCHAR},
+			{"gender", Types.VARCHAR}, {"address", Types.VARCHAR}, {"pin", Types.VARCHAR},
+			{"transaction_pin", Types.VARCHAR}, {"status", Types.VARCHAR}, {"failed_attempts", Types.INTEGER},
+			{"is_locked", Types.BOOLEAN}, {"created_at", Types.TIMESTAMP}, {"last_activity", Types.TIMESTAMP},
+			{"lock_time", Types.TIMESTAMP}, {"deletion_req", Types.INTEGER}, {"is_deleted", Types.INTEGER},
+	};
+
+	private static final Object[][] OPTIONAL_COLUMNS = {
+			{"tx_failed_attempts", Types.INTEGER}, {"tx_locked", Types.BOOLEAN},
+			{"dob", Types.DATE}, {"age", Types.INTEGER},
+			{"branch_name", Types.VARCHAR}, {"ifsc_code", Types.VARCHAR},
+			{"govt_id_type", Types.VARCHAR}, {"govt_id_number", Types.VARCHAR}, {"govt_id_proof", Types.VARBINARY},
+			{"taken_loan", Types.INTEGER}, {"loan_amount", Types.DECIMAL}, {"loan_interest_rate", Types.DECIMAL},
+			{"loan_total_due", Types.DECIMAL}, {"auto_repayment_enabled", Types.INTEGER},
+			{"loan_taken_date", Types.TIMESTAMP}, {"loan_last_paid", Types.TIMESTAMP},
+			{"loan_type", Types.VARCHAR}, {"emi_plan", Types.VARCHAR}, {"loan_due_cycle", Types.VARCHAR},
+	};
+
+	@Param({"full", "listing"})
+	public String projection;
+
+	private SimpleResultSet rs;
+
+	@Setup
+	public void buildResult() {
+		List<Object[]> columns = new ArrayList<>(List.of(BASE_COLUMNS));
+		if ("full".equals(projection)) columns.addAll(List.of(OPTIONAL_COLUMNS));
+
+		rs = new SimpleResultSet();
+		rs.setAutoClose(false);
+		for (Object[] c : columns) rs.addColumn((String) c[0], (Integer) c[1], 0, 0);
+
+		Timestamp now = Timestamp.valueOf(LocalDateTime.of(2026, 1, 1, 9, 0));
+		for (int i = 0; i < ROWS; i++) {
+			Object[] row = new Object[columns.size()];
+			for (int c = 0; c < row.length; c++) row[c] = sample((String) columns.get(c)[0], i, now);
+			rs.addRow(row);
+		}
+	}
+
+	@Benchmark
+	public void byName(Blackhole bh) throws SQLException {
+		mapAll(new LegacyAccountRowMapper(), bh);
+	}
+
+	@Benchmark
+	public void indexed(Blackhole bh) throws SQLException {
+		// a fresh mapper per run, like the new AccountRowMapper() at each query site
+		mapAll(new AccountDao.AccountRowMapper(), bh);
+	}
+
+	private void mapAll(RowMapper<Account> mapper, Blackhole bh) throws SQLException {
+		rs.beforeFirst();
+		int rowNum = 0;
+		while (rs.next()) bh.consume(mapper.mapRow(rs, rowNum++));
+	}
+
+	private static Object sample(String column, int i, Timestamp now) {
+		return switch (column) {
+			case "account_number" -> String.valueOf(1_000_000_000L + i);
+			case "holder_name" -> "Holder " + i;
+			case "email" -> "holder" + i + "@example.com";
+			case "phone_number" -> String.valueOf(9_000_000_000L + i);
+			case "balance", "loan_amount", "loan_total_due" -> BigDecimal.valueOf(i % 100_000, 2);
+			case "loan_interest_rate" -> new BigDecimal("9.50");
+			case "account_type" -> i % 3 == 0 ? "CURRENT" : "SAVINGS";
+			case "gender" -> i % 2 == 0 ? "F" : "M";
+			case "address" -> i + " Main Road";
+			case "pin", "transaction_pin" -> "$2a$10$abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ01";
+			case "status" -> "ACTIVE";
+			case "failed_attempts", "tx_failed_attempts", "deletion_req", "is_deleted", "taken_loan",
+					"auto_repayment_enabled" -> i % 7 == 0 ? 1 : 0;
+			case "is_locked", "tx_locked" -> Boolean.FALSE;
+			case "created_at", "last_activity", "loan_taken_date", "loan_last_paid" -> now;
+			case "lock_time", "govt_id_proof" -> null;
+			case "dob" -> Date.valueOf(LocalDate.of(1990, 1, 1).plusDays(i % 10_000));
+			case "age" -> 20 + i % 50;
+			case "branch_name" -> "Branch " + i % 20;
+			case "ifsc_code" -> "BSIM000" + String.format("%04d", i % 20);
+			case "govt_id_type" -> "PAN";
+			case "govt_id_number" -> "ABCDE" + String.format("%04d", i % 10_000) + "F";
+			case "loan_type" -> "PERSONAL";
+			case "emi_plan" -> "12M";
+			case "loan_due_cycle" -> "MONTHLY";
+			default -> throw new IllegalArgumentException(column);
+		};
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(AccountRowMapperBenchmark.class.getSimpleName()).build()).run();
+	}
+
+	/** AccountDao's row mapper before IndexedRowMapper, kept verbatim as the baseline. */
+	private static class LegacyAccountRowMapper implements RowMapper<Account> {
+		@Override
+		public Account mapRow(ResultSet rs, int rowNum) throws SQLException {
+
+			Account a = new Account(
+					rs.getString("account_number"),
+					rs.getString("holder_name"),
+					rs.getString("email"),
+					rs.getBigDecimal("balance"),
+					rs.getString("account_type"),
+					rs.getString("phone_number"),
+					rs.getString("gender"),
+					rs.getString("address"),
+					rs.getString("pin")
+			);
+
+			a.setTransactionPin(rs.getString("transaction_pin"));
+			a.setStatus(rs.getString("status"));
+			a.setFailedAttempts(rs.getInt("failed_attempts"));
+			a.setLocked(rs.getBoolean("is_locked"));
+
+			try { a.setTxFailedAttempts(rs.getInt("tx_failed_attempts")); } catch (Exception ignored) {}
+			try { a.setTxLocked(rs.getBoolean("tx_locked")); } catch (Exception ignored) {}
+
+			if (rs.getTimestamp("created_at") != null)
+				a.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
+
+			if (rs.getTimestamp("last_activity") != null)
+				a.setLastActivity(rs.getTimestamp("last_activity").toLocalDateTime());
+
+			if (rs.getTimestamp("lock_time") != null)
+				a.setLockTime(rs.getTimestamp("lock_time").toLocalDateTime());
+
+			try {
+				if (rs.getDate("dob") != null)
+					a.setDob(rs.getDate("dob").toLocalDate());
+			} catch (Exception ignored) {}
+
+			try {
+				int age = rs.getInt("age");
+				if (!rs.wasNull()) a.setAge(age);
+			} catch (Exception ignored) {}
+
+			try { a.setBranchName(rs.getString("branch_name")); } catch (Exception ignored) {}
+			try { a.setIfscCode(rs.getString("ifsc_code")); } catch (Exception ignored) {}
+
+			try { a.setGovtIdType(rs.getString("govt_id_type")); } catch (Exception ignored) {}
+			try { a.setGovtIdNumber(rs.getString("govt_id_number")); } catch (Exception ignored) {}
+			try { a.setGovtIdProof(rs.getBytes("govt_id_proof")); } catch (Exception ignored) {}
+
+			try {
+				a.setDeletionReq(rs.getInt("deletion_req"));
+			} catch (Exception ignored) {}
+
+			try {
+				a.setIsDeleted(rs.getInt("is_deleted"));
+			} catch (Exception ignored) {}
+
+			try { a.setTakenLoan(rs.getInt("taken_loan")); } catch (Exception ignored) {}
+			try { a.setLoanAmount(rs.getBigDecimal("loan_amount")); } catch (Exception ignored) {}
+			try { a.setLoanInterestRate(rs.getBigDecimal("loan_interest_rate")); } catch (Exception ignored) {}
+			try { a.setLoanTotalDue(rs.getBigDecimal("loan_total_due")); } catch (Exception ignored) {}
+			try { a.setAutoRepaymentEnabled(rs.getInt("auto_repayment_enabled")); } catch (Exception ignored) {}
+
+			try {
+				if (rs.getTimestamp("loan_taken_date") != null)
+					a.setLoanTakenDate(rs.getTimestamp("loan_taken_date").toLocalDateTime());
+			} catch (Exception ignored) {}
+
+			try {
+				if (rs.getTimestamp("loan_last_paid") != null)
+					a.setLoanLastPaid(rs.getTimestamp("loan_last_paid").toLocalDateTime());
+			} catch (Exception ignored) {}
+
+			try { a.setLoanType(rs.getString("loan_type")); } catch (Exception ignored) {}
+			try { a.setEmiPlan(rs.getString("emi_plan")); } catch (Exception ignored) {}
+			try { a.setLoanDueCycle(rs.getString("loan_due_cycle")); } catch (Exception ignored) {}
+
+			return a;
+		}
+	}
+}
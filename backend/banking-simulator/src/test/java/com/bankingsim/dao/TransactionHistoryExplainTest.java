@@ -0,0 +1,144 @@
+package com.bankingsim.dao;
+
+import com.bankingsim.config.DatabaseInitializer;
+import com.bankingsim.config.SchemaMigrator;
+import com.bankingsim.service.AuditPartitionManager;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Guards the account history queries against plan regressions: every access to the
+ * transactions table must be an index lookup, never a full scan (EXPLAIN type = ALL).
+ *
+ * EXPLAIN output is MySQL's, so this runs against a scratch MySQL database given by
+ * -Dexplain.mysql.url (plus explain.mysql.user / explain.mysql.password), and is skipped
+ * without one. No Spring context: the schema comes from the real migrations, then enough
+ * rows are seeded that the optimizer has a reason to prefer the indexes.
+ */
+class TransactionHistoryExplainTest {
+
+	private static final String PREFIX = "99000000";
+	private static final String ACC = PREFIX + "01";
+	private static final int ACCOUNTS = 50;
+	private static final int TRANSACTIONS = 5_000;
+	private static final String[] CATEGORIES = {"General", "food", "rent", "travel", "bills"};
+
+	private static JdbcTemplate jdbcTemplate;
+
+	@BeforeAll
+	static void seed() {
+		String url = System.getProperty("explain.mysql.url");
+		Assumptions.assumeTrue(url != null && !url.isBlank(), "explain.mysql.url not set");
+
+		DriverManagerDataSource ds = new DriverManagerDataSource(url,
+				System.getProperty("explain.mysql.user", "root"), System.getProperty("explain.mysql.password", ""));
+		jdbcTemplate = new JdbcTemplate(ds);
+		new DatabaseInitializer(jdbcTemplate, new AuditPartitionManager(jdbcTemplate), new SchemaMigrator(jdbcTemplate))
+				.init();
+		cleanUp();
+
+		List<Object[]> accounts = new ArrayList<>();
+		for (int i = 1; i <= ACCOUNTS; i++) {
+			accounts.add(new Object[]{account(i), "Explain " + i});
+		}
+		jdbcTemplate.batchUpdate("INSERT INTO accounts (account_number, holder_name, pin) VALUES (?, ?, 'x')",
+				accounts);
+
+		LocalDateTime now = LocalDateTime.now();
+		List<Object[]> tx = new ArrayList<>();
+		for (int i = 0; i < TRANSACTIONS; i++) {
+			tx.add(new Object[]{
+					"explain-" + i,
+					account(1 + i % ACCOUNTS),
+					account(1 + (i * 7 + 3) % ACCOUNTS),
+					BigDecimal.valueOf(100 + i % 900),
+					CATEGORIES[i % CATEGORIES.length],
+					Timestamp.valueOf(now.minusMinutes(i * 115L))   // spread over ~400 days
+			});
+		}
+		jdbcTemplate.batchUpdate("""
+				INSERT INTO transactions (tx_id, tx_type, from_account, to_account, amount, category, created_at)
+				VALUES (?, 'TRANSFER', ?, ?, ?, ?, ?)
+				""", tx);
+		jdbcTemplate.execute("ANALYZE TABLE transactions");
+	}
+
+	@AfterAll
+	static void cleanUp() {
+		if (jdbcTemplate == null) return;
+		jdbcTemplate.update("DELETE FROM transactions WHERE tx_id LIKE 'explain-%'");
+		jdbcTemplate.update("DELETE FROM accounts WHERE account_number LIKE ?", PREFIX + "%");
+	}
+
+	private static String account(int i) {
+		return PREFIX + String.format("%02d", i);
+	}
+
+	@Test
+	void accountHistoryUsesIndexes() {
+		assertIndexed(TransactionDao.ACCOUNT_HISTORY_SQL, ACC, ACC, ACC);
+	}
+
+	@Test
+	void accountWindowUsesIndexes() {
+		Timestamp from = Timestamp.valueOf(LocalDateTime.now().minusDays(30));
+		Timestamp to = Timestamp.valueOf(LocalDateTime.now());
+		assertIndexed(TransactionDao.ACCOUNT_WINDOW_SQL, ACC, from, to, 10, ACC, from, to, ACC, 10, 10);
+	}
+
+	@Test
+	void pendingCountUsesIndexes() {
+		assertIndexed(TransactionDao.ACCOUNT_PENDING_COUNT_SQL, ACC, ACC, ACC);
+	}
+
+	@Test
+	void monthlyStatisticsUseIndexes() {
+		Timestamp from = Timestamp.valueOf(LocalDateTime.now().withDayOfMonth(1).toLocalDate().atStartOfDay());
+		Timestamp to = Timestamp.valueOf(from.toLocalDateTime().plusMonths(1));
+		assertIndexed(TransactionDao.ACCOUNT_DAILY_OUTFLOW_SQL, ACC, from, to);
+		assertIndexed(TransactionDao.ACCOUNT_DAILY_INFLOW_SQL, ACC, from, to);
+	}
+
+	@Test
+	void filteredAccountHistoryUsesIndexes() {
+		TransactionDao.Query q = TransactionDao.filterQuery(
+				LocalDateTime.now().minusDays(30), LocalDateTime.now(), "TRANSFER", null, null, ACC, null, 50, 0);
+		assertIndexed(q.sql(), q.params().toArray());
+	}
+
+	@Test
+	void keysetPagesUseIndexes() {
+		TransactionDao.Cursor after = new TransactionDao.Cursor(LocalDateTime.now().minusDays(400), "zzzz");
+		TransactionDao.Query all = TransactionDao.filterQuery(null, null, null, null, null, null, after, 101, 0);
+		assertIndexed(all.sql(), all.params().toArray());
+
+		TransactionDao.Query byCategory = TransactionDao.filterQuery(null, null, null, "food", null, null, after, 101, 0);
+		assertIndexed(byCategory.sql(), byCategory.params().toArray());
+
+		TransactionDao.Query byAccount = TransactionDao.filterQuery(null, null, null, null, null, ACC, after, 101, 0);
+		assertIndexed(byAccount.sql(), byAccount.params().toArray());
+	}
+
+	private void assertIndexed(String sql, Object... args) {
+		List<Map<String, Object>> plan = jdbcTemplate.queryForList("EXPLAIN " + sql, args);
+		for (Map<String, Object> row : plan) {
+			if (!"transactions".equals(row.get("table"))) continue;
+			assertNotEquals("ALL", row.get("type"), () -> "full scan on transactions: " + row);
+			assertNotNull(row.get("key"), () -> "no index used on transactions: " + row);
+		}
+	}
+}
@@ -0,0 +1,64 @@
+package com.bankingsim.util;
+
+import com.bankingsim.model.AuditLogEntry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** Round trips of single records, including the truncation flag and the segment size bound. */
+class AuditSegmentFormatTest {
+
+	@Test
+	void roundTripsARecordThatFits() {
+		ByteBuffer buf = encode("TX_DEPOSIT", "12345678901", "Deposit of 500.00");
+
+		assertFalse(AuditSegmentFormat.truncatedAt(buf, 0));
+		AuditLogEntry e = AuditSegmentFormat.decode(buf, 0);
+		assertEquals(7, e.getId());
+		assertEquals("TX_DEPOSIT", e.getEventType());
+		assertEquals("12345678901", e.getAccountNumber());
+		assertEquals(new BigDecimal("500.00"), e.getAmount());
+		assertEquals("Deposit of 500.00", e.getDescription());
+	}
+
+	@Test
+	void flagsAndMarksATruncatedDescription() {
+		String description = "é".repeat(200); // 400 bytes, cut on a character boundary
+		ByteBuffer buf = encode("TX_DEPOSIT", "12345678901", description);
+
+		assertTrue(AuditSegmentFormat.truncatedAt(buf, 0));
+		String decoded = AuditSegmentFormat.decode(buf, 0).getDescription();
+		assertTrue(decoded.endsWith(AuditSegmentFormat.TRUNCATED_MARK), decoded);
+		String kept = decoded.substring(0, decoded.length() - AuditSegmentFormat.TRUNCATED_MARK.length());
+		assertEquals("é".repeat(140), kept);
+		assertEquals(280, kept.getBytes(StandardCharsets.UTF_8).length);
+	}
+
+	@Test
+	void flagsATruncatedShortField() {
+		ByteBuffer buf = encode("TX_DEPOSIT", "1234567890123456789012345", "ok");
+
+		assertTrue(AuditSegmentFormat.truncatedAt(buf, 0));
+		assertEquals("12345678901234567890", AuditSegmentFormat.decode(buf, 0).getAccountNumber());
+	}
+
+	@Test
+	void lastRecordOfAFullSegmentHasAnIntOffset() {
+		long last = AuditSegmentFormat.HEADER_SIZE + (AuditSegmentFormat.MAX_RECORDS - 1) * AuditSegmentFormat.RECORD_SIZE;
+		assertTrue(last + AuditSegmentFormat.RECORD_SIZE <= Integer.MAX_VALUE);
+		assertTrue(last + 2L * AuditSegmentFormat.RECORD_SIZE > Integer.MAX_VALUE);
+	}
+
+	private static ByteBuffer encode(String event, String account, String description) {
+		ByteBuffer buf = ByteBuffer.allocate(AuditSegmentFormat.RECORD_SIZE);
+		AuditSegmentFormat.encode(buf, 7, System.currentTimeMillis(), event, account, new BigDecimal("500.00"),
+				"corr-1", "tester", description, new byte[AuditSegmentFormat.HASH_SIZE], AuditSegmentFormat.sha256());
+		return buf;
+	}
+}
@@ -0,0 +1,109 @@
+package com.bankingsim.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Probing, growth and backward-shift removal of LongIntOpenHashMap. Colliding keys are found
+ * by searching for keys with a given home slot, so the tests don't depend on hash constants.
+ */
+class LongIntOpenHashMapTest {
+
+	// new LongIntOpenHashMap(0) starts at the minimum capacity
+	private static final int CAPACITY = 16;
+	private static final int MASK = CAPACITY - 1;
+
+	@Test
+	void collidingKeysWrapAroundTheEnd() {
+		LongIntOpenHashMap map = new LongIntOpenHashMap(0);
+		assertEquals(CAPACITY, map.capacity());
+
+		// three keys homed in the last slot spill into slots 0 and 1, then a key homed in 0
+		// has to probe past them
+		List<Long> last = keysWithHome(MASK, 3, 1);
+		long first = keysWithHome(0, 1, 1).get(0);
+		for (long k : last) map.put(k, (int) (k % 1000));
+		map.put(first, 42);
+
+		for (long k : last) assertEquals((int) (k % 1000), map.get(k));
+		assertEquals(42, map.get(first));
+		assertEquals(4, map.size());
+
+		// removing the run's head shifts the wrapped entries back across the end of the array
+		assertTrue(map.remove(last.get(0)));
+		assertEquals(LongIntOpenHashMap.MISSING, map.get(last.get(0)));
+		assertEquals((int) (last.get(1) % 1000), map.get(last.get(1)));
+		assertEquals((int) (last.get(2) % 1000), map.get(last.get(2)));
+		assertEquals(42, map.get(first));
+		assertEquals(3, map.size());
+	}
+
+	@Test
+	void growsPastResizeAtAndKeepsEveryEntry() {
+		LongIntOpenHashMap map = new LongIntOpenHashMap(0);
+		int resizeAt = (int) (CAPACITY * 0.7f);
+
+		for (int i = 1; i < resizeAt; i++) map.put(10_000_000_000L + i, i);
+		assertEquals(CAPACITY, map.capacity());
+
+		map.put(10_000_000_000L + resizeAt, resizeAt);
+		assertEquals(CAPACITY * 2, map.capacity());
+
+		for (int i = resizeAt + 1; i <= 10_000; i++) map.put(10_000_000_000L + i, i);
+		assertEquals(10_000, map.size());
+		for (int i = 1; i <= 10_000; i++) assertEquals(i, map.get(10_000_000_000L + i));
+		assertEquals(LongIntOpenHashMap.MISSING, map.get(10_000_000_000L));
+
+		// overwriting doesn't add an entry
+		map.put(10_000_000_001L, -1);
+		assertEquals(-1, map.get(10_000_000_001L));
+		assertEquals(10_000, map.size());
+	}
+
+	@Test
+	void removeThenGetFindsTheShiftedRun() {
+		LongIntOpenHashMap map = new LongIntOpenHashMap(0);
+
+		// a, b, c share home slot 5 (slots 5, 6, 7); d is homed in 6 and lands in 8
+		List<Long> same = keysWithHome(5, 3, 1);
+		long d = keysWithHome(6, 1, 1).get(0);
+		long a = same.get(0), b = same.get(1), c = same.get(2);
+		map.put(a, 1);
+		map.put(b, 2);
+		map.put(c, 3);
+		map.put(d, 4);
+
+		assertTrue(map.remove(a));
+		assertEquals(LongIntOpenHashMap.MISSING, map.get(a));
+		assertEquals(2, map.get(b));
+		assertEquals(3, map.get(c));
+		assertEquals(4, map.get(d));
+
+		// the hole left by the shift must not cut the run short
+		assertTrue(map.remove(c));
+		assertEquals(2, map.get(b));
+		assertEquals(4, map.get(d));
+		assertFalse(map.remove(c));
+		assertEquals(2, map.size());
+
+		// and re-inserting lands back in the run
+		map.put(a, 10);
+		assertEquals(10, map.get(a));
+		assertEquals(3, map.size());
+	}
+
+	/** The first {@code n} keys from {@code start} upwards whose home slot (capacity 16) is {@code home}. */
+	private static List<Long> keysWithHome(int home, int n, long start) {
+		List<Long> out = new ArrayList<>();
+		for (long k = start; out.size() < n; k++) {
+			if (LongIntOpenHashMap.slot(k, MASK) == home) out.add(k);
+		}
+		return out;
+	}
+}
@@ -1,6 +1,6 @@
 import React, { useEffect, useState } from "react";
 import {
-  fetchAllAccounts,
+  fetchAccountTable,
   unlockAccount,
   getAccount,
   updateContact,
@@ -90,9 +90,9 @@ export default function AdminAccounts() {
     setLoading(true);
     setError("");
     try {
-      const res = await fetchAllAccounts();
-      setAccounts(res.data || []);
-      setFiltered(res.data || []);
+      const list = await fetchAccountTable();
+      setAccounts(list);
+      setFiltered(list);
     } catch {
       setError("Failed to load accounts.");
     }
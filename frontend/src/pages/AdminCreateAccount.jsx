@@ -4,6 +4,7 @@ import {
   createCustomerAccount,
   createAdminAccount
 } from "../services/accounts";
+import { fetchBranches } from "../services/branches";
 import { useNavigate, useLocation } from "react-router-dom";
 import { Eye, EyeOff, Copy } from "lucide-react";
 
@@ -18,13 +19,20 @@ export default function AdminCreateAccount() {
   const navigate = useNavigate();
   const location = useLocation();
 
-  // ⭐ ADDED: STATIC BRANCH MAP
-  const BRANCHES = {
-    Mumbai: "ASTN00MUM01",
-    Bangalore: "ASTN00BLR02",
-    Pune: "ASTN00PUN03",
-    Hyderabad: "ASTN00HYD04"
-  };
+  // ⭐ Branch name → IFSC, from the branch registry (open branches only)
+  const [BRANCHES, setBranches] = useState({});
+
+  useEffect(() => {
+    fetchBranches()
+      .then((res) => {
+        const map = {};
+        (res.data || [])
+          .filter((b) => b.active)
+          .forEach((b) => { map[b.name] = b.ifscCode; });
+        setBranches(map);
+      })
+      .catch((err) => console.error("Failed to load branches:", err));
+  }, []);
 
   // -------------------------------
   // Form State
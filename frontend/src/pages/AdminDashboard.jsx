@@ -1,7 +1,9 @@
 // src/pages/AdminDashboard.jsx
-import React, { useEffect } from "react";
+import React, { useEffect, useState } from "react";
 import { useNavigate } from "react-router-dom";
 import Header from "../components/Header";
+import { fetchKpis } from "../services/kpi";
+import { subscribeAdmin } from "../services/events";
 import "./AdminDashboard.css";
 
 export default function AdminDashboard() {
@@ -16,6 +18,37 @@ export default function AdminDashboard() {
   document.title = "Admin Dashboard | AstroNova Bank";
 }, []);
 
+  // ⭐ Live KPIs (in-memory counters), reloaded when the event stream reports activity
+  const [kpi, setKpi] = useState(null);
+
+  useEffect(() => {
+    let pending = null;
+    const load = () =>
+      fetchKpis()
+        .then((res) => setKpi(res.data))
+        .catch(() => setKpi(null));
+
+    // at most one reload every 2s however busy the bank is
+    const reload = () => {
+      if (!pending) pending = setTimeout(() => { pending = null; load(); }, 2000);
+    };
+
+    load();
+    // "ready" also fires after every reconnect, when pushed events may have been missed
+    const close = subscribeAdmin({ ready: load, transaction: reload, reversed: reload });
+    // other nodes' counters arrive with their next snapshot, after the event that announced them
+    const slow = setInterval(load, 30000);
+    return () => {
+      close();
+      clearTimeout(pending);
+      clearInterval(slow);
+    };
+  }, []);
+
+  const inr = (v) => `₹${Number(v || 0).toLocaleString("en-IN")}`;
+  const lastMinutes = (n) =>
+    (kpi?.perMinute || []).slice(-n).reduce((s, m) => s + m.count, 0);
+
   return (
     <div
       className="admin-wrapper"
@@ -35,6 +68,45 @@ export default function AdminDashboard() {
           </button>
         </div>
 
+        {/* Live KPIs */}
+        {kpi && (
+          <div className="kpi-strip">
+            <div className="kpi-tile">
+              <span>Transactions</span>
+              <strong>{kpi.total.count.toLocaleString("en-IN")}</strong>
+              <small>{inr(kpi.total.amount)}</small>
+            </div>
+
+            <div className="kpi-tile">
+              <span>Last 5 min</span>
+              <strong>{lastMinutes(5)}</strong>
+              <small>last hour: {lastMinutes(60)}</small>
+            </div>
+
+            {["DEPOSIT", "WITHDRAW", "TRANSFER"].map((t) => (
+              <div className="kpi-tile" key={t}>
+                <span>{t}</span>
+                <strong>{kpi.byType[t]?.count ?? 0}</strong>
+                <small>{inr(kpi.byType[t]?.amount)}</small>
+              </div>
+            ))}
+
+            <div className="kpi-tile">
+              <span>Rolled back</span>
+              <strong>{kpi.reversed.count}</strong>
+              <small>{inr(kpi.reversed.amount)}</small>
+            </div>
+
+            {kpi.byBranch.map((b) => (
+              <div className="kpi-tile" key={b.id}>
+                <span>{b.name}</span>
+                <strong>{inr(b.in.amount)}</strong>
+                <small>out {inr(b.out.amount)}</small>
+              </div>
+            ))}
+          </div>
+        )}
+
         {/* Grid Boxes */}
         <div className="admin-grid">
 
@@ -7,6 +7,7 @@ import {
   downloadTransactionsReportByBranch,
   downloadMiniStatement,
 } from "../services/reports";
+import { fetchBranches } from "../services/branches";
 import { useNavigate } from "react-router-dom";
 import "./AdminReports.css";
 import Header from "../components/Header";
@@ -14,6 +15,7 @@ import Header from "../components/Header";
 export default function AdminReports() {
   const [accNo, setAccNo] = useState("");
   const [branch, setBranch] = useState("");
+  const [branches, setBranches] = useState([]);
   const [message, setMessage] = useState("");
   const [error, setError] = useState("");
   const navigate = useNavigate();
@@ -56,6 +58,12 @@ export default function AdminReports() {
   document.title = "All Reports | AstroNova Bank";
 }, []);
 
+  useEffect(() => {
+    fetchBranches()
+      .then((res) => setBranches(res.data || []))
+      .catch((err) => console.error("Failed to load branches:", err));
+  }, []);
+
   return (
       <div
         className="reports-wrapper"
@@ -87,10 +95,9 @@ export default function AdminReports() {
             onChange={(e) => setBranch(e.target.value)}
           >
             <option value="">-- All Branches --</option>
-            <option value="Mumbai">Mumbai</option>
-            <option value="Bangalore">Bangalore</option>
-            <option value="Pune">Pune</option>
-            <option value="Hyderabad">Hyderabad</option>
+            {branches.map((b) => (
+              <option key={b.id} value={b.name}>{b.name}</option>
+            ))}
           </select>
 
           {/* ACCOUNTS REPORT */}
@@ -1,5 +1,5 @@
 import React, { useEffect, useState } from "react";
-import { fetchTransactionsFiltered, rollbackTx } from "../services/transactions";
+import { fetchTransactionsPage, rollbackTx } from "../services/transactions";
 import { useNavigate } from "react-router-dom";
 import Header from "../components/Header";
 import "./AdminRollback.css";
@@ -42,20 +42,34 @@ export default function AdminRollback() {
   const [message, setMessage] = useState("");
 
   const [search, setSearch] = useState("");
+  const [nextCursor, setNextCursor] = useState(null);
+
+  const PAGE = { type: "TRANSFER", limit: 200 };
 
   const load = async () => {
     setLoading(true);
     try {
-      const res = await fetchTransactionsFiltered({ limit: 200 });
-      const data = (res.data || []).filter((t) => t.txType === "TRANSFER");
-      setTxs(data);
-      setFiltered(data);
+      const page = await fetchTransactionsPage(PAGE);
+      setTxs(page.items);
+      setFiltered(page.items);
+      setNextCursor(page.nextCursor);
     } catch (err) {
       console.error(err);
     }
     setLoading(false);
   };
 
+  const loadMore = async () => {
+    if (!nextCursor) return;
+    try {
+      const page = await fetchTransactionsPage(PAGE, nextCursor);
+      setTxs((prev) => [...prev, ...page.items]);
+      setNextCursor(page.nextCursor);
+    } catch (err) {
+      console.error(err);
+    }
+  };
+
   useEffect(() => {
     load();
   }, []);
@@ -184,6 +198,12 @@ export default function AdminRollback() {
                 )}
               </tbody>
             </table>
+
+            {nextCursor && (
+              <button onClick={loadMore} className="gl-btn-blue">
+                Load more
+              </button>
+            )}
           </div>
         )}
       </div>
@@ -12,6 +12,7 @@ import { format } from "date-fns";
 import Header from "../components/Header";
 import "./CustomerDashboard.css";
 import { getLoanStatus } from "../services/loan";
+import { subscribeAccount } from "../services/events";
 
 export default function CustomerDashboard() {
   const navigate = useNavigate();
@@ -122,6 +123,34 @@ export default function CustomerDashboard() {
     // eslint-disable-next-line react-hooks/exhaustive-deps
   }, [accountNumber]);
 
+  // LIVE UPDATES (pushed by the server instead of reloading)
+  useEffect(() => {
+    if (!accountNumber) return;
+
+    const applyState = (s) => {
+      if (!s) return;
+      setAccount((prev) =>
+        prev ? { ...prev, balance: s.balance, status: s.status } : prev
+      );
+    };
+
+    // (re)connected: anything pushed while the stream was down is lost, so reload
+    const resync = () => {
+      getAccount(accountNumber)
+        .then((res) => applyState(res.data))
+        .catch(() => {});
+      loadLoanStatus();
+    };
+
+    return subscribeAccount(accountNumber, {
+      ready: resync,
+      balance: applyState,
+      status: applyState,
+      loan: () => loadLoanStatus(),
+    });
+    // eslint-disable-next-line react-hooks/exhaustive-deps
+  }, [accountNumber]);
+
   const logout = () => {
     localStorage.clear();
     navigate("/");
@@ -2,6 +2,7 @@
 import React, { useEffect, useState } from "react";
 import SidebarMenu from "../components/SidebarMenu";
 import Header from "../components/Header";
+import { fetchAccountStats } from "../services/accounts";
 import "./StatisticsPage.css";
 
 import { Bar, Pie, Line } from "react-chartjs-2";
@@ -32,7 +33,7 @@ export default function StatisticsPage() {
   const accountNumber = localStorage.getItem("accountNumber");
 
   const [menuOpen, setMenuOpen] = useState(false);
-  const [tx, setTx] = useState([]);
+  const [stats, setStats] = useState(null);
   const [loading, setLoading] = useState(true);
 
   const [month, setMonth] = useState(new Date().getMonth() + 1);
@@ -46,17 +47,10 @@ export default function StatisticsPage() {
   const loadData = () => {
     setLoading(true);
 
-    const lastDay = new Date(year, month, 0).getDate();
-
-    const start = `${year}-${String(month).padStart(2, "0")}-01`;
-    const end = `${year}-${String(month).padStart(2, "0")}-${String(lastDay).padStart(2, "0")}`;
-
-    fetch(
-      `http://localhost:8080/api/transactions/filter?fromDate=${start}&toDate=${end}&account=${accountNumber}`
-    )
-      .then((res) => res.json())
+    // sums are computed on the server, so the charts are exact for busy months too
+    fetchAccountStats(accountNumber, year, month)
       .then((data) => {
-        setTx(data || []);
+        setStats(data);
         setLoading(false);
       })
       .catch(() => setLoading(false));
@@ -70,47 +64,19 @@ useEffect(() => {
     return <div className="neon-loading">Loading statistics...</div>;
 
   // PROCESSING
-  const withdrawals = [];
-  const deposits = [];
-  const dateLabels = [];
-  const categories = {};
-
-  const lastDay = new Date(year, month, 0).getDate();
-
-  for (let i = 1; i <= lastDay; i++) {
-    dateLabels.push(`${String(i).padStart(2, "0")}/${String(month).padStart(2, "0")}`);
-    withdrawals.push(0);
-    deposits.push(0);
-  }
-
-  tx.forEach((t) => {
-    const date = new Date(t.timestamp || t.createdAt);
-    const day = date.getDate() - 1;
-    const amt = Number(t.amount);
+  const deposits = (stats?.deposits || []).map(Number);
+  const withdrawals = (stats?.withdrawals || []).map(Number);
+  const categories = stats?.categories || {};
+  const statsMonth = stats?.month || month;
 
-    if (
-      t.txType === "DEPOSIT" ||
-      (t.txType === "TRANSFER" && t.toAccount === accountNumber)
-    ) {
-      deposits[day] += amt;
-    }
-
-    if (
-      t.txType === "WITHDRAW" ||
-      (t.txType === "TRANSFER" && t.fromAccount === accountNumber)
-    ) {
-      withdrawals[day] += amt;
-
-      const cat = t.category || "General";
-      if (!categories[cat]) categories[cat] = 0;
-      categories[cat] += amt;
-    }
-  });
+  const dateLabels = deposits.map(
+    (_, i) => `${String(i + 1).padStart(2, "0")}/${String(statsMonth).padStart(2, "0")}`
+  );
 
-  const totalDeposits = deposits.reduce((a, b) => a + b, 0);
-  const totalWithdrawals = withdrawals.reduce((a, b) => a + b, 0);
-  const peakSpend = Math.max(...withdrawals);
-  const monthlyNet = totalDeposits - totalWithdrawals;
+  const totalDeposits = Number(stats?.totalDeposits || 0);
+  const totalWithdrawals = Number(stats?.totalWithdrawals || 0);
+  const peakSpend = Number(stats?.peakSpend || 0);
+  const monthlyNet = Number(stats?.net || 0);
 
   // ------------------------------------------------------
   //   SHARED OPTIONS (date overflow fix here)
@@ -212,7 +178,7 @@ useEffect(() => {
                 labels: Object.keys(categories),
                 datasets: [
                   {
-                    data: Object.values(categories),
+                    data: Object.values(categories).map(Number),
                     backgroundColor: [
                       "#FF6384", "#36A2EB", "#FFCE56",
                       "#4CAF50", "#9C27B0", "#FFC107",
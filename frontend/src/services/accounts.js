@@ -22,6 +22,43 @@ export const createAdminAccount = (payload) =>
  */
 export const fetchAllAccounts = () => api.get("/accounts");
 
+/**
+ * ⭐ MONTHLY STATISTICS — daily series, categories, peak spend and net (computed server-side)
+ */
+export const fetchAccountStats = (accNo, year, month) =>
+  api
+    .get(`/accounts/${accNo}/stats`, { params: { year, month } })
+    .then((res) => res.data);
+
+/**
+ * ⭐ ADMIN LIST — one page of a projected listing ({ items, nextCursor })
+ */
+export const fetchListPage = (listing, params = {}, cursor = null) =>
+  api
+    .get(`/list/${listing}`, { params: { ...params, ...(cursor ? { cursor } : {}) } })
+    .then((res) => res.data);
+
+/**
+ * ⭐ ADMIN ACCOUNT TABLE — only the columns the table shows, page by page
+ */
+export const ACCOUNT_TABLE_FIELDS =
+  "accountNumber,ifscCode,holderName,balance,accountType,email,phoneNumber,locked";
+
+export const fetchAccountTable = async (params = {}) => {
+  const all = [];
+  let cursor = null;
+  do {
+    const page = await fetchListPage(
+      "accounts",
+      { fields: ACCOUNT_TABLE_FIELDS, limit: 1000, ...params },
+      cursor
+    );
+    all.push(...(page.items || []));
+    cursor = page.nextCursor;
+  } while (cursor);
+  return all;
+};
+
 /**
  * ⭐ GET LOCKED ACCOUNTS
  */
@@ -0,0 +1,7 @@
+// src/services/branches.js
+import { api } from "./api";
+
+/**
+ * ⭐ GET ALL BRANCHES (id, name, ifscCode, active)
+ */
+export const fetchBranches = () => api.get("/branches");
@@ -0,0 +1,34 @@
+// src/services/events.js
+// Server-Sent Events streams. The browser reconnects on its own after a drop or an eviction,
+// and every (re)connect starts with a "ready" event: events sent while disconnected are lost,
+// so pages pass a `ready` handler that reloads their state.
+
+const BASE = "http://localhost:8080/api/events";
+
+const open = (url, handlers) => {
+  const source = new EventSource(url, { withCredentials: true });
+
+  Object.entries(handlers).forEach(([name, handler]) => {
+    source.addEventListener(name, (e) => {
+      try {
+        handler(JSON.parse(e.data));
+      } catch {
+        handler(null);
+      }
+    });
+  });
+
+  return () => source.close();
+};
+
+/**
+ * ⭐ ACCOUNT STREAM — ready, balance, transaction, reversed, status, loan
+ * Returns a function that closes the stream.
+ */
+export const subscribeAccount = (accountNumber, handlers) =>
+  open(`${BASE}/account/${encodeURIComponent(accountNumber)}`, handlers);
+
+/**
+ * ⭐ ADMIN STREAM — ready, then the events of every account
+ */
+export const subscribeAdmin = (handlers) => open(`${BASE}/admin`, handlers);
@@ -0,0 +1,7 @@
+// src/services/kpi.js
+import { api } from "./api";
+
+/**
+ * ⭐ LIVE KPIs (admin) — totals, byType, byBranch, reversed, perMinute
+ */
+export const fetchKpis = () => api.get("/kpi");
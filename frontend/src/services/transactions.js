@@ -30,6 +30,32 @@ export function fetchTransactionsFiltered(params = {}) {
   return api.get("/api/transactions/filter", { params: qp });
 }
 
+/**
+ * Fetch one page of filtered transactions (newest first).
+ * Pass the previous page's nextCursor to continue; nextCursor is null on the last page.
+ */
+export async function fetchTransactionsPage(params = {}, cursor = null) {
+  const res = await fetchTransactionsFiltered({ ...params, cursor });
+  return {
+    items: res.data || [],
+    nextCursor: res.headers["x-next-cursor"] || null,
+  };
+}
+
+/**
+ * Fetch every filtered transaction by following the cursor page by page.
+ */
+export async function fetchAllTransactionsFiltered(params = {}) {
+  const all = [];
+  let cursor = null;
+  do {
+    const page = await fetchTransactionsPage(params, cursor);
+    all.push(...page.items);
+    cursor = page.nextCursor;
+  } while (cursor);
+  return all;
+}
+
 /**
  * Rollback transaction
  */